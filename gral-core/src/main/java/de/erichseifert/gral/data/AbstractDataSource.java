@@ -33,6 +33,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.erichseifert.gral.data.statistics.Statistics;
 
@@ -57,6 +58,68 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 	private transient Set<DataListener> dataListeners;
 	/** Statistical description of the data values. */
 	private transient Statistics statistics;
+	/** Number of notifications about changed data. */
+	private transient AtomicLong version = new AtomicLong();
+	/** View that was returned by {@link #snapshot()} last. */
+	private transient volatile DataSource snapshot;
+
+	/**
+	 * View of a data source that reads the current values of the data source
+	 * and reports the version at the time the view was created.
+	 */
+	private static final class DataView extends AbstractDataSource {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = -6418532958743610734L;
+
+		/** Data source whose values are read. */
+		private final DataSource source;
+		/** Version of the data source when the view was created. */
+		private final long version;
+
+		/**
+		 * Initializes a new view.
+		 * @param source Data source whose values are read.
+		 * @param version Version of the data source.
+		 */
+		public DataView(DataSource source, long version) {
+			super(source.getName(), source.getColumnTypes());
+			this.source = source;
+			this.version = version;
+		}
+
+		public Comparable<?> get(int col, int row) {
+			return source.get(col, row);
+		}
+
+		@Override
+		public double getDouble(int col, int row) {
+			return source.getDouble(col, row);
+		}
+
+		@Override
+		public void copyColumn(int col, double[] dst, int fromRow, int len) {
+			source.copyColumn(col, dst, fromRow, len);
+		}
+
+		@Override
+		public boolean isNumericDense(int col) {
+			return source.isNumericDense(col);
+		}
+
+		public int getRowCount() {
+			return source.getRowCount();
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+
+		@Override
+		public DataSource snapshot() {
+			return this;
+		}
+	}
 
 	/**
 	 * Iterator that returns each row of the DataSource.
@@ -147,6 +210,58 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 		dataListeners = new LinkedHashSet<>();
 	}
 
+	/**
+	 * Returns the value with the specified row and column index as a
+	 * primitive {@code double}. Empty cells and cells that don't contain
+	 * numbers are returned as <i>NaN</i>.
+	 * This implementation converts the result of {@link #get(int, int)}.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	public double getDouble(int col, int row) {
+		return toDouble(get(col, row));
+	}
+
+	/**
+	 * Copies a range of values of the specified column into an array of
+	 * primitive {@code double} values.
+	 * This implementation calls {@link #getDouble(int, int)} for every row.
+	 * @param col index of the column to copy
+	 * @param dst array that receives the values starting at index {@code 0}
+	 * @param fromRow index of the first row to copy
+	 * @param len number of rows to copy
+	 */
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		for (int i = 0; i < len; i++) {
+			dst[i] = getDouble(col, fromRow + i);
+		}
+	}
+
+	/**
+	 * Returns whether the values of the specified column are stored as
+	 * primitive numbers. This implementation returns {@code false}.
+	 * @param col index of the column to test
+	 * @return {@code true} if the column can be read without boxing,
+	 *         otherwise {@code false}.
+	 */
+	public boolean isNumericDense(int col) {
+		return false;
+	}
+
+	/**
+	 * Converts a cell value to a primitive {@code double}. Values that aren't
+	 * numbers are converted to <i>NaN</i>.
+	 * @param value Cell value.
+	 * @return Numeric value, or <i>NaN</i>.
+	 */
+	protected static double toDouble(Comparable<?> value) {
+		if (!(value instanceof Number)) {
+			return Double.NaN;
+		}
+		return ((Number) value).doubleValue();
+	}
+
 	/**
 	 * Retrieves a object instance that contains various statistical
 	 * information on the current data source.
@@ -213,6 +328,7 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 	 * @param events Event objects describing all values that have been added.
 	 */
 	protected void notifyDataAdded(DataChangeEvent... events) {
+		version.incrementAndGet();
 		List<DataListener> listeners = new LinkedList<>(dataListeners);
 		for (DataListener dataListener : listeners) {
 			dataListener.dataAdded(this, events);
@@ -224,6 +340,7 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 	 * @param events Event objects describing all values that have been removed.
 	 */
 	protected void notifyDataRemoved(DataChangeEvent... events) {
+		version.incrementAndGet();
 		List<DataListener> listeners = new LinkedList<>(dataListeners);
 		for (DataListener dataListener : listeners) {
 			dataListener.dataRemoved(this, events);
@@ -235,6 +352,7 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 	 * @param events Event objects describing all values that have changed.
 	 */
 	protected void notifyDataUpdated(DataChangeEvent... events) {
+		version.incrementAndGet();
 		List<DataListener> listeners = new LinkedList<>(dataListeners);
 		for (DataListener dataListener : listeners) {
 			dataListener.dataUpdated(this, events);
@@ -267,6 +385,37 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 		return new Record(getRow(row).toArray(null));
 	}
 
+	/**
+	 * Returns a number that identifies the current state of the data.
+	 * This implementation counts the notifications of registered listeners.
+	 * Data sources that are modified by several threads should override it
+	 * and increase the version together with the data.
+	 * @return Version of the data.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Returns a view of the current data.
+	 * This implementation doesn't copy the data: the view reads the values
+	 * of this data source, so it is only consistent as long as the data
+	 * isn't changed. The view reports the version of the data at the time it
+	 * was created and is returned again until the version changes. Data
+	 * sources that are modified while they are read should override this
+	 * method and return an immutable view, e.g. a {@link DataSnapshot}.
+	 * @return View of the data.
+	 */
+	public DataSource snapshot() {
+		long version = getVersion();
+		DataSource snapshot = this.snapshot;
+		if (snapshot == null || snapshot.getVersion() != version) {
+			snapshot = new DataView(this, version);
+			this.snapshot = snapshot;
+		}
+		return snapshot;
+	}
+
 	// Allows DataTable to reuse the name property
 	protected void setName(String name) {
 		this.name = name;
@@ -335,6 +484,7 @@ public abstract class AbstractDataSource implements DataSource, Serializable {
 
 		// Handle transient fields
 		dataListeners = new HashSet<>();
+		version = new AtomicLong();
 		// Statistics can be omitted. It's created using a lazy getter.
 	}
 }
@@ -37,6 +37,11 @@ public class DataChangeEvent extends EventObject {
 	private final int col;
 	/** Row of the value that has changed. */
 	private final int row;
+	/** Number of consecutive rows that have changed. */
+	private final int rowCount;
+	/** Number of rows by which the existing rows have moved towards the
+	first row. */
+	private final int shift;
 	/** Value before changes have been applied. */
 	private final Comparable<?> valOld;
 	/** Changed value. */
@@ -54,9 +59,58 @@ public class DataChangeEvent extends EventObject {
 	 */
 	public <T> DataChangeEvent(DataSource source, int col, int row,
 			Comparable<T> valOld, Comparable<T> valNew) {
+		this(source, col, row, 1, valOld, valNew);
+	}
+
+	/**
+	 * Initializes a new event that describes a change of a range of
+	 * consecutive rows in a column. The event doesn't contain any values.
+	 * @param source Data source.
+	 * @param col Columns of the values.
+	 * @param row First row of the range.
+	 * @param rowCount Number of rows in the range.
+	 */
+	public DataChangeEvent(DataSource source, int col, int row, int rowCount) {
+		this(source, col, row, rowCount, null, null);
+	}
+
+	/**
+	 * Initializes a new event with data source, position of the data values,
+	 * number of rows, and the values.
+	 * @param <T> Data type of the cell that has changed.
+	 * @param source Data source.
+	 * @param col Columns of the value.
+	 * @param row First row of the value.
+	 * @param rowCount Number of rows that have changed.
+	 * @param valOld Old value.
+	 * @param valNew New value.
+	 */
+	public <T> DataChangeEvent(DataSource source, int col, int row, int rowCount,
+			Comparable<T> valOld, Comparable<T> valNew) {
+		this(source, col, row, rowCount, 0, valOld, valNew);
+	}
+
+	/**
+	 * Initializes a new event with data source, position of the data values,
+	 * number of rows, the number of rows the data has been shifted, and the
+	 * values.
+	 * @param <T> Data type of the cell that has changed.
+	 * @param source Data source.
+	 * @param col Columns of the value.
+	 * @param row First row of the value.
+	 * @param rowCount Number of rows that have changed.
+	 * @param shift Number of rows by which the previously existing rows
+	 *        have moved towards the first row.
+	 * @param valOld Old value.
+	 * @param valNew New value.
+	 */
+	public <T> DataChangeEvent(DataSource source, int col, int row, int rowCount,
+			int shift, Comparable<T> valOld, Comparable<T> valNew) {
 		super(source);
 		this.col = col;
 		this.row = row;
+		this.rowCount = rowCount;
+		this.shift = shift;
 		this.valOld = valOld;
 		this.valNew = valNew;
 	}
@@ -77,6 +131,26 @@ public class DataChangeEvent extends EventObject {
 		return row;
 	}
 
+	/**
+	 * Returns the number of consecutive rows starting at {@link #getRow()}
+	 * that were changed. Events for single values return {@code 1}.
+	 * @return Number of changed rows.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the number of rows by which the rows that existed before the
+	 * change have moved towards the first row. The row with index
+	 * {@code i} after the change was the row with index {@code i + shift}
+	 * before. Events that don't move any rows return {@code 0}.
+	 * @return Number of rows the data has been shifted.
+	 */
+	public int getShift() {
+		return shift;
+	}
+
 	/**
 	 * Returns the old value before it has changed.
 	 * @return Value before the change.
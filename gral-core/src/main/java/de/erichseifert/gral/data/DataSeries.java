@@ -102,11 +102,57 @@ public class DataSeries extends AbstractDataSource implements DataListener {
 		}
 	}
 
+	@Override
+	public double getDouble(int col, int row) {
+		try {
+			int dataCol = cols.get(col);
+			return data.getDouble(dataCol, row);
+		} catch (IndexOutOfBoundsException e) {
+			return Double.NaN;
+		}
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		data.copyColumn(cols.get(col), dst, fromRow, len);
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		if (col < 0 || col >= cols.size()) {
+			return false;
+		}
+		return data.isNumericDense(cols.get(col));
+	}
+
 	@Override
 	public int getColumnCount() {
 		return cols.size();
 	}
 
+	/**
+	 * Returns the version of the underlying data source.
+	 * @return Version of the data.
+	 */
+	@Override
+	public long getVersion() {
+		return data.getVersion();
+	}
+
+	/**
+	 * Returns a data series with the same columns of a snapshot of the
+	 * underlying data source.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		int[] colIndexes = new int[cols.size()];
+		for (int col = 0; col < colIndexes.length; col++) {
+			colIndexes[col] = cols.get(col);
+		}
+		return new DataSeries(getName(), data.snapshot(), colIndexes);
+	}
+
 	/**
 	 * Returns the number of rows of the data source.
 	 * @return number of rows in the data source.
@@ -124,7 +170,7 @@ public class DataSeries extends AbstractDataSource implements DataListener {
 	 *        have been added.
 	 */
 	public void dataAdded(DataSource source, DataChangeEvent... events) {
-		notifyDataAdded(events);
+		notifyDataAdded(takeEvents(events));
 	}
 
 	/**
@@ -136,7 +182,7 @@ public class DataSeries extends AbstractDataSource implements DataListener {
 	 *        have been updated.
 	 */
 	public void dataUpdated(DataSource source, DataChangeEvent... events) {
-		notifyDataUpdated(events);
+		notifyDataUpdated(takeEvents(events));
 	}
 
 	/**
@@ -148,7 +194,34 @@ public class DataSeries extends AbstractDataSource implements DataListener {
 	 *        have been removed.
 	 */
 	public void dataRemoved(DataSource source, DataChangeEvent... events) {
-		notifyDataRemoved(events);
+		notifyDataRemoved(takeEvents(events));
+	}
+
+	/**
+	 * Changes the source and the columns of the specified event objects to
+	 * make them look as if they originated from this data series. Events of
+	 * columns that are not part of this series are dropped.
+	 * @param events Original events.
+	 * @return Changed events.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private DataChangeEvent[] takeEvents(DataChangeEvent[] events) {
+		if (events == null || events.length == 0) {
+			return events;
+		}
+		List<DataChangeEvent> eventsTx = new ArrayList<>(events.length);
+		for (DataChangeEvent event : events) {
+			for (int col = 0; col < cols.size(); col++) {
+				if (cols.get(col) != event.getCol()) {
+					continue;
+				}
+				Comparable valOld = event.getOld();
+				Comparable valNew = event.getNew();
+				eventsTx.add(new DataChangeEvent(this, col, event.getRow(),
+					event.getRowCount(), event.getShift(), valOld, valNew));
+			}
+		}
+		return eventsTx.toArray(new DataChangeEvent[eventsTx.size()]);
 	}
 
 	@Override
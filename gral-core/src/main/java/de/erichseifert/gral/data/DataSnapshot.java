@@ -0,0 +1,114 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Immutable view of the data of another data source at a certain point in
+ * time. Snapshots are created by {@link DataSource#snapshot()} and are used
+ * to read data consistently, e.g. while a plot is drawn, even if the
+ * original data source is changed by other threads at the same time.</p>
+ *
+ * <p>A snapshot has the version of its data source at the time it was
+ * created. It never notifies any listeners.</p>
+ *
+ * @see DataSource#snapshot()
+ * @see DataSource#getVersion()
+ */
+public final class DataSnapshot extends AbstractDataSource {
+	/** Version id for serialization. */
+	private static final long serialVersionUID = -2591416730547036834L;
+
+	/** Rows of the snapshot. Must not be changed. */
+	private final List<Record> records;
+	/** Version of the original data. */
+	private final long version;
+
+	/**
+	 * Initializes a new snapshot by copying all rows of the specified
+	 * data source.
+	 * @param source Data source to be copied.
+	 */
+	public DataSnapshot(DataSource source) {
+		this(source, copyRecords(source), source.getVersion());
+	}
+
+	/**
+	 * Initializes a new snapshot with the specified rows. The list must not
+	 * be changed afterwards.
+	 * @param source Data source the rows belong to.
+	 * @param records Rows of the snapshot.
+	 * @param version Version of the data.
+	 */
+	DataSnapshot(DataSource source, List<Record> records, long version) {
+		super(source.getName(), source.getColumnTypes());
+		this.records = Collections.unmodifiableList(records);
+		this.version = version;
+	}
+
+	private static List<Record> copyRecords(DataSource source) {
+		int rowCount = source.getRowCount();
+		List<Record> records = new ArrayList<>(rowCount);
+		for (int row = 0; row < rowCount; row++) {
+			records.add(source.getRecord(row));
+		}
+		return records;
+	}
+
+	/**
+	 * Returns the row with the specified index.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	public Comparable<?> get(int col, int row) {
+		if (row >= records.size()) {
+			return null;
+		}
+		Record record = records.get(row);
+		if (record == null) {
+			return null;
+		}
+		return record.get(col);
+	}
+
+	/**
+	 * Returns the number of rows of the data source.
+	 * @return number of rows in the data source.
+	 */
+	public int getRowCount() {
+		return records.size();
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public DataSource snapshot() {
+		return this;
+	}
+}
@@ -59,6 +59,38 @@ public interface DataSource extends Iterable<Comparable<?>> {
 	 */
 	Comparable<?> get(int col, int row);
 
+	/**
+	 * Returns the value with the specified row and column index as a
+	 * primitive {@code double}. Empty cells and cells that don't contain
+	 * numbers are returned as <i>NaN</i>.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	double getDouble(int col, int row);
+
+	/**
+	 * Copies a range of values of the specified column into an array of
+	 * primitive {@code double} values. Values are converted as in
+	 * {@link #getDouble(int, int)}.
+	 * @param col index of the column to copy
+	 * @param dst array that receives the values starting at index {@code 0}
+	 * @param fromRow index of the first row to copy
+	 * @param len number of rows to copy
+	 */
+	void copyColumn(int col, double[] dst, int fromRow, int len);
+
+	/**
+	 * Returns whether the values of the specified column are stored as
+	 * primitive numbers, i.e. whether {@link #getDouble(int, int)} and
+	 * {@link #copyColumn(int, double[], int, int)} are cheaper than
+	 * {@link #get(int, int)}. This is only a hint for optimization.
+	 * @param col index of the column to test
+	 * @return {@code true} if the column can be read without boxing,
+	 *         otherwise {@code false}.
+	 */
+	boolean isNumericDense(int col);
+
 	/**
 	 * Retrieves a object instance that contains various statistical
 	 * information on the current data source.
@@ -108,4 +140,24 @@ public interface DataSource extends Iterable<Comparable<?>> {
 	void removeDataListener(DataListener dataListener);
 
 	Record getRecord(int row);
+
+	/**
+	 * Returns a number that identifies the current state of the data. The
+	 * number increases monotonically with every change of the data, so it
+	 * can be used to decide whether cached results are still valid.
+	 * @return Version of the data.
+	 */
+	long getVersion();
+
+	/**
+	 * Returns an immutable view of the current data that isn't affected by
+	 * later changes. The view has the same version as the data source at the
+	 * time it was created. Snapshots allow consistent reading while the data
+	 * source is modified by other threads. Data sources that can't create
+	 * such views cheaply may return a view that reads their current values,
+	 * which is only consistent as long as its version matches the version of
+	 * the data source.
+	 * @return Immutable view of the data.
+	 */
+	DataSource snapshot();
 }
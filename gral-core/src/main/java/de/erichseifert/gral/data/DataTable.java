@@ -21,18 +21,34 @@
  */
 package de.erichseifert.gral.data;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
 
 import de.erichseifert.gral.data.comparators.DataComparator;
 
 /**
- * An in-memory, random access implementation of a mutable data source using
- * arrays to store its values.
+ * <p>An in-memory, random access implementation of a mutable data source using
+ * arrays to store its values.</p>
+ *
+ * <p>The table can be read by several threads while it is modified. Rows
+ * are stored in chunks of arrays, and every modification publishes a new,
+ * immutable view of the rows. Reading methods like {@link #get(int, int)} or
+ * {@link #getRowCount()} don't take any locks and always see a consistent
+ * state, e.g. all rows up to the published row count. Modifications are
+ * serialized, so painting a plot never blocks a thread that appends
+ * data.</p>
  *
  * @see DataSource
  * @see MutableDataSource
@@ -41,8 +57,153 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = 535236774042654449L;
 
-	/** All values stored as rows of column arrays. */
-	private final List<Record> rows;
+	/** Number of bits of a row index that address a row inside a chunk. */
+	private static final int CHUNK_BITS = 10;
+	/** Number of rows that are stored in a chunk. */
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	/** Mask for the part of a row index that addresses a row inside a chunk. */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	/** Serialized fields, kept compatible with the former list of rows. */
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("rows", List.class) //$NON-NLS-1$
+	};
+
+	/** All values stored as rows of column arrays. Replaced on every
+	modification. */
+	private transient volatile Rows rows;
+	/** Number of nested calls to {@link #beginUpdate()}. */
+	private transient int updateDepth;
+	/** Index of the first row that was added during the current update. */
+	private transient int pendingRow;
+	/** Number of rows that were added during the current update. */
+	private transient int pendingRowCount;
+
+	/**
+	 * Immutable view of the rows of a table. The records are stored in
+	 * chunks, starting at a certain offset. A new view may share its chunks
+	 * with older views, but it only writes to array elements that aren't
+	 * part of any published view. Every modification creates a view with a
+	 * higher version.
+	 */
+	private static final class Rows extends AbstractList<Record>
+			implements RandomAccess, Serializable {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = -6069457622738532426L;
+		/** View without any rows. */
+		private static final Rows EMPTY = new Rows(new Record[0][], 0, 0, 0L);
+
+		/** Chunks of records. */
+		private final Record[][] chunks;
+		/** Index of the first row in the chunks. */
+		private final int offset;
+		/** Number of rows. */
+		private final int size;
+		/** Version of the data. */
+		private final long version;
+
+		/**
+		 * Initializes a new view.
+		 * @param chunks Chunks of records.
+		 * @param offset Index of the first row in the chunks.
+		 * @param size Number of rows.
+		 * @param version Version of the data.
+		 */
+		public Rows(Record[][] chunks, int offset, int size, long version) {
+			this.chunks = chunks;
+			this.offset = offset;
+			this.size = size;
+			this.version = version;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Returns the record of the specified row.
+		 * @param row Row index.
+		 * @return Record.
+		 */
+		@Override
+		public Record get(int row) {
+			int index = offset + row;
+			return chunks[index >> CHUNK_BITS][index & CHUNK_MASK];
+		}
+
+		/**
+		 * Returns a view with the specified records appended.
+		 * @param records Records to be appended.
+		 * @return New view.
+		 */
+		public Rows append(List<Record> records) {
+			Record[][] chunksNew = chunks;
+			int end = offset + size + records.size();
+			int chunkCount = (end + CHUNK_MASK) >> CHUNK_BITS;
+			if (chunkCount > chunks.length) {
+				chunksNew = Arrays.copyOf(chunks, Math.max(chunkCount, 2*chunks.length));
+			}
+			int index = offset + size;
+			for (Record record : records) {
+				int chunk = index >> CHUNK_BITS;
+				if (chunksNew[chunk] == null) {
+					chunksNew[chunk] = new Record[CHUNK_SIZE];
+				}
+				chunksNew[chunk][index & CHUNK_MASK] = record;
+				index++;
+			}
+			return new Rows(chunksNew, offset, size + records.size(), version + 1);
+		}
+
+		/**
+		 * Returns a view without the first row. Chunks that don't contain
+		 * any rows anymore are dropped.
+		 * @return New view.
+		 */
+		public Rows removeFirst() {
+			int offsetNew = offset + 1;
+			int chunksDropped = offsetNew >> CHUNK_BITS;
+			if (chunksDropped == 0) {
+				return new Rows(chunks, offsetNew, size - 1, version + 1);
+			}
+			Record[][] chunksNew = Arrays.copyOfRange(chunks, chunksDropped, chunks.length);
+			return new Rows(chunksNew, offsetNew & CHUNK_MASK, size - 1, version + 1);
+		}
+
+		/**
+		 * Returns a view that only contains the specified number of rows.
+		 * The chunk containing the last row is copied, so that appending to
+		 * the new view doesn't overwrite the rows of this view.
+		 * @param sizeNew Number of rows to keep.
+		 * @return New view.
+		 */
+		public Rows truncate(int sizeNew) {
+			if (sizeNew == 0) {
+				return new Rows(EMPTY.chunks, 0, 0, version + 1);
+			}
+			int lastChunk = (offset + sizeNew - 1) >> CHUNK_BITS;
+			Record[][] chunksNew = new Record[chunks.length][];
+			System.arraycopy(chunks, 0, chunksNew, 0, lastChunk);
+			chunksNew[lastChunk] = chunks[lastChunk].clone();
+			return new Rows(chunksNew, offset, sizeNew, version + 1);
+		}
+
+		/**
+		 * Returns a view with the record of a row replaced.
+		 * @param row Row index.
+		 * @param record New record.
+		 * @return New view.
+		 */
+		public Rows replace(int row, Record record) {
+			int index = offset + row;
+			int chunk = index >> CHUNK_BITS;
+			Record[][] chunksNew = chunks.clone();
+			chunksNew[chunk] = chunks[chunk].clone();
+			chunksNew[chunk][index & CHUNK_MASK] = record;
+			return new Rows(chunksNew, offset, size, version + 1);
+		}
+
+	}
 
 	/**
 	 * Comparator class for comparing two records using a
@@ -82,7 +243,7 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	}
 
 	public DataTable() {
-		rows = new ArrayList<>();
+		rows = Rows.EMPTY;
 	}
 
 	/**
@@ -92,7 +253,7 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 */
 	public DataTable(Class<? extends Comparable<?>>... types) {
 		super(types);
-		rows = new ArrayList<>();
+		rows = Rows.EMPTY;
 	}
 
 	/**
@@ -123,20 +284,22 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 
 	public DataTable(Column... columns) {
 		super(columns);
-		rows = new ArrayList<>();
+		rows = Rows.EMPTY;
 
 		int maxRowCount = 0;
 		for (Column column : columns) {
 			maxRowCount = Math.max(maxRowCount, column.size());
 		}
 
+		List<Record> records = new ArrayList<>(maxRowCount);
 		for (int rowIndex = 0; rowIndex < maxRowCount; rowIndex++) {
 			List<Comparable<?>> rowData = new ArrayList<>(1 + columns.length);
 			for (Column column : columns) {
 				rowData.add(column.get(rowIndex));
 			}
-			rows.add(new Record(rowData));
+			records.add(new Record(rowData));
 		}
+		rows = rows.append(records);
 	}
 
 	/**
@@ -181,19 +344,165 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 
 		// Add data to row
 		Record row = new Record(values);
-		events = new DataChangeEvent[row.size()];
-		for (int columnIndex = 0; columnIndex < row.size(); columnIndex++) {
-			Comparable<?> value = values.get(columnIndex);
-			events[columnIndex] = new DataChangeEvent(this, columnIndex, rows.size(), null, value);
+		int rowIndex;
+		boolean deferred;
+		synchronized (this) {
+			rows = rows.append(Collections.singletonList(row));
+			rowIndex = rows.size - 1;
+			deferred = deferAddition(rowIndex, 1);
 		}
+		if (!deferred) {
+			events = new DataChangeEvent[row.size()];
+			for (int columnIndex = 0; columnIndex < row.size(); columnIndex++) {
+				Comparable<?> value = row.get(columnIndex);
+				events[columnIndex] = new DataChangeEvent(this, columnIndex, rowIndex, null, value);
+			}
+			notifyDataAdded(events);
+		}
+		return rowIndex;
+	}
 
-		int rowIndex;
-		synchronized (rows) {
-			rows.add(row);
-			rowIndex = rows.size();
+	/**
+	 * Adds several rows to the table at once. The types of all values are
+	 * checked before any row is added, so either all or none of the rows are
+	 * added. If the types of the table columns and the values do not match,
+	 * an {@code IllegalArgumentException} is thrown.
+	 * Registered listeners are notified only once with a single event per
+	 * column that covers the range of added rows.
+	 * @param rowsToAdd Values of the rows to be added.
+	 * @return Index of the first row that has been added.
+	 * @see DataChangeEvent#getRowCount()
+	 */
+	public int addAll(Collection<? extends List<? extends Comparable<?>>> rowsToAdd) {
+		int colCount = getColumnCount();
+		for (List<? extends Comparable<?>> values : rowsToAdd) {
+			if (values.size() != colCount) {
+				throw new IllegalArgumentException(MessageFormat.format(
+						"Wrong number of columns! Expected {0,number,integer}, got {1,number,integer}.", //$NON-NLS-1$
+						colCount, values.size()));
+			}
+		}
+
+		// Check data types column by column
+		Class<? extends Comparable<?>>[] types = getColumnTypes();
+		for (int colIndex = 0; colIndex < colCount; colIndex++) {
+			Class<? extends Comparable<?>> type = types[colIndex];
+			for (List<? extends Comparable<?>> values : rowsToAdd) {
+				Comparable<?> value = values.get(colIndex);
+				if ((value != null) && (value.getClass() != type)
+						&& !type.isAssignableFrom(value.getClass())) {
+					throw new IllegalArgumentException(MessageFormat.format(
+							"Wrong column type! Expected {0}, got {1}.", //$NON-NLS-1$
+							type, value.getClass()));
+				}
+			}
+		}
+
+		List<Record> records = new ArrayList<>(rowsToAdd.size());
+		for (List<? extends Comparable<?>> values : rowsToAdd) {
+			records.add(new Record(values));
+		}
+
+		int firstRow;
+		boolean deferred;
+		synchronized (this) {
+			firstRow = rows.size;
+			rows = rows.append(records);
+			deferred = deferAddition(firstRow, records.size());
+		}
+		if (!deferred && !records.isEmpty()) {
+			notifyDataAdded(createRangeEvents(firstRow, records.size()));
+		}
+		return firstRow;
+	}
+
+	/**
+	 * Starts a batch of additions. Until the matching call of
+	 * {@link #endUpdate()}, added rows don't notify the registered listeners.
+	 * Instead, a single event per column covering all added rows is sent
+	 * when the outermost batch ends. Other modifications send the events for
+	 * the pending rows before they are applied. Calls can be nested.
+	 */
+	public void beginUpdate() {
+		synchronized (this) {
+			if (updateDepth == 0) {
+				pendingRow = rows.size;
+				pendingRowCount = 0;
+			}
+			updateDepth++;
 		}
-		notifyDataAdded(events);
-		return rowIndex - 1;
+	}
+
+	/**
+	 * Ends a batch of additions that was started with {@link #beginUpdate()}.
+	 * If this ends the outermost batch, registered listeners are notified of
+	 * all rows that have been added in the meantime.
+	 */
+	public void endUpdate() {
+		DataChangeEvent[] events = null;
+		synchronized (this) {
+			if (updateDepth == 0) {
+				throw new IllegalStateException("No update has been started."); //$NON-NLS-1$
+			}
+			updateDepth--;
+			if (updateDepth == 0 && pendingRowCount > 0) {
+				events = createRangeEvents(pendingRow, pendingRowCount);
+				pendingRowCount = 0;
+			}
+		}
+		if (events != null) {
+			notifyDataAdded(events);
+		}
+	}
+
+	/**
+	 * Records rows that have been added during a batch update.
+	 * @param row Index of the first row that has been added.
+	 * @param count Number of rows that have been added.
+	 * @return {@code true} if the notification was deferred,
+	 *         {@code false} if listeners must be notified immediately.
+	 */
+	private boolean deferAddition(int row, int count) {
+		if (updateDepth == 0) {
+			return false;
+		}
+		if (pendingRowCount == 0) {
+			pendingRow = row;
+		}
+		pendingRowCount += count;
+		return true;
+	}
+
+	/**
+	 * Notifies listeners of rows that have been added during the current
+	 * batch update. This is necessary before rows are modified or removed to
+	 * keep the row indexes of the events valid.
+	 */
+	private void flushPendingAdditions() {
+		DataChangeEvent[] events = null;
+		synchronized (this) {
+			if (pendingRowCount > 0) {
+				events = createRangeEvents(pendingRow, pendingRowCount);
+				pendingRowCount = 0;
+			}
+		}
+		if (events != null) {
+			notifyDataAdded(events);
+		}
+	}
+
+	/**
+	 * Creates one event per column for the specified range of rows.
+	 * @param row Index of the first row.
+	 * @param count Number of rows.
+	 * @return Events describing the range.
+	 */
+	private DataChangeEvent[] createRangeEvents(int row, int count) {
+		DataChangeEvent[] events = new DataChangeEvent[getColumnCount()];
+		for (int col = 0; col < events.length; col++) {
+			events[col] = new DataChangeEvent(this, col, row, count);
+		}
+		return events;
 	}
 
 	/**
@@ -220,7 +529,20 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 			throw new IllegalArgumentException("Invalid element count in Record to be added. " +
 					"Expected: "+getColumnCount()+", got: "+row.size());
 		}
-		rows.add(row);
+		int rowIndex;
+		boolean deferred;
+		synchronized (this) {
+			rows = rows.append(Collections.singletonList(row));
+			rowIndex = rows.size - 1;
+			deferred = deferAddition(rowIndex, 1);
+		}
+		if (!deferred) {
+			DataChangeEvent[] events = new DataChangeEvent[row.size()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, rowIndex, null, row.get(col));
+			}
+			notifyDataAdded(events);
+		}
 	}
 
 	/**
@@ -228,14 +550,25 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * @param row Index of the row to remove
 	 */
 	public void remove(int row) {
+		flushPendingAdditions();
 		DataChangeEvent[] events;
-		synchronized (rows) {
-			Row r = new Row(this, row);
+		synchronized (this) {
+			Rows rowsOld = rows;
+			checkRowIndex(rowsOld, row);
+			Record r = rowsOld.get(row);
 			events = new DataChangeEvent[getColumnCount()];
 			for (int col = 0; col < events.length; col++) {
 				events[col] = new DataChangeEvent(this, col, row, r.get(col), null);
 			}
-			rows.remove(row);
+			if (row == 0) {
+				rows = rowsOld.removeFirst();
+			} else {
+				List<Record> tail = new ArrayList<>(rowsOld.size - row - 1);
+				for (int rowIndex = row + 1; rowIndex < rowsOld.size; rowIndex++) {
+					tail.add(rowsOld.get(rowIndex));
+				}
+				rows = rowsOld.truncate(row).append(tail);
+			}
 		}
 		notifyDataRemoved(events);
 	}
@@ -244,15 +577,18 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * Removes the last row from the table.
 	 */
 	public void removeLast() {
+		flushPendingAdditions();
 		DataChangeEvent[] events;
 		synchronized (this) {
-			int row = getRowCount() - 1;
-			Row r = new Row(this, row);
+			Rows rowsOld = rows;
+			int row = rowsOld.size - 1;
+			checkRowIndex(rowsOld, row);
+			Record r = rowsOld.get(row);
 			events = new DataChangeEvent[getColumnCount()];
 			for (int col = 0; col < events.length; col++) {
 				events[col] = new DataChangeEvent(this, col, row, r.get(col), null);
 			}
-			rows.remove(row);
+			rows = rowsOld.truncate(row);
 		}
 		notifyDataRemoved(events);
 	}
@@ -261,18 +597,20 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * Deletes all rows this table contains.
 	 */
 	public void clear() {
+		flushPendingAdditions();
 		DataChangeEvent[] events;
 		synchronized (this) {
+			Rows rowsOld = rows;
 			int cols = getColumnCount();
-			int rows = getRowCount();
-			events = new DataChangeEvent[cols*rows];
-			for (int row = 0; row < rows; row++) {
+			events = new DataChangeEvent[cols*rowsOld.size];
+			for (int row = 0; row < rowsOld.size; row++) {
+				Record r = rowsOld.get(row);
 				for (int col = 0; col < cols; col++) {
 					events[col + row*cols] = new DataChangeEvent(
-						this, col, row, get(col, row), null);
+						this, col, row, r.get(col), null);
 				}
 			}
-			this.rows.clear();
+			rows = rowsOld.truncate(0);
 		}
 		notifyDataRemoved(events);
 	}
@@ -284,19 +622,45 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * @return the specified value of the data cell
 	 */
 	public Comparable<?> get(int col, int row) {
-		Record r;
-		synchronized (rows) {
-			if (row >= rows.size()) {
-				return null;
-			}
-			r = rows.get(row);
+		Rows rowsCurrent = rows;
+		if (row >= rowsCurrent.size) {
+			return null;
 		}
+		checkRowIndex(rowsCurrent, row);
+		Record r = rowsCurrent.get(row);
 		if (r == null) {
 			return null;
 		}
 		return r.get(col);
 	}
 
+	@Override
+	public double getDouble(int col, int row) {
+		Rows rowsCurrent = rows;
+		if (row >= rowsCurrent.size) {
+			return Double.NaN;
+		}
+		checkRowIndex(rowsCurrent, row);
+		Record r = rowsCurrent.get(row);
+		if (r == null) {
+			return Double.NaN;
+		}
+		return toDouble(r.<Comparable<?>>get(col));
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		Rows rowsCurrent = rows;
+		if (len > 0) {
+			checkRowIndex(rowsCurrent, fromRow);
+			checkRowIndex(rowsCurrent, fromRow + len - 1);
+		}
+		for (int i = 0; i < len; i++) {
+			Record r = rowsCurrent.get(fromRow + i);
+			dst[i] = (r != null) ? toDouble(r.<Comparable<?>>get(col)) : Double.NaN;
+		}
+	}
+
 	/**
 	 * Sets the value of a cell specified by its column and row indexes.
 	 * @param <T> Data type of the cell.
@@ -307,9 +671,11 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> Comparable<T> set(int col, int row, Comparable<T> value) {
+		flushPendingAdditions();
 		Comparable<T> old;
 		DataChangeEvent event = null;
 		synchronized (this) {
+			checkRowIndex(rows, row);
 			old = (Comparable<T>) get(col, row);
 			if (old == null || !old.equals(value)) {
 				Record record = rows.get(row);
@@ -319,7 +685,7 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 				}
 				values.set(col, value);
 				Record updatedRecord = new Record(values);
-				rows.set(row, updatedRecord);
+				rows = rows.replace(row, updatedRecord);
 				event = new DataChangeEvent(this, col, row, old, value);
 			}
 		}
@@ -334,7 +700,7 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * @return number of rows in the data source.
 	 */
 	public int getRowCount() {
-		return rows.size();
+		return rows.size;
 	}
 
 	/**
@@ -343,14 +709,87 @@ public class DataTable extends AbstractDataSource implements MutableDataSource {
 	 * @param comparators comparators used for sorting
 	 */
 	public void sort(final DataComparator... comparators) {
-		synchronized (rows) {
+		flushPendingAdditions();
+		DataChangeEvent[] events = null;
+		synchronized (this) {
 			RecordComparator comparator = new RecordComparator(comparators);
-			Collections.sort(rows, comparator);
+			List<Record> records = new ArrayList<>(rows);
+			Collections.sort(records, comparator);
+			rows = rows.truncate(0).append(records);
+			if (!records.isEmpty()) {
+				events = createRangeEvents(0, records.size());
+			}
+		}
+		if (events != null) {
+			notifyDataUpdated(events);
 		}
 	}
 
+	/**
+	 * Returns a number that identifies the current state of the data. The
+	 * version is increased by every modification of the table.
+	 * @return Version of the data.
+	 */
+	@Override
+	public long getVersion() {
+		return rows.version;
+	}
+
+	/**
+	 * Returns an immutable view of the current data. The rows are shared
+	 * with the table, so creating a snapshot takes constant time.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		Rows rowsCurrent = rows;
+		return new DataSnapshot(this, rowsCurrent, rowsCurrent.version);
+	}
+
 	@Override
 	public void setName(String name) {
 		super.setName(name);
 	}
+
+	/**
+	 * Makes sure that a row index is valid.
+	 * @param rows Rows the index refers to.
+	 * @param row Row index.
+	 */
+	private static void checkRowIndex(Rows rows, int row) {
+		if (row < 0 || row >= rows.size) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row index {0,number,integer} out of range.", row)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Custom serialization method that stores the rows as a list.
+	 * @param out Output stream.
+	 * @throws IOException if there is an error while writing data to the
+	 *         output stream.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("rows", new ArrayList<>(rows)); //$NON-NLS-1$
+		out.writeFields();
+	}
+
+	/**
+	 * Custom deserialization method.
+	 * @param in Input stream.
+	 * @throws ClassNotFoundException if a serialized class doesn't exist anymore.
+	 * @throws IOException if there is an error while reading data from the
+	 *         input stream.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in)
+			throws ClassNotFoundException, IOException {
+		ObjectInputStream.GetField fields = in.readFields();
+		List<Record> records = (List<Record>) fields.get("rows", null); //$NON-NLS-1$
+		rows = Rows.EMPTY;
+		if (records != null) {
+			rows = rows.append(records);
+		}
+	}
 }
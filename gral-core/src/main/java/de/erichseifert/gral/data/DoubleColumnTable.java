@@ -0,0 +1,698 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import de.erichseifert.gral.data.comparators.DataComparator;
+
+/**
+ * <p>An in-memory, random access implementation of a mutable data source
+ * that stores each column in a growable array of primitive values instead of
+ * boxed objects. Floating point columns ({@code Double}, {@code Float}) are
+ * stored as {@code double[]}, integral columns ({@code Long},
+ * {@code Integer}, {@code Short}, {@code Byte}) as {@code long[]}.</p>
+ *
+ * <p>The table behaves like {@link DataTable}, including the events sent to
+ * registered {@code DataListener}s, but it only accepts numeric columns.
+ * Values are boxed to the declared column type on access.</p>
+ *
+ * @see DataSource
+ * @see MutableDataSource
+ * @see DataTable
+ */
+public class DoubleColumnTable extends AbstractDataSource implements MutableDataSource {
+	/** Version id for serialization. */
+	private static final long serialVersionUID = -2938520480311373856L;
+
+	/** Initial number of rows that can be stored without growing. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Values of floating point columns, or {@code null} for integral columns. */
+	private double[][] doubleColumns;
+	/** Values of integral columns, or {@code null} for floating point columns. */
+	private long[][] longColumns;
+	/** Flags for cells containing {@code null}. Created lazily per column. */
+	private BitSet[] nulls;
+	/** Data types of the columns, used for boxing values on access. */
+	private final Class<? extends Comparable<?>>[] columnTypes;
+	/** Number of rows. */
+	private int rowCount;
+	/** Version of the data, increased by every modification. */
+	private transient volatile long version;
+	/** Decides whether the column arrays are shared with a snapshot. */
+	private transient boolean shared;
+
+	/**
+	 * Comparator class for comparing two rows using a specified set of
+	 * {@code DataComparator}s.
+	 */
+	private static final class RecordComparator implements Comparator<Record> {
+		/** Rules to use for sorting. */
+		private final DataComparator[] comparators;
+
+		/**
+		 * Initializes a new instance with a specified set of
+		 * {@code DataComparator}s.
+		 * @param comparators Set of {@code DataComparator}s to use as rules.
+		 */
+		public RecordComparator(DataComparator[] comparators) {
+			this.comparators = comparators;
+		}
+
+		/**
+		 * Compares two records using the rules defined by the
+		 * {@code DataComparator}s of this instance.
+		 * @param record1 First record to compare.
+		 * @param record2 Second record to compare.
+		 * @return A negative number if first argument is less than the second,
+		 *         zero if first argument is equal to the second,
+		 *         or a positive integer as the greater than the second.
+		 */
+		public int compare(Record record1, Record record2) {
+			for (DataComparator comparator : comparators) {
+				int result = comparator.compare(record1, record2);
+				if (result != 0) {
+					return result;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Immutable view of a table whose column arrays are shared with the
+	 * table that created it.
+	 */
+	static final class ColumnSnapshot extends AbstractDataSource {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 7125994322153937826L;
+
+		/** Table with the values, which is never modified. */
+		private final DataSource data;
+
+		/**
+		 * Initializes a new snapshot.
+		 * @param data Table with the values, which must not be modified.
+		 */
+		public ColumnSnapshot(DataSource data) {
+			super(data.getName(), data.getColumnTypes());
+			this.data = data;
+		}
+
+		public Comparable<?> get(int col, int row) {
+			return data.get(col, row);
+		}
+
+		@Override
+		public double getDouble(int col, int row) {
+			return data.getDouble(col, row);
+		}
+
+		@Override
+		public void copyColumn(int col, double[] dst, int fromRow, int len) {
+			data.copyColumn(col, dst, fromRow, len);
+		}
+
+		@Override
+		public boolean isNumericDense(int col) {
+			return true;
+		}
+
+		public int getRowCount() {
+			return data.getRowCount();
+		}
+
+		@Override
+		public long getVersion() {
+			return data.getVersion();
+		}
+
+		@Override
+		public DataSource snapshot() {
+			return this;
+		}
+	}
+
+	/**
+	 * Initializes a new instance with the specified number of columns and
+	 * column types. All types must be numeric, otherwise an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param types Type for each column
+	 */
+	public DoubleColumnTable(Class<? extends Comparable<?>>... types) {
+		super(types);
+		columnTypes = Arrays.copyOf(types, types.length);
+		doubleColumns = new double[types.length][];
+		longColumns = new long[types.length][];
+		nulls = new BitSet[types.length];
+		for (int col = 0; col < types.length; col++) {
+			if (isFloatingPoint(types[col])) {
+				doubleColumns[col] = new double[DEFAULT_CAPACITY];
+			} else if (isIntegral(types[col])) {
+				longColumns[col] = new long[DEFAULT_CAPACITY];
+			} else {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Column {0,number,integer} of type {1} isn''t numeric and cannot be stored.", //$NON-NLS-1$
+					col, types[col]));
+			}
+		}
+	}
+
+	/**
+	 * Initializes a new instance with the specified number of columns and
+	 * a single column type.
+	 * @param cols Number of columns
+	 * @param type Data type for all columns
+	 */
+	public DoubleColumnTable(int cols, Class<? extends Comparable<?>> type) {
+		this(createTypes(cols, type));
+	}
+
+	/**
+	 * Initializes a new instance with the column types, and data of another
+	 * data source.
+	 * @param source Data source to clone.
+	 */
+	public DoubleColumnTable(DataSource source) {
+		this(source.getColumnTypes());
+		ensureCapacity(source.getRowCount());
+		for (int rowIndex = 0; rowIndex < source.getRowCount(); rowIndex++) {
+			for (int col = 0; col < getColumnCount(); col++) {
+				store(col, rowIndex, source.get(col, rowIndex));
+			}
+			rowCount++;
+		}
+	}
+
+	/**
+	 * Initializes a new instance that shares the values of another table.
+	 * Only the flags for {@code null} values are copied.
+	 * @param table Table whose values are shared.
+	 * @param version Version of the data.
+	 */
+	private DoubleColumnTable(DoubleColumnTable table, long version) {
+		super(table.getName(), table.getColumnTypes());
+		columnTypes = table.columnTypes;
+		doubleColumns = table.doubleColumns.clone();
+		longColumns = table.longColumns.clone();
+		nulls = new BitSet[table.nulls.length];
+		for (int col = 0; col < nulls.length; col++) {
+			if (table.nulls[col] != null) {
+				nulls[col] = (BitSet) table.nulls[col].clone();
+			}
+		}
+		rowCount = table.rowCount;
+		this.version = version;
+	}
+
+	@SuppressWarnings("unchecked")
+	static Class<? extends Comparable<?>>[] createTypes(int cols, Class<? extends Comparable<?>> type) {
+		Class<? extends Comparable<?>>[] types = new Class[cols];
+		Arrays.fill(types, type);
+		return types;
+	}
+
+	static boolean isFloatingPoint(Class<?> type) {
+		return Double.class.equals(type) || Float.class.equals(type);
+	}
+
+	static boolean isIntegral(Class<?> type) {
+		return Long.class.equals(type) || Integer.class.equals(type) ||
+			Short.class.equals(type) || Byte.class.equals(type);
+	}
+
+	/**
+	 * Adds a row with the specified comparable values to the table.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param values values to be added as a row
+	 * @return Index of the row that has been added.
+	 */
+	public int add(Comparable<?>... values) {
+		return add(Arrays.asList(values));
+	}
+
+	/**
+	 * Adds a row with the specified container's elements to the table.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param values values to be added as a row
+	 * @return Index of the row that has been added.
+	 */
+	public int add(List<? extends Comparable<?>> values) {
+		if (values.size() != getColumnCount()) {
+			throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong number of columns! Expected {0,number,integer}, got {1,number,integer}.", //$NON-NLS-1$
+					getColumnCount(), values.size()));
+		}
+
+		// Check row data types
+		Class<? extends Comparable<?>>[] types = columnTypes;
+		for (int colIndex = 0; colIndex < values.size(); colIndex++) {
+			Comparable<?> value = values.get(colIndex);
+			if ((value != null)
+					&& !(types[colIndex].isAssignableFrom(value.getClass()))) {
+				throw new IllegalArgumentException(MessageFormat.format(
+						"Wrong column type! Expected {0}, got {1}.", //$NON-NLS-1$
+						types[colIndex], value.getClass()));
+			}
+		}
+
+		DataChangeEvent[] events = new DataChangeEvent[values.size()];
+		int rowIndex;
+		synchronized (this) {
+			rowIndex = rowCount;
+			ensureCapacity(rowIndex + 1);
+			for (int col = 0; col < values.size(); col++) {
+				Comparable<?> value = values.get(col);
+				store(col, rowIndex, value);
+				events[col] = new DataChangeEvent(this, col, rowIndex, null, value);
+			}
+			rowCount++;
+			version++;
+		}
+		notifyDataAdded(events);
+		return rowIndex;
+	}
+
+	/**
+	 * Adds the specified row to the table.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param row Row to be added
+	 * @return Index of the row that has been added.
+	 */
+	public int add(Row row) {
+		List<Comparable<?>> values;
+		synchronized (row) {
+			values = new ArrayList<>(row.size());
+			for (Comparable<?> value : row) {
+				values.add(value);
+			}
+		}
+		return add(values);
+	}
+
+	/**
+	 * Removes a specified row from the table.
+	 * @param row Index of the row to remove
+	 */
+	public void remove(int row) {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			checkRowIndex(row);
+			unshare();
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, row, get(col, row), null);
+			}
+			int tail = rowCount - row - 1;
+			for (int col = 0; col < getColumnCount(); col++) {
+				if (doubleColumns[col] != null) {
+					System.arraycopy(doubleColumns[col], row + 1, doubleColumns[col], row, tail);
+				} else {
+					System.arraycopy(longColumns[col], row + 1, longColumns[col], row, tail);
+				}
+				BitSet columnNulls = nulls[col];
+				if (columnNulls != null) {
+					for (int rowIndex = row; rowIndex < rowCount - 1; rowIndex++) {
+						columnNulls.set(rowIndex, columnNulls.get(rowIndex + 1));
+					}
+					columnNulls.clear(rowCount - 1);
+				}
+			}
+			rowCount--;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Removes the last row from the table.
+	 */
+	public void removeLast() {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			int row = rowCount - 1;
+			checkRowIndex(row);
+			unshare();
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, row, get(col, row), null);
+				if (nulls[col] != null) {
+					nulls[col].clear(row);
+				}
+			}
+			rowCount--;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Deletes all rows this table contains.
+	 */
+	public void clear() {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			int cols = getColumnCount();
+			int rows = rowCount;
+			events = new DataChangeEvent[cols*rows];
+			for (int row = 0; row < rows; row++) {
+				for (int col = 0; col < cols; col++) {
+					events[col + row*cols] = new DataChangeEvent(
+						this, col, row, get(col, row), null);
+				}
+			}
+			unshare();
+			Arrays.fill(nulls, null);
+			rowCount = 0;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Returns the row with the specified index.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	public Comparable<?> get(int col, int row) {
+		if (row >= rowCount) {
+			return null;
+		}
+		if (nulls[col] != null && nulls[col].get(row)) {
+			return null;
+		}
+		Class<? extends Comparable<?>> type = getColumnType(col);
+		if (doubleColumns[col] != null) {
+			double value = doubleColumns[col][row];
+			if (Float.class.equals(type)) {
+				return (float) value;
+			}
+			return value;
+		}
+		long value = longColumns[col][row];
+		if (Integer.class.equals(type)) {
+			return (int) value;
+		} else if (Short.class.equals(type)) {
+			return (short) value;
+		} else if (Byte.class.equals(type)) {
+			return (byte) value;
+		}
+		return value;
+	}
+
+	@Override
+	public double getDouble(int col, int row) {
+		if (row >= rowCount) {
+			return Double.NaN;
+		}
+		if (nulls[col] != null && nulls[col].get(row)) {
+			return Double.NaN;
+		}
+		if (doubleColumns[col] != null) {
+			return doubleColumns[col][row];
+		}
+		return longColumns[col][row];
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		synchronized (this) {
+			if (len > 0) {
+				checkRowIndex(fromRow);
+				checkRowIndex(fromRow + len - 1);
+			}
+			if (doubleColumns[col] != null) {
+				System.arraycopy(doubleColumns[col], fromRow, dst, 0, len);
+			} else {
+				long[] values = longColumns[col];
+				for (int i = 0; i < len; i++) {
+					dst[i] = values[fromRow + i];
+				}
+			}
+			BitSet columnNulls = nulls[col];
+			if (columnNulls != null) {
+				for (int row = columnNulls.nextSetBit(fromRow); row >= 0 && row < fromRow + len;
+						row = columnNulls.nextSetBit(row + 1)) {
+					dst[row - fromRow] = Double.NaN;
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		return true;
+	}
+
+	/**
+	 * Sets the value of a cell specified by its column and row indexes.
+	 * @param <T> Data type of the cell.
+	 * @param col Column of the cell to change.
+	 * @param row Row of the cell to change.
+	 * @param value New value to be set.
+	 * @return Old value that was replaced.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Comparable<T> set(int col, int row, Comparable<T> value) {
+		Comparable<T> old;
+		DataChangeEvent event = null;
+		synchronized (this) {
+			if (col < 0 || col >= getColumnCount()) {
+				throw new IndexOutOfBoundsException(MessageFormat.format(
+					"Column index {0,number,integer} out of range.", col)); //$NON-NLS-1$
+			}
+			checkRowIndex(row);
+			if (value != null && !(value instanceof Number)) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong column type! Expected {0}, got {1}.", //$NON-NLS-1$
+					getColumnType(col), value.getClass()));
+			}
+			if (value != null && !isStorable(getColumnType(col), (Number) value)) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong column type! Expected {0}, got value {1} that cannot be stored without loss.", //$NON-NLS-1$
+					getColumnType(col), value));
+			}
+			old = (Comparable<T>) get(col, row);
+			if (old == null || !old.equals(value)) {
+				unshare();
+				store(col, row, value);
+				version++;
+				event = new DataChangeEvent(this, col, row, old, value);
+			}
+		}
+		if (event != null) {
+			notifyDataUpdated(event);
+		}
+		return old;
+	}
+
+	/**
+	 * Returns the number of rows of the data source.
+	 * @return number of rows in the data source.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Sorts the table rows with the specified DataComparators.
+	 * The row values are compared in the way the comparators are specified.
+	 * @param comparators comparators used for sorting
+	 */
+	public void sort(final DataComparator... comparators) {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			List<Record> records = new ArrayList<>(rowCount);
+			for (int row = 0; row < rowCount; row++) {
+				records.add(getRecord(row));
+			}
+			Collections.sort(records, new RecordComparator(comparators));
+			unshare();
+			Arrays.fill(nulls, null);
+			for (int row = 0; row < rowCount; row++) {
+				Record record = records.get(row);
+				for (int col = 0; col < getColumnCount(); col++) {
+					store(col, row, record.get(col));
+				}
+			}
+			version++;
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, 0, rowCount);
+			}
+		}
+		if (rowCount > 0) {
+			notifyDataUpdated(events);
+		}
+	}
+
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an immutable view of the current data. The view shares the
+	 * column arrays with this table until the table modifies existing rows,
+	 * which copies the arrays first. Appending rows doesn't require a copy.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		synchronized (this) {
+			shared = true;
+			return new ColumnSnapshot(new DoubleColumnTable(this, version));
+		}
+	}
+
+	/**
+	 * Copies the column arrays if they are shared with a snapshot. This must
+	 * be called before existing values are changed or rows are removed.
+	 */
+	private void unshare() {
+		if (!shared) {
+			return;
+		}
+		for (int col = 0; col < getColumnCount(); col++) {
+			if (doubleColumns[col] != null) {
+				doubleColumns[col] = doubleColumns[col].clone();
+			} else {
+				longColumns[col] = longColumns[col].clone();
+			}
+		}
+		shared = false;
+	}
+
+	/**
+	 * Returns the declared type of the specified column.
+	 * @param col Column index.
+	 * @return Column type.
+	 */
+	private Class<? extends Comparable<?>> getColumnType(int col) {
+		return columnTypes[col];
+	}
+
+	/**
+	 * Makes sure the column arrays can hold at least the specified number of
+	 * rows. The arrays grow by at least 50%.
+	 * @param capacity Minimal number of rows.
+	 */
+	private void ensureCapacity(int capacity) {
+		for (int col = 0; col < getColumnCount(); col++) {
+			if (doubleColumns[col] != null) {
+				if (doubleColumns[col].length < capacity) {
+					doubleColumns[col] = Arrays.copyOf(doubleColumns[col],
+						grow(doubleColumns[col].length, capacity));
+				}
+			} else if (longColumns[col].length < capacity) {
+				longColumns[col] = Arrays.copyOf(longColumns[col],
+					grow(longColumns[col].length, capacity));
+			}
+		}
+	}
+
+	private static int grow(int length, int capacity) {
+		return Math.max(capacity, length + (length >> 1) + 1);
+	}
+
+	/**
+	 * Writes a value into the primitive storage without any type checks or
+	 * notifications.
+	 * @param col Column index.
+	 * @param row Row index.
+	 * @param value Value to be stored, or {@code null}.
+	 */
+	private void store(int col, int row, Comparable<?> value) {
+		if (value == null) {
+			if (nulls[col] == null) {
+				nulls[col] = new BitSet();
+			}
+			nulls[col].set(row);
+			return;
+		}
+		if (nulls[col] != null) {
+			nulls[col].clear(row);
+		}
+		Number number = (Number) value;
+		if (doubleColumns[col] != null) {
+			doubleColumns[col][row] = number.doubleValue();
+		} else {
+			longColumns[col][row] = number.longValue();
+		}
+	}
+
+	/**
+	 * Returns whether a number can be stored in a column of the specified
+	 * type without losing information. Values of integral columns must be
+	 * integral and within the range of the column type.
+	 * @param type Column type.
+	 * @param number Number to be checked.
+	 * @return {@code true} if the number can be stored.
+	 */
+	static boolean isStorable(Class<?> type, Number number) {
+		if (!isIntegral(type)) {
+			return true;
+		}
+		if (!isIntegral(number.getClass())) {
+			double value = number.doubleValue();
+			// Also rejects NaN, infinite values, and values beyond long
+			if (value != Math.rint(value) || value < -0x1p63 || value >= 0x1p63) {
+				return false;
+			}
+		}
+		long value = number.longValue();
+		if (Integer.class.equals(type)) {
+			return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+		} else if (Short.class.equals(type)) {
+			return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+		} else if (Byte.class.equals(type)) {
+			return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+		}
+		return true;
+	}
+
+	private void checkRowIndex(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row index {0,number,integer} out of range.", row)); //$NON-NLS-1$
+		}
+	}
+}
@@ -93,6 +93,52 @@ public class EnumeratedData extends AbstractDataSource
 		return original.get(col - 1, row);
 	}
 
+	@Override
+	public double getDouble(int col, int row) {
+		if (col < 1) {
+			return row*steps + offset;
+		}
+		return original.getDouble(col - 1, row);
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		if (col < 1) {
+			for (int i = 0; i < len; i++) {
+				dst[i] = (fromRow + i)*steps + offset;
+			}
+		} else {
+			original.copyColumn(col - 1, dst, fromRow, len);
+		}
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		if (col < 1) {
+			return true;
+		}
+		return original.isNumericDense(col - 1);
+	}
+
+	/**
+	 * Returns the version of the underlying data source.
+	 * @return Version of the data.
+	 */
+	@Override
+	public long getVersion() {
+		return original.getVersion();
+	}
+
+	/**
+	 * Returns enumerated data based on a snapshot of the original data
+	 * source.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		return new EnumeratedData(original.snapshot(), offset, steps);
+	}
+
 	/**
 	 * Returns the number of rows of the data source.
 	 * @return number of rows in the data source.
@@ -168,7 +214,7 @@ public class EnumeratedData extends AbstractDataSource
 			Comparable valOld = event.getOld();
 			Comparable valNew = event.getNew();
 			eventsTx[i] = new DataChangeEvent(
-				this, col, row, valOld, valNew);
+				this, col, row, event.getRowCount(), event.getShift(), valOld, valNew);
 		}
 		return eventsTx;
 	}
@@ -0,0 +1,786 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import de.erichseifert.gral.data.comparators.DataComparator;
+
+/**
+ * <p>A mutable data source with a fixed capacity that stores its numeric
+ * columns in circular arrays of primitive values. When a row is added to a
+ * full table the oldest row is evicted, which makes the table suitable for
+ * sliding windows of live data. Adding and evicting rows takes constant
+ * time.</p>
+ *
+ * <p>The circular arrays are split into chunks of a fixed size.
+ * {@link #snapshot() Snapshots} share the chunks with the table, and only
+ * the chunk that contains a value is copied before the value is overwritten.
+ * This way, a snapshot of a full table doesn't lead to a copy of the whole
+ * buffer when the next row evicts the oldest one.</p>
+ *
+ * <p>As long as the table isn't full, adding rows notifies listeners with
+ * {@link DataListener#dataAdded(DataSource, DataChangeEvent...)} like
+ * {@link DataTable}. If rows are evicted, listeners are notified only once
+ * by {@link DataListener#dataUpdated(DataSource, DataChangeEvent...)}
+ * with a single event per column that covers all rows and reports the
+ * number of evicted rows as {@link DataChangeEvent#getShift() shift}.</p>
+ *
+ * <p>Like {@link DoubleColumnTable}, the table only accepts numeric
+ * columns and values are boxed to the declared column type on access.</p>
+ *
+ * @see DataSource
+ * @see MutableDataSource
+ * @see DoubleColumnTable
+ */
+public class RingBufferDataTable extends AbstractDataSource implements MutableDataSource {
+	/** Version id for serialization. */
+	private static final long serialVersionUID = 6313720406395738839L;
+
+	/** Number of bits of an array index that address a value in a chunk. */
+	private static final int CHUNK_BITS = 10;
+	/** Maximal number of values in a chunk. */
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	/** Mask for the bits of an array index that address a value in a chunk. */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/** Maximal number of rows. */
+	private final int capacity;
+	/** Chunks of the values of floating point columns, or {@code null} for
+	integral columns. */
+	private final double[][][] doubleColumns;
+	/** Chunks of the values of integral columns, or {@code null} for floating
+	point columns. */
+	private final long[][][] longColumns;
+	/** Flags for cells containing {@code null}. Created lazily per column
+	and chunk. */
+	private final BitSet[][] nulls;
+	/** Data types of the columns, used for boxing values on access. */
+	private final Class<? extends Comparable<?>>[] columnTypes;
+	/** Array index of the first row. */
+	private int head;
+	/** Number of rows. */
+	private int rowCount;
+	/** Version of the data, increased by every modification. */
+	private transient volatile long version;
+	/** Decides for each chunk whether it is shared with a snapshot, or
+	{@code null} if no snapshot has been created. */
+	private transient boolean[] sharedChunks;
+
+	/**
+	 * Comparator class for comparing two rows using a specified set of
+	 * {@code DataComparator}s.
+	 */
+	private static final class RecordComparator implements Comparator<Record> {
+		/** Rules to use for sorting. */
+		private final DataComparator[] comparators;
+
+		/**
+		 * Initializes a new instance with a specified set of
+		 * {@code DataComparator}s.
+		 * @param comparators Set of {@code DataComparator}s to use as rules.
+		 */
+		public RecordComparator(DataComparator[] comparators) {
+			this.comparators = comparators;
+		}
+
+		/**
+		 * Compares two records using the rules defined by the
+		 * {@code DataComparator}s of this instance.
+		 * @param record1 First record to compare.
+		 * @param record2 Second record to compare.
+		 * @return A negative number if first argument is less than the second,
+		 *         zero if first argument is equal to the second,
+		 *         or a positive integer as the greater than the second.
+		 */
+		public int compare(Record record1, Record record2) {
+			for (DataComparator comparator : comparators) {
+				int result = comparator.compare(record1, record2);
+				if (result != 0) {
+					return result;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Initializes a new instance with the specified capacity and column
+	 * types. All types must be numeric, otherwise an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param capacity Maximal number of rows.
+	 * @param types Type for each column
+	 */
+	public RingBufferDataTable(int capacity, Class<? extends Comparable<?>>... types) {
+		super(types);
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(MessageFormat.format(
+				"Invalid capacity: {0,number,integer}", capacity)); //$NON-NLS-1$
+		}
+		this.capacity = capacity;
+		columnTypes = Arrays.copyOf(types, types.length);
+		int chunkCount = getChunkCount();
+		doubleColumns = new double[types.length][][];
+		longColumns = new long[types.length][][];
+		nulls = new BitSet[types.length][chunkCount];
+		for (int col = 0; col < types.length; col++) {
+			if (DoubleColumnTable.isFloatingPoint(types[col])) {
+				doubleColumns[col] = new double[chunkCount][];
+				for (int chunk = 0; chunk < chunkCount; chunk++) {
+					doubleColumns[col][chunk] = new double[getChunkLength(chunk)];
+				}
+			} else if (DoubleColumnTable.isIntegral(types[col])) {
+				longColumns[col] = new long[chunkCount][];
+				for (int chunk = 0; chunk < chunkCount; chunk++) {
+					longColumns[col][chunk] = new long[getChunkLength(chunk)];
+				}
+			} else {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Column {0,number,integer} of type {1} isn''t numeric and cannot be stored.", //$NON-NLS-1$
+					col, types[col]));
+			}
+		}
+	}
+
+	/**
+	 * Initializes a new instance that shares the chunks of another table.
+	 * Only the arrays that refer to the chunks are copied.
+	 * @param table Table whose chunks are shared.
+	 * @param version Version of the data.
+	 */
+	private RingBufferDataTable(RingBufferDataTable table, long version) {
+		super(table.getName(), table.getColumnTypes());
+		capacity = table.capacity;
+		columnTypes = table.columnTypes;
+		int cols = columnTypes.length;
+		doubleColumns = new double[cols][][];
+		longColumns = new long[cols][][];
+		nulls = new BitSet[cols][];
+		for (int col = 0; col < cols; col++) {
+			if (table.doubleColumns[col] != null) {
+				doubleColumns[col] = table.doubleColumns[col].clone();
+			} else {
+				longColumns[col] = table.longColumns[col].clone();
+			}
+			nulls[col] = table.nulls[col].clone();
+		}
+		head = table.head;
+		rowCount = table.rowCount;
+		this.version = version;
+	}
+
+	/**
+	 * Initializes a new instance with the specified capacity, number of
+	 * columns, and a single column type.
+	 * @param capacity Maximal number of rows.
+	 * @param cols Number of columns
+	 * @param type Data type for all columns
+	 */
+	public RingBufferDataTable(int capacity, int cols, Class<? extends Comparable<?>> type) {
+		this(capacity, DoubleColumnTable.createTypes(cols, type));
+	}
+
+	/**
+	 * Returns the maximal number of rows this table can store.
+	 * @return Maximal number of rows.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Adds a row with the specified comparable values to the table. If the
+	 * table is full, the oldest row is evicted.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param values values to be added as a row
+	 * @return Index of the row that has been added.
+	 */
+	public int add(Comparable<?>... values) {
+		return add(Arrays.asList(values));
+	}
+
+	/**
+	 * Adds a row with the specified container's elements to the table. If
+	 * the table is full, the oldest row is evicted.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param values values to be added as a row
+	 * @return Index of the row that has been added.
+	 */
+	public int add(List<? extends Comparable<?>> values) {
+		checkValues(values);
+		DataChangeEvent[] events = new DataChangeEvent[values.size()];
+		boolean shifted;
+		int rowIndex;
+		synchronized (this) {
+			shifted = append(values);
+			rowIndex = rowCount - 1;
+			version++;
+			for (int col = 0; col < events.length; col++) {
+				if (shifted) {
+					events[col] = new DataChangeEvent(this, col, 0, rowCount, 1, null, null);
+				} else {
+					events[col] = new DataChangeEvent(this, col, rowIndex, null, values.get(col));
+				}
+			}
+		}
+		if (shifted) {
+			notifyDataUpdated(events);
+		} else {
+			notifyDataAdded(events);
+		}
+		return rowIndex;
+	}
+
+	/**
+	 * Adds the specified row to the table. If the table is full, the oldest
+	 * row is evicted.
+	 * The values are added in the order they are specified. If the types of
+	 * the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * @param row Row to be added
+	 * @return Index of the row that has been added.
+	 */
+	public int add(Row row) {
+		List<Comparable<?>> values;
+		synchronized (row) {
+			values = new ArrayList<>(row.size());
+			for (Comparable<?> value : row) {
+				values.add(value);
+			}
+		}
+		return add(values);
+	}
+
+	/**
+	 * Adds several rows to the table at once and evicts as many of the
+	 * oldest rows as necessary. If more rows than the capacity are added,
+	 * only the last rows are kept. The types of all values are checked
+	 * before any row is added, so either all or none of the rows are added.
+	 * If the types of the table columns and the values do not match, an
+	 * {@code IllegalArgumentException} is thrown.
+	 * Registered listeners are notified only once with a single event per
+	 * column.
+	 * @param rowsToAdd Values of the rows to be added.
+	 * @return Index of the first row that has been added and is still stored
+	 *         in the table.
+	 */
+	public int addAll(Collection<? extends List<? extends Comparable<?>>> rowsToAdd) {
+		for (List<? extends Comparable<?>> values : rowsToAdd) {
+			checkValues(values);
+		}
+		int cols = getColumnCount();
+		DataChangeEvent[] events = new DataChangeEvent[cols];
+		int shift = 0;
+		int firstRow;
+		synchronized (this) {
+			int rowCountOld = rowCount;
+			for (List<? extends Comparable<?>> values : rowsToAdd) {
+				append(values);
+			}
+			shift = rowCountOld + rowsToAdd.size() - rowCount;
+			if (!rowsToAdd.isEmpty()) {
+				version++;
+			}
+			firstRow = Math.max(0, rowCount - rowsToAdd.size());
+			for (int col = 0; col < cols; col++) {
+				if (shift > 0) {
+					events[col] = new DataChangeEvent(this, col, 0, rowCount, shift, null, null);
+				} else {
+					events[col] = new DataChangeEvent(this, col, firstRow, rowsToAdd.size());
+				}
+			}
+		}
+		if (rowsToAdd.isEmpty()) {
+			return firstRow;
+		}
+		if (shift > 0) {
+			notifyDataUpdated(events);
+		} else {
+			notifyDataAdded(events);
+		}
+		return firstRow;
+	}
+
+	/**
+	 * Removes a specified row from the table. Removing other rows than the
+	 * first or the last one takes linear time.
+	 * @param row Index of the row to remove
+	 */
+	public void remove(int row) {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			checkRowIndex(row);
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, row, get(col, row), null);
+			}
+			if (row == 0) {
+				head = (head + 1) % capacity;
+			} else {
+				for (int rowIndex = row; rowIndex < rowCount - 1; rowIndex++) {
+					int index = toIndex(rowIndex);
+					int indexNext = toIndex(rowIndex + 1);
+					for (int col = 0; col < getColumnCount(); col++) {
+						move(col, indexNext, index);
+					}
+				}
+			}
+			rowCount--;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Removes the last row from the table.
+	 */
+	public void removeLast() {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			int row = rowCount - 1;
+			checkRowIndex(row);
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, row, get(col, row), null);
+			}
+			rowCount--;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Deletes all rows this table contains.
+	 */
+	public void clear() {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			int cols = getColumnCount();
+			int rows = rowCount;
+			events = new DataChangeEvent[cols*rows];
+			for (int row = 0; row < rows; row++) {
+				for (int col = 0; col < cols; col++) {
+					events[col + row*cols] = new DataChangeEvent(
+						this, col, row, get(col, row), null);
+				}
+			}
+			for (BitSet[] columnNulls : nulls) {
+				Arrays.fill(columnNulls, null);
+			}
+			head = 0;
+			rowCount = 0;
+			version++;
+		}
+		notifyDataRemoved(events);
+	}
+
+	/**
+	 * Returns the row with the specified index.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	public Comparable<?> get(int col, int row) {
+		if (row < 0 || row >= rowCount) {
+			return null;
+		}
+		int index = toIndex(row);
+		if (isNull(col, index)) {
+			return null;
+		}
+		int chunk = index >>> CHUNK_BITS;
+		Class<? extends Comparable<?>> type = columnTypes[col];
+		if (doubleColumns[col] != null) {
+			double value = doubleColumns[col][chunk][index & CHUNK_MASK];
+			if (Float.class.equals(type)) {
+				return (float) value;
+			}
+			return value;
+		}
+		long value = longColumns[col][chunk][index & CHUNK_MASK];
+		if (Integer.class.equals(type)) {
+			return (int) value;
+		} else if (Short.class.equals(type)) {
+			return (short) value;
+		} else if (Byte.class.equals(type)) {
+			return (byte) value;
+		}
+		return value;
+	}
+
+	@Override
+	public double getDouble(int col, int row) {
+		if (row < 0 || row >= rowCount) {
+			return Double.NaN;
+		}
+		int index = toIndex(row);
+		if (isNull(col, index)) {
+			return Double.NaN;
+		}
+		int chunk = index >>> CHUNK_BITS;
+		if (doubleColumns[col] != null) {
+			return doubleColumns[col][chunk][index & CHUNK_MASK];
+		}
+		return longColumns[col][chunk][index & CHUNK_MASK];
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		synchronized (this) {
+			if (len > 0) {
+				checkRowIndex(fromRow);
+				checkRowIndex(fromRow + len - 1);
+			}
+			int i = 0;
+			while (i < len) {
+				int index = toIndex(fromRow + i);
+				int chunk = index >>> CHUNK_BITS;
+				int offset = index & CHUNK_MASK;
+				// Number of values before the end of the chunk is reached
+				int lenChunk = Math.min(len - i, getChunkLength(chunk) - offset);
+				if (doubleColumns[col] != null) {
+					System.arraycopy(doubleColumns[col][chunk], offset, dst, i, lenChunk);
+				} else {
+					long[] values = longColumns[col][chunk];
+					for (int j = 0; j < lenChunk; j++) {
+						dst[i + j] = values[offset + j];
+					}
+				}
+				BitSet chunkNulls = nulls[col][chunk];
+				if (chunkNulls != null) {
+					for (int j = chunkNulls.nextSetBit(offset); j >= 0 && j < offset + lenChunk;
+							j = chunkNulls.nextSetBit(j + 1)) {
+						dst[i + j - offset] = Double.NaN;
+					}
+				}
+				i += lenChunk;
+			}
+		}
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		return true;
+	}
+
+	/**
+	 * Sets the value of a cell specified by its column and row indexes.
+	 * @param <T> Data type of the cell.
+	 * @param col Column of the cell to change.
+	 * @param row Row of the cell to change.
+	 * @param value New value to be set.
+	 * @return Old value that was replaced.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Comparable<T> set(int col, int row, Comparable<T> value) {
+		Comparable<T> old;
+		DataChangeEvent event = null;
+		synchronized (this) {
+			if (col < 0 || col >= getColumnCount()) {
+				throw new IndexOutOfBoundsException(MessageFormat.format(
+					"Column index {0,number,integer} out of range.", col)); //$NON-NLS-1$
+			}
+			checkRowIndex(row);
+			if (value != null && !(value instanceof Number)) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong column type! Expected {0}, got {1}.", //$NON-NLS-1$
+					columnTypes[col], value.getClass()));
+			}
+			if (value != null && !DoubleColumnTable.isStorable(columnTypes[col], (Number) value)) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong column type! Expected {0}, got value {1} that cannot be stored without loss.", //$NON-NLS-1$
+					columnTypes[col], value));
+			}
+			old = (Comparable<T>) get(col, row);
+			if (old == null || !old.equals(value)) {
+				store(col, toIndex(row), value);
+				version++;
+				event = new DataChangeEvent(this, col, row, old, value);
+			}
+		}
+		if (event != null) {
+			notifyDataUpdated(event);
+		}
+		return old;
+	}
+
+	/**
+	 * Returns the number of rows of the data source.
+	 * @return number of rows in the data source.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Sorts the table rows with the specified DataComparators.
+	 * The row values are compared in the way the comparators are specified.
+	 * @param comparators comparators used for sorting
+	 */
+	public void sort(final DataComparator... comparators) {
+		DataChangeEvent[] events;
+		synchronized (this) {
+			List<Record> records = new ArrayList<>(rowCount);
+			for (int row = 0; row < rowCount; row++) {
+				records.add(getRecord(row));
+			}
+			Collections.sort(records, new RecordComparator(comparators));
+			for (BitSet[] columnNulls : nulls) {
+				Arrays.fill(columnNulls, null);
+			}
+			head = 0;
+			for (int row = 0; row < rowCount; row++) {
+				Record record = records.get(row);
+				for (int col = 0; col < getColumnCount(); col++) {
+					store(col, row, record.get(col));
+				}
+			}
+			version++;
+			events = new DataChangeEvent[getColumnCount()];
+			for (int col = 0; col < events.length; col++) {
+				events[col] = new DataChangeEvent(this, col, 0, rowCount);
+			}
+		}
+		if (rowCount > 0) {
+			notifyDataUpdated(events);
+		}
+	}
+
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an immutable view of the current data. The view shares the
+	 * chunks of the column arrays with this table and has its own first row
+	 * and row count. Before the table overwrites a value in a shared chunk,
+	 * e.g. by evicting or changing rows, only this chunk is copied. Creating
+	 * a snapshot takes time proportional to the number of chunks.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		synchronized (this) {
+			if (sharedChunks == null) {
+				sharedChunks = new boolean[getChunkCount()];
+			}
+			Arrays.fill(sharedChunks, true);
+			return new DoubleColumnTable.ColumnSnapshot(new RingBufferDataTable(this, version));
+		}
+	}
+
+	/**
+	 * Copies the chunk containing the specified array index if it is shared
+	 * with a snapshot. This must be called before a value in the chunk is
+	 * overwritten.
+	 * @param index Array index.
+	 */
+	private void unshare(int index) {
+		int chunk = index >>> CHUNK_BITS;
+		if (sharedChunks == null || !sharedChunks[chunk]) {
+			return;
+		}
+		for (int col = 0; col < getColumnCount(); col++) {
+			if (doubleColumns[col] != null) {
+				doubleColumns[col][chunk] = doubleColumns[col][chunk].clone();
+			} else {
+				longColumns[col][chunk] = longColumns[col][chunk].clone();
+			}
+			if (nulls[col][chunk] != null) {
+				nulls[col][chunk] = (BitSet) nulls[col][chunk].clone();
+			}
+		}
+		sharedChunks[chunk] = false;
+	}
+
+	/**
+	 * Returns the number of chunks that are needed to store the values of
+	 * a column.
+	 * @return Number of chunks.
+	 */
+	private int getChunkCount() {
+		return (capacity - 1)/CHUNK_SIZE + 1;
+	}
+
+	/**
+	 * Returns the number of values in the specified chunk. Only the last
+	 * chunk may be shorter than {@code CHUNK_SIZE}.
+	 * @param chunk Chunk index.
+	 * @return Number of values.
+	 */
+	private int getChunkLength(int chunk) {
+		return Math.min(CHUNK_SIZE, capacity - chunk*CHUNK_SIZE);
+	}
+
+	/**
+	 * Makes sure the values of a row match the column types of this table.
+	 * @param values Values of a row.
+	 */
+	private void checkValues(List<? extends Comparable<?>> values) {
+		if (values.size() != getColumnCount()) {
+			throw new IllegalArgumentException(MessageFormat.format(
+					"Wrong number of columns! Expected {0,number,integer}, got {1,number,integer}.", //$NON-NLS-1$
+					getColumnCount(), values.size()));
+		}
+		for (int colIndex = 0; colIndex < values.size(); colIndex++) {
+			Comparable<?> value = values.get(colIndex);
+			if ((value != null)
+					&& !(columnTypes[colIndex].isAssignableFrom(value.getClass()))) {
+				throw new IllegalArgumentException(MessageFormat.format(
+						"Wrong column type! Expected {0}, got {1}.", //$NON-NLS-1$
+						columnTypes[colIndex], value.getClass()));
+			}
+		}
+	}
+
+	/**
+	 * Appends a row without any checks or notifications. If the table is
+	 * full, the first row is overwritten.
+	 * @param values Values of the new row.
+	 * @return {@code true} if a row was evicted.
+	 */
+	private boolean append(List<? extends Comparable<?>> values) {
+		boolean evicted = rowCount == capacity;
+		int index;
+		if (evicted) {
+			index = head;
+			head = (head + 1) % capacity;
+		} else {
+			index = toIndex(rowCount);
+			rowCount++;
+		}
+		for (int col = 0; col < values.size(); col++) {
+			store(col, index, values.get(col));
+		}
+		return evicted;
+	}
+
+	/**
+	 * Returns the array index of the specified row.
+	 * @param row Row index.
+	 * @return Array index.
+	 */
+	private int toIndex(int row) {
+		int index = head + row;
+		return (index >= capacity) ? index - capacity : index;
+	}
+
+	/**
+	 * Copies a value inside a column without any notifications.
+	 * @param col Column index.
+	 * @param indexFrom Array index of the value to be copied.
+	 * @param indexTo Array index the value is copied to.
+	 */
+	private void move(int col, int indexFrom, int indexTo) {
+		unshare(indexTo);
+		int chunkFrom = indexFrom >>> CHUNK_BITS;
+		int chunkTo = indexTo >>> CHUNK_BITS;
+		if (doubleColumns[col] != null) {
+			doubleColumns[col][chunkTo][indexTo & CHUNK_MASK] =
+				doubleColumns[col][chunkFrom][indexFrom & CHUNK_MASK];
+		} else {
+			longColumns[col][chunkTo][indexTo & CHUNK_MASK] =
+				longColumns[col][chunkFrom][indexFrom & CHUNK_MASK];
+		}
+		if (isNull(col, indexFrom)) {
+			getNulls(col, chunkTo).set(indexTo & CHUNK_MASK);
+		} else if (nulls[col][chunkTo] != null) {
+			nulls[col][chunkTo].clear(indexTo & CHUNK_MASK);
+		}
+	}
+
+	/**
+	 * Writes a value into the primitive storage without any type checks or
+	 * notifications.
+	 * @param col Column index.
+	 * @param index Array index.
+	 * @param value Value to be stored, or {@code null}.
+	 */
+	private void store(int col, int index, Comparable<?> value) {
+		unshare(index);
+		int chunk = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+		if (value == null) {
+			getNulls(col, chunk).set(offset);
+			return;
+		}
+		if (nulls[col][chunk] != null) {
+			nulls[col][chunk].clear(offset);
+		}
+		Number number = (Number) value;
+		if (doubleColumns[col] != null) {
+			doubleColumns[col][chunk][offset] = number.doubleValue();
+		} else {
+			longColumns[col][chunk][offset] = number.longValue();
+		}
+	}
+
+	/**
+	 * Returns whether the cell at the specified array index contains
+	 * {@code null}.
+	 * @param col Column index.
+	 * @param index Array index.
+	 * @return {@code true} if the cell is empty.
+	 */
+	private boolean isNull(int col, int index) {
+		BitSet chunkNulls = nulls[col][index >>> CHUNK_BITS];
+		return chunkNulls != null && chunkNulls.get(index & CHUNK_MASK);
+	}
+
+	/**
+	 * Returns the flags for cells containing {@code null} in a chunk and
+	 * creates them if necessary.
+	 * @param col Column index.
+	 * @param chunk Chunk index.
+	 * @return Flags of the chunk.
+	 */
+	private BitSet getNulls(int col, int chunk) {
+		if (nulls[col][chunk] == null) {
+			nulls[col][chunk] = new BitSet(getChunkLength(chunk));
+		}
+		return nulls[col][chunk];
+	}
+
+	private void checkRowIndex(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row index {0,number,integer} out of range.", row)); //$NON-NLS-1$
+		}
+	}
+}
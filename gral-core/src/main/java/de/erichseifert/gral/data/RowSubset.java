@@ -23,8 +23,8 @@ package de.erichseifert.gral.data;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.text.MessageFormat;
+import java.util.Arrays;
 
 /**
  * <p>Abstract class that represents a view on several rows of a data source.
@@ -48,8 +48,79 @@ public abstract class RowSubset extends AbstractDataSource
 
 	/** Original data source. */
 	private final DataSource original;
-	/** List of row indexes that are stored in this filtered data source. */
-	private transient List<Integer> accepted;
+	/** Row indexes that are stored in this filtered data source. The array
+	is replaced instead of being modified, so it can be shared with
+	snapshots. */
+	private transient volatile int[] accepted;
+	/** Version of the data, increased by every update of the accepted
+	rows. */
+	private transient volatile long version;
+
+	/**
+	 * Immutable view of several rows of a snapshot of the original data
+	 * source.
+	 */
+	private static final class SubsetSnapshot extends AbstractDataSource {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 8260787165433208521L;
+
+		/** Snapshot of the original data source. */
+		private final DataSource original;
+		/** Indexes of the accepted rows, which are never modified. */
+		private final int[] accepted;
+		/** Version of the data. */
+		private final long version;
+
+		/**
+		 * Initializes a new snapshot.
+		 * @param subset Subset whose data is contained in the snapshot.
+		 * @param original Snapshot of the original data source.
+		 * @param accepted Indexes of the accepted rows, which must not be
+		 *        modified.
+		 * @param version Version of the data.
+		 */
+		public SubsetSnapshot(RowSubset subset, DataSource original,
+				int[] accepted, long version) {
+			super(subset.getName(), subset.getColumnTypes());
+			this.original = original;
+			this.accepted = accepted;
+			this.version = version;
+		}
+
+		public Comparable<?> get(int col, int row) {
+			if (row < 0 || row >= accepted.length) {
+				return null;
+			}
+			return original.get(col, accepted[row]);
+		}
+
+		@Override
+		public double getDouble(int col, int row) {
+			if (row < 0 || row >= accepted.length) {
+				return Double.NaN;
+			}
+			return original.getDouble(col, accepted[row]);
+		}
+
+		@Override
+		public boolean isNumericDense(int col) {
+			return original.isNumericDense(col);
+		}
+
+		public int getRowCount() {
+			return accepted.length;
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+
+		@Override
+		public DataSource snapshot() {
+			return this;
+		}
+	}
 
 	/**
 	 * Creates a new instance with the specified data source.
@@ -57,7 +128,7 @@ public abstract class RowSubset extends AbstractDataSource
 	 */
 	@SuppressWarnings("unchecked")
 	public RowSubset(DataSource original) {
-		accepted = new ArrayList<>();
+		accepted = new int[0];
 		this.original = original;
 		this.original.addDataListener(this);
 		dataUpdated(this.original);
@@ -65,7 +136,7 @@ public abstract class RowSubset extends AbstractDataSource
 
 	@Override
 	public Row getRow(int row) {
-		int rowOrig = accepted.get(row);
+		int rowOrig = getIndexOriginal(row);
 		return original.getRow(rowOrig);
 	}
 
@@ -76,10 +147,36 @@ public abstract class RowSubset extends AbstractDataSource
 	 * @return the specified value of the data cell
 	 */
 	public Comparable<?> get(int col, int row) {
-		int rowOrig = accepted.get(row);
+		int rowOrig = getIndexOriginal(row);
 		return original.get(col, rowOrig);
 	}
 
+	@Override
+	public double getDouble(int col, int row) {
+		int rowOrig = getIndexOriginal(row);
+		return original.getDouble(col, rowOrig);
+	}
+
+	/**
+	 * Returns the index of an accepted row in the original data source.
+	 * @param row Index of the row in this data source.
+	 * @return Index of the row in the original data source.
+	 */
+	private int getIndexOriginal(int row) {
+		int[] rows = accepted;
+		if (row < 0 || row >= rows.length) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row {0,number,integer} is out of range [0, {1,number,integer}).", //$NON-NLS-1$
+				row, rows.length));
+		}
+		return rows[row];
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		return original.isNumericDense(col);
+	}
+
 	@Override
 	public int getColumnCount() {
 		return original.getColumnCount();
@@ -90,7 +187,23 @@ public abstract class RowSubset extends AbstractDataSource
 	 * @return number of rows in the data source.
 	 */
 	public int getRowCount() {
-		return accepted.size();
+		return accepted.length;
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an immutable view of the current data. The view shares the
+	 * indexes of the accepted rows with this data source and reads the
+	 * values from a snapshot of the original data source.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public synchronized DataSource snapshot() {
+		return new SubsetSnapshot(this, original.snapshot(), accepted, version);
 	}
 
 	@Override
@@ -153,13 +266,19 @@ public abstract class RowSubset extends AbstractDataSource
 	 * Updates the list of accepted rows.
 	 */
 	private void update() {
-		accepted.clear();
-		for (int rowIndex = 0; rowIndex < original.getRowCount(); rowIndex++) {
+		int rowCount = original.getRowCount();
+		int[] rows = new int[rowCount];
+		int count = 0;
+		for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
 			Row row = original.getRow(rowIndex);
 			if (accept(row)) {
-				accepted.add(rowIndex);
+				rows[count++] = rowIndex;
 			}
 		}
+		synchronized (this) {
+			accepted = Arrays.copyOf(rows, count);
+			version++;
+		}
 	}
 
 	/**
@@ -182,7 +301,7 @@ public abstract class RowSubset extends AbstractDataSource
 		in.defaultReadObject();
 
 		// Handle transient fields
-		accepted = new ArrayList<>();
+		accepted = new int[0];
 
 		// Update caches
 		dataUpdated(original);
@@ -0,0 +1,247 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import java.util.Arrays;
+
+/**
+ * <p>Growable column of primitive {@code double} values that is stored in
+ * chunks of a fixed size. Values can be appended at the end and removed
+ * from the start without moving the other values.</p>
+ *
+ * <p>A {@link #snapshot() snapshot} shares the chunks with the column. Before
+ * a value in a shared chunk is changed, only this chunk is copied, so the
+ * column can be modified while snapshots of it are read.</p>
+ */
+final class ChunkedColumn {
+	/** Number of bits of a position that address a value in a chunk. */
+	private static final int CHUNK_BITS = 10;
+	/** Number of values in a chunk. */
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	/** Mask for the bits of a position that address a value in a chunk. */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/** Chunks with the values. Only the first {@code chunkCount} elements
+	are used. */
+	private double[][] chunks;
+	/** Decides for each chunk whether it is shared with a snapshot. */
+	private boolean[] shared;
+	/** Number of used chunks. */
+	private int chunkCount;
+	/** Position of the first value in the first chunk. */
+	private int start;
+	/** Number of values. */
+	private int size;
+
+	/**
+	 * Initializes a new column without any values.
+	 */
+	public ChunkedColumn() {
+		chunks = new double[1][];
+		shared = new boolean[1];
+	}
+
+	/**
+	 * Initializes a new column with a copy of the specified values.
+	 * @param values Values of the column.
+	 */
+	public ChunkedColumn(double[] values) {
+		this();
+		append(values.length);
+		set(0, values, 0, values.length);
+	}
+
+	/**
+	 * Initializes a new column that shares all chunks of another column.
+	 * @param column Column whose chunks are shared.
+	 */
+	private ChunkedColumn(ChunkedColumn column) {
+		chunkCount = column.chunkCount;
+		chunks = Arrays.copyOf(column.chunks, Math.max(chunkCount, 1));
+		shared = new boolean[chunks.length];
+		Arrays.fill(shared, true);
+		start = column.start;
+		size = column.size;
+	}
+
+	/**
+	 * Returns the number of values.
+	 * @return Number of values.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value at the specified index.
+	 * @param index Index of the value.
+	 * @return Value.
+	 */
+	public double get(int index) {
+		int position = start + index;
+		return chunks[position >>> CHUNK_BITS][position & CHUNK_MASK];
+	}
+
+	/**
+	 * Copies a range of values into an array.
+	 * @param index Index of the first value.
+	 * @param dst Array that receives the values.
+	 * @param dstPos Index in the array where the first value is stored.
+	 * @param len Number of values.
+	 */
+	public void copyTo(int index, double[] dst, int dstPos, int len) {
+		int i = 0;
+		while (i < len) {
+			int position = start + index + i;
+			int offset = position & CHUNK_MASK;
+			int lenChunk = Math.min(len - i, CHUNK_SIZE - offset);
+			System.arraycopy(chunks[position >>> CHUNK_BITS], offset, dst, dstPos + i, lenChunk);
+			i += lenChunk;
+		}
+	}
+
+	/**
+	 * Replaces the value at the specified index.
+	 * @param index Index of the value.
+	 * @param value New value.
+	 */
+	public void set(int index, double value) {
+		int position = start + index;
+		getWritableChunk(position >>> CHUNK_BITS)[position & CHUNK_MASK] = value;
+	}
+
+	/**
+	 * Replaces a range of values with the values of an array.
+	 * @param index Index of the first value to be replaced.
+	 * @param src Array with the new values.
+	 * @param srcPos Index of the first new value in the array.
+	 * @param len Number of values.
+	 */
+	public void set(int index, double[] src, int srcPos, int len) {
+		int i = 0;
+		while (i < len) {
+			int position = start + index + i;
+			int offset = position & CHUNK_MASK;
+			int lenChunk = Math.min(len - i, CHUNK_SIZE - offset);
+			double[] chunk = getWritableChunk(position >>> CHUNK_BITS);
+			System.arraycopy(src, srcPos + i, chunk, offset, lenChunk);
+			i += lenChunk;
+		}
+	}
+
+	/**
+	 * Appends a value at the end of the column.
+	 * @param value Value to be appended.
+	 */
+	public void add(double value) {
+		append(1);
+		set(size - 1, value);
+	}
+
+	/**
+	 * Inserts values at the specified index. The inserted values are
+	 * undefined until they are set. Inserting values before the end of the
+	 * column takes linear time.
+	 * @param index Index of the first inserted value.
+	 * @param count Number of values.
+	 */
+	public void insert(int index, int count) {
+		int moved = size - index;
+		append(count);
+		for (int i = moved - 1; i >= 0; i--) {
+			set(index + count + i, get(index + i));
+		}
+	}
+
+	/**
+	 * Removes a range of values. Removing values from the start of the
+	 * column takes constant time, whereas values after the removed range
+	 * have to be moved otherwise.
+	 * @param index Index of the first removed value.
+	 * @param count Number of values.
+	 */
+	public void remove(int index, int count) {
+		if (index > 0) {
+			for (int i = index; i < size - count; i++) {
+				set(i, get(i + count));
+			}
+			size -= count;
+			return;
+		}
+		start += count;
+		size -= count;
+		// Drops chunks that only contained removed values
+		int dropped = Math.min(start >>> CHUNK_BITS, chunkCount);
+		if (dropped > 0) {
+			System.arraycopy(chunks, dropped, chunks, 0, chunkCount - dropped);
+			System.arraycopy(shared, dropped, shared, 0, chunkCount - dropped);
+			Arrays.fill(chunks, chunkCount - dropped, chunkCount, null);
+			chunkCount -= dropped;
+			start -= dropped << CHUNK_BITS;
+		}
+	}
+
+	/**
+	 * Returns an immutable copy of the column that shares the chunks with
+	 * this column. The chunks are copied when they are changed later.
+	 * @return Column with the current values.
+	 */
+	public ChunkedColumn snapshot() {
+		Arrays.fill(shared, 0, chunkCount, true);
+		return new ChunkedColumn(this);
+	}
+
+	/**
+	 * Adds undefined values at the end of the column and allocates new
+	 * chunks if necessary.
+	 * @param count Number of values.
+	 */
+	private void append(int count) {
+		int end = start + size + count;
+		int chunksNeeded = (end + CHUNK_MASK) >>> CHUNK_BITS;
+		if (chunksNeeded > chunks.length) {
+			int capacity = Math.max(chunksNeeded, chunks.length + (chunks.length >> 1) + 1);
+			chunks = Arrays.copyOf(chunks, capacity);
+			shared = Arrays.copyOf(shared, capacity);
+		}
+		while (chunkCount < chunksNeeded) {
+			chunks[chunkCount] = new double[CHUNK_SIZE];
+			shared[chunkCount] = false;
+			chunkCount++;
+		}
+		size += count;
+	}
+
+	/**
+	 * Returns a chunk whose values can be changed, and copies the chunk first
+	 * if it is shared with a snapshot.
+	 * @param chunk Index of the chunk.
+	 * @return Values of the chunk.
+	 */
+	private double[] getWritableChunk(int chunk) {
+		if (shared[chunk]) {
+			chunks[chunk] = chunks[chunk].clone();
+			shared[chunk] = false;
+		}
+		return chunks[chunk];
+	}
+}
@@ -23,13 +23,15 @@ package de.erichseifert.gral.data.filters;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.Arrays;
 
 import de.erichseifert.gral.data.DataSource;
-import de.erichseifert.gral.util.DataUtils;
 import de.erichseifert.gral.util.MathUtils;
 
 /**
- * <p>Class that applies a specified kernel to a data source to convolve it.</p>
+ * <p>Class that applies a specified kernel to a data source to convolve it.
+ * Kernels with many values are applied with fast Fourier transforms, which
+ * takes logarithmic instead of linear time in the kernel size per row.</p>
  * <p>Functionality includes:</p>
  * <ul>
  *   <li>Getting and setting the {@code Kernel} used for convolution</li>
@@ -39,6 +41,9 @@ public class Convolution extends Filter2D {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = 7155205321415314271L;
 
+	/** Minimal kernel size for which fast Fourier transforms are used. */
+	private static final int FFT_MIN_KERNEL_SIZE = 64;
+
 	/** Kernel that provides the values to convolve the data source. */
 	private final Kernel kernel;
 
@@ -66,41 +71,150 @@ public class Convolution extends Filter2D {
 
 	@Override
 	protected void filter() {
-		clear();
-		for (int rowIndex = 0; rowIndex < getRowCount(); rowIndex++) {
-			Double[] filteredRow = new Double[getColumnCountFiltered()];
-			for (int colIndex = 0; colIndex < filteredRow.length; colIndex++) {
-				int colIndexOriginal = getIndexOriginal(colIndex);
-				filteredRow[colIndex] = convolve(colIndexOriginal, rowIndex);
-			}
-			add(filteredRow);
+		filterColumns();
+	}
+
+	@Override
+	protected int[] getWindow() {
+		Kernel kernel = getKernel();
+		if (kernel == null) {
+			return new int[] {0, 0};
 		}
+		return new int[] {kernel.getMinIndex(), kernel.getMaxIndex()};
+	}
+
+	@Override
+	protected void filterColumn(int col, int first, double[] dst) {
+		int colIndexOriginal = getIndexOriginal(col);
+		double[] convolved = convolve(colIndexOriginal, first, dst.length);
+		System.arraycopy(convolved, 0, dst, 0, dst.length);
 	}
 
 	/**
-	 * Calculates the convolved value of the data with the specified column
-	 * and row.
+	 * Calculates the convolved values of a range of rows in the specified
+	 * column. If a value that is used for a row can't be used for
+	 * calculations, the result is the first of these values.
 	 * @param col Column index.
-	 * @param row Row index.
-	 * @return Convolved value using the set kernel.
+	 * @param first Index of the first row.
+	 * @param count Number of rows.
+	 * @return Convolved values using the set kernel.
 	 */
-	private double convolve(int col, int row) {
+	private double[] convolve(int col, int first, int count) {
 		Kernel kernel = getKernel();
 		if (kernel == null) {
-			Comparable<?> original = getOriginal(col, row);
-			return DataUtils.getValueOrDefault((Number) original, Double.NaN);
+			double[] values = new double[count];
+			copyOriginal(col, values, first, count);
+			return values;
 		}
-		double sum = 0.0;
-		for (int k = kernel.getMinIndex(); k <= kernel.getMaxIndex(); k++) {
-			int r = row + k;
-			Comparable<?> original = getOriginal(col, r);
-			double v = DataUtils.getValueOrDefault((Number) original, Double.NaN);
-			if (!MathUtils.isCalculatable(v)) {
-				return v;
+
+		// All original values that are used, including the border
+		int span = kernel.size() - 1;
+		double[] signal = new double[count + span];
+		copyOriginal(col, signal, first + kernel.getMinIndex(), signal.length);
+		double[] weights = new double[span + 1];
+		for (int k = 0; k <= span; k++) {
+			weights[k] = kernel.get(kernel.getMinIndex() + k);
+		}
+
+		double[] convolved;
+		if (weights.length >= FFT_MIN_KERNEL_SIZE) {
+			convolved = correlateFFT(signal, weights, count);
+		} else {
+			convolved = correlate(signal, weights, count);
+		}
+
+		// Invalid values are passed on instead of the sum
+		int invalid = signal.length;
+		for (int i = signal.length - 1; i >= 0; i--) {
+			if (!MathUtils.isCalculatable(signal[i])) {
+				invalid = i;
 			}
-			sum += kernel.get(k) * v;
+			if (i < count && invalid <= i + span) {
+				convolved[i] = signal[invalid];
+			}
+		}
+		return convolved;
+	}
+
+	/**
+	 * Calculates the weighted sums of a signal directly.
+	 * @param signal Signal values.
+	 * @param weights Weights for consecutive signal values.
+	 * @param count Number of sums.
+	 * @return Weighted sums for each start index in the signal.
+	 */
+	private static double[] correlate(double[] signal, double[] weights, int count) {
+		double[] sums = new double[count];
+		for (int i = 0; i < count; i++) {
+			double sum = 0.0;
+			for (int k = 0; k < weights.length; k++) {
+				sum += weights[k]*signal[i + k];
+			}
+			sums[i] = sum;
+		}
+		return sums;
+	}
+
+	/**
+	 * Calculates the weighted sums of a signal with fast Fourier transforms.
+	 * The signal is split into blocks that are transformed separately, and
+	 * the results of the blocks are added (overlap-add method). Two blocks
+	 * are transformed at once as real and imaginary part. Values that can't
+	 * be used for calculations are treated as zero.
+	 * @param signal Signal values.
+	 * @param weights Weights for consecutive signal values.
+	 * @param count Number of sums.
+	 * @return Weighted sums for each start index in the signal.
+	 */
+	private static double[] correlateFFT(double[] signal, double[] weights, int count) {
+		int span = weights.length - 1;
+		int size = Integer.highestOneBit(4*weights.length - 1) << 1;
+		int blockLength = size - span;
+		FourierTransform fft = new FourierTransform(size);
+
+		// Reversed weights turn the weighted sums into a convolution
+		double[] weightsRe = new double[size];
+		double[] weightsIm = new double[size];
+		for (int k = 0; k <= span; k++) {
+			weightsRe[k] = weights[span - k];
+		}
+		fft.transform(weightsRe, weightsIm, false);
+
+		double[] sums = new double[count];
+		double[] re = new double[size];
+		double[] im = new double[size];
+		for (int start = 0; start < signal.length; start += 2*blockLength) {
+			copyBlock(signal, start, blockLength, re);
+			copyBlock(signal, start + blockLength, blockLength, im);
+			fft.transform(re, im, false);
+			for (int i = 0; i < size; i++) {
+				double productRe = re[i]*weightsRe[i] - im[i]*weightsIm[i];
+				double productIm = re[i]*weightsIm[i] + im[i]*weightsRe[i];
+				re[i] = productRe;
+				im[i] = productIm;
+			}
+			fft.transform(re, im, true);
+			addBlock(re, start - span, sums);
+			addBlock(im, start + blockLength - span, sums);
+		}
+		return sums;
+	}
+
+	private static void copyBlock(double[] signal, int start, int length, double[] block) {
+		Arrays.fill(block, 0.0);
+		int end = Math.min(start + length, signal.length);
+		for (int i = start; i < end; i++) {
+			double value = signal[i];
+			block[i - start] = MathUtils.isCalculatable(value) ? value : 0.0;
+		}
+	}
+
+	private static void addBlock(double[] block, int offset, double[] sums) {
+		int from = Math.max(0, -offset);
+		int to = Math.min(block.length, sums.length - offset);
+		for (int i = from; i < to; i++) {
+			sums[offset + i] += block[i];
 		}
-		return sum;
 	}
 
 	/**
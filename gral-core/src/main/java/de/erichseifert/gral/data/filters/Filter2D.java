@@ -26,6 +26,11 @@ import java.io.ObjectInputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import de.erichseifert.gral.data.AbstractDataSource;
 import de.erichseifert.gral.data.DataChangeEvent;
@@ -49,11 +54,33 @@ import de.erichseifert.gral.util.MathUtils;
  * delegated to the original data source. Derived classes must make sure the
  * caches are updated when deserialization is done. This can be done by calling
  * {@code dataUpdated(this)} in a custom deserialization method.</p>
+ *
+ * <p>The filtered values are stored as primitive {@code double} values
+ * for each filtered column. They can be read without boxing with
+ * {@link #getDouble(int, int)} and
+ * {@link #copyColumn(int, double[], int, int)}. The columns are split into
+ * chunks that are shared with {@link #snapshot() snapshots}, so changing
+ * filtered values only copies the chunks that contain them.</p>
+ *
+ * <p>Derived classes that calculate each column separately can implement
+ * {@link #filterColumn(int, int, double[])} and call
+ * {@link #filterColumns()} in {@link #filter()}. The columns, and blocks
+ * of rows if the filter has a window, can then be filtered in parallel by
+ * an {@link #setExecutor(ExecutorService) executor}. Other filters add
+ * their rows with {@link #add(Number[])} in {@link #filter()}.</p>
+ *
+ * <p>By default, all rows are filtered again whenever the original data
+ * source changes. If the rows of a filter only depend on a
+ * {@link #getWindow() window} of original rows, only the rows whose window
+ * contains a changed row are filtered again, which makes appending a row to
+ * a long data source cheap.</p>
  */
 public abstract class Filter2D extends AbstractDataSource
 		implements DataListener {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -5004453681128601437L;
+	/** Minimal number of rows in blocks that are filtered in parallel. */
+	private static final int MIN_BLOCK_SIZE = 1 << 14;
 
 	/** Type to define the behavior when engaging the borders of a column, i.e.
 	the filter would need more data values than available. */
@@ -75,10 +102,118 @@ public abstract class Filter2D extends AbstractDataSource
 
 	/** Columns that should be filtered. */
 	private final int[] cols;
-	/** Data that was produced by the filter. */
-	private transient ArrayList<Double[]> rows;
+	/** Data that was produced by the filter, stored by the position of the
+	filtered column. */
+	private transient ChunkedColumn[] columns;
+	/** Number of rows that were produced by the filter. */
+	private transient int size;
+	/** Version of the data, increased by every change of the filtered
+	data. */
+	private transient volatile long version;
 	/** Mode for handling. */
 	private Mode mode;
+	/** Executor that filters columns in parallel, or {@code null}. */
+	private transient ExecutorService executor;
+
+	/**
+	 * Immutable view of a filter whose chunks of filtered values are shared
+	 * with the filter that created it.
+	 */
+	private static final class FilterSnapshot extends AbstractDataSource {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = -3213468573563474931L;
+
+		/** Snapshot of the original data source. */
+		private final DataSource original;
+		/** Filtered values for each column, or {@code null} for columns
+		that are read from the original data. Never modified. */
+		private final ChunkedColumn[] values;
+		/** Number of rows. */
+		private final int rowCount;
+		/** Number of filtered values in each column. */
+		private final int size;
+		/** Version of the filtered data. */
+		private final long version;
+
+		/**
+		 * Initializes a new snapshot.
+		 * @param filter Filter whose data is contained in the snapshot.
+		 * @param original Snapshot of the original data source.
+		 * @param values Filtered values for each column, which must not be
+		 *        modified.
+		 * @param rowCount Number of rows.
+		 * @param size Number of filtered values in each column.
+		 * @param version Version of the filtered data.
+		 */
+		public FilterSnapshot(Filter2D filter, DataSource original,
+				ChunkedColumn[] values, int rowCount, int size, long version) {
+			super(filter.getName(), filter.getColumnTypes());
+			this.original = original;
+			this.values = values;
+			this.rowCount = rowCount;
+			this.size = size;
+			this.version = version;
+		}
+
+		public Comparable<?> get(int col, int row) {
+			if (values[col] == null) {
+				return original.get(col, row);
+			}
+			if (row < 0 || row >= size) {
+				return null;
+			}
+			return values[col].get(row);
+		}
+
+		@Override
+		public double getDouble(int col, int row) {
+			if (values[col] == null) {
+				return original.getDouble(col, row);
+			}
+			if (row < 0 || row >= size) {
+				return Double.NaN;
+			}
+			return values[col].get(row);
+		}
+
+		@Override
+		public void copyColumn(int col, double[] dst, int fromRow, int len) {
+			if (values[col] == null) {
+				original.copyColumn(col, dst, fromRow, len);
+				return;
+			}
+			if (len > 0 && (fromRow < 0 || fromRow + len > size)) {
+				throw new IndexOutOfBoundsException(MessageFormat.format(
+					"Rows [{0,number,integer}, {1,number,integer}) are out of range [0, {2,number,integer}).", //$NON-NLS-1$
+					fromRow, fromRow + len, size));
+			}
+			values[col].copyTo(fromRow, dst, 0, len);
+		}
+
+		@Override
+		public boolean isNumericDense(int col) {
+			return values[col] != null || original.isNumericDense(col);
+		}
+
+		@Override
+		public int getColumnCount() {
+			return values.length;
+		}
+
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+
+		@Override
+		public DataSource snapshot() {
+			return this;
+		}
+	}
 
 	/**
 	 * Initializes a new instance with the specified data source, border
@@ -90,7 +225,7 @@ public abstract class Filter2D extends AbstractDataSource
 	 */
 	@SuppressWarnings("unchecked")
 	public Filter2D(DataSource original, Mode mode, int... cols) {
-		this.rows = new ArrayList<>(original.getRowCount());
+		this.columns = new ChunkedColumn[0];
 		this.original = original;
 		this.mode = mode;
 
@@ -162,19 +297,58 @@ public abstract class Filter2D extends AbstractDataSource
 		return original.get(col, row);
 	}
 
+	/**
+	 * Copies the values of a range of original rows into an array of
+	 * primitive {@code double} values. Rows outside the original data source
+	 * are handled according to the mode like in
+	 * {@link #getOriginal(int, int)}, and values that aren't numbers are
+	 * returned as <i>NaN</i>.
+	 * @param col Column index.
+	 * @param dst Array that receives the values starting at index {@code 0}.
+	 * @param fromRow Index of the first row, which may be negative.
+	 * @param len Number of rows.
+	 */
+	protected void copyOriginal(int col, double[] dst, int fromRow, int len) {
+		int insideFirst = Math.max(fromRow, 0);
+		int insideEnd = Math.min(fromRow + len, original.getRowCount());
+		if (insideFirst < insideEnd) {
+			if (insideFirst == fromRow) {
+				original.copyColumn(col, dst, insideFirst, insideEnd - insideFirst);
+			} else {
+				double[] inside = new double[insideEnd - insideFirst];
+				original.copyColumn(col, inside, insideFirst, inside.length);
+				System.arraycopy(inside, 0, dst, insideFirst - fromRow, inside.length);
+			}
+		}
+		for (int i = 0; i < len; i++) {
+			int row = fromRow + i;
+			if (row < insideFirst || row >= insideEnd) {
+				Comparable<?> value = getOriginal(col, row);
+				dst[i] = (value instanceof Number) ? ((Number) value).doubleValue() : Double.NaN;
+			}
+		}
+	}
+
 	/**
 	 * Clears this Filter2D.
 	 */
 	protected void clear() {
-		rows.clear();
+		columns = new ChunkedColumn[0];
+		size = 0;
 	}
 
 	/**
-	 * Adds the specified row data to this Filter2D.
+	 * Adds the specified row data to this Filter2D. {@code null} values are
+	 * stored as <i>NaN</i>.
 	 * @param rowData Row data to be added.
 	 */
 	protected void add(Double[] rowData) {
-		rows.add(rowData);
+		ensureColumns(rowData.length);
+		for (int colPos = 0; colPos < rowData.length; colPos++) {
+			Double value = rowData[colPos];
+			columns[colPos].add((value != null) ? value : Double.NaN);
+		}
+		size++;
 	}
 
 	/**
@@ -182,16 +356,68 @@ public abstract class Filter2D extends AbstractDataSource
 	 * @param rowData Row to be added.
 	 */
 	protected void add(Number[] rowData) {
-		Double[] doubleData = new Double[rowData.length];
-		int i = 0;
-		for (Number value : rowData) {
-			doubleData[i++] = value.doubleValue();
+		ensureColumns(rowData.length);
+		for (int colPos = 0; colPos < rowData.length; colPos++) {
+			columns[colPos].add(rowData[colPos].doubleValue());
 		}
-		rows.add(doubleData);
+		size++;
 	}
 
 	/**
-	 * Returns the row with the specified index.
+	 * Makes sure that the filtered data has the specified number of columns.
+	 * New columns get the same number of rows with undefined values.
+	 * @param colCount Number of filtered columns.
+	 */
+	private void ensureColumns(int colCount) {
+		if (columns.length == colCount) {
+			return;
+		}
+		int colCountOld = columns.length;
+		columns = Arrays.copyOf(columns, colCount);
+		for (int colPos = colCountOld; colPos < colCount; colPos++) {
+			columns[colPos] = new ChunkedColumn();
+			columns[colPos].insert(0, size);
+		}
+	}
+
+	/**
+	 * Inserts rows with undefined values into the filtered data. Rows are
+	 * appended to the end in constant time.
+	 * @param row Index of the first inserted row.
+	 * @param count Number of rows.
+	 */
+	private void insertRows(int row, int count) {
+		for (ChunkedColumn column : columns) {
+			column.insert(row, count);
+		}
+		size += count;
+	}
+
+	/**
+	 * Removes rows from the filtered data. Rows are removed from the start
+	 * in constant time.
+	 * @param row Index of the first removed row.
+	 * @param count Number of rows.
+	 */
+	private void removeRows(int row, int count) {
+		for (ChunkedColumn column : columns) {
+			column.remove(row, count);
+		}
+		size -= count;
+	}
+
+	private void checkRowIndex(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row {0,number,integer} is out of range [0, {1,number,integer}).", //$NON-NLS-1$
+				row, size));
+		}
+	}
+
+	/**
+	 * Returns the row with the specified index. Filtered values are boxed
+	 * for each call, so {@link #getDouble(int, int)} or
+	 * {@link #copyColumn(int, double[], int, int)} should be preferred.
 	 * @param col index of the column to return
 	 * @param row index of the row to return
 	 * @return the specified value of the data cell
@@ -201,7 +427,80 @@ public abstract class Filter2D extends AbstractDataSource
 		if (colPos < 0) {
 			return original.get(col, row);
 		}
-		return rows.get(row)[colPos];
+		checkRowIndex(row);
+		return columns[colPos].get(row);
+	}
+
+	@Override
+	public double getDouble(int col, int row) {
+		int colPos = getIndex(col);
+		if (colPos < 0) {
+			return original.getDouble(col, row);
+		}
+		checkRowIndex(row);
+		return columns[colPos].get(row);
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		int colPos = getIndex(col);
+		if (colPos < 0) {
+			original.copyColumn(col, dst, fromRow, len);
+			return;
+		}
+		if (len > 0) {
+			checkRowIndex(fromRow);
+			checkRowIndex(fromRow + len - 1);
+			columns[colPos].copyTo(fromRow, dst, 0, len);
+		}
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		if (isFiltered(col)) {
+			return true;
+		}
+		return original.isNumericDense(col);
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an immutable view of the current data. The view shares the
+	 * chunks of the filtered columns with this filter. Before filtered
+	 * values are changed, only the chunks that contain them are copied.
+	 * Unfiltered columns are read from a snapshot of the original data
+	 * source.
+	 * @return Immutable view of the data.
+	 */
+	@Override
+	public DataSource snapshot() {
+		return snapshot(true);
+	}
+
+	/**
+	 * Returns an immutable view of the current data.
+	 * @param filtered Decides whether the filtered values are used, or
+	 *        whether all columns are read from the original data source.
+	 * @return Immutable view of the data.
+	 */
+	DataSource snapshot(boolean filtered) {
+		synchronized (this) {
+			ChunkedColumn[] values = new ChunkedColumn[getColumnCount()];
+			if (filtered) {
+				for (int col = 0; col < values.length; col++) {
+					int colPos = getIndex(col);
+					if (colPos >= 0) {
+						values[col] = columns[colPos].snapshot();
+					}
+				}
+			}
+			return new FilterSnapshot(this, original.snapshot(), values,
+				getRowCount(), size, version);
+		}
 	}
 
 	/**
@@ -217,8 +516,13 @@ public abstract class Filter2D extends AbstractDataSource
 			throw new IllegalArgumentException(
 				"Can't set value in unfiltered column."); //$NON-NLS-1$
 		}
-		Double old = rows.get(row)[colPos];
-		rows.get(row)[colPos] = value;
+		Double old;
+		synchronized (this) {
+			checkRowIndex(row);
+			old = columns[colPos].get(row);
+			columns[colPos].set(row, (value != null) ? value : Double.NaN);
+			version++;
+		}
 		notifyDataUpdated(new DataChangeEvent(this, col, row, old, value));
 		return old;
 	}
@@ -264,7 +568,12 @@ public abstract class Filter2D extends AbstractDataSource
 	 *        have been added.
 	 */
 	public void dataAdded(DataSource source, DataChangeEvent... events) {
-		dataChanged(source, events);
+		synchronized (this) {
+			if (!filterAdded(source, events)) {
+				filter();
+			}
+			version++;
+		}
 		notifyDataAdded(events);
 	}
 
@@ -277,7 +586,12 @@ public abstract class Filter2D extends AbstractDataSource
 	 *        have been updated.
 	 */
 	public void dataUpdated(DataSource source, DataChangeEvent... events) {
-		dataChanged(source, events);
+		synchronized (this) {
+			if (!filterUpdated(source, events)) {
+				filter();
+			}
+			version++;
+		}
 		notifyDataUpdated(events);
 	}
 
@@ -290,20 +604,274 @@ public abstract class Filter2D extends AbstractDataSource
 	 *        have been removed.
 	 */
 	public void dataRemoved(DataSource source, DataChangeEvent... events) {
-		dataChanged(source, events);
+		synchronized (this) {
+			if (!filterRemoved(source, events)) {
+				filter();
+			}
+			version++;
+		}
 		notifyDataRemoved(events);
 	}
 
 	/**
-	 * Method that is invoked when data has been added, updated, or removed.
-	 * This method is invoked by objects that provide support for
-	 * {@code DataListener}s and should not be called manually.
-	 * @param source Data source that has been changed
-	 * @param events Optional event object describing the data values that
-	 *        have been removed.
+	 * Inserts and filters the rows that have been added to the original
+	 * data source.
+	 * @param source Data source that has been changed.
+	 * @param events Event objects describing the added rows.
+	 * @return {@code true} if the rows have been filtered incrementally,
+	 *         {@code false} if all rows have to be filtered again.
+	 */
+	private boolean filterAdded(DataSource source, DataChangeEvent[] events) {
+		int[] changed = getChangedRows(source, events, true);
+		if (changed == null) {
+			return false;
+		}
+		int rowMin = changed[0];
+		int count = changed[1] - rowMin + 1;
+		if (rowMin > size || size + count != original.getRowCount()) {
+			return false;
+		}
+		insertRows(rowMin, count);
+		filterChanged(rowMin, changed[1]);
+		return true;
+	}
+
+	/**
+	 * Filters the rows whose windows contain updated rows of the original
+	 * data source. Rows that have been evicted from the start of the
+	 * original data source are removed.
+	 * @param source Data source that has been changed.
+	 * @param events Event objects describing the updated rows.
+	 * @return {@code true} if the rows have been filtered incrementally,
+	 *         {@code false} if all rows have to be filtered again.
+	 */
+	private boolean filterUpdated(DataSource source, DataChangeEvent[] events) {
+		int[] changed = getChangedRows(source, events, false);
+		if (changed == null) {
+			return false;
+		}
+		int shift = changed[2];
+		int rowCount = original.getRowCount();
+		if (shift == 0) {
+			if (size != rowCount || changed[1] >= rowCount) {
+				return false;
+			}
+			filterChanged(changed[0], changed[1]);
+			return true;
+		}
+		// Rows have been evicted from the start and appended to the end
+		int rowCountKept = size - shift;
+		if (rowCountKept < 0 || rowCountKept > rowCount) {
+			return false;
+		}
+		removeRows(0, shift);
+		insertRows(size, rowCount - rowCountKept);
+		filterChanged(0, 0);
+		if (rowCountKept < rowCount) {
+			filterChanged(rowCountKept, rowCount - 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the rows that have been removed from the original data source
+	 * and filters the rows whose windows contained them.
+	 * @param source Data source that has been changed.
+	 * @param events Event objects describing the removed rows.
+	 * @return {@code true} if the rows have been filtered incrementally,
+	 *         {@code false} if all rows have to be filtered again.
+	 */
+	private boolean filterRemoved(DataSource source, DataChangeEvent[] events) {
+		int[] changed = getChangedRows(source, events, true);
+		if (changed == null) {
+			return false;
+		}
+		int rowMin = changed[0];
+		int count = changed[1] - rowMin + 1;
+		if (changed[1] >= size || size - count != original.getRowCount()) {
+			return false;
+		}
+		removeRows(rowMin, count);
+		filterChanged(rowMin - 1, rowMin);
+		return true;
+	}
+
+	/**
+	 * Returns the range of original rows that is described by the specified
+	 * events if the changes can be filtered incrementally.
+	 * @param source Data source that has been changed.
+	 * @param events Event objects describing the changed rows.
+	 * @param contiguous Decides whether the events must describe a
+	 *        contiguous range of rows without gaps.
+	 * @return Array with the first and the last changed row, and the number
+	 *         of rows by which the data has been shifted, or {@code null}
+	 *         if all rows have to be filtered again.
+	 */
+	private int[] getChangedRows(DataSource source, DataChangeEvent[] events,
+			boolean contiguous) {
+		if (source != original || events == null || events.length == 0 ||
+				getMode() == Mode.CIRCULAR) {
+			return null;
+		}
+		int[] window = getWindow();
+		if (window == null) {
+			return null;
+		}
+		// Rows near the borders are mirrored or repeated, so the data must be
+		// longer than the windows at both borders
+		int span = Math.max(window[1], 0) - Math.min(window[0], 0);
+		if (Math.min(size, original.getRowCount()) <= 2*span) {
+			return null;
+		}
+		int col = events[0].getCol();
+		int rowMin = Integer.MAX_VALUE;
+		int rowMax = Integer.MIN_VALUE;
+		int rowCountCol = 0;
+		int shift = events[0].getShift();
+		for (DataChangeEvent event : events) {
+			if (event.getSource() != original || event.getShift() != shift ||
+					event.getRowCount() <= 0) {
+				return null;
+			}
+			rowMin = Math.min(rowMin, event.getRow());
+			rowMax = Math.max(rowMax, event.getRow() + event.getRowCount() - 1);
+			if (event.getCol() == col) {
+				rowCountCol += event.getRowCount();
+			}
+		}
+		if (rowMin < 0 || (contiguous && rowCountCol != rowMax - rowMin + 1)) {
+			return null;
+		}
+		return new int[] {rowMin, rowMax, shift};
+	}
+
+	/**
+	 * Filters again all rows whose windows contain at least one of the
+	 * specified original rows. If the rows are close to the first or the last row,
+	 * all rows up to that border are filtered, because values outside the
+	 * data source are taken from rows near the border.
+	 * @param rowMin First original row that has changed.
+	 * @param rowMax Last original row that has changed.
+	 */
+	private void filterChanged(int rowMin, int rowMax) {
+		int[] window = getWindow();
+		int windowStart = Math.min(window[0], 0);
+		int windowEnd = Math.max(window[1], 0);
+		int span = windowEnd - windowStart;
+		int rowLast = size - 1;
+		int first = rowMin - windowEnd;
+		int last = rowMax - windowStart;
+		if (rowMin <= span) {
+			first = 0;
+		}
+		if (rowMax >= rowLast - span) {
+			last = rowLast;
+		}
+		first = Math.max(first, 0);
+		last = Math.min(last, rowLast);
+		if (first > last) {
+			return;
+		}
+		double[][] filtered = filterColumns(first, last - first + 1);
+		for (int colPos = 0; colPos < filtered.length; colPos++) {
+			columns[colPos].set(first, filtered[colPos], 0, filtered[colPos].length);
+		}
+	}
+
+	/**
+	 * Filters all rows with {@link #filterColumn(int, int, double[])}. Each
+	 * column is filtered separately. If an executor has been set, the
+	 * columns are filtered in parallel, and columns of filters with a
+	 * window are also split into blocks of rows.
+	 */
+	protected void filterColumns() {
+		int rowCount = getRowCount();
+		double[][] filtered = filterColumns(0, rowCount);
+		columns = new ChunkedColumn[filtered.length];
+		for (int colPos = 0; colPos < filtered.length; colPos++) {
+			columns[colPos] = new ChunkedColumn(filtered[colPos]);
+		}
+		size = rowCount;
+	}
+
+	/**
+	 * Filters a range of rows of all filtered columns.
+	 * @param first Index of the first row.
+	 * @param count Number of rows.
+	 * @return Filtered values for each filtered column.
+	 */
+	private double[][] filterColumns(final int first, final int count) {
+		int colCount = getColumnCountFiltered();
+		final double[][] filtered = new double[colCount][count];
+		int blockSize = count;
+		int[] window = getWindow();
+		if (executor != null && window != null) {
+			// Blocks have to be large compared to the window that is read
+			// in addition to the rows of the block
+			int span = Math.max(window[1], 0) - Math.min(window[0], 0);
+			blockSize = Math.max(MIN_BLOCK_SIZE, 8*span);
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int col = 0; col < colCount; col++) {
+			for (int start = 0; start < count; start += blockSize) {
+				final int colIndex = col;
+				final int blockStart = start;
+				final int blockLength = Math.min(blockSize, count - start);
+				tasks.add(new Callable<Void>() {
+					public Void call() {
+						double[] column = filtered[colIndex];
+						if (blockLength == count) {
+							filterColumn(colIndex, first, column);
+						} else {
+							double[] block = new double[blockLength];
+							filterColumn(colIndex, first + blockStart, block);
+							System.arraycopy(block, 0, column, blockStart, blockLength);
+						}
+						return null;
+					}
+				});
+			}
+		}
+		invokeAll(tasks);
+		return filtered;
+	}
+
+	/**
+	 * Runs the specified tasks with the executor, or in the current thread if
+	 * no executor has been set.
+	 * @param tasks Tasks to be run.
 	 */
-	private void dataChanged(DataSource source, DataChangeEvent... events) {
-		filter();
+	private void invokeAll(List<Callable<Void>> tasks) {
+		ExecutorService executor = this.executor;
+		try {
+			if (executor == null || tasks.size() <= 1) {
+				for (Callable<Void> task : tasks) {
+					task.call();
+				}
+				return;
+			}
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+				"Filtering has been interrupted.", e); //$NON-NLS-1$
+		} catch (ExecutionException e) {
+			rethrow(e.getCause());
+		} catch (Exception e) {
+			rethrow(e);
+		}
+	}
+
+	private static void rethrow(Throwable t) {
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new IllegalStateException(t);
 	}
 
 	/**
@@ -346,6 +914,62 @@ public abstract class Filter2D extends AbstractDataSource
 	 */
 	protected abstract void filter();
 
+	/**
+	 * Returns the range of original rows that is used to calculate a
+	 * filtered row. The range is specified by the offsets of its first and
+	 * its last row relative to the filtered row. If a range is returned,
+	 * changes of the original data source are filtered incrementally with
+	 * {@link #filterColumn(int, int, double[])}, and the values must not
+	 * depend on the number of rows apart from the border handling. By
+	 * default, {@code null} is returned and all rows are filtered again with
+	 * {@link #filter()}.
+	 * @return Array with the offsets of the first and the last row, or
+	 *         {@code null} if rows can't be filtered separately.
+	 */
+	protected int[] getWindow() {
+		return null;
+	}
+
+	/**
+	 * Calculates the filtered values of consecutive rows in one column.
+	 * This method is invoked by {@link #filterColumns()} and for
+	 * incremental updates. It may be invoked concurrently for different
+	 * columns and blocks of rows if an executor has been set, so it must
+	 * not modify the state of the filter.
+	 * Filters that call {@link #filterColumns()} or return a
+	 * {@link #getWindow() window} must override this method. The default
+	 * implementation is never invoked for other filters, and it throws an
+	 * {@code UnsupportedOperationException} if it is invoked anyway.
+	 * @param col Index of the filtered column.
+	 * @param first Index of the first row.
+	 * @param dst Array that receives the filtered value of each row.
+	 */
+	protected void filterColumn(int col, int first, double[] dst) {
+		throw new UnsupportedOperationException(MessageFormat.format(
+			"{0} has to override filterColumn(int, int, double[]) to filter columns separately.", //$NON-NLS-1$
+			getClass().getName()));
+	}
+
+	/**
+	 * Returns the executor that filters columns in parallel.
+	 * @return Executor, or {@code null} if filtering takes place in the
+	 *         thread that has changed the data.
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets an executor, e.g. a {@code ForkJoinPool}, that filters columns
+	 * and blocks of rows in parallel. This only affects filters that
+	 * calculate their columns separately. The executor isn't serialized.
+	 * @param executor Executor, or {@code null} to filter in the thread that
+	 *        has changed the data.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 	/**
 	 * Returns the Mode of this Filter2D.
 	 * @return Mode of filtering.
@@ -376,7 +1000,7 @@ public abstract class Filter2D extends AbstractDataSource
 		in.defaultReadObject();
 
 		// Handle transient fields
-		rows = new ArrayList<>();
+		columns = new ChunkedColumn[0];
 
 		// Update caches
 		original.addDataListener(this);
@@ -0,0 +1,119 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+/**
+ * Class that computes the discrete Fourier transform of complex values with
+ * the radix-2 algorithm by Cooley and Tukey. The values are transformed in
+ * place, and the number of values must be a power of two. The sine and
+ * cosine values are computed once for each instance, so an instance should
+ * be reused for transforms of the same size.
+ */
+final class FourierTransform {
+	/** Number of values. */
+	private final int size;
+	/** Cosine of the angles {@code 2*pi*i/size}. */
+	private final double[] cos;
+	/** Sine of the angles {@code 2*pi*i/size}. */
+	private final double[] sin;
+
+	/**
+	 * Initializes a new instance for the specified number of values.
+	 * @param size Number of values, which must be a power of two.
+	 */
+	public FourierTransform(int size) {
+		if (size <= 0 || (size & (size - 1)) != 0) {
+			throw new IllegalArgumentException(
+				"The size must be a power of two."); //$NON-NLS-1$
+		}
+		this.size = size;
+		cos = new double[size/2];
+		sin = new double[size/2];
+		for (int i = 0; i < size/2; i++) {
+			double angle = 2.0*Math.PI*i/size;
+			cos[i] = Math.cos(angle);
+			sin[i] = Math.sin(angle);
+		}
+	}
+
+	/**
+	 * Returns the number of values that are transformed.
+	 * @return Number of values.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Transforms the specified values in place.
+	 * @param re Real parts of the values.
+	 * @param im Imaginary parts of the values.
+	 * @param inverse {@code true} for the inverse transform, which includes
+	 *        the division by the number of values.
+	 */
+	public void transform(double[] re, double[] im, boolean inverse) {
+		// Bit reversal permutation
+		for (int i = 1, j = 0; i < size; i++) {
+			int bit = size >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j) {
+				double tmp = re[i];
+				re[i] = re[j];
+				re[j] = tmp;
+				tmp = im[i];
+				im[i] = im[j];
+				im[j] = tmp;
+			}
+		}
+
+		// Butterflies
+		double sign = inverse ? 1.0 : -1.0;
+		for (int length = 2; length <= size; length <<= 1) {
+			int half = length >> 1;
+			int step = size/length;
+			for (int start = 0; start < size; start += length) {
+				for (int k = 0; k < half; k++) {
+					double wRe = cos[k*step];
+					double wIm = sign*sin[k*step];
+					int even = start + k;
+					int odd = even + half;
+					double oddRe = re[odd]*wRe - im[odd]*wIm;
+					double oddIm = re[odd]*wIm + im[odd]*wRe;
+					re[odd] = re[even] - oddRe;
+					im[odd] = im[even] - oddIm;
+					re[even] += oddRe;
+					im[even] += oddIm;
+				}
+			}
+		}
+
+		if (inverse) {
+			for (int i = 0; i < size; i++) {
+				re[i] /= size;
+				im[i] /= size;
+			}
+		}
+	}
+}
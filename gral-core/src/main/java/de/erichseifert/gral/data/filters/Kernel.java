@@ -81,14 +81,14 @@ public class Kernel implements Serializable {
 	public static Kernel getBinomial(int size) {
 		double[] values = new double[size];
 		values[0] = 1.0;
-		for (int i = 0; i < size - 1; i++) {
-			values[0] /= 2.0;
-		}
 
-		for (int i = 0; i < size; i++) {
+		// Each row of Pascal's triangle is halved, so that the values of
+		// large kernels don't underflow
+		for (int i = 1; i < size; i++) {
 			for (int j = i; j > 0; j--) {
-				values[j] += values[j - 1];
+				values[j] = (values[j] + values[j - 1])/2.0;
 			}
+			values[0] /= 2.0;
 		}
 
 		return new Kernel(values);
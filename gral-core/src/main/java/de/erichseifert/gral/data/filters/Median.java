@@ -23,15 +23,14 @@ package de.erichseifert.gral.data.filters;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 import de.erichseifert.gral.data.DataSource;
-import de.erichseifert.gral.util.MathUtils;
 
 
 /**
- * <p>Class that calculates the median of a data sequence.</p>
+ * <p>Class that calculates the median of a data sequence. Windows with an
+ * even number of values return the mean of the two middle values, and
+ * windows with an odd number of values return the middle value.</p>
  * <ul>
  *   <li>Setting and getting offset</li>
  *   <li>Setting and getting window size</li>
@@ -72,63 +71,54 @@ public class Median extends Filter2D {
 		if (getWindowSize() <= 0) {
 			return;
 		}
-		List<List<Double>> colWindows =
-				new ArrayList<>(getColumnCount());
-		for (int colIndex = 0; colIndex < getColumnCountFiltered(); colIndex++) {
-			int colIndexOriginal = getIndexOriginal(colIndex);
-			List<Double> window = new ArrayList<>(getWindowSize());
-			colWindows.add(window);
-			// Pre-fill window
-			for (int rowIndex = getOffset() - getWindowSize(); rowIndex < 0; rowIndex++) {
-				Comparable<?> vOrig = getOriginal(colIndexOriginal, rowIndex);
-				double v = ((Number) vOrig).doubleValue();
-				window.add(v);
-			}
-		}
-		for (int rowIndex = 0; rowIndex < getRowCount(); rowIndex++) {
-			Double[] filteredRow = new Double[getColumnCountFiltered()];
-			for (int colIndex = 0; colIndex < filteredRow.length; colIndex++) {
-				List<Double> window = colWindows.get(colIndex);
-				if (window.size() >= getWindowSize()) {
-					window.remove(0);
-				}
-				int colIndexOriginal = getIndexOriginal(colIndex);
-				Comparable<?> vOrig = getOriginal(colIndexOriginal,
-						rowIndex - getOffset() + getWindowSize());
-				double v = ((Number) vOrig).doubleValue();
-				window.add(v);
-				filteredRow[colIndex] = median(window);
-			}
-			add(filteredRow);
+		filterColumns();
+	}
+
+	@Override
+	protected int[] getWindow() {
+		if (getWindowSize() <= 0) {
+			return null;
 		}
+		// The first windows also contain the values before the first row
+		return new int[] {
+			Math.min(1 - getWindowSize(), 1 - getOffset()),
+			getWindowSize() - getOffset()
+		};
 	}
 
 	/**
-	 * Calculates the median for the specified values in the window.
-	 * @param w List of values the median will be calculated for.
-	 * @return Median.
+	 * Calculates the medians of a range of rows in one column by sliding a
+	 * window over the original rows. The window is pre-filled with the
+	 * values before the first row, and then one value is added for each row.
+	 * The median of each step is found in logarithmic time by
+	 * {@link RunningMedian}.
+	 * @param col Index of the filtered column.
+	 * @param first Index of the first row.
+	 * @param dst Array that receives the medians.
 	 */
-	private double median(List<Double> w) {
-		if (w.size() == 1) {
-			return w.get(0);
-		}
-		List<Double> window = new ArrayList<>(w.size());
-		for (Double v : w) {
-			if (!MathUtils.isCalculatable(v)) {
-				return Double.NaN;
+	@Override
+	protected void filterColumn(int col, int first, double[] dst) {
+		// Steps of the window: first the values that pre-fill the window,
+		// then one value for each row
+		int prefillCount = Math.max(getWindowSize() - getOffset(), 0);
+		int stepFirst = Math.max(prefillCount + first + 1 - getWindowSize(), 0);
+		int stepLast = prefillCount + first + dst.length - 1;
+		int colIndexOriginal = getIndexOriginal(col);
+		RunningMedian window = new RunningMedian(getWindowSize());
+		for (int step = stepFirst; step <= stepLast; step++) {
+			int rowIndexOriginal;
+			if (step < prefillCount) {
+				rowIndexOriginal = getOffset() - getWindowSize() + step;
+			} else {
+				rowIndexOriginal = step - prefillCount - getOffset() + getWindowSize();
+			}
+			Comparable<?> vOrig = getOriginal(colIndexOriginal, rowIndexOriginal);
+			window.add(((Number) vOrig).doubleValue());
+			int rowIndex = step - prefillCount;
+			if (rowIndex >= first) {
+				dst[rowIndex - first] = window.getMedian();
 			}
-			window.add(v);
-		}
-		int medianIndex = MathUtils.randomizedSelect(
-				window, 0, window.size() - 1, window.size()/2);
-		double median = window.get(medianIndex);
-		if ((window.size() & 1) == 0) {
-			int medianUpperIndex = MathUtils.randomizedSelect(
-					window, 0, window.size() - 1, window.size()/2 + 1);
-			double medianUpper = window.get(medianUpperIndex);
-			median = (median + medianUpper)/2.0;
 		}
-		return median;
 	}
 
 	/**
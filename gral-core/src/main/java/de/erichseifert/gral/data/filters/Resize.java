@@ -23,13 +23,8 @@ package de.erichseifert.gral.data.filters;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.util.Arrays;
-import java.util.Iterator;
 
-import de.erichseifert.gral.data.Column;
 import de.erichseifert.gral.data.DataSource;
-import de.erichseifert.gral.data.DataTable;
-import de.erichseifert.gral.data.Record;
 
 /**
  * Filter2D to change the size of equally spaced data sources. All columns of the
@@ -77,14 +72,49 @@ public class Resize extends Filter2D {
 
 	@Override
 	public Comparable<?> get(int col, int row) {
-		if ((cols <= 0 || cols == getOriginal().getColumnCount()) &&
-			(rows <= 0 || rows == getOriginal().getRowCount())) {
+		if (isOriginalSize()) {
 			return getOriginal(col, row);
 		}
 		return super.get(col, row);
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public double getDouble(int col, int row) {
+		if (isOriginalSize()) {
+			return getOriginal().getDouble(col, row);
+		}
+		return super.getDouble(col, row);
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		if (isOriginalSize()) {
+			getOriginal().copyColumn(col, dst, fromRow, len);
+			return;
+		}
+		super.copyColumn(col, dst, fromRow, len);
+	}
+
+	@Override
+	public DataSource snapshot() {
+		return snapshot(!isOriginalSize());
+	}
+
+	/**
+	 * Returns whether the original data source already has the requested
+	 * size, so that its values can be returned directly.
+	 * @return {@code true} if no values have to be averaged.
+	 */
+	private boolean isOriginalSize() {
+		return (cols <= 0 || cols == getOriginal().getColumnCount()) &&
+			(rows <= 0 || rows == getOriginal().getRowCount());
+	}
+
+	@Override
+	protected int getColumnCountFiltered() {
+		return getColumnCount();
+	}
+
 	@Override
 	protected void filter() {
 		clear();
@@ -93,73 +123,74 @@ public class Resize extends Filter2D {
 				&& (getColumnCount() == original.getColumnCount())) {
 			return;
 		}
+		filterColumns();
+	}
 
-		DataSource data = original;
-		if (getRowCount() != original.getRowCount()) {
-			Class[] dataTypes = new Class[original.getColumnCount()];
-			Arrays.fill(dataTypes, Double.class);
-			DataTable avgRows = new DataTable(dataTypes);
-			fillWithEmptyRows(avgRows, getRowCount());
-
-			double step = original.getRowCount() / (double) getRowCount();
-			for (int colIndex = 0; colIndex < original.getColumnCount(); colIndex++) {
-				Column colData = original.getColumn(colIndex);
-				for (int rowIndex = 0; rowIndex < getRowCount(); rowIndex++) {
-					double start = rowIndex*step;
-					double end   = (rowIndex + 1)*step;
-					avgRows.set(colIndex, rowIndex,
-							average(colData, start, end));
-				}
-			}
-			data = avgRows;
+	@Override
+	protected int[] getWindow() {
+		// Averaging rows depends on the number of rows, while averaging
+		// columns only depends on the row itself
+		if (rows > 0 || getColumnCount() == getOriginal().getColumnCount()) {
+			return null;
 		}
-		if (getColumnCount() != original.getColumnCount()) {
-			Class[] dataTypes = new Class[getColumnCount()];
-			Arrays.fill(dataTypes, Double.class);
-			DataTable avgCols = new DataTable(dataTypes);
-			fillWithEmptyRows(avgCols, data.getRowCount());
-
-			double step = original.getColumnCount() / (double) getColumnCount();
-			for (int rowIndex = 0; rowIndex < data.getRowCount(); rowIndex++) {
-				Record rowData = data.getRecord(rowIndex);
-				for (int colIndex = 0; colIndex < getColumnCount(); colIndex++) {
-					double start = colIndex*step;
-					double end   = (colIndex + 1)*step;
-					avgCols.set(colIndex, rowIndex,
-							average(rowData, start, end));
-				}
-			}
-			data = avgCols;
+		return new int[] {0, 0};
+	}
+
+	/**
+	 * Calculates the values of a range of rows in one column. The rows are
+	 * averaged first, and then the columns.
+	 * @param col Index of the resized column.
+	 * @param first Index of the first row.
+	 * @param dst Array that receives the values.
+	 */
+	@Override
+	protected void filterColumn(int col, int first, double[] dst) {
+		int colCountOriginal = getOriginal().getColumnCount();
+		if (getColumnCount() == colCountOriginal) {
+			averageRows(col, first, dst);
+			return;
 		}
 
-		for (int rowIndex = 0; rowIndex < data.getRowCount(); rowIndex++) {
-			Record row = data.getRecord(rowIndex);
-			Double[] rowValues = new Double[row.size()];
-			for (int columnIndex = 0; columnIndex < rowValues.length; columnIndex++) {
-				rowValues[columnIndex] = row.get(columnIndex);
+		double step = colCountOriginal / (double) getColumnCount();
+		double start = col*step;
+		double end   = (col + 1)*step;
+		double[] sums = new double[dst.length];
+		double[] values = new double[dst.length];
+		for (int i = (int) Math.floor(start); i < (int) Math.ceil(end); i++) {
+			averageRows(i, first, values);
+			double weight = getWeight(i, start, end);
+			for (int rowIndex = 0; rowIndex < sums.length; rowIndex++) {
+				sums[rowIndex] += weight*values[rowIndex];
 			}
-			add(rowValues);
+		}
+		for (int rowIndex = 0; rowIndex < dst.length; rowIndex++) {
+			dst[rowIndex] = sums[rowIndex] / (end - start);
 		}
 	}
 
 	/**
-	 * Utility method that fills a data table with empty rows.
-	 * @param data Data table that should be filled.
-	 * @param count Number of rows that were added.
+	 * Calculates the values of a range of rows in an original column with
+	 * the resized number of rows.
+	 * @param colOriginal Index of the original column.
+	 * @param first Index of the first row.
+	 * @param dst Array that receives the values.
 	 */
-	private static void fillWithEmptyRows(DataTable data, int count) {
-		while (data.getRowCount() < count) {
-			Double[] emptyRow = new Double[data.getColumnCount()];
-			Arrays.fill(emptyRow, 0.0);
-			data.add(emptyRow);
+	private void averageRows(int colOriginal, int first, double[] dst) {
+		DataSource original = getOriginal();
+		int rowCountOriginal = original.getRowCount();
+		if (getRowCount() == rowCountOriginal) {
+			original.copyColumn(colOriginal, dst, first, dst.length);
+			return;
 		}
-	}
 
-	private static <T> Iterator<T> advance(Iterator<T> iterator, int elementCount) {
-		for (int elementIndex = 0; elementIndex < elementCount; elementIndex++) {
-			iterator.next();
+		double[] values = new double[rowCountOriginal];
+		original.copyColumn(colOriginal, values, 0, rowCountOriginal);
+		double step = rowCountOriginal / (double) getRowCount();
+		for (int rowIndex = 0; rowIndex < dst.length; rowIndex++) {
+			double start = (first + rowIndex)*step;
+			double end   = (first + rowIndex + 1)*step;
+			dst[rowIndex] = average(values, start, end);
 		}
-		return iterator;
 	}
 
 	/**
@@ -169,27 +200,34 @@ public class Resize extends Filter2D {
 	 * @param end End index.
 	 * @return Arithmetic mean.
 	 */
-	private static double average(Iterable<? extends Comparable<?>> data, double start, double end) {
+	private static double average(double[] data, double start, double end) {
+		double sum = 0.0;
+		for (int i = (int) Math.floor(start); i < (int) Math.ceil(end); i++) {
+			sum += getWeight(i, start, end)*data[i];
+		}
+		return sum / (end - start);
+	}
+
+	/**
+	 * Returns the weight of a value when all values between start and end
+	 * are averaged. Only the first and the last value are partially
+	 * included.
+	 * @param i Index of the value.
+	 * @param start Start index.
+	 * @param end End index.
+	 * @return Weight of the value.
+	 */
+	private static double getWeight(int i, double start, double end) {
 		int startFloor = (int) Math.floor(start);
 		int startCeil  = (int) Math.ceil(start);
 		int endFloor = (int) Math.floor(end);
 		int endCeil = (int) Math.ceil(end);
-
-		double sum = 0.0;
-		Iterator<? extends Comparable<?>> dataIterator = data.iterator();
-		advance(dataIterator, startFloor);
-		for (int i = startFloor; i < endCeil; i++) {
-			Number number = (Number) dataIterator.next();
-			double val = number.doubleValue();
-			if (i == startFloor && startCeil != start) {
-				sum += (startCeil - start) * val;
-			} else if (i == endCeil - 1 && endFloor != end) {
-				sum += (end - endFloor) * val;
-			} else {
-				sum += val;
-			}
+		if (i == startFloor && startCeil != start) {
+			return startCeil - start;
+		} else if (i == endCeil - 1 && endFloor != end) {
+			return end - endFloor;
 		}
-		return sum / (end - start);
+		return 1.0;
 	}
 
 	/**
@@ -0,0 +1,318 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import java.util.Arrays;
+
+import de.erichseifert.gral.util.MathUtils;
+
+/**
+ * <p>Class that calculates the median of a sliding window of values. Values
+ * are added to the end of the window and the oldest value is removed when
+ * the window is full. Adding a value takes logarithmic time in the size of
+ * the window.</p>
+ *
+ * <p>The smaller half of the values is stored in a max-heap and the larger
+ * half in a min-heap, so the median is found at the tops of the heaps.
+ * Removed values are marked as outdated and are discarded when they reach
+ * the top of a heap.</p>
+ *
+ * <p>Windows with an odd number of values return the middle value. Earlier
+ * versions of {@link Median} returned the value with the rank <i>n</i>/2
+ * instead, which is the value below the middle, e.g. the minimum of three
+ * values.</p>
+ */
+final class RunningMedian {
+	/** Location of values that can't be used for calculations. */
+	private static final byte INVALID = 0;
+	/** Location of values in the heap of smaller values. */
+	private static final byte LOWER = 1;
+	/** Location of values in the heap of larger values. */
+	private static final byte UPPER = 2;
+
+	/** Maximal number of values in the window. */
+	private final int capacity;
+	/** Values of the window, stored in a circular array. */
+	private final double[] values;
+	/** Heap of each value of the window. */
+	private final byte[] locations;
+	/** Max-heap that contains the smaller half of the values. */
+	private final Heap lower;
+	/** Min-heap that contains the larger half of the values. */
+	private final Heap upper;
+
+	/** Sequence number of the oldest value in the window. */
+	private long first;
+	/** Sequence number of the next value that will be added. */
+	private long next;
+	/** Number of values in the window that are stored in the lower heap. */
+	private int lowerCount;
+	/** Number of values in the window that are stored in the upper heap. */
+	private int upperCount;
+	/** Number of values in the window that can't be used for calculations. */
+	private int invalidCount;
+
+	/**
+	 * Initializes a new empty window with the specified size.
+	 * @param capacity Maximal number of values in the window.
+	 */
+	public RunningMedian(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(
+				"The window must have a positive size."); //$NON-NLS-1$
+		}
+		this.capacity = capacity;
+		values = new double[capacity];
+		locations = new byte[capacity];
+		lower = new Heap(true);
+		upper = new Heap(false);
+	}
+
+	/**
+	 * Returns the number of values in the window.
+	 * @return Number of values.
+	 */
+	public int size() {
+		return (int) (next - first);
+	}
+
+	/**
+	 * Adds a value to the end of the window. If the window is full, the
+	 * oldest value is removed.
+	 * @param value Value to be added.
+	 */
+	public void add(double value) {
+		if (size() == capacity) {
+			first++;
+			int index = getIndex(first - 1);
+			if (locations[index] == LOWER) {
+				lowerCount--;
+			} else if (locations[index] == UPPER) {
+				upperCount--;
+			} else {
+				invalidCount--;
+			}
+			lower.prune(first);
+			upper.prune(first);
+		}
+
+		int index = getIndex(next);
+		values[index] = value;
+		if (!MathUtils.isCalculatable(value)) {
+			locations[index] = INVALID;
+			invalidCount++;
+		} else if (lowerCount == 0 || value <= lower.peek()) {
+			lower.push(value, next);
+			locations[index] = LOWER;
+			lowerCount++;
+		} else {
+			upper.push(value, next);
+			locations[index] = UPPER;
+			upperCount++;
+		}
+		next++;
+
+		balance();
+	}
+
+	/**
+	 * Returns the median of the values in the window. Windows with more than
+	 * one value return <i>NaN</i> if they contain values that can't be used
+	 * for calculations.
+	 * @return Median of the window, or <i>NaN</i> if the window is empty.
+	 */
+	public double getMedian() {
+		if (size() == 1) {
+			return values[getIndex(first)];
+		}
+		if (invalidCount > 0 || lowerCount == 0) {
+			return Double.NaN;
+		}
+		if (lowerCount > upperCount) {
+			// Middle value for odd window sizes
+			return lower.peek();
+		}
+		return (lower.peek() + upper.peek())/2.0;
+	}
+
+	/**
+	 * Moves values between the heaps until the lower heap contains as many
+	 * values as the upper heap or one more. Heaps that consist mostly of
+	 * outdated values are compacted.
+	 */
+	private void balance() {
+		while (lowerCount > upperCount + 1) {
+			move(lower, upper, UPPER);
+			lowerCount--;
+			upperCount++;
+		}
+		while (upperCount > lowerCount) {
+			move(upper, lower, LOWER);
+			upperCount--;
+			lowerCount++;
+		}
+		lower.compact(first, lowerCount);
+		upper.compact(first, upperCount);
+	}
+
+	/**
+	 * Moves the top value of a heap to another heap.
+	 * @param source Heap whose top value is removed.
+	 * @param target Heap the value is added to.
+	 * @param location Location of values in the target heap.
+	 */
+	private void move(Heap source, Heap target, byte location) {
+		long seq = source.peekSeq();
+		target.push(source.peek(), seq);
+		locations[getIndex(seq)] = location;
+		source.pop();
+		source.prune(first);
+	}
+
+	private int getIndex(long seq) {
+		return (int) (seq % capacity);
+	}
+
+	/**
+	 * Binary heap of values and their sequence numbers. The heap is stored in
+	 * primitive arrays to avoid creating objects for each value.
+	 */
+	private static final class Heap {
+		/** Minimal number of array elements. */
+		private static final int MIN_CAPACITY = 16;
+
+		/** Decides whether the largest value is on top. */
+		private final boolean descending;
+		/** Values of the heap, negated for max-heaps. */
+		private double[] keys;
+		/** Sequence numbers of the values. */
+		private long[] seqs;
+		/** Number of entries in the heap, including outdated ones. */
+		private int size;
+
+		/**
+		 * Initializes a new empty heap.
+		 * @param descending {@code true} for a max-heap,
+		 *        {@code false} for a min-heap.
+		 */
+		public Heap(boolean descending) {
+			this.descending = descending;
+			keys = new double[MIN_CAPACITY];
+			seqs = new long[MIN_CAPACITY];
+		}
+
+		public double peek() {
+			return descending ? -keys[0] : keys[0];
+		}
+
+		public long peekSeq() {
+			return seqs[0];
+		}
+
+		public void push(double value, long seq) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, 2*size);
+				seqs = Arrays.copyOf(seqs, 2*size);
+			}
+			keys[size] = descending ? -value : value;
+			seqs[size] = seq;
+			siftUp(size++);
+		}
+
+		public void pop() {
+			size--;
+			keys[0] = keys[size];
+			seqs[0] = seqs[size];
+			siftDown(0);
+		}
+
+		/**
+		 * Removes outdated values from the top of the heap.
+		 * @param first Sequence number of the oldest value that is still valid.
+		 */
+		public void prune(long first) {
+			while (size > 0 && seqs[0] < first) {
+				pop();
+			}
+		}
+
+		/**
+		 * Removes all outdated values if they take up most of the heap.
+		 * @param first Sequence number of the oldest value that is still valid.
+		 * @param count Number of valid values.
+		 */
+		public void compact(long first, int count) {
+			if (size <= 2*count + MIN_CAPACITY) {
+				return;
+			}
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (seqs[i] >= first) {
+					keys[kept] = keys[i];
+					seqs[kept] = seqs[i];
+					kept++;
+				}
+			}
+			size = kept;
+			for (int i = size/2 - 1; i >= 0; i--) {
+				siftDown(i);
+			}
+		}
+
+		private void siftUp(int i) {
+			while (i > 0) {
+				int parent = (i - 1)/2;
+				if (keys[parent] <= keys[i]) {
+					break;
+				}
+				swap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+			while (true) {
+				int child = 2*i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					child++;
+				}
+				if (keys[i] <= keys[child]) {
+					break;
+				}
+				swap(i, child);
+				i = child;
+			}
+		}
+
+		private void swap(int i, int j) {
+			double key = keys[i];
+			keys[i] = keys[j];
+			keys[j] = key;
+			long seq = seqs[i];
+			seqs[i] = seqs[j];
+			seqs[j] = seq;
+		}
+	}
+}
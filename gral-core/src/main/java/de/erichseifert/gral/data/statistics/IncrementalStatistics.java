@@ -0,0 +1,465 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.statistics;
+
+import java.util.Arrays;
+
+import de.erichseifert.gral.data.DataChangeEvent;
+import de.erichseifert.gral.data.DataListener;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.util.MathUtils;
+
+/**
+ * <p>Class that maintains column-wise statistics of a data source and
+ * updates them incrementally when the data changes. Appended rows are added
+ * to the statistics in constant time per value. Updated or removed values
+ * are subtracted from the statistics unless they are the current minimum or
+ * maximum of their column, in which case only this column is computed again
+ * the next time it is queried.</p>
+ *
+ * <p>The instance has to be notified of changes, either by registering it
+ * as a listener of the data source or by forwarding the events of another
+ * listener:</p>
+ * <pre>
+ * IncrementalStatistics stats = new IncrementalStatistics(data);
+ * data.addDataListener(stats);
+ * double max = stats.get(0, Statistics.MAX);
+ * </pre>
+ *
+ * <p>Only events that originate from the observed data source itself are
+ * used for incremental updates. Other events, e.g. those forwarded by
+ * filters, cause a complete computation on the next query.</p>
+ *
+ * <p>Values are read from a {@link DataSource#snapshot() snapshot} of the
+ * data source, so queries may run concurrently with a thread that modifies
+ * the data. Events describing changes that are already contained in the
+ * snapshot are ignored.</p>
+ *
+ * <p>If rows are evicted from the start of the data source, e.g. by a full
+ * {@link de.erichseifert.gral.data.RingBufferDataTable}, the values of the
+ * evicted rows are taken from the snapshot that was read last and
+ * subtracted from the statistics. This requires data sources that report
+ * evictions to return immutable snapshots. The rows that have been appended are
+ * added on the next query. With the first eviction, the minimum and maximum
+ * of each column are tracked in a sliding window, so that evicting an
+ * extremum doesn't require the column to be computed again.</p>
+ */
+public class IncrementalStatistics implements DataListener {
+	/** Data source whose columns are analyzed. */
+	private final DataSource source;
+	/** Accumulated values for each column. */
+	private Moments[] columns;
+	/** Decides for each column whether its accumulated values can be used. */
+	private boolean[] columnValid;
+	/** Minimum and maximum of each column if rows have been evicted, or
+	{@code null} if the column has not been used as a sliding window. */
+	private SlidingExtrema[] extrema;
+	/** Position of the first row, counted from the first row that has been
+	accumulated since the last complete computation. */
+	private long offset;
+	/** Number of rows that have been added to the accumulators. */
+	private int rowsSeen;
+	/** Decides whether the accumulated values can be used. */
+	private boolean valid;
+	/** Version of the data that was read last. */
+	private long version;
+	/** Snapshot that was read last, or {@code null} if the accumulated rows
+	have been changed since. */
+	private DataSource snapshot;
+	/** Number of rows at the start of the snapshot that have been evicted
+	from the statistics. */
+	private int evicted;
+
+	/**
+	 * Initializes a new instance for the specified data source. The
+	 * statistics are computed lazily when they are first queried.
+	 * @param source Data source to be analyzed.
+	 */
+	public IncrementalStatistics(DataSource source) {
+		this.source = source;
+		valid = false;
+		version = -1L;
+	}
+
+	/**
+	 * Returns the data source that is analyzed.
+	 * @return Data source.
+	 */
+	public DataSource getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns the specified statistics value of a column.
+	 * Quantiles are not maintained incrementally and are computed from the
+	 * column values for each query.
+	 * @param col Column index.
+	 * @param key Requested information, e.g. {@link Statistics#MAX}.
+	 * @return The value for the specified key, or <i>NaN</i> if the value
+	 *         does not exist.
+	 */
+	public synchronized double get(int col, String key) {
+		if (Statistics.MEDIAN.equals(key) || Statistics.QUARTILE_1.equals(key) ||
+				Statistics.QUARTILE_2.equals(key) || Statistics.QUARTILE_3.equals(key)) {
+			return getQuantile(source.snapshot(), col, key);
+		}
+		if (!valid || columns == null || source.getVersion() != version ||
+				(col >= 0 && col < columns.length && !columnValid[col])) {
+			update(source.snapshot());
+		}
+		if (col < 0 || col >= columns.length) {
+			return Double.NaN;
+		}
+		SlidingExtrema range = extrema[col];
+		if (range != null && Statistics.MIN.equals(key)) {
+			return range.getMin();
+		} else if (range != null && Statistics.MAX.equals(key)) {
+			return range.getMax();
+		}
+		return columns[col].get(key);
+	}
+
+	/**
+	 * Calculates a quantile of a column from its primitive values.
+	 * @param data Snapshot of the data source.
+	 * @param col Column index.
+	 * @param key Requested quantile, e.g. {@link Statistics#MEDIAN}.
+	 * @return Quantile, or <i>NaN</i> if the column doesn't contain any
+	 *         values that can be used for calculations.
+	 */
+	private static double getQuantile(DataSource data, int col, String key) {
+		if (col < 0 || col >= data.getColumnCount()) {
+			return Double.NaN;
+		}
+		double[] values = new double[data.getRowCount()];
+		data.copyColumn(col, values, 0, values.length);
+		int count = 0;
+		for (double value : values) {
+			if (MathUtils.isCalculatable(value)) {
+				values[count++] = value;
+			}
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		values = Arrays.copyOf(values, count);
+		Arrays.sort(values);
+		if (Statistics.QUARTILE_1.equals(key)) {
+			return MathUtils.quantile(values, 0.25);
+		} else if (Statistics.QUARTILE_3.equals(key)) {
+			return MathUtils.quantile(values, 0.75);
+		}
+		return MathUtils.quantile(values, 0.50);
+	}
+
+	/**
+	 * Method that is invoked when data has been added.
+	 * @param source Data source that has been changed.
+	 * @param events Optional event object describing the data values that
+	 *        have been added.
+	 */
+	public synchronized void dataAdded(DataSource source, DataChangeEvent... events) {
+		// Appended rows are read lazily, but data sources that forward the
+		// events of other sources may have changed existing rows.
+		if (!isOwnEvent(events)) {
+			valid = false;
+		}
+	}
+
+	/**
+	 * Method that is invoked when data has been updated.
+	 * @param source Data source that has been changed.
+	 * @param events Optional event object describing the data values that
+	 *        have been updated.
+	 */
+	public synchronized void dataUpdated(DataSource source, DataChangeEvent... events) {
+		if (!valid) {
+			return;
+		}
+		if (isContained(source)) {
+			// Rows that have been read after they moved can't be told apart
+			// from the rows that have been evicted
+			if (isShift(events)) {
+				valid = false;
+			}
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			valid = false;
+			return;
+		}
+		if (isShift(events)) {
+			evict(events[0].getShift());
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			if (event.getRow() >= rowsSeen) {
+				// Will be read when the rows are accumulated
+				continue;
+			}
+			int col = event.getCol();
+			if (col < 0 || col >= columns.length) {
+				valid = false;
+				return;
+			}
+			snapshot = null;
+			if (!columnValid[col]) {
+				continue;
+			}
+			// The positions of the sliding window don't cover changed values
+			dropExtrema(col);
+			if (!isSingleValue(event) || !removeValue(col, toDouble(event.getOld()))) {
+				invalidate(col);
+				continue;
+			}
+			columns[col].add(toDouble(event.getNew()));
+		}
+	}
+
+	/**
+	 * Method that is invoked when data has been removed.
+	 * @param source Data source that has been changed.
+	 * @param events Optional event object describing the data values that
+	 *        have been removed.
+	 */
+	public synchronized void dataRemoved(DataSource source, DataChangeEvent... events) {
+		if (!valid || isContained(source)) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			valid = false;
+			return;
+		}
+		// The positions of all following rows change
+		for (int col = 0; col < columns.length; col++) {
+			dropExtrema(col);
+		}
+		// All columns lose the same rows, so the rows of one column are counted
+		int countedCol = events[0].getCol();
+		int rowsRemoved = 0;
+		for (DataChangeEvent event : events) {
+			if (event.getRow() >= rowsSeen) {
+				continue;
+			}
+			int col = event.getCol();
+			if (col < 0 || col >= columns.length) {
+				valid = false;
+				return;
+			}
+			if (col == countedCol) {
+				rowsRemoved++;
+			}
+			if (columnValid[col] && (!isSingleValue(event) ||
+					!removeValue(col, toDouble(event.getOld())))) {
+				invalidate(col);
+			}
+		}
+		if (rowsRemoved > 0) {
+			snapshot = null;
+		}
+		rowsSeen -= rowsRemoved;
+	}
+
+	/**
+	 * Subtracts the values of rows that have been evicted from the start of
+	 * the data source. The values are read from the snapshot that was read
+	 * last.
+	 * @param shift Number of evicted rows.
+	 */
+	private void evict(int shift) {
+		int count = Math.min(shift, rowsSeen);
+		if (count > 0 && snapshot == null) {
+			valid = false;
+			return;
+		}
+		for (int col = 0; col < columns.length && count > 0; col++) {
+			if (!columnValid[col]) {
+				continue;
+			}
+			if (extrema[col] == null) {
+				extrema[col] = createExtrema(col);
+			}
+			Moments moments = columns[col];
+			for (int row = evicted; row < evicted + count; row++) {
+				moments.remove(snapshot.getDouble(col, row));
+			}
+			extrema[col].removeBefore(offset + shift);
+		}
+		evicted += count;
+		rowsSeen -= count;
+		offset += shift;
+	}
+
+	/**
+	 * Creates a sliding window of the accumulated values of a column. The
+	 * values are read from the snapshot that was read last.
+	 * @param col Column index.
+	 * @return Minimum and maximum of the accumulated values.
+	 */
+	private SlidingExtrema createExtrema(int col) {
+		SlidingExtrema range = new SlidingExtrema();
+		for (int row = 0; row < rowsSeen; row++) {
+			range.add(offset + row, snapshot.getDouble(col, evicted + row));
+		}
+		return range;
+	}
+
+	/**
+	 * Stops tracking the minimum and maximum of a column in a sliding window.
+	 * The current extrema are kept in the accumulated values.
+	 * @param col Column index.
+	 */
+	private void dropExtrema(int col) {
+		SlidingExtrema range = extrema[col];
+		if (range != null) {
+			columns[col].setRange(range.getMin(), range.getMax());
+			extrema[col] = null;
+		}
+	}
+
+	/**
+	 * Marks the accumulated values of a column as invalid, so that the
+	 * column is computed again when it is queried next time.
+	 * @param col Column index.
+	 */
+	private void invalidate(int col) {
+		columnValid[col] = false;
+		extrema[col] = null;
+	}
+
+	/**
+	 * Brings the accumulated values up to date with a snapshot of the data
+	 * source.
+	 * @param data Snapshot of the data source.
+	 */
+	private void update(DataSource data) {
+		int colCount = data.getColumnCount();
+		int rowCount = data.getRowCount();
+		if (!valid || columns == null || columns.length != colCount || rowCount < rowsSeen) {
+			columns = new Moments[colCount];
+			columnValid = new boolean[colCount];
+			extrema = new SlidingExtrema[colCount];
+			for (int col = 0; col < colCount; col++) {
+				columns[col] = new Moments();
+			}
+			rowsSeen = 0;
+			offset = 0L;
+			valid = true;
+		}
+		for (int col = 0; col < colCount; col++) {
+			Moments moments = columns[col];
+			SlidingExtrema range = extrema[col];
+			int start = rowsSeen;
+			if (!columnValid[col]) {
+				moments.reset();
+				columnValid[col] = true;
+				start = 0;
+			}
+			for (int row = start; row < rowCount; row++) {
+				double value = data.getDouble(col, row);
+				moments.add(value);
+				if (range != null) {
+					range.add(offset + row, value);
+				}
+			}
+		}
+		rowsSeen = rowCount;
+		version = data.getVersion();
+		snapshot = data;
+		evicted = 0;
+	}
+
+	/**
+	 * Returns whether the change that caused the current event has already
+	 * been read. This assumes that the listeners are notified before the data
+	 * source is modified again.
+	 * @param source Data source that has been changed.
+	 * @return {@code true} if the event has to be ignored.
+	 */
+	private boolean isContained(DataSource source) {
+		return source == this.source && source.getVersion() <= version;
+	}
+
+	/**
+	 * Removes a value from the statistics of a column if this is possible
+	 * without accessing the other values of the column.
+	 * @param col Column index.
+	 * @param val Value to be removed.
+	 * @return {@code true} if the value could be removed,
+	 *         {@code false} if the column has to be computed again.
+	 */
+	private boolean removeValue(int col, double val) {
+		Moments moments = columns[col];
+		if (val == moments.getMin() || val == moments.getMax()) {
+			return false;
+		}
+		moments.remove(val);
+		return true;
+	}
+
+	/**
+	 * Returns whether all specified events originate from the analyzed data
+	 * source, i.e. whether their column and row indexes refer to it.
+	 * @param events Events to be checked.
+	 * @return {@code true} if the events can be used for incremental updates.
+	 */
+	private boolean isOwnEvent(DataChangeEvent[] events) {
+		if (events == null || events.length == 0) {
+			return false;
+		}
+		for (DataChangeEvent event : events) {
+			if (event.getSource() != source) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the events describe rows that have been evicted from
+	 * the start of the data source.
+	 * @param events Events to be checked.
+	 * @return {@code true} if the rows have been shifted.
+	 */
+	private static boolean isShift(DataChangeEvent[] events) {
+		return events != null && events.length > 0 && events[0].getShift() > 0;
+	}
+
+	/**
+	 * Returns whether the event describes a change of a single cell and
+	 * contains its values. Events without values are only used to signal
+	 * that something has changed.
+	 * @param event Event to be checked.
+	 * @return {@code true} if the event can be used for incremental updates.
+	 */
+	private static boolean isSingleValue(DataChangeEvent event) {
+		return event.getRowCount() == 1 &&
+			(event.getOld() != null || event.getNew() != null);
+	}
+
+	private static double toDouble(Comparable<?> value) {
+		if (!(value instanceof Number)) {
+			return Double.NaN;
+		}
+		return ((Number) value).doubleValue();
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.statistics;
+
+import java.util.Map;
+
+import de.erichseifert.gral.util.MathUtils;
+
+/**
+ * Running accumulator for the basic statistics of a sequence of values.
+ * Values can be added and removed one by one. The central moments are
+ * updated with the inverse of the update that is used for adding values,
+ * so removals don't require access to the remaining values. Only minimum
+ * and maximum can't be restored by a removal.
+ *
+ * Notes: Calculation of higher order statistics is based on formulas from
+ * http://people.xiph.org/~tterribe/notes/homs.html
+ */
+final class Moments {
+	/** Keys of all values provided by this class. */
+	private static final String[] KEYS = {
+		Statistics.N, Statistics.SUM, Statistics.SUM2, Statistics.SUM3,
+		Statistics.SUM4, Statistics.MIN, Statistics.MAX, Statistics.MEAN,
+		Statistics.SUM_OF_DIFF_SQUARES, Statistics.SUM_OF_DIFF_CUBICS,
+		Statistics.SUM_OF_DIFF_QUADS, Statistics.VARIANCE,
+		Statistics.POPULATION_VARIANCE, Statistics.SKEWNESS, Statistics.KURTOSIS
+	};
+
+	/** Number of values. */
+	private double n;
+	/** Sum of all values. */
+	private double sum;
+	/** Sum of all value squares. */
+	private double sum2;
+	/** Sum of all value cubics. */
+	private double sum3;
+	/** Sum of all value quads. */
+	private double sum4;
+	/** Running arithmetic mean. */
+	private double mean;
+	/** Second central moment. */
+	private double sumOfDiffSquares;
+	/** Third central moment. */
+	private double sumOfDiffCubics;
+	/** Fourth central moment. */
+	private double sumOfDiffQuads;
+	/** Smallest value. */
+	private double min;
+	/** Largest value. */
+	private double max;
+
+	/**
+	 * Initializes a new accumulator without any values.
+	 */
+	public Moments() {
+		reset();
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void reset() {
+		n = 0.0;
+		sum = 0.0;
+		sum2 = 0.0;
+		sum3 = 0.0;
+		sum4 = 0.0;
+		mean = 0.0;
+		sumOfDiffSquares = 0.0;
+		sumOfDiffCubics = 0.0;
+		sumOfDiffQuads = 0.0;
+		min = Double.NaN;
+		max = Double.NaN;
+	}
+
+	/**
+	 * Adds a value to the statistics. Values that are not calculatable
+	 * are ignored.
+	 * @param val Value to be added.
+	 */
+	public void add(double val) {
+		if (!MathUtils.isCalculatable(val)) {
+			return;
+		}
+
+		if (n == 0.0 || val < min) {
+			min = val;
+		}
+		if (n == 0.0 || val > max) {
+			max = val;
+		}
+
+		n++;
+
+		double val2 = val*val;
+		sum += val;
+		sum2 += val2;
+		sum3 += val2*val;
+		sum4 += val2*val2;
+
+		double delta = val - mean;
+		double deltaN = delta/n;
+		double deltaN2 = deltaN*deltaN;
+		double term1 = delta*deltaN*(n - 1.0);
+		mean += deltaN;
+		sumOfDiffQuads += term1*deltaN2*(n*n - 3.0*n + 3.0) +
+			6.0*deltaN2*sumOfDiffSquares - 4.0*deltaN*sumOfDiffCubics;
+		sumOfDiffCubics += term1*deltaN*(n - 2.0) -
+			3.0*deltaN*sumOfDiffSquares;
+		sumOfDiffSquares += term1;
+	}
+
+	/**
+	 * Removes a value that has been added before. The value must neither be
+	 * the current minimum nor the current maximum, because these cannot be
+	 * restored without the remaining values. Count, sums, mean, and the
+	 * central moments are updated without the remaining values. Values that
+	 * are not calculatable are ignored.
+	 * @param val Value to be removed.
+	 */
+	public void remove(double val) {
+		if (!MathUtils.isCalculatable(val)) {
+			return;
+		}
+		n--;
+		if (n <= 0.0) {
+			reset();
+			return;
+		}
+		double val2 = val*val;
+		sum -= val;
+		sum2 -= val2;
+		sum3 -= val2*val;
+		sum4 -= val2*val2;
+
+		if (n == 1.0) {
+			mean = sum;
+			sumOfDiffSquares = 0.0;
+			sumOfDiffCubics = 0.0;
+			sumOfDiffQuads = 0.0;
+			return;
+		}
+
+		// Inverse of the update in add(double): the terms are computed with
+		// the mean of the remaining values and the previous number of values
+		double nPrev = n + 1.0;
+		mean -= (val - mean)/n;
+		double delta = val - mean;
+		double deltaN = delta/nPrev;
+		double deltaN2 = deltaN*deltaN;
+		double term1 = delta*deltaN*(nPrev - 1.0);
+		sumOfDiffSquares = Math.max(sumOfDiffSquares - term1, 0.0);
+		sumOfDiffCubics -= term1*deltaN*(nPrev - 2.0) -
+			3.0*deltaN*sumOfDiffSquares;
+		sumOfDiffQuads -= term1*deltaN2*(nPrev*nPrev - 3.0*nPrev + 3.0) +
+			6.0*deltaN2*sumOfDiffSquares - 4.0*deltaN*sumOfDiffCubics;
+	}
+
+	/**
+	 * Returns the number of values.
+	 * @return Number of values.
+	 */
+	public double getN() {
+		return n;
+	}
+
+	/**
+	 * Returns the smallest value.
+	 * @return Minimum, or <i>NaN</i> if no value has been added.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * Returns the largest value.
+	 * @return Maximum, or <i>NaN</i> if no value has been added.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Replaces minimum and maximum with values that have been determined
+	 * separately, e.g. after removing values that were extrema.
+	 * @param min Smallest value.
+	 * @param max Largest value.
+	 */
+	public void setRange(double min, double max) {
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * Returns the specified statistics value.
+	 * @param key Requested information, e.g. {@link Statistics#MEAN}.
+	 * @return The value for the specified key, or <i>NaN</i> if the value
+	 *         is not provided by this accumulator or is currently invalid.
+	 */
+	public double get(String key) {
+		switch (key) {
+			case Statistics.N:
+				return n;
+			case Statistics.SUM:
+				return sum;
+			case Statistics.SUM2:
+				return sum2;
+			case Statistics.SUM3:
+				return sum3;
+			case Statistics.SUM4:
+				return sum4;
+			case Statistics.MIN:
+				return min;
+			case Statistics.MAX:
+				return max;
+			case Statistics.MEAN:
+				return mean;
+			case Statistics.SUM_OF_DIFF_SQUARES:
+				return sumOfDiffSquares;
+			case Statistics.SUM_OF_DIFF_CUBICS:
+				return sumOfDiffCubics;
+			case Statistics.SUM_OF_DIFF_QUADS:
+				return sumOfDiffQuads;
+			case Statistics.VARIANCE:
+				return sumOfDiffSquares/(n - 1.0);
+			case Statistics.POPULATION_VARIANCE:
+				return sumOfDiffSquares/n;
+			case Statistics.SKEWNESS:
+				return (sumOfDiffCubics/n)/Math.pow(sumOfDiffSquares/n, 3.0/2.0) - 3.0;
+			case Statistics.KURTOSIS:
+				return (n*sumOfDiffQuads)/(sumOfDiffSquares*sumOfDiffSquares) - 3.0;
+			default:
+				return Double.NaN;
+		}
+	}
+
+	/**
+	 * Stores the accumulated statistics in the specified map.
+	 * @param stats A {@code Map} that should store the new statistics.
+	 */
+	public void store(Map<String, Double> stats) {
+		for (String key : KEYS) {
+			stats.put(key, get(key));
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.statistics;
+
+import de.erichseifert.gral.util.MathUtils;
+
+/**
+ * Minimum and maximum of a sliding window of values. Values are appended
+ * at the end of the window with increasing positions and leave the window
+ * at its start. Both operations take amortized constant time, because only
+ * the values that can still become the minimum or maximum are kept in
+ * monotonic queues.
+ */
+final class SlidingExtrema {
+	/** Candidates for the minimum in increasing order. */
+	private final MonotonicQueue minima;
+	/** Candidates for the maximum in decreasing order. */
+	private final MonotonicQueue maxima;
+
+	/**
+	 * Initializes a new instance with an empty window.
+	 */
+	public SlidingExtrema() {
+		minima = new MonotonicQueue(false);
+		maxima = new MonotonicQueue(true);
+	}
+
+	/**
+	 * Appends a value to the end of the window. Values that are not
+	 * calculatable are ignored.
+	 * @param position Position of the value. It has to be larger than the
+	 *        positions of all values that have been added before.
+	 * @param val Value to be added.
+	 */
+	public void add(long position, double val) {
+		if (!MathUtils.isCalculatable(val)) {
+			return;
+		}
+		minima.add(position, val);
+		maxima.add(position, val);
+	}
+
+	/**
+	 * Removes all values at positions before the specified position from the
+	 * start of the window.
+	 * @param position Position of the first value that is kept.
+	 */
+	public void removeBefore(long position) {
+		minima.removeBefore(position);
+		maxima.removeBefore(position);
+	}
+
+	/**
+	 * Returns the smallest value in the window.
+	 * @return Minimum, or <i>NaN</i> if the window is empty.
+	 */
+	public double getMin() {
+		return minima.getFirst();
+	}
+
+	/**
+	 * Returns the largest value in the window.
+	 * @return Maximum, or <i>NaN</i> if the window is empty.
+	 */
+	public double getMax() {
+		return maxima.getFirst();
+	}
+
+	/**
+	 * Double-ended queue of values that are ordered monotonically. Each
+	 * appended value drops the values at the end that it dominates, so the
+	 * first value of the queue is always the extremum of the window.
+	 */
+	private static final class MonotonicQueue {
+		/** Initial number of values that can be stored. */
+		private static final int INITIAL_CAPACITY = 16;
+
+		/** Decides whether larger values dominate smaller ones. */
+		private final boolean descending;
+		/** Positions of the stored values in a circular buffer. */
+		private long[] positions;
+		/** Stored values in a circular buffer. */
+		private double[] values;
+		/** Index of the first value in the buffer. */
+		private int head;
+		/** Number of stored values. */
+		private int size;
+
+		/**
+		 * Initializes a new empty queue.
+		 * @param descending {@code true} if the queue should keep the maximum,
+		 *        {@code false} if it should keep the minimum.
+		 */
+		public MonotonicQueue(boolean descending) {
+			this.descending = descending;
+			positions = new long[INITIAL_CAPACITY];
+			values = new double[INITIAL_CAPACITY];
+		}
+
+		public void add(long position, double val) {
+			while (size > 0) {
+				double last = values[(head + size - 1) % values.length];
+				if (descending ? last > val : last < val) {
+					break;
+				}
+				size--;
+			}
+			if (size == values.length) {
+				grow();
+			}
+			int index = (head + size) % values.length;
+			positions[index] = position;
+			values[index] = val;
+			size++;
+		}
+
+		public void removeBefore(long position) {
+			while (size > 0 && positions[head] < position) {
+				head = (head + 1) % values.length;
+				size--;
+			}
+		}
+
+		public double getFirst() {
+			if (size == 0) {
+				return Double.NaN;
+			}
+			return values[head];
+		}
+
+		/**
+		 * Doubles the capacity of the buffers and moves the first value to
+		 * the start of the new buffers.
+		 */
+		private void grow() {
+			int capacity = values.length;
+			long[] newPositions = new long[2*capacity];
+			double[] newValues = new double[2*capacity];
+			int tail = capacity - head;
+			System.arraycopy(positions, head, newPositions, 0, tail);
+			System.arraycopy(positions, 0, newPositions, tail, head);
+			System.arraycopy(values, head, newValues, 0, tail);
+			System.arraycopy(values, 0, newValues, tail, head);
+			positions = newPositions;
+			values = newValues;
+			head = 0;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.graphics;
+
+/**
+ * <p>Marker interface for {@code Drawable} implementations that can be drawn
+ * by several threads at the same time. This allows writers to split an
+ * image into tiles and to draw each tile on its own thread with a
+ * separate, clipped and translated {@code DrawingContext}.</p>
+ *
+ * <p>Implementations must meet the following requirements:</p>
+ * <ul>
+ *   <li>{@link #draw(DrawingContext)} doesn't change the state of the
+ *   drawable, e.g. its bounds or layout, except for caches that are
+ *   synchronized or that are only ever replaced by equivalent values.</li>
+ *   <li>All components that are drawn by the drawable meet the same
+ *   requirements.</li>
+ *   <li>The result of drawing doesn't depend on the clipping area, except
+ *   that parts outside of it may be skipped.</li>
+ * </ul>
+ * <p>The drawable must not be modified while it is drawn.</p>
+ */
+public interface ConcurrentDrawable extends Drawable {
+}
@@ -91,6 +91,10 @@ public interface Drawable {
 
 	/**
 	 * Draws the {@code Drawable} with the specified drawing context.
+	 * Drawables are not thread-safe in general: they have to be drawn by
+	 * one thread at a time and must not be modified while they are drawn.
+	 * Drawables that can be drawn by several threads at the same time
+	 * implement {@link ConcurrentDrawable}.
 	 * @param context Environment used for drawing
 	 */
 	void draw(DrawingContext context);
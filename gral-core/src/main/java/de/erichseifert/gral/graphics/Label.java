@@ -39,7 +39,7 @@ import de.erichseifert.gral.util.MathUtils;
  * A Label is able to manage its settings and to set and get the
  * displayed text, as well as calculating its bounds.
  */
-public class Label extends AbstractDrawable {
+public class Label extends AbstractDrawable implements Modifiable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = 374045708533704103L;
 
@@ -61,6 +61,8 @@ public class Label extends AbstractDrawable {
 	private boolean wordWrapEnabled;
 	/** Paint used to display the background. */
 	private Paint background;
+	/** Number of changes to the settings of this label. */
+	private transient long modificationCount;
 
 	/** Cached outline of the label text with word wrapping. */
 	private transient Shape outlineWrapped;
@@ -197,7 +199,7 @@ public class Label extends AbstractDrawable {
 	 * @param wordWrap Flag, whether to wrap lines to fit the current size.
 	 * @return An instance of the outline shape for this label.
 	 */
-	protected Shape getCachedOutline(boolean wordWrap) {
+	protected synchronized Shape getCachedOutline(boolean wordWrap) {
 		if (!isValid() && getText() != null && !getText().isEmpty()) {
 			outlineWrapped = getOutline(true);
 			outlineUnwrapped = getOutline(false);
@@ -233,12 +235,13 @@ public class Label extends AbstractDrawable {
 	public void setText(String text) {
 		this.text = text;
 		invalidate();
+		modified();
 	}
 
 	/**
 	 * Marks the text layout as invalid. It has to be refreshed the next time.
 	 */
-	protected void invalidate() {
+	protected synchronized void invalidate() {
 		outlineWrapped = null;
 		outlineUnwrapped = null;
 	}
@@ -283,6 +286,7 @@ public class Label extends AbstractDrawable {
 	 */
 	public void setAlignmentX(double alignmentX) {
 		this.alignmentX = alignmentX;
+		modified();
 	}
 
 	/**
@@ -301,6 +305,7 @@ public class Label extends AbstractDrawable {
 	 */
 	public void setAlignmentY(double alignmentY) {
 		this.alignmentY = alignmentY;
+		modified();
 	}
 
 	/**
@@ -318,6 +323,7 @@ public class Label extends AbstractDrawable {
 	public void setFont(Font font) {
 		this.font = font;
 		invalidate();
+		modified();
 	}
 
 	/**
@@ -337,6 +343,7 @@ public class Label extends AbstractDrawable {
 	public void setRotation(double angle) {
 		this.rotation = angle;
 		invalidate();
+		modified();
 	}
 
 	/**
@@ -353,6 +360,7 @@ public class Label extends AbstractDrawable {
 	 */
 	public void setColor(Paint color) {
 		this.color = color;
+		modified();
 	}
 
 	/**
@@ -372,6 +380,7 @@ public class Label extends AbstractDrawable {
 	public void setTextAlignment(double textAlignment) {
 		this.textAlignment = textAlignment;
 		invalidate();
+		modified();
 	}
 
 	/**
@@ -389,6 +398,7 @@ public class Label extends AbstractDrawable {
 	public void setWordWrapEnabled(boolean wordWrapEnabled) {
 		this.wordWrapEnabled = wordWrapEnabled;
 		invalidate();
+		modified();
 	}
 
 	/**
@@ -405,6 +415,7 @@ public class Label extends AbstractDrawable {
 	 */
 	public void setBackground(Paint background) {
 		this.background = background;
+		modified();
 	}
 
 	@Override
@@ -425,4 +436,17 @@ public class Label extends AbstractDrawable {
 	}
 
 	// TODO: Override Object.hashCode()
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this label changes.
+	 */
+	protected void modified() {
+		modificationCount++;
+	}
 }
@@ -0,0 +1,37 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.graphics;
+
+/**
+ * Interface for objects whose settings can be changed after creation. A
+ * counter is incremented on every change so that cached results, like
+ * the layers of a plot, can tell whether they are still valid.
+ */
+public interface Modifiable {
+	/**
+	 * Returns a number that changes whenever a setting of this object
+	 * changes. The value itself has no meaning and may only be compared to
+	 * previous values of the same object.
+	 * @return Current modification count.
+	 */
+	long getModificationCount();
+}
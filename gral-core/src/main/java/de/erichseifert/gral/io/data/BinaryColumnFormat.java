@@ -0,0 +1,156 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.io.data;
+
+import java.nio.ByteOrder;
+import java.text.MessageFormat;
+
+/**
+ * <p>Constants and helper methods for a simple binary format that stores the
+ * columns of a data source as contiguous arrays. All numbers are stored in
+ * little-endian byte order. The file starts with a header:</p>
+ * <ul>
+ *   <li>Magic number {@code "GRLC"} (4 bytes)</li>
+ *   <li>Format version (int)</li>
+ *   <li>Number of columns (int)</li>
+ *   <li>Number of rows (int)</li>
+ *   <li>For each column: a type code and flags (one byte each)</li>
+ * </ul>
+ * <p>The header is padded to a multiple of eight bytes. It is followed by
+ * the values of each column. If a column contains {@code null} values, the
+ * values are followed by a bit set with one bit per row that marks the
+ * {@code null} values. Each of these arrays is padded to a multiple of
+ * eight bytes, too.</p>
+ */
+final class BinaryColumnFormat {
+	/** Magic number at the start of the data. */
+	static final int MAGIC = 0x434C5247; // "GRLC" in little-endian order
+	/** Version of the format. */
+	static final int VERSION = 1;
+	/** Byte order of all numbers. */
+	static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+	/** Size of the fixed part of the header in bytes. */
+	static final int HEADER_SIZE = 16;
+	/** Flag that marks columns containing {@code null} values. */
+	static final int FLAG_NULLS = 1;
+
+	/** Column types in the order of their type codes. */
+	private static final Class<?>[] TYPES = {
+		Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class
+	};
+	/** Size of the values in bytes for each type code. */
+	private static final int[] WIDTHS = {
+		1, 2, 4, 8, 4, 8
+	};
+
+	/**
+	 * Default constructor that prevents creation of class.
+	 */
+	private BinaryColumnFormat() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the type code for the specified column type.
+	 * @param type Column type.
+	 * @return Type code.
+	 * @throws IllegalArgumentException if the column type isn't supported.
+	 */
+	static int getTypeCode(Class<?> type) {
+		for (int code = 0; code < TYPES.length; code++) {
+			if (TYPES[code] == type) {
+				return code;
+			}
+		}
+		throw new IllegalArgumentException(MessageFormat.format(
+			"Unsupported column type: {0}", type)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the column type for the specified type code.
+	 * @param code Type code.
+	 * @return Column type, or {@code null} if the code is invalid.
+	 */
+	@SuppressWarnings("unchecked")
+	static Class<? extends Comparable<?>> getType(int code) {
+		if (code < 0 || code >= TYPES.length) {
+			return null;
+		}
+		return (Class<? extends Comparable<?>>) TYPES[code];
+	}
+
+	/**
+	 * Returns the size of a value in bytes for the specified type code.
+	 * @param code Type code.
+	 * @return Size in bytes.
+	 */
+	static int getWidth(int code) {
+		return WIDTHS[code];
+	}
+
+	/**
+	 * Returns whether values with the specified type code are stored as
+	 * floating point numbers.
+	 * @param code Type code.
+	 * @return {@code true} for {@code float} and {@code double} values.
+	 */
+	static boolean isFloatingPoint(int code) {
+		return TYPES[code] == Float.class || TYPES[code] == Double.class;
+	}
+
+	/**
+	 * Returns the size of the header in bytes.
+	 * @param colCount Number of columns.
+	 * @return Size in bytes including padding.
+	 */
+	static long getHeaderSize(int colCount) {
+		return pad(HEADER_SIZE + 2L*colCount);
+	}
+
+	/**
+	 * Returns the size of the values of a column in bytes.
+	 * @param code Type code of the column.
+	 * @param rowCount Number of rows.
+	 * @return Size in bytes including padding.
+	 */
+	static long getValuesSize(int code, int rowCount) {
+		return pad((long) getWidth(code)*rowCount);
+	}
+
+	/**
+	 * Returns the size of the bit set that marks {@code null} values.
+	 * @param rowCount Number of rows.
+	 * @return Size in bytes including padding.
+	 */
+	static long getNullsSize(int rowCount) {
+		return 8L*((rowCount + 63L)/64L);
+	}
+
+	/**
+	 * Rounds a size up to the next multiple of eight bytes.
+	 * @param size Size in bytes.
+	 * @return Padded size in bytes.
+	 */
+	static long pad(long size) {
+		return (size + 7L) & ~7L;
+	}
+}
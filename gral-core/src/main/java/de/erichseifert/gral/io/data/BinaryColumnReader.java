@@ -0,0 +1,211 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.io.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.io.IOCapabilities;
+import de.erichseifert.gral.util.Messages;
+
+
+/**
+ * <p>Class that reads a data source from a binary file written by
+ * {@link BinaryColumnWriter}. If the input is a {@code FileInputStream}, the
+ * columns are mapped into memory instead of being read, so opening even
+ * large files is fast and values are loaded by the operating system when
+ * they are accessed. Other input streams are read completely into memory.</p>
+ * <p>The returned data source is read-only. The column types are stored in
+ * the file. If column types are passed to the reader, they have to match
+ * the stored types.</p>
+ * <p>{@code BinaryColumnReader} instances should be obtained by the
+ * {@link DataReaderFactory} rather than being created manually:</p>
+ * <pre>
+ * DataReaderFactory factory = DataReaderFactory.getInstance();
+ * DataReader reader = factory.get("application/x-gral-columns");
+ * DataSource data = reader.read(new FileInputStream(filename));
+ * </pre>
+ */
+public class BinaryColumnReader extends AbstractDataReader {
+	static {
+		addCapabilities(new IOCapabilities(
+			"GCOL", //$NON-NLS-1$
+			Messages.getString("DataIO.columnsDescription"), //$NON-NLS-1$
+			"application/x-gral-columns", //$NON-NLS-1$
+			new String[] {"gcol"} //$NON-NLS-1$
+		));
+	}
+
+	/** Size of the segments that columns are split into in bytes. */
+	private static final long SEGMENT_SIZE = 1L << MappedColumnData.SEGMENT_BITS;
+
+	/**
+	 * Creates a new instance with the specified MIME type.
+	 * @param mimeType MIME type of the file format to be read.
+	 */
+	public BinaryColumnReader(String mimeType) {
+		super(mimeType);
+	}
+
+	/**
+	 * Returns a data source that was imported.
+	 * @param input Input to be read.
+	 * @param types Types of the columns, or no types to use the types stored
+	 *        in the file.
+	 * @return DataSource Imported data.
+	 * @throws IOException when the file format is not valid or when
+	 *         experiencing an error during file operations.
+	 */
+	public DataSource read(InputStream input, Class<? extends Comparable<?>>... types)
+			throws IOException {
+		Region region;
+		if (input instanceof FileInputStream) {
+			FileChannel channel = ((FileInputStream) input).getChannel();
+			region = new Region(channel, channel.position(), channel.size() - channel.position());
+		} else {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[64*1024];
+			int len;
+			while ((len = input.read(buffer)) >= 0) {
+				bytes.write(buffer, 0, len);
+			}
+			region = new Region(ByteBuffer.wrap(bytes.toByteArray()));
+		}
+
+		ByteBuffer header = region.get(0L, BinaryColumnFormat.HEADER_SIZE);
+		if (header.getInt(0) != BinaryColumnFormat.MAGIC) {
+			throw new IOException("Invalid binary column data."); //$NON-NLS-1$
+		}
+		int version = header.getInt(4);
+		if (version != BinaryColumnFormat.VERSION) {
+			throw new IOException(MessageFormat.format(
+				"Unsupported format version: {0}", version)); //$NON-NLS-1$
+		}
+		int colCount = header.getInt(8);
+		int rowCount = header.getInt(12);
+		if (colCount < 0 || rowCount < 0) {
+			throw new IOException("Invalid binary column data."); //$NON-NLS-1$
+		}
+
+		ByteBuffer columnHeader = region.get(BinaryColumnFormat.HEADER_SIZE, 2L*colCount);
+		@SuppressWarnings("unchecked")
+		Class<? extends Comparable<?>>[] storedTypes = new Class[colCount];
+		int[] codes = new int[colCount];
+		boolean[] nullable = new boolean[colCount];
+		for (int col = 0; col < colCount; col++) {
+			codes[col] = columnHeader.get(2*col);
+			storedTypes[col] = BinaryColumnFormat.getType(codes[col]);
+			if (storedTypes[col] == null) {
+				throw new IOException(MessageFormat.format(
+					"Invalid type code in column {0,number,integer}.", col)); //$NON-NLS-1$
+			}
+			nullable[col] = (columnHeader.get(2*col + 1) & BinaryColumnFormat.FLAG_NULLS) != 0;
+		}
+		if (types.length > 0 && !Arrays.equals(types, storedTypes)) {
+			throw new IOException(MessageFormat.format(
+				"Column types don''t match: expected {0}, found {1}.", //$NON-NLS-1$
+				Arrays.toString(types), Arrays.toString(storedTypes)));
+		}
+
+		ByteBuffer[][] values = new ByteBuffer[colCount][];
+		LongBuffer[] nulls = new LongBuffer[colCount];
+		long position = BinaryColumnFormat.getHeaderSize(colCount);
+		for (int col = 0; col < colCount; col++) {
+			long size = BinaryColumnFormat.getValuesSize(codes[col], rowCount);
+			int segmentCount = (int) Math.max(1L, (size + SEGMENT_SIZE - 1L)/SEGMENT_SIZE);
+			values[col] = new ByteBuffer[segmentCount];
+			for (int segment = 0; segment < segmentCount; segment++) {
+				long offset = segment*SEGMENT_SIZE;
+				values[col][segment] = region.get(position + offset,
+					Math.min(SEGMENT_SIZE, size - offset));
+			}
+			position += size;
+			if (nullable[col]) {
+				long nullsSize = BinaryColumnFormat.getNullsSize(rowCount);
+				nulls[col] = region.get(position, nullsSize).asLongBuffer();
+				position += nullsSize;
+			}
+		}
+
+		return new MappedColumnData(storedTypes, codes, rowCount, values, nulls);
+	}
+
+	/**
+	 * Part of a file or of a byte array that contains the data.
+	 */
+	private static final class Region {
+		/** Channel of the file, or {@code null}. */
+		private final FileChannel channel;
+		/** Bytes of the data, or {@code null}. */
+		private final ByteBuffer bytes;
+		/** Position of the data in the file. */
+		private final long start;
+		/** Size of the data. */
+		private final long size;
+
+		public Region(FileChannel channel, long start, long size) {
+			this.channel = channel;
+			this.bytes = null;
+			this.start = start;
+			this.size = size;
+		}
+
+		public Region(ByteBuffer bytes) {
+			this.channel = null;
+			this.bytes = bytes;
+			this.start = 0L;
+			this.size = bytes.capacity();
+		}
+
+		/**
+		 * Returns a buffer for a range of bytes of the data.
+		 * @param offset Position of the first byte.
+		 * @param length Number of bytes.
+		 * @return Buffer containing the bytes in little-endian order.
+		 * @throws IOException if the data is shorter than expected or if it
+		 *         couldn't be mapped into memory.
+		 */
+		public ByteBuffer get(long offset, long length) throws IOException {
+			if (offset + length > size) {
+				throw new IOException("Unexpected end of binary column data."); //$NON-NLS-1$
+			}
+			ByteBuffer buffer;
+			if (channel != null) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, start + offset, length);
+			} else {
+				buffer = bytes.duplicate();
+				buffer.position((int) offset);
+				buffer.limit((int) (offset + length));
+				buffer = buffer.slice();
+			}
+			return buffer.order(BinaryColumnFormat.BYTE_ORDER);
+		}
+	}
+}
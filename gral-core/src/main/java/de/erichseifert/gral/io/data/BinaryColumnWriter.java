@@ -0,0 +1,261 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.io.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.io.IOCapabilities;
+import de.erichseifert.gral.util.Messages;
+
+
+/**
+ * <p>Class that writes the columns of a {@code DataSource} to a binary file.
+ * The values of each column are stored as a contiguous array of primitive
+ * numbers, which allows the {@link BinaryColumnReader} to map the file into
+ * memory instead of parsing it. Columns must have one of the types
+ * {@code Byte}, {@code Short}, {@code Integer}, {@code Long}, {@code Float},
+ * or {@code Double}.</p>
+ * <p>{@code BinaryColumnWriter} instances should be obtained by the
+ * {@link DataWriterFactory} rather than being created manually:</p>
+ * <pre>
+ * DataWriterFactory factory = DataWriterFactory.getInstance();
+ * DataWriter writer = factory.get("application/x-gral-columns");
+ * writer.write(data, new FileOutputStream(filename));
+ * </pre>
+ */
+public class BinaryColumnWriter extends AbstractDataWriter {
+	/** Size of the buffer for writing in bytes. */
+	private static final int BUFFER_SIZE = 64*1024;
+
+	static {
+		addCapabilities(new IOCapabilities(
+			"GCOL", //$NON-NLS-1$
+			Messages.getString("DataIO.columnsDescription"), //$NON-NLS-1$
+			"application/x-gral-columns", //$NON-NLS-1$
+			new String[] {"gcol"} //$NON-NLS-1$
+		));
+	}
+
+	/**
+	 * Creates a new instance with the specified MIME type.
+	 * @param mimeType MIME type of the output file.
+	 */
+	public BinaryColumnWriter(String mimeType) {
+		super(mimeType);
+	}
+
+	/**
+	 * Stores the specified data source. The values are read from a snapshot
+	 * of the data source, so the data can be changed while it is written.
+	 * @param data DataSource to be stored.
+	 * @param output OutputStream to be written to.
+	 * @throws IOException if writing the data failed
+	 * @throws IllegalArgumentException if a column type isn't supported.
+	 */
+	public void write(DataSource data, OutputStream output) throws IOException {
+		DataSource snapshot = data.snapshot();
+		int colCount = snapshot.getColumnCount();
+		int rowCount = snapshot.getRowCount();
+		int[] codes = new int[colCount];
+		boolean[] nullable = new boolean[colCount];
+		for (int col = 0; col < colCount; col++) {
+			codes[col] = BinaryColumnFormat.getTypeCode(snapshot.getColumnTypes()[col]);
+			nullable[col] = containsNull(snapshot, col);
+		}
+
+		WritableByteChannel channel = Channels.newChannel(output);
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE)
+			.order(BinaryColumnFormat.BYTE_ORDER);
+
+		buffer.putInt(BinaryColumnFormat.MAGIC);
+		buffer.putInt(BinaryColumnFormat.VERSION);
+		buffer.putInt(colCount);
+		buffer.putInt(rowCount);
+		for (int col = 0; col < colCount; col++) {
+			ensureRemaining(channel, buffer, 2);
+			buffer.put((byte) codes[col]);
+			buffer.put((byte) (nullable[col] ? BinaryColumnFormat.FLAG_NULLS : 0));
+		}
+		pad(channel, buffer, BinaryColumnFormat.HEADER_SIZE + 2L*colCount);
+
+		for (int col = 0; col < colCount; col++) {
+			writeValues(channel, buffer, snapshot, col, codes[col]);
+			if (nullable[col]) {
+				writeNulls(channel, buffer, snapshot, col);
+			}
+		}
+
+		flush(channel, buffer);
+		output.flush();
+	}
+
+	/**
+	 * Writes the values of a column.
+	 * @param channel Channel to be written to.
+	 * @param buffer Buffer for writing.
+	 * @param data Data source.
+	 * @param col Column index.
+	 * @param code Type code of the column.
+	 * @throws IOException if writing the data failed
+	 */
+	private static void writeValues(WritableByteChannel channel, ByteBuffer buffer,
+			DataSource data, int col, int code) throws IOException {
+		int rowCount = data.getRowCount();
+		int width = BinaryColumnFormat.getWidth(code);
+		Class<?> type = BinaryColumnFormat.getType(code);
+		if (BinaryColumnFormat.isFloatingPoint(code)) {
+			// Floating point values are copied in blocks without boxing
+			double[] values = new double[BUFFER_SIZE/8];
+			for (int row = 0; row < rowCount; row += values.length) {
+				int len = Math.min(values.length, rowCount - row);
+				data.copyColumn(col, values, row, len);
+				ensureRemaining(channel, buffer, len*width);
+				for (int i = 0; i < len; i++) {
+					if (type == Double.class) {
+						buffer.putDouble(values[i]);
+					} else {
+						buffer.putFloat((float) values[i]);
+					}
+				}
+			}
+		} else {
+			for (int row = 0; row < rowCount; row++) {
+				Comparable<?> value = data.get(col, row);
+				long longValue = (value instanceof Number) ? ((Number) value).longValue() : 0L;
+				ensureRemaining(channel, buffer, width);
+				if (type == Long.class) {
+					buffer.putLong(longValue);
+				} else if (type == Integer.class) {
+					buffer.putInt((int) longValue);
+				} else if (type == Short.class) {
+					buffer.putShort((short) longValue);
+				} else {
+					buffer.put((byte) longValue);
+				}
+			}
+		}
+		pad(channel, buffer, (long) width*rowCount);
+	}
+
+	/**
+	 * Writes a bit set that marks the {@code null} values of a column.
+	 * @param channel Channel to be written to.
+	 * @param buffer Buffer for writing.
+	 * @param data Data source.
+	 * @param col Column index.
+	 * @throws IOException if writing the data failed
+	 */
+	private static void writeNulls(WritableByteChannel channel, ByteBuffer buffer,
+			DataSource data, int col) throws IOException {
+		int rowCount = data.getRowCount();
+		for (int row = 0; row < rowCount; row += 64) {
+			long bits = 0L;
+			int len = Math.min(64, rowCount - row);
+			for (int i = 0; i < len; i++) {
+				if (isNull(data, col, row + i)) {
+					bits |= 1L << i;
+				}
+			}
+			ensureRemaining(channel, buffer, 8);
+			buffer.putLong(bits);
+		}
+	}
+
+	/**
+	 * Returns whether a column contains {@code null} values.
+	 * @param data Data source.
+	 * @param col Column index.
+	 * @return {@code true} if at least one value is {@code null}.
+	 */
+	private static boolean containsNull(DataSource data, int col) {
+		for (int row = 0; row < data.getRowCount(); row++) {
+			if (isNull(data, col, row)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether a value is {@code null}. Only values without a numeric
+	 * representation have to be boxed for the test.
+	 * @param data Data source.
+	 * @param col Column index.
+	 * @param row Row index.
+	 * @return {@code true} if the value is {@code null}.
+	 */
+	private static boolean isNull(DataSource data, int col, int row) {
+		return Double.isNaN(data.getDouble(col, row)) && data.get(col, row) == null;
+	}
+
+	/**
+	 * Writes zeros until the specified number of bytes is a multiple of
+	 * eight.
+	 * @param channel Channel to be written to.
+	 * @param buffer Buffer for writing.
+	 * @param size Number of bytes that have been written.
+	 * @throws IOException if writing the data failed
+	 */
+	private static void pad(WritableByteChannel channel, ByteBuffer buffer, long size)
+			throws IOException {
+		int padding = (int) (BinaryColumnFormat.pad(size) - size);
+		ensureRemaining(channel, buffer, padding);
+		for (int i = 0; i < padding; i++) {
+			buffer.put((byte) 0);
+		}
+	}
+
+	/**
+	 * Makes sure the buffer has space for the specified number of bytes by
+	 * writing its contents if necessary.
+	 * @param channel Channel to be written to.
+	 * @param buffer Buffer for writing.
+	 * @param size Number of bytes that will be put into the buffer.
+	 * @throws IOException if writing the data failed
+	 */
+	private static void ensureRemaining(WritableByteChannel channel, ByteBuffer buffer, int size)
+			throws IOException {
+		if (buffer.remaining() < size) {
+			flush(channel, buffer);
+		}
+	}
+
+	/**
+	 * Writes the contents of the buffer and clears it.
+	 * @param channel Channel to be written to.
+	 * @param buffer Buffer for writing.
+	 * @throws IOException if writing the data failed
+	 */
+	private static void flush(WritableByteChannel channel, ByteBuffer buffer)
+			throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -23,22 +23,28 @@ package de.erichseifert.gral.io.data;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import java.text.MessageFormat;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import de.erichseifert.gral.data.DataSource;
 import de.erichseifert.gral.data.DataTable;
 import de.erichseifert.gral.io.IOCapabilities;
 import de.erichseifert.gral.util.Messages;
-import de.erichseifert.gral.util.StatefulTokenizer;
-import de.erichseifert.gral.util.StatefulTokenizer.Token;
 
 
 /**
@@ -46,6 +52,14 @@ import de.erichseifert.gral.util.StatefulTokenizer.Token;
  * separated by a certain delimiter character. The delimiter is chosen based on
  * the file type but can also be set manually. By default the comma character
  * will be used as a delimiter for separating columns.</p>
+ * <p>The input is read in chunks and processed character by character, so
+ * apart from the resulting data only a constant amount of memory is used.
+ * Values of common number types are parsed directly from the characters.</p>
+ * <p>If the setting {@link #PARALLELISM} is greater than one, the input is
+ * split into chunks of complete rows that are parsed concurrently. The
+ * result is the same as with sequential parsing. This requires a default
+ * character set in which line breaks and quotes are single bytes, e.g.
+ * UTF-8 or ISO-8859-1, otherwise the input is parsed sequentially.</p>
  * <p>{@code CSVReader} instances should be obtained by the
  * {@link DataReaderFactory} rather than being created manually:</p>
  * <pre>
@@ -59,6 +73,9 @@ public class CSVReader extends AbstractDataReader {
 	/** Key for specifying a {@link Character} value that defines the
 	delimiting character used to separate columns. */
 	public static final String SEPARATOR_CHAR = "separator"; //$NON-NLS-1$
+	/** Key for specifying an {@link Integer} value that defines the number
+	of threads used to parse the input. */
+	public static final String PARALLELISM = "parallelism"; //$NON-NLS-1$
 
 	static {
 		addCapabilities(new IOCapabilities(
@@ -77,53 +94,12 @@ public class CSVReader extends AbstractDataReader {
 		));
 	}
 
-	/**
-	 * Token types for analyzing CSV or TSV input.
-	 */
-	private enum CSVTokenType {
-		/** Type for text tokens containing empty content. */
-		EMPTY_SPACE,
-		/** Type for text tokens containing value content. */
-		TEXT,
-		/** Type for quotes that may wrap value content. */
-		QUOTE,
-		/** Type for row separators. */
-		ROW_SEPARATOR,
-		/** Type for column separators. */
-		COLUMN_SEPARATOR,
-	}
-
-	/**
-	 *
-	 */
-	private static final class CSVTokenizer extends StatefulTokenizer {
-		/**
-		 * Initializes a new tokenizer instance with a grammar to analyze CSV
-		 * or TSV content. The character that separates columns must be
-		 * provided.
-		 * @param separator Column separator character.
-		 */
-		public CSVTokenizer(char separator) {
-			addJoinedType(CSVTokenType.TEXT);
-			addIgnoredType(CSVTokenType.QUOTE);
-
-			// Basic Set of rules for analyzing CSV content
-			putRules(
-				new Rule("\n|\r\n|\r", CSVTokenType.ROW_SEPARATOR),
-				new Rule(Pattern.quote(String.valueOf(separator)),
-						CSVTokenType.COLUMN_SEPARATOR),
-				new Rule("\"", CSVTokenType.QUOTE, "quoted"),
-				new Rule("[ \t]+", CSVTokenType.EMPTY_SPACE),
-				new Rule(".", CSVTokenType.TEXT)
-			);
-			// Set of rules that is valid inside quoted content
-			putRules("quoted",
-				new Rule("(\")\"", CSVTokenType.TEXT),
-				new Rule("\"", CSVTokenType.QUOTE, "#pop"),
-				new Rule(".", CSVTokenType.TEXT)
-			);
-		}
-	}
+	/** Number of characters that are read at once. */
+	private static final int CHUNK_SIZE = 64*1024;
+	/** Number of rows that are added to the table at once. */
+	private static final int BATCH_SIZE = 1024;
+	/** Number of bytes that are parsed as one task in parallel mode. */
+	private static final int PARALLEL_CHUNK_SIZE = 4*1024*1024;
 
 	/**
 	 * Creates a new instance with the specified MIME type. The delimiter is
@@ -138,6 +114,7 @@ public class CSVReader extends AbstractDataReader {
 		} else {
 			setDefault(SEPARATOR_CHAR, ',');
 		}
+		setDefault(PARALLELISM, 1);
 	}
 
 	/**
@@ -150,105 +127,133 @@ public class CSVReader extends AbstractDataReader {
 	 */
 	public DataSource read(InputStream input, Class<? extends Comparable<?>>... types)
 			throws IOException {
-		// Read all contents from the input stream
-		Scanner scanner = new Scanner(input).useDelimiter("\\Z");
-		String content = scanner.next();
-
-		// Tokenize the string
 		Character separator = getSetting(SEPARATOR_CHAR);
-		CSVTokenizer tokenizer = new CSVTokenizer(separator);
-		List<Token> tokens = tokenizer.tokenize(content);
-
-		// Add row token if there was no trailing line break
-		Token lastToken = tokens.get(tokens.size() - 1);
-		if (lastToken.getType() != CSVTokenType.ROW_SEPARATOR) {
-			Token eof = new Token(lastToken.getEnd(), lastToken.getEnd(),
-				CSVTokenType.ROW_SEPARATOR, "");
-			tokens.add(eof);
+		int parallelism = this.<Number>getSetting(PARALLELISM).intValue();
+		Charset charset = Charset.defaultCharset();
+		if (parallelism > 1 && isSplittable(charset)) {
+			return readParallel(input, separator, charset, parallelism, types);
 		}
 
-		// Find methods for all column data types that can be used to convert
-		// the text to the column data type
-		Map<Class<? extends Comparable<?>>, Method> parseMethods =
-				new HashMap<>();
-		for (Class<? extends Comparable<?>> type : types) {
-			if (parseMethods.containsKey(type)) {
-				continue;
-			}
-			Method parseMethod = getParseMethod(type);
-			if (parseMethod != null) {
-				parseMethods.put(type, parseMethod);
-			}
+		DataTable data = new DataTable(types);
+		CSVParser parser = new CSVParser(separator, types, data, 0);
+
+		Reader reader = new InputStreamReader(input);
+		char[] chunk = new char[CHUNK_SIZE];
+		int len;
+		while ((len = reader.read(chunk)) >= 0) {
+			parser.parse(chunk, 0, len);
 		}
+		parser.finish();
 
-		// Process the data and store the data.
-		DataTable data = new DataTable(types);
-		List<Comparable<?>> row = new LinkedList<>();
-		int rowIndex = 0;
-		int colIndex = 0;
-		StringBuilder cellContent = new StringBuilder();
-		for (Token token : tokens) {
-			if (token.getType() == CSVTokenType.TEXT ||
-					token.getType() == CSVTokenType.EMPTY_SPACE) {
-				// Store the token text
-				cellContent.append(token.getContent());
-			} else if (token.getType() == CSVTokenType.COLUMN_SEPARATOR ||
-					token.getType() == CSVTokenType.ROW_SEPARATOR) {
-				// Check for a valid number of columns
-				if (colIndex >= types.length) {
-					throw new IllegalArgumentException(MessageFormat.format(
-						"Too many columns in line {0,number,integer}: got {1,number,integer}, but expected {2,number,integer}.", //$NON-NLS-1$
-						rowIndex + 1, colIndex + 1, types.length));
-				}
+		return data;
+	}
 
-				// We need to add the cell to the row in both cases because
-				// rows don't have a trailing column token
-				Class<? extends Comparable<?>> colType = types[colIndex];
-				Method parseMethod = parseMethods.get(colType);
-				Comparable<?> cell = null;
-				try {
-					cell = (Comparable<?>) parseMethod.invoke(
-						null, cellContent.toString().trim());
-
-				} catch (IllegalArgumentException e) {
-					throw new RuntimeException(MessageFormat.format(
-						"Could not invoke method for parsing data type {0} in column {1,number,integer}.", //$NON-NLS-1$
-						types[colIndex].getSimpleName(), colIndex));
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException(MessageFormat.format(
-						"Could not access method for parsing data type {0} in column {1,number,integer}.", //$NON-NLS-1$
-						types[colIndex].getSimpleName(), colIndex));
-				} catch (InvocationTargetException e) {
-					if (cellContent.length() > 0) {
-						throw new IOException(MessageFormat.format(
-							"Type mismatch in line {0,number,integer}, column {1,number,integer}: got \"{2}\", but expected {3} value.", //$NON-NLS-1$
-							rowIndex + 1, colIndex + 1, cellContent.toString(), colType.getSimpleName()));
+	/**
+	 * Reads the input in chunks of complete rows that are parsed
+	 * concurrently. The rows of the chunks are added to the table in the
+	 * order of the input.
+	 * @param input Input to be read.
+	 * @param separator Character that separates columns.
+	 * @param charset Character set of the input.
+	 * @param parallelism Number of threads.
+	 * @param types Types of the columns.
+	 * @return Imported data.
+	 * @throws IOException when the file format is not valid or when
+	 *         experiencing an error during file operations.
+	 */
+	private static DataSource readParallel(InputStream input, char separator,
+			Charset charset, int parallelism, Class<? extends Comparable<?>>[] types)
+			throws IOException {
+		DataTable data = new DataTable(types);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			// The number of pending chunks is limited to bound the memory usage
+			Deque<CSVChunk> chunks = new ArrayDeque<>();
+			byte[] buffer = new byte[PARALLEL_CHUNK_SIZE];
+			int len = 0;
+			boolean eof = false;
+			while (!eof) {
+				while (len < buffer.length) {
+					int bytesRead = input.read(buffer, len, buffer.length - len);
+					if (bytesRead < 0) {
+						eof = true;
+						break;
 					}
+					len += bytesRead;
 				}
-				row.add(cell);
-				colIndex++;
-
-				if (token.getType() == CSVTokenType.ROW_SEPARATOR) {
-					// Check for a valid number of columns
-					if (row.size() < types.length) {
-						throw new IllegalArgumentException(MessageFormat.format(
-							"Not enough columns in line {0,number,integer}: got {1,number,integer}, but expected {2,number,integer}.", //$NON-NLS-1$
-							rowIndex + 1, row.size(), types.length));
-					}
+				int split = eof ? len : findSplit(buffer, len);
+				if (split == 0 && !eof) {
+					// The chunk has to contain at least one complete row
+					buffer = Arrays.copyOf(buffer, 2*buffer.length);
+					continue;
+				}
+				if (split > 0) {
+					CSVChunk chunk = new CSVChunk(Arrays.copyOf(buffer, split),
+						charset, separator, types);
+					chunk.result = pool.submit(chunk);
+					chunks.add(chunk);
+				}
+				len -= split;
+				System.arraycopy(buffer, split, buffer, 0, len);
 
-					// Add the row to the table
-					data.add(row);
-					rowIndex++;
+				while (chunks.size() > 2*parallelism || (eof && !chunks.isEmpty())) {
+					chunks.poll().addTo(data);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return data;
+	}
 
-					// Start a new row
-					row.clear();
-					colIndex = 0;
+	/**
+	 * Returns the position after the last row separator at which the input
+	 * can be split. A row may only end there if it isn't empty and the row
+	 * separator isn't quoted. The rows before the position can be parsed
+	 * independently of the rows after the position.
+	 * @param bytes Bytes of the input, starting with a new row.
+	 * @param len Number of bytes.
+	 * @return Position after the row separator, or {@code 0} if the bytes
+	 *         can't be split.
+	 */
+	private static int findSplit(byte[] bytes, int len) {
+		int split = 0;
+		int lineStart = 0;
+		boolean quoted = false;
+		for (int i = 0; i < len; i++) {
+			byte b = bytes[i];
+			if (b == '"') {
+				// Escaped quotes toggle the state twice
+				quoted = !quoted;
+			} else if (!quoted && (b == '\n' || b == '\r')) {
+				if (b == '\r' && (i + 1 == len || bytes[i + 1] == '\n')) {
+					// The line break isn't complete yet
+					continue;
 				}
-				cellContent = new StringBuilder();
+				int lineEnd = (b == '\n' && i > 0 && bytes[i - 1] == '\r') ? i - 1 : i;
+				if (lineEnd > lineStart) {
+					split = i + 1;
+				}
+				lineStart = i + 1;
 			}
 		}
+		return split;
+	}
 
-		return data;
+	/**
+	 * Returns whether the bytes of the specified character set can be split
+	 * at line breaks without decoding them.
+	 * @param charset Character set.
+	 * @return {@code true} if line breaks and quotes are encoded as single
+	 *         bytes that don't occur inside other characters.
+	 */
+	private static boolean isSplittable(Charset charset) {
+		byte[] bytes = "\r\n\"".getBytes(charset); //$NON-NLS-1$
+		if (!Arrays.equals(bytes, new byte[] {'\r', '\n', '"'})) {
+			return false;
+		}
+		return "UTF-8".equals(charset.name()) || //$NON-NLS-1$
+			charset.newEncoder().maxBytesPerChar() == 1f;
 	}
 
 	/**
@@ -287,4 +292,525 @@ public class CSVReader extends AbstractDataReader {
 
 		return parse;
 	}
+
+	/**
+	 * Class that processes the characters of CSV or TSV content and adds the
+	 * resulting rows to a table. The content can be passed in arbitrary
+	 * chunks, as the state of the current row is kept between the chunks.
+	 * Quoted content may contain separators and line breaks. Two consecutive
+	 * quotes inside quoted content represent a single quote character.
+	 */
+	private static final class CSVParser {
+		/** State for unquoted content. */
+		private static final int STATE_DEFAULT = 0;
+		/** State after a carriage return that could be followed by a line
+		feed. */
+		private static final int STATE_CARRIAGE_RETURN = 1;
+		/** State for quoted content. */
+		private static final int STATE_QUOTED = 2;
+		/** State after a quote inside quoted content. */
+		private static final int STATE_QUOTE_IN_QUOTED = 3;
+
+		/** Character that separates columns. */
+		private final char separator;
+		/** Types of the columns. */
+		private final Class<? extends Comparable<?>>[] types;
+		/** Parsers for the values of each column. */
+		private final CellParser[] parsers;
+		/** Table the rows are added to, or {@code null}. */
+		private final DataTable data;
+		/** Rows that haven't been added to the table yet. */
+		private final List<List<Comparable<?>>> batch;
+
+		/** Current state. */
+		private int state;
+		/** Characters of the current cell. */
+		private char[] cell;
+		/** Number of characters of the current cell. */
+		private int cellLength;
+		/** Values of the current row. */
+		private Comparable<?>[] row;
+		/** Index of the current column. */
+		private int colIndex;
+		/** Index of the current row. */
+		private int rowIndex;
+		/** Decides whether the current row has no content so far. */
+		private boolean rowEmpty;
+		/** Number of empty lines that haven't been added yet. */
+		private int emptyRows;
+
+		/**
+		 * Initializes a new parser.
+		 * @param separator Character that separates columns.
+		 * @param types Types of the columns.
+		 * @param data Table the rows are added to, or {@code null} to keep
+		 *        all rows in memory.
+		 * @param rowOffset Index of the first row in the input, which is
+		 *        used for error messages.
+		 */
+		public CSVParser(char separator, Class<? extends Comparable<?>>[] types,
+				DataTable data, int rowOffset) {
+			this.separator = separator;
+			this.types = types;
+			this.data = data;
+			parsers = new CellParser[types.length];
+			for (int col = 0; col < types.length; col++) {
+				parsers[col] = getCellParser(types[col]);
+			}
+			batch = new ArrayList<>(BATCH_SIZE);
+			state = STATE_DEFAULT;
+			cell = new char[64];
+			row = new Comparable<?>[types.length];
+			rowIndex = rowOffset;
+			rowEmpty = true;
+		}
+
+		/**
+		 * Returns the rows that haven't been added to the table. If there is
+		 * no table, these are all parsed rows.
+		 * @return Parsed rows.
+		 */
+		public List<List<Comparable<?>>> getRows() {
+			return batch;
+		}
+
+		/**
+		 * Processes a chunk of characters.
+		 * @param chars Characters to be processed.
+		 * @param offset Index of the first character.
+		 * @param len Number of characters.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		public void parse(char[] chars, int offset, int len) throws IOException {
+			int end = offset + len;
+			for (int i = offset; i < end; i++) {
+				char c = chars[i];
+				if (state == STATE_QUOTED) {
+					if (c == '"') {
+						state = STATE_QUOTE_IN_QUOTED;
+					} else {
+						append(c);
+					}
+					continue;
+				} else if (state == STATE_QUOTE_IN_QUOTED) {
+					state = STATE_DEFAULT;
+					if (c == '"') {
+						// Escaped quote
+						append(c);
+						state = STATE_QUOTED;
+						continue;
+					}
+				} else if (state == STATE_CARRIAGE_RETURN) {
+					state = STATE_DEFAULT;
+					if (c == '\n') {
+						continue;
+					}
+				}
+
+				if (c == '\r') {
+					endRow();
+					state = STATE_CARRIAGE_RETURN;
+				} else if (c == '\n') {
+					endRow();
+				} else if (c == separator) {
+					if (rowEmpty) {
+						startRow();
+					}
+					endCell();
+				} else if (c == '"') {
+					startRow();
+					state = STATE_QUOTED;
+				} else {
+					append(c);
+				}
+			}
+		}
+
+		/**
+		 * Processes the end of the content. The last line break of the
+		 * content doesn't start a new row.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		public void finish() throws IOException {
+			if (!rowEmpty) {
+				addRow();
+			} else if (emptyRows > 0) {
+				emptyRows--;
+				addEmptyRows();
+			}
+			flush();
+		}
+
+		private void append(char c) throws IOException {
+			if (rowEmpty) {
+				startRow();
+			}
+			if (cellLength == cell.length) {
+				cell = Arrays.copyOf(cell, 2*cell.length);
+			}
+			cell[cellLength++] = c;
+		}
+
+		/**
+		 * Marks the current row as having content. Pending empty lines are
+		 * added first.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		private void startRow() throws IOException {
+			addEmptyRows();
+			rowEmpty = false;
+		}
+
+		/**
+		 * Completes the current cell and stores its value.
+		 * @throws IOException if the value doesn't match the column type.
+		 */
+		private void endCell() throws IOException {
+			// Check for a valid number of columns
+			if (colIndex >= types.length) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Too many columns in line {0,number,integer}: got {1,number,integer}, but expected {2,number,integer}.", //$NON-NLS-1$
+					rowIndex + 1, colIndex + 1, types.length));
+			}
+
+			// Ignore surrounding white space
+			int start = 0;
+			int end = cellLength;
+			while (start < end && cell[start] <= ' ') {
+				start++;
+			}
+			while (end > start && cell[end - 1] <= ' ') {
+				end--;
+			}
+
+			Comparable<?> value = null;
+			try {
+				value = parsers[colIndex].parse(cell, start, end);
+			} catch (IllegalArgumentException e) {
+				if (cellLength > 0) {
+					throw new IOException(MessageFormat.format(
+						"Type mismatch in line {0,number,integer}, column {1,number,integer}: got \"{2}\", but expected {3} value.", //$NON-NLS-1$
+						rowIndex + 1, colIndex + 1, new String(cell, 0, cellLength),
+						types[colIndex].getSimpleName()));
+				}
+			}
+			row[colIndex++] = value;
+			cellLength = 0;
+		}
+
+		/**
+		 * Completes the current row. Empty lines are added when the next
+		 * row with content is found, because an empty line at the end of the
+		 * content doesn't count as a row.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		private void endRow() throws IOException {
+			if (rowEmpty) {
+				emptyRows++;
+				return;
+			}
+			addRow();
+		}
+
+		private void addEmptyRows() throws IOException {
+			while (emptyRows > 0) {
+				emptyRows--;
+				addRow();
+			}
+		}
+
+		/**
+		 * Adds the current row to the batch of rows.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		private void addRow() throws IOException {
+			// Rows don't have a trailing column separator
+			endCell();
+
+			// Check for a valid number of columns
+			if (colIndex < types.length) {
+				throw new IllegalArgumentException(MessageFormat.format(
+					"Not enough columns in line {0,number,integer}: got {1,number,integer}, but expected {2,number,integer}.", //$NON-NLS-1$
+					rowIndex + 1, colIndex, types.length));
+			}
+
+			batch.add(Arrays.asList(row));
+			if (data != null && batch.size() >= BATCH_SIZE) {
+				flush();
+			}
+			rowIndex++;
+
+			// Start a new row
+			row = new Comparable<?>[types.length];
+			colIndex = 0;
+			rowEmpty = true;
+		}
+
+		/**
+		 * Adds all pending rows to the table.
+		 */
+		private void flush() {
+			if (data != null && !batch.isEmpty()) {
+				data.addAll(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Task that parses a chunk of complete rows.
+	 */
+	private static final class CSVChunk implements Callable<List<List<Comparable<?>>>> {
+		/** Encoded characters of the rows. */
+		private final byte[] bytes;
+		/** Character set of the bytes. */
+		private final Charset charset;
+		/** Character that separates columns. */
+		private final char separator;
+		/** Types of the columns. */
+		private final Class<? extends Comparable<?>>[] types;
+		/** Rows that have been parsed by the task. */
+		private Future<List<List<Comparable<?>>>> result;
+
+		/**
+		 * Initializes a new task.
+		 * @param bytes Encoded characters of the rows.
+		 * @param charset Character set of the bytes.
+		 * @param separator Character that separates columns.
+		 * @param types Types of the columns.
+		 */
+		public CSVChunk(byte[] bytes, Charset charset, char separator,
+				Class<? extends Comparable<?>>[] types) {
+			this.bytes = bytes;
+			this.charset = charset;
+			this.separator = separator;
+			this.types = types;
+		}
+
+		public List<List<Comparable<?>>> call() throws IOException {
+			return parse(0);
+		}
+
+		/**
+		 * Parses the rows of the chunk.
+		 * @param rowOffset Index of the first row in the input.
+		 * @return Parsed rows.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		private List<List<Comparable<?>>> parse(int rowOffset) throws IOException {
+			CharBuffer chars = charset.decode(ByteBuffer.wrap(bytes));
+			CSVParser parser = new CSVParser(separator, types, null, rowOffset);
+			parser.parse(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+			parser.finish();
+			return parser.getRows();
+		}
+
+		/**
+		 * Waits for the task to complete and adds the parsed rows to a
+		 * table. If the rows couldn't be parsed, the chunk is parsed again
+		 * with the correct position in the input, so the error is the same
+		 * as with sequential parsing.
+		 * @param data Table the rows are added to.
+		 * @throws IOException if a value doesn't match its column type.
+		 */
+		public void addTo(DataTable data) throws IOException {
+			List<List<Comparable<?>>> rows;
+			try {
+				rows = result.get();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			} catch (ExecutionException e) {
+				rows = parse(data.getRowCount());
+			}
+			if (!rows.isEmpty()) {
+				data.addAll(rows);
+			}
+		}
+	}
+
+	/**
+	 * Class that converts the characters of a cell to a value of a certain
+	 * type.
+	 */
+	private abstract static class CellParser {
+		/**
+		 * Returns the value of a cell.
+		 * @param chars Characters of the cell.
+		 * @param start Index of the first character.
+		 * @param end Index after the last character.
+		 * @return Parsed value.
+		 * @throws IllegalArgumentException if the characters don't represent
+		 *         a valid value.
+		 */
+		public abstract Comparable<?> parse(char[] chars, int start, int end);
+	}
+
+	/**
+	 * Parser for {@code String} values.
+	 */
+	private static final class StringParser extends CellParser {
+		@Override
+		public Comparable<?> parse(char[] chars, int start, int end) {
+			return new String(chars, start, end - start);
+		}
+	}
+
+	/**
+	 * Parser for {@code Double} values. Simple decimal numbers are converted
+	 * directly, all other numbers are parsed by {@link Double#valueOf(String)}.
+	 */
+	private static final class DoubleParser extends CellParser {
+		/** Powers of ten that can be represented exactly. */
+		private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7,
+			1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+		};
+		/** Maximal number of digits whose value can be represented exactly. */
+		private static final int MAX_DIGITS = 15;
+
+		@Override
+		public Comparable<?> parse(char[] chars, int start, int end) {
+			int pos = start;
+			boolean negative = false;
+			if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+				negative = chars[pos] == '-';
+				pos++;
+			}
+			long mantissa = 0L;
+			int digits = 0;
+			int fractionDigits = 0;
+			boolean point = false;
+			for (; pos < end; pos++) {
+				char c = chars[pos];
+				if (c == '.' && !point) {
+					point = true;
+					continue;
+				}
+				int digit = c - '0';
+				if (digit < 0 || digit > 9 || digits == MAX_DIGITS) {
+					return Double.valueOf(new String(chars, start, end - start));
+				}
+				mantissa = 10L*mantissa + digit;
+				digits++;
+				if (point) {
+					fractionDigits++;
+				}
+			}
+			if (digits == 0) {
+				return Double.valueOf(new String(chars, start, end - start));
+			}
+			// Both numbers are exact, so the quotient is rounded correctly
+			double value = mantissa/POWERS_OF_TEN[fractionDigits];
+			return negative ? -value : value;
+		}
+	}
+
+	/**
+	 * Parser for {@code Long} and {@code Integer} values. Numbers with few
+	 * digits are converted directly, all other numbers are parsed by
+	 * {@link Long#valueOf(String)} or {@link Integer#valueOf(String)}.
+	 */
+	private static final class IntegerParser extends CellParser {
+		/** Decides whether {@code Long} values are returned. */
+		private final boolean isLong;
+
+		/**
+		 * Initializes a new parser.
+		 * @param isLong {@code true} for {@code Long} values,
+		 *        {@code false} for {@code Integer} values.
+		 */
+		public IntegerParser(boolean isLong) {
+			this.isLong = isLong;
+		}
+
+		@Override
+		public Comparable<?> parse(char[] chars, int start, int end) {
+			int pos = start;
+			boolean negative = false;
+			if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+				negative = chars[pos] == '-';
+				pos++;
+			}
+			// Values with these numbers of digits can't overflow
+			int digits = end - pos;
+			if (digits > 0 && digits <= (isLong ? 18 : 9)) {
+				long value = 0L;
+				for (; pos < end; pos++) {
+					int digit = chars[pos] - '0';
+					if (digit < 0 || digit > 9) {
+						break;
+					}
+					value = 10L*value + digit;
+				}
+				if (pos == end) {
+					value = negative ? -value : value;
+					if (isLong) {
+						return value;
+					}
+					return (int) value;
+				}
+			}
+			String text = new String(chars, start, end - start);
+			if (isLong) {
+				return Long.valueOf(text);
+			}
+			return Integer.valueOf(text);
+		}
+	}
+
+	/**
+	 * Parser that uses a static parse method of the column type.
+	 */
+	private static final class MethodParser extends CellParser {
+		/** Type of the values. */
+		private final Class<?> type;
+		/** Method that parses a string. */
+		private final Method parseMethod;
+
+		/**
+		 * Initializes a new parser.
+		 * @param type Type of the values.
+		 */
+		public MethodParser(Class<?> type) {
+			this.type = type;
+			parseMethod = getParseMethod(type);
+		}
+
+		@Override
+		public Comparable<?> parse(char[] chars, int start, int end) {
+			if (parseMethod == null) {
+				throw new RuntimeException(MessageFormat.format(
+					"Could not find method for parsing data type {0}.", //$NON-NLS-1$
+					type.getSimpleName()));
+			}
+			try {
+				return (Comparable<?>) parseMethod.invoke(
+					null, new String(chars, start, end - start));
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(MessageFormat.format(
+					"Could not access method for parsing data type {0}.", //$NON-NLS-1$
+					type.getSimpleName()));
+			} catch (InvocationTargetException e) {
+				throw new IllegalArgumentException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Returns a parser for the values of the specified type.
+	 * @param type Column type.
+	 * @return Parser for the column type.
+	 */
+	private static CellParser getCellParser(Class<?> type) {
+		if (String.class.isAssignableFrom(type)) {
+			return new StringParser();
+		} else if (Double.class.equals(type)) {
+			return new DoubleParser();
+		} else if (Long.class.equals(type)) {
+			return new IntegerParser(true);
+		} else if (Integer.class.equals(type)) {
+			return new IntegerParser(false);
+		}
+		return new MethodParser(type);
+	}
 }
@@ -0,0 +1,199 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.io.data;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.text.MessageFormat;
+
+import de.erichseifert.gral.data.AbstractDataSource;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DoubleColumnTable;
+
+/**
+ * Read-only data source whose columns are stored in byte buffers, usually
+ * buffers that map a file into memory. Values are read from the buffers on
+ * each access, so the data is loaded lazily and is kept by the operating
+ * system instead of the Java heap. When the data source is serialized, the
+ * values are copied into a {@link DoubleColumnTable}.
+ * @see BinaryColumnReader
+ */
+final class MappedColumnData extends AbstractDataSource {
+	/** Version id for serialization. */
+	private static final long serialVersionUID = -6003185049566312582L;
+
+	/** Number of bits for the byte offset in a buffer segment. */
+	static final int SEGMENT_BITS = 30;
+	/** Mask for the byte offset in a buffer segment. */
+	private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1L;
+
+	/** Number of rows. */
+	private final int rowCount;
+	/** Type codes of the columns. */
+	private final int[] codes;
+	/** Values of each column, split into segments of equal size. */
+	private final transient ByteBuffer[][] values;
+	/** Bit sets that mark {@code null} values, or {@code null} if a column
+	doesn't contain {@code null} values. */
+	private final transient LongBuffer[] nulls;
+
+	/**
+	 * Initializes a new instance with buffers containing the values.
+	 * @param types Column types.
+	 * @param codes Type codes of the columns.
+	 * @param rowCount Number of rows.
+	 * @param values Values of each column. All segments except the last one
+	 *        must contain {@code 1 << SEGMENT_BITS} bytes.
+	 * @param nulls Bit sets that mark {@code null} values.
+	 */
+	public MappedColumnData(Class<? extends Comparable<?>>[] types, int[] codes,
+			int rowCount, ByteBuffer[][] values, LongBuffer[] nulls) {
+		super(types);
+		this.codes = codes;
+		this.rowCount = rowCount;
+		this.values = values;
+		this.nulls = nulls;
+	}
+
+	/**
+	 * Returns the value with the specified row and column index.
+	 * @param col index of the column to return
+	 * @param row index of the row to return
+	 * @return the specified value of the data cell
+	 */
+	public Comparable<?> get(int col, int row) {
+		if (row < 0 || row >= rowCount || isNull(col, row)) {
+			return null;
+		}
+		ByteBuffer segment = getSegment(col, row);
+		int offset = getOffset(col, row);
+		Class<?> type = BinaryColumnFormat.getType(codes[col]);
+		if (type == Double.class) {
+			return segment.getDouble(offset);
+		} else if (type == Float.class) {
+			return segment.getFloat(offset);
+		} else if (type == Long.class) {
+			return segment.getLong(offset);
+		} else if (type == Integer.class) {
+			return segment.getInt(offset);
+		} else if (type == Short.class) {
+			return segment.getShort(offset);
+		}
+		return segment.get(offset);
+	}
+
+	@Override
+	public double getDouble(int col, int row) {
+		if (row < 0 || row >= rowCount || isNull(col, row)) {
+			return Double.NaN;
+		}
+		return readDouble(col, row);
+	}
+
+	@Override
+	public void copyColumn(int col, double[] dst, int fromRow, int len) {
+		if (len > 0) {
+			checkRowIndex(fromRow);
+			checkRowIndex(fromRow + len - 1);
+		}
+		for (int i = 0; i < len; i++) {
+			int row = fromRow + i;
+			dst[i] = isNull(col, row) ? Double.NaN : readDouble(col, row);
+		}
+	}
+
+	@Override
+	public boolean isNumericDense(int col) {
+		return true;
+	}
+
+	/**
+	 * Returns the number of rows of the data source.
+	 * @return number of rows in the data source.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public DataSource snapshot() {
+		// The data never changes
+		return this;
+	}
+
+	/**
+	 * Reads a value that isn't {@code null} as a {@code double}.
+	 * @param col Column index.
+	 * @param row Row index.
+	 * @return Value.
+	 */
+	private double readDouble(int col, int row) {
+		ByteBuffer segment = getSegment(col, row);
+		int offset = getOffset(col, row);
+		Class<?> type = BinaryColumnFormat.getType(codes[col]);
+		if (type == Double.class) {
+			return segment.getDouble(offset);
+		} else if (type == Float.class) {
+			return segment.getFloat(offset);
+		} else if (type == Long.class) {
+			return segment.getLong(offset);
+		} else if (type == Integer.class) {
+			return segment.getInt(offset);
+		} else if (type == Short.class) {
+			return segment.getShort(offset);
+		}
+		return segment.get(offset);
+	}
+
+	private boolean isNull(int col, int row) {
+		LongBuffer bits = nulls[col];
+		return bits != null && (bits.get(row >>> 6) & (1L << row)) != 0L;
+	}
+
+	private ByteBuffer getSegment(int col, int row) {
+		long position = (long) row*BinaryColumnFormat.getWidth(codes[col]);
+		return values[col][(int) (position >>> SEGMENT_BITS)];
+	}
+
+	private int getOffset(int col, int row) {
+		long position = (long) row*BinaryColumnFormat.getWidth(codes[col]);
+		return (int) (position & SEGMENT_MASK);
+	}
+
+	private void checkRowIndex(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException(MessageFormat.format(
+				"Row index {0,number,integer} out of range.", row)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Replaces the instance by a copy in memory when it is serialized,
+	 * because the buffers can't be serialized.
+	 * @return Copy of the data.
+	 * @throws ObjectStreamException if the data couldn't be copied.
+	 */
+	private Object writeReplace() throws ObjectStreamException {
+		return new DoubleColumnTable(this);
+	}
+}
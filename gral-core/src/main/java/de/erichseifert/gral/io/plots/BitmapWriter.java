@@ -26,13 +26,22 @@ import java.awt.RenderingHints;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
 
+import de.erichseifert.gral.graphics.ConcurrentDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.io.IOCapabilities;
@@ -98,6 +107,10 @@ public class BitmapWriter extends IOCapabilitiesStorage
 	private final String mimeType;
 	/** Bitmap raster format. */
 	private final int rasterFormat;
+	/** Edge length of the tiles in pixels, or 0 if images aren't split. */
+	private int tileSize;
+	/** Maximal number of threads that draw tiles. */
+	private int threadCount;
 
 	/**
 	 * Creates a new {@code BitmapWriter} object with the specified
@@ -128,6 +141,9 @@ public class BitmapWriter extends IOCapabilitiesStorage
 			}
 		}
 
+		tileSize = 0;
+		threadCount = Runtime.getRuntime().availableProcessors();
+
 		// TODO Option to set transparency
 		// TODO Possibility to choose a background color
 	}
@@ -160,14 +176,6 @@ public class BitmapWriter extends IOCapabilitiesStorage
 			throws IOException {
 		BufferedImage image = new BufferedImage(
 				(int)Math.ceil(width), (int)Math.ceil(height), rasterFormat);
-		Graphics2D imageGraphics = image.createGraphics();
-		imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		imageGraphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-		imageGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-		imageGraphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-
-		DrawingContext context =
-			new DrawingContext(imageGraphics);
 
 		Iterator<ImageWriter> writers =
 			ImageIO.getImageWritersByMIMEType(getMimeType());
@@ -179,7 +187,14 @@ public class BitmapWriter extends IOCapabilitiesStorage
 			Rectangle2D boundsOld = d.getBounds();
 			d.setBounds(x, y, width, height);
 			try {
-				d.draw(context);
+				if (isTiled(d, image)) {
+					drawTiles(d, image);
+				} else {
+					Graphics2D imageGraphics = createGraphics(image);
+					DrawingContext context =
+						new DrawingContext(imageGraphics);
+					d.draw(context);
+				}
 				writer.write(image);
 			} finally {
 				d.setBounds(boundsOld);
@@ -188,6 +203,138 @@ public class BitmapWriter extends IOCapabilitiesStorage
 		}
 	}
 
+	/**
+	 * Creates a graphics object for the specified image with the rendering
+	 * settings of this writer.
+	 * @param image Image to be drawn to.
+	 * @return Graphics object.
+	 */
+	private static Graphics2D createGraphics(BufferedImage image) {
+		Graphics2D imageGraphics = image.createGraphics();
+		imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		imageGraphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		imageGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		imageGraphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		return imageGraphics;
+	}
+
+	/**
+	 * Returns whether the specified {@code Drawable} is drawn in tiles.
+	 * This requires a tile size, more than one thread, an image that is
+	 * larger than one tile, and a {@code Drawable} that can be drawn
+	 * concurrently.
+	 * @param d {@code Drawable} to be written.
+	 * @param image Image to be drawn to.
+	 * @return {@code true} if the image is split into tiles.
+	 */
+	private boolean isTiled(Drawable d, BufferedImage image) {
+		int tileSize = getTileSize();
+		return tileSize > 0 && getThreadCount() > 1 &&
+			(d instanceof ConcurrentDrawable) &&
+			(image.getWidth() > tileSize || image.getHeight() > tileSize);
+	}
+
+	/**
+	 * Draws the specified {@code Drawable} in tiles. Each tile is drawn
+	 * into a separate image by a worker thread and copied into the
+	 * resulting image afterwards.
+	 * @param d {@code Drawable} to be written.
+	 * @param image Image to be drawn to.
+	 * @throws IOException if drawing is interrupted or fails.
+	 */
+	private void drawTiles(final Drawable d, BufferedImage image) throws IOException {
+		int tileSize = getTileSize();
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int tileCount = ((width + tileSize - 1)/tileSize)*((height + tileSize - 1)/tileSize);
+		ExecutorService executor = Executors.newFixedThreadPool(
+			Math.min(getThreadCount(), tileCount));
+		try {
+			List<Future<BufferedImage>> tiles = new ArrayList<>(tileCount);
+			for (int y = 0; y < height; y += tileSize) {
+				for (int x = 0; x < width; x += tileSize) {
+					final int tileX = x;
+					final int tileY = y;
+					final int tileWidth = Math.min(tileSize, width - x);
+					final int tileHeight = Math.min(tileSize, height - y);
+					tiles.add(executor.submit(new Callable<BufferedImage>() {
+						public BufferedImage call() {
+							BufferedImage tile = new BufferedImage(
+								tileWidth, tileHeight, rasterFormat);
+							Graphics2D tileGraphics = createGraphics(tile);
+							tileGraphics.translate(-tileX, -tileY);
+							tileGraphics.clipRect(tileX, tileY, tileWidth, tileHeight);
+							d.draw(new DrawingContext(tileGraphics));
+							tileGraphics.dispose();
+							return tile;
+						}
+					}));
+				}
+			}
+			// Copy the tiles in the order they have been submitted
+			int tileIndex = 0;
+			for (int y = 0; y < height; y += tileSize) {
+				for (int x = 0; x < width; x += tileSize) {
+					BufferedImage tile = tiles.get(tileIndex++).get();
+					image.getRaster().setRect(x, y, tile.getRaster());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the edge length of the tiles the image is split into. Tiles
+	 * are only used for {@code Drawable} instances that implement
+	 * {@link ConcurrentDrawable}; other instances are drawn at once.
+	 * @return Edge length of the tiles in pixels, or 0 if images aren't
+	 *         split into tiles.
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Sets the edge length of the tiles the image is split into. Each tile
+	 * is drawn by a separate thread. Tiles are only used for
+	 * {@code Drawable} instances that implement {@link ConcurrentDrawable};
+	 * other instances are drawn at once.
+	 * @param tileSize Edge length of the tiles in pixels, or 0 to disable
+	 *        tiles.
+	 */
+	public void setTileSize(int tileSize) {
+		this.tileSize = Math.max(0, tileSize);
+	}
+
+	/**
+	 * Returns the maximal number of threads that are used to draw tiles.
+	 * The default is the number of available processors.
+	 * @return Number of threads.
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Sets the maximal number of threads that are used to draw tiles.
+	 * @param threadCount Number of threads.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
+
 	/**
 	 * Returns the output format of this writer.
 	 * @return String representing the MIME-Type.
@@ -42,10 +42,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import de.erichseifert.gral.data.Column;
 import de.erichseifert.gral.data.DataChangeEvent;
 import de.erichseifert.gral.data.DataListener;
 import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.statistics.IncrementalStatistics;
 import de.erichseifert.gral.data.statistics.Statistics;
 import de.erichseifert.gral.graphics.Container;
 import de.erichseifert.gral.graphics.Drawable;
@@ -95,6 +95,8 @@ public abstract class AbstractPlot extends DrawableContainer
 	private final Map<String, Double> axisMin;
 	/** Maximum values of axes. **/
 	private final Map<String, Double> axisMax;
+	/** Incrementally updated column statistics of the data sources. */
+	private transient Map<DataSource, IncrementalStatistics> statisticsByDataSource;
 
 	/** Title text of the plot. */
 	private final Label title;
@@ -140,6 +142,7 @@ public abstract class AbstractPlot extends DrawableContainer
 		columnToAxisMappingByDataSource = new HashMap<>();
 		axisMin = new HashMap<>();
 		axisMax = new HashMap<>();
+		statisticsByDataSource = new HashMap<>();
 
 		data = new LinkedList<>();
 		for (DataSource source : series) {
@@ -573,6 +576,9 @@ public abstract class AbstractPlot extends DrawableContainer
 	 */
 	public void add(int index, DataSource source, boolean visible) {
 		data.add(index, source);
+		if (!statisticsByDataSource.containsKey(source)) {
+			statisticsByDataSource.put(source, new IncrementalStatistics(source));
+		}
 		if (visible) {
 			dataVisible.add(source);
 		}
@@ -616,6 +622,9 @@ public abstract class AbstractPlot extends DrawableContainer
 			getLegend().remove(source);
 		}
 		boolean existed = data.remove(source);
+		if (!data.contains(source)) {
+			statisticsByDataSource.remove(source);
+		}
 		invalidateAxisExtrema();
 		return existed;
 	}
@@ -632,6 +641,7 @@ public abstract class AbstractPlot extends DrawableContainer
 			getLegend().clear();
 		}
 		data.clear();
+		statisticsByDataSource.clear();
 		invalidateAxisExtrema();
 	}
 
@@ -786,6 +796,10 @@ public abstract class AbstractPlot extends DrawableContainer
 	 *        have been added.
 	 */
 	public void dataAdded(DataSource source, DataChangeEvent... events) {
+		IncrementalStatistics statistics = statisticsByDataSource.get(source);
+		if (statistics != null) {
+			statistics.dataAdded(source, events);
+		}
 		dataChanged(source, events);
 	}
 
@@ -798,6 +812,10 @@ public abstract class AbstractPlot extends DrawableContainer
 	 *        have been updated.
 	 */
 	public void dataUpdated(DataSource source, DataChangeEvent... events) {
+		IncrementalStatistics statistics = statisticsByDataSource.get(source);
+		if (statistics != null) {
+			statistics.dataUpdated(source, events);
+		}
 		dataChanged(source, events);
 	}
 
@@ -810,6 +828,10 @@ public abstract class AbstractPlot extends DrawableContainer
 	 *        have been removed.
 	 */
 	public void dataRemoved(DataSource source, DataChangeEvent... events) {
+		IncrementalStatistics statistics = statisticsByDataSource.get(source);
+		if (statistics != null) {
+			statistics.dataRemoved(source, events);
+		}
 		dataChanged(source, events);
 	}
 
@@ -845,15 +867,17 @@ public abstract class AbstractPlot extends DrawableContainer
 					Integer colIndex = entry.getKey();
 					String axisName = entry.getValue();
 
-					Column<?> col = dataSource.getColumn(colIndex);
+					IncrementalStatistics statistics = getStatistics(dataSource);
+					double colMin = statistics.get(colIndex, Statistics.MIN);
+					double colMax = statistics.get(colIndex, Statistics.MAX);
 					Double min = axisMin.get(axisName);
 					Double max = axisMax.get(axisName);
 					if (min == null || max == null) {
-						min = col.getStatistics(Statistics.MIN);
-						max = col.getStatistics(Statistics.MAX);
+						min = colMin;
+						max = colMax;
 					} else {
-						min = Math.min(min, col.getStatistics(Statistics.MIN));
-						max = Math.max(max, col.getStatistics(Statistics.MAX));
+						min = Math.min(min, colMin);
+						max = Math.max(max, colMax);
 					}
 					axisMin.put(axisName, min);
 					axisMax.put(axisName, max);
@@ -862,6 +886,21 @@ public abstract class AbstractPlot extends DrawableContainer
 		}
 	}
 
+	/**
+	 * Returns the incrementally updated column statistics of the specified
+	 * data source.
+	 * @param source Data source.
+	 * @return Statistics of the data source.
+	 */
+	private IncrementalStatistics getStatistics(DataSource source) {
+		IncrementalStatistics statistics = statisticsByDataSource.get(source);
+		if (statistics == null) {
+			statistics = new IncrementalStatistics(source);
+			statisticsByDataSource.put(source, statistics);
+		}
+		return statistics;
+	}
+
 	/**
 	 * Custom deserialization method.
 	 * @param in Input stream.
@@ -876,6 +915,7 @@ public abstract class AbstractPlot extends DrawableContainer
 		// Custom deserialization
 		borderStroke = (Stroke) SerializationUtils.unwrap(
 				(Serializable) in.readObject());
+		statisticsByDataSource = new HashMap<>();
 
 		// Restore listeners
 		for (DataSource source : getData()) {
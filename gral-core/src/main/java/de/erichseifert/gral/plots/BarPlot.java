@@ -159,6 +159,7 @@ public class BarPlot extends XYPlot {
 		 */
 		public void setBorderStroke(Stroke stroke) {
 			this.borderStroke = stroke;
+			modified();
 		}
 
 		/**
@@ -175,6 +176,7 @@ public class BarPlot extends XYPlot {
 		 */
 		public void setBorderColor(Paint color) {
 			this.borderColor = color;
+			modified();
 		}
 
 		@Override
@@ -472,6 +474,7 @@ public class BarPlot extends XYPlot {
 	 */
 	public void setBarWidth(double barWidth) {
 		this.barWidth = barWidth;
+		invalidateLayers();
 	}
 
 	/**
@@ -490,6 +493,7 @@ public class BarPlot extends XYPlot {
 	 */
 	public void setBarHeightMin(double barHeightMin) {
 		this.barHeightMin = barHeightMin;
+		invalidateLayers();
 	}
 
 	/**
@@ -510,5 +514,6 @@ public class BarPlot extends XYPlot {
 	 */
 	public void setPaintAllBars(boolean paintAllBars) {
 		this.paintAllBars = paintAllBars;
+		invalidateLayers();
 	}
 }
@@ -213,6 +213,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setPositionColumn(int columnIndex) {
 			this.positionColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -230,6 +231,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setCenterBarColumn(int columnIndex) {
 			this.centerBarColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -247,6 +249,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBottomBarColumn(int columnIndex) {
 			this.bottomBarColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -267,6 +270,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setColumnBoxBottom(int columnIndex) {
 			this.boxBottomColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -287,6 +291,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBoxTopColumn(int columnIndex) {
 			this.boxTopColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -304,6 +309,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setTopBarColumn(int columnIndex) {
 			this.topBarColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -320,6 +326,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBoxWidth(double boxWidth) {
 			this.boxWidth = boxWidth;
+			modified();
 		}
 
 		/**
@@ -338,6 +345,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBoxBackground(ColorMapper color) {
 			this.boxBackground = color;
+			modified();
 		}
 
 		/**
@@ -367,6 +375,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBoxBorderColor(Paint color) {
 			this.boxBorderColor = color;
+			modified();
 		}
 
 		/**
@@ -387,6 +396,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBoxBorderStroke(Stroke stroke) {
 			this.boxBorderStroke = stroke;
+			modified();
 		}
 
 		/**
@@ -404,6 +414,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setWhiskerColor(Paint color) {
 			this.whiskerColor = color;
+			modified();
 		}
 
 		/**
@@ -423,6 +434,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setWhiskerStroke(Stroke stroke) {
 			this.whiskerStroke = stroke;
+			modified();
 		}
 
 		/**
@@ -439,6 +451,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setBarWidth(double width) {
 			this.barWidth = width;
+			modified();
 		}
 
 		/**
@@ -457,6 +470,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setCenterBarColor(Paint color) {
 			this.centerBarColor = color;
+			modified();
 		}
 
 		/**
@@ -477,6 +491,7 @@ public class BoxPlot extends XYPlot {
 		 */
 		public void setCenterBarStroke(Stroke stroke) {
 			this.centerBarStroke = stroke;
+			modified();
 		}
 
 		@Override
@@ -0,0 +1,233 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import de.erichseifert.gral.graphics.DrawingContext;
+
+/**
+ * Class that stores an image of a part of a plot, e.g. a single data source
+ * or the axes. The image is reused as long as the state it has been drawn
+ * with doesn't change. Images are stored in device space, so they can be
+ * copied to whole pixels without scaling. Layers that have to be drawn
+ * again can be drawn on a shared pool of threads with
+ * {@link #invokeAll(List)}.
+ */
+final class PlotLayer {
+	/** Threads that draw layers, or {@code null} if none are needed yet. */
+	private static ExecutorService executor;
+
+	/** Image of the layer, or {@code null}. */
+	private BufferedImage image;
+	/** State that the image has been drawn with, or {@code null}. */
+	private List<?> state;
+
+	/**
+	 * Returns whether layers can be used for the specified context. This
+	 * requires a bitmap target and a transformation without rotation.
+	 * @param context Environment used for drawing.
+	 * @return {@code true} if layers can be used.
+	 */
+	public static boolean isSupported(DrawingContext context) {
+		AffineTransform tx = context.getGraphics().getTransform();
+		return context.getTarget() == DrawingContext.Target.BITMAP &&
+			(tx.getType() & ~(AffineTransform.TYPE_TRANSLATION |
+				AffineTransform.TYPE_MASK_SCALE)) == 0 &&
+			tx.getScaleX() > 0.0 && tx.getScaleY() > 0.0;
+	}
+
+	/**
+	 * Returns the properties that determine the pixels of a layer: the
+	 * scaling, the fractional part of the device position, and the size in
+	 * pixels.
+	 * @param tx Transformation from user space to device space.
+	 * @param bounds Bounds of the layer in user space.
+	 * @return Properties of the layer in device space.
+	 */
+	public static List<Object> getGeometry(AffineTransform tx, Rectangle2D bounds) {
+		double minX = bounds.getMinX()*tx.getScaleX() + tx.getTranslateX();
+		double minY = bounds.getMinY()*tx.getScaleY() + tx.getTranslateY();
+		return Arrays.<Object>asList(tx.getScaleX(), tx.getScaleY(),
+			minX - Math.floor(minX), minY - Math.floor(minY),
+			getWidth(tx, bounds), getHeight(tx, bounds));
+	}
+
+	private static int getOriginX(AffineTransform tx, Rectangle2D bounds) {
+		return (int) Math.floor(bounds.getMinX()*tx.getScaleX() + tx.getTranslateX());
+	}
+
+	private static int getOriginY(AffineTransform tx, Rectangle2D bounds) {
+		return (int) Math.floor(bounds.getMinY()*tx.getScaleY() + tx.getTranslateY());
+	}
+
+	private static int getWidth(AffineTransform tx, Rectangle2D bounds) {
+		return (int) Math.ceil(bounds.getMaxX()*tx.getScaleX() + tx.getTranslateX()) -
+			getOriginX(tx, bounds);
+	}
+
+	private static int getHeight(AffineTransform tx, Rectangle2D bounds) {
+		return (int) Math.ceil(bounds.getMaxY()*tx.getScaleY() + tx.getTranslateY()) -
+			getOriginY(tx, bounds);
+	}
+
+	/**
+	 * Returns whether the image has been drawn with the specified state.
+	 * @param state State that determines the appearance of the layer.
+	 * @return {@code true} if the image can be reused.
+	 */
+	public synchronized boolean isValid(List<?> state) {
+		return image != null && state.equals(this.state);
+	}
+
+	/**
+	 * Discards the image, so that it is drawn again.
+	 */
+	public synchronized void invalidate() {
+		image = null;
+		state = null;
+	}
+
+	/**
+	 * Clears the image and returns a graphics object for drawing into it.
+	 * The graphics object uses the same user space as the specified
+	 * transformation. The image is invalid until {@link #end} is called.
+	 * @param tx Transformation from user space to device space.
+	 * @param bounds Bounds of the layer in user space.
+	 * @param hints Rendering hints.
+	 * @return Graphics object for drawing into the image, or {@code null}
+	 *         if the layer is empty.
+	 */
+	public synchronized Graphics2D begin(AffineTransform tx, Rectangle2D bounds,
+			RenderingHints hints) {
+		int width = getWidth(tx, bounds);
+		int height = getHeight(tx, bounds);
+		state = null;
+		if (width <= 0 || height <= 0) {
+			return null;
+		}
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+		Graphics2D graphics = image.createGraphics();
+		graphics.setComposite(AlphaComposite.Clear);
+		graphics.fillRect(0, 0, width, height);
+		graphics.setComposite(AlphaComposite.SrcOver);
+		graphics.setRenderingHints(hints);
+		graphics.translate(-getOriginX(tx, bounds), -getOriginY(tx, bounds));
+		graphics.transform(tx);
+		return graphics;
+	}
+
+	/**
+	 * Finishes drawing into the image.
+	 * @param graphics Graphics object returned by {@link #begin}.
+	 * @param state State that the image has been drawn with.
+	 */
+	public synchronized void end(Graphics2D graphics, List<?> state) {
+		graphics.dispose();
+		this.state = state;
+	}
+
+	/**
+	 * Copies the image to the specified graphics object.
+	 * @param graphics Graphics to be drawn to.
+	 * @param bounds Bounds of the layer in the user space of the graphics
+	 *        object.
+	 */
+	public synchronized void draw(Graphics2D graphics, Rectangle2D bounds) {
+		if (image == null) {
+			return;
+		}
+		AffineTransform tx = graphics.getTransform();
+		graphics.setTransform(new AffineTransform());
+		graphics.drawImage(image, getOriginX(tx, bounds), getOriginY(tx, bounds), null);
+		graphics.setTransform(tx);
+	}
+
+	/**
+	 * Runs the specified tasks on the shared threads and waits until they
+	 * have finished. A single task is run on the calling thread.
+	 * @param tasks Tasks that draw layers.
+	 * @throws InterruptedException if the calling thread is interrupted
+	 *         while waiting.
+	 */
+	public static void invokeAll(List<Callable<Void>> tasks)
+			throws InterruptedException {
+		try {
+			if (tasks.size() == 1) {
+				tasks.get(0).call();
+				return;
+			}
+			for (Future<?> future : getExecutor().invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			rethrow(e.getCause());
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			rethrow(e);
+		}
+	}
+
+	private static void rethrow(Throwable t) {
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new IllegalStateException(t);
+	}
+
+	/**
+	 * Returns the shared threads. The threads don't prevent the virtual
+	 * machine from exiting.
+	 * @return Threads that draw layers.
+	 */
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "gral-layer"); //$NON-NLS-1$
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		}
+		return executor;
+	}
+}
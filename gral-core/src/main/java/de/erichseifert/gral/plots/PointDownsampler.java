@@ -0,0 +1,175 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+/**
+ * <p>Class that reduces the number of projected points that have to be
+ * drawn. Points are grouped by the pixel column they fall into, so the
+ * number of resulting points depends on the width of the visible data in
+ * view units rather than on the number of rows. Since the columns are
+ * determined from projected coordinates, zooming or panning an axis
+ * automatically changes the grouping.</p>
+ *
+ * <p>Consecutive points are grouped, so no particular order of the data is
+ * required. Data with ascending x values is reduced most effectively.</p>
+ */
+final class PointDownsampler {
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private PointDownsampler() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Keeps the first, the minimum, the maximum, and the last point of each
+	 * pixel column. Lines that connect the remaining points cover the same
+	 * pixels as lines through all points.
+	 * @param points Points to be reduced.
+	 * @param sampled Buffer that receives the remaining points.
+	 */
+	public static void minMax(ProjectedPoints points, ProjectedPoints sampled) {
+		reset(points, sampled);
+		int n = points.size();
+		int start = 0;
+		while (start < n) {
+			int end = getColumnEnd(points, start, n);
+			int min = start;
+			int max = start;
+			for (int i = start + 1; i < end; i++) {
+				double y = points.getY(i);
+				if (y < points.getY(min)) {
+					min = i;
+				}
+				if (y > points.getY(max)) {
+					max = i;
+				}
+			}
+			// Keep the order of the points
+			int lower = Math.min(min, max);
+			int upper = Math.max(min, max);
+			add(points, sampled, start);
+			if (lower != start) {
+				add(points, sampled, lower);
+			}
+			if (upper != lower) {
+				add(points, sampled, upper);
+			}
+			if (end - 1 != upper) {
+				add(points, sampled, end - 1);
+			}
+			start = end;
+		}
+	}
+
+	/**
+	 * Keeps one point of each pixel column using the
+	 * <i>Largest-Triangle-Three-Buckets</i> algorithm: the point that forms
+	 * the largest triangle with the previously kept point and the average
+	 * of the next column is kept. The first and the last point are always
+	 * kept.
+	 * @param points Points to be reduced.
+	 * @param sampled Buffer that receives the remaining points.
+	 */
+	public static void largestTriangleThreeBuckets(ProjectedPoints points,
+			ProjectedPoints sampled) {
+		reset(points, sampled);
+		int n = points.size();
+		if (n <= 2) {
+			for (int i = 0; i < n; i++) {
+				add(points, sampled, i);
+			}
+			return;
+		}
+		int last = n - 1;
+		add(points, sampled, 0);
+		int prev = 0;
+		int start = 1;
+		int end = getColumnEnd(points, start, last);
+		while (start < last) {
+			int nextEnd = getColumnEnd(points, end, last);
+			double nextX;
+			double nextY;
+			if (end < last) {
+				nextX = 0.0;
+				nextY = 0.0;
+				for (int i = end; i < nextEnd; i++) {
+					nextX += points.getX(i);
+					nextY += points.getY(i);
+				}
+				nextX /= nextEnd - end;
+				nextY /= nextEnd - end;
+			} else {
+				nextX = points.getX(last);
+				nextY = points.getY(last);
+			}
+
+			double prevX = points.getX(prev);
+			double prevY = points.getY(prev);
+			int selected = start;
+			double areaMax = -1.0;
+			for (int i = start; i < end; i++) {
+				// Twice the area of the triangle
+				double area = Math.abs((prevX - nextX)*(points.getY(i) - prevY) -
+					(prevX - points.getX(i))*(nextY - prevY));
+				if (area > areaMax) {
+					areaMax = area;
+					selected = i;
+				}
+			}
+			add(points, sampled, selected);
+			prev = selected;
+			start = end;
+			end = nextEnd;
+		}
+		add(points, sampled, last);
+	}
+
+	/**
+	 * Returns the index after the last point that belongs to the same pixel
+	 * column as the specified point.
+	 * @param points Points.
+	 * @param start Index of the first point of the column.
+	 * @param limit Index that must not be exceeded.
+	 * @return Index after the last point of the column.
+	 */
+	private static int getColumnEnd(ProjectedPoints points, int start, int limit) {
+		if (start >= limit) {
+			return limit;
+		}
+		double column = Math.floor(points.getX(start));
+		int end = start + 1;
+		while (end < limit && Math.floor(points.getX(end)) == column) {
+			end++;
+		}
+		return end;
+	}
+
+	private static void reset(ProjectedPoints points, ProjectedPoints sampled) {
+		sampled.reset(points.getData(), points.getAxes(), points.getAxisRenderers(),
+			points.getColumn());
+	}
+
+	private static void add(ProjectedPoints points, ProjectedPoints sampled, int index) {
+		sampled.add(points.getX(index), points.getY(index), points.getRow(index));
+	}
+}
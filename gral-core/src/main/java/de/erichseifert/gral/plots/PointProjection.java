@@ -0,0 +1,594 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import java.awt.Shape;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import de.erichseifert.gral.data.DataChangeEvent;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.plots.axes.Axis;
+import de.erichseifert.gral.plots.axes.AxisRenderer;
+
+/**
+ * Class that stores the projected positions of the data points of a data
+ * source. The positions are reused for drawing as long as the axes don't
+ * change. The events of the data source are used to keep the stored
+ * positions in line with the rows, so that only changed or new rows have to
+ * be projected again. If rows are evicted from a sliding window, the stored
+ * positions are moved instead of being computed again.
+ *
+ * <p>The positions are projected from a snapshot of the data source. The
+ * {@link DataSource#getVersion() version} of the data is used to detect
+ * events that are already contained in the snapshot and snapshots that
+ * contain changes whose events haven't arrived yet.</p>
+ */
+final class PointProjection {
+	/** Initial number of positions that can be stored. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Data source whose rows are projected. */
+	private final DataSource source;
+	/** Projected x coordinates, or NaN for rows that aren't drawn. */
+	private double[] x;
+	/** Projected y coordinates, or NaN for rows that aren't drawn. */
+	private double[] y;
+	/** First row whose position is stored. */
+	private int start;
+	/** Row after the last row whose position is stored. */
+	private int end;
+	/** First row that is drawn. */
+	private int visibleStart;
+	/** Row after the last row that is drawn. */
+	private int visibleEnd;
+	/** Column whose order has been checked. */
+	private int sortedCol;
+	/** Number of rows whose order has been checked. */
+	private int sortedCount;
+	/** Decides whether the checked x values are in ascending order. */
+	private boolean sorted;
+	/** Version of the data that the stored positions refer to. */
+	private long version;
+	/** Buffer for the values that are projected. */
+	private double[] values;
+	/** Buffer for the projected values. */
+	private double[] positions;
+	/** Buffer for the projected x values of a summary. */
+	private double[] summaryX;
+	/** Buffers for drawn points that are currently unused. */
+	private final Deque<ProjectedPoints> buffers;
+	/** Summary of the rows for downsampling, or {@code null}. */
+	private RowPyramid pyramid;
+
+	/** X axis that was used for the projection. */
+	private Axis axisX;
+	/** Y axis that was used for the projection. */
+	private Axis axisY;
+	/** Renderer that was used for the projection of x values. */
+	private AxisRenderer rendererX;
+	/** Renderer that was used for the projection of y values. */
+	private AxisRenderer rendererY;
+	/** Axis properties that were used for the projection. */
+	private double[] axisState;
+	/** Shape of the x axis that was used for the projection. */
+	private Shape shapeX;
+	/** Shape of the y axis that was used for the projection. */
+	private Shape shapeY;
+
+	/**
+	 * Initializes a new instance for the specified data source.
+	 * @param source Data source whose rows are projected.
+	 */
+	public PointProjection(DataSource source) {
+		this.source = source;
+		x = new double[DEFAULT_CAPACITY];
+		y = new double[DEFAULT_CAPACITY];
+		version = -1L;
+		sortedCol = -1;
+		sorted = true;
+		values = new double[DEFAULT_CAPACITY];
+		positions = new double[DEFAULT_CAPACITY];
+		summaryX = new double[DEFAULT_CAPACITY];
+		buffers = new ArrayDeque<>();
+	}
+
+	/**
+	 * Returns a buffer for drawn points. Buffers are reused after they have
+	 * been released, so that drawings that run at the same time use
+	 * different buffers.
+	 * @return Buffer for drawn points.
+	 */
+	public ProjectedPoints acquireBuffer() {
+		ProjectedPoints buffer = buffers.poll();
+		if (buffer == null) {
+			buffer = new ProjectedPoints();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer that has been acquired with {@link #acquireBuffer()}
+	 * and is no longer used.
+	 * @param buffer Buffer for drawn points.
+	 */
+	public void releaseBuffer(ProjectedPoints buffer) {
+		buffers.push(buffer);
+	}
+
+	/**
+	 * Makes sure that the positions of all visible rows of the data source
+	 * have been projected with the specified axes. Positions that were
+	 * projected with different axes are discarded. If the x values are
+	 * sorted in ascending order, only the rows in the range of the x axis and
+	 * one row on each side are visible. Otherwise, all rows are visible.
+	 * @param data Snapshot of the data source that is projected.
+	 * @param axisX X axis.
+	 * @param rendererX Renderer of the x axis, or {@code null}.
+	 * @param axisY Y axis.
+	 * @param rendererY Renderer of the y axis, or {@code null}.
+	 * @param colX Column containing the x values.
+	 * @param colY Column containing the y values.
+	 * @return Index after the last visible row.
+	 */
+	public int update(DataSource data, Axis axisX, AxisRenderer rendererX,
+			Axis axisY, AxisRenderer rendererY, int colX, int colY) {
+		double[] state = getAxisState(axisX, rendererX, axisY, rendererY);
+		Shape shapeX = (rendererX != null) ? rendererX.getShape() : null;
+		Shape shapeY = (rendererY != null) ? rendererY.getShape() : null;
+		int rowCount = data.getRowCount();
+		if (data.getVersion() != version) {
+			// The changes since the last projection are unknown
+			discardAll();
+			version = data.getVersion();
+		}
+		if (axisX != this.axisX || axisY != this.axisY ||
+				rendererX != this.rendererX || rendererY != this.rendererY ||
+				shapeX != this.shapeX || shapeY != this.shapeY ||
+				!Arrays.equals(state, axisState) || end > rowCount) {
+			this.axisX = axisX;
+			this.axisY = axisY;
+			this.rendererX = rendererX;
+			this.rendererY = rendererY;
+			this.shapeX = shapeX;
+			this.shapeY = shapeY;
+			axisState = state;
+			start = 0;
+			end = 0;
+		}
+
+		// Determine the visible rows
+		visibleStart = 0;
+		visibleEnd = rowCount;
+		if (rendererX != null && isSorted(data, colX)) {
+			visibleStart = Math.max(0, RowPyramid.findFirst(
+				data, colX, rowCount, axisX.getMin().doubleValue()) - 1);
+			visibleEnd = Math.min(rowCount, RowPyramid.findAfter(
+				data, colX, rowCount, axisX.getMax().doubleValue()) + 1);
+		}
+
+		if (x.length < rowCount) {
+			int capacity = Math.max(rowCount, x.length + (x.length >> 1));
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+		}
+		if (visibleStart > end || visibleEnd < start) {
+			// The stored positions can't be extended
+			start = visibleStart;
+			end = visibleStart;
+		}
+		if (visibleStart < start) {
+			project(data, visibleStart, start, axisX, rendererX, axisY, rendererY, colX, colY);
+			start = visibleStart;
+		}
+		if (visibleEnd > end) {
+			project(data, end, visibleEnd, axisX, rendererX, axisY, rendererY, colX, colY);
+			end = visibleEnd;
+		}
+		return visibleEnd;
+	}
+
+	/**
+	 * Projects the values of a range of rows and stores the positions.
+	 * @param data Snapshot of the data source that is projected.
+	 * @param rowStart First row to be projected.
+	 * @param rowEnd Row after the last row to be projected.
+	 * @param axisX X axis.
+	 * @param rendererX Renderer of the x axis, or {@code null}.
+	 * @param axisY Y axis.
+	 * @param rendererY Renderer of the y axis, or {@code null}.
+	 * @param colX Column containing the x values.
+	 * @param colY Column containing the y values.
+	 */
+	private void project(DataSource data, int rowStart, int rowEnd,
+			Axis axisX, AxisRenderer rendererX, Axis axisY, AxisRenderer rendererY,
+			int colX, int colY) {
+		int n = rowEnd - rowStart;
+		if (values.length < n) {
+			values = new double[x.length];
+			positions = new double[x.length];
+		}
+		project(data, rowStart, n, colX, axisX, rendererX, true);
+		System.arraycopy(positions, 0, x, rowStart, n);
+		project(data, rowStart, n, colY, axisY, rendererY, false);
+		System.arraycopy(positions, 0, y, rowStart, n);
+		for (int row = rowStart; row < rowEnd; row++) {
+			if (Double.isNaN(x[row]) || Double.isNaN(y[row])) {
+				x[row] = Double.NaN;
+				y[row] = Double.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Projects the values of a column on an axis. The results are stored in
+	 * {@code positions}.
+	 * @param data Snapshot of the data source that is projected.
+	 * @param rowStart First row to be projected.
+	 * @param n Number of rows to be projected.
+	 * @param col Column containing the values.
+	 * @param axis Axis.
+	 * @param renderer Renderer of the axis, or {@code null}.
+	 * @param horizontal {@code true} for x coordinates, {@code false} for
+	 *        y coordinates.
+	 */
+	private void project(DataSource data, int rowStart, int n, int col,
+			Axis axis, AxisRenderer renderer, boolean horizontal) {
+		for (int i = 0; i < n; i++) {
+			values[i] = data.getDouble(col, rowStart + i);
+		}
+		if (renderer == null) {
+			for (int i = 0; i < n; i++) {
+				positions[i] = Double.isNaN(values[i]) ? Double.NaN : 0.0;
+			}
+		} else if (horizontal) {
+			renderer.getPositions(axis, values, n, positions, null);
+		} else {
+			renderer.getPositions(axis, values, n, null, positions);
+		}
+	}
+
+	/**
+	 * Returns whether the values of a column are sorted in ascending order.
+	 * Only rows that haven't been checked before are read.
+	 * @param data Snapshot of the data source.
+	 * @param col Column index.
+	 * @return {@code true} if the values are sorted.
+	 */
+	private boolean isSorted(DataSource data, int col) {
+		int rowCount = data.getRowCount();
+		if (col != sortedCol || sortedCount > rowCount) {
+			sortedCol = col;
+			sortedCount = 0;
+			sorted = true;
+		}
+		if (!sorted) {
+			return false;
+		}
+		double prev = (sortedCount > 0) ? data.getDouble(col, sortedCount - 1) : Double.NEGATIVE_INFINITY;
+		for (int row = sortedCount; row < rowCount; row++) {
+			double value = data.getDouble(col, row);
+			if (!(value >= prev)) {
+				sorted = false;
+				break;
+			}
+			prev = value;
+		}
+		sortedCount = rowCount;
+		return sorted;
+	}
+
+	/**
+	 * Stores the drawn points of the last call of {@link #update} in a
+	 * buffer. Rows whose positions are NaN are skipped.
+	 * @param data Snapshot that was used for the update.
+	 * @param axes Axes that were used for the update.
+	 * @param axisRenderers Renderers that were used for the update.
+	 * @param col Column of the values that are represented by the points.
+	 * @param points Buffer that receives the points.
+	 * @return Drawn points.
+	 */
+	public ProjectedPoints getPoints(DataSource data, List<Axis> axes,
+			List<? extends AxisRenderer> axisRenderers, int col, ProjectedPoints points) {
+		points.reset(data, axes, axisRenderers, col);
+		for (int row = visibleStart; row < visibleEnd; row++) {
+			if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+				points.add(x[row], y[row], row);
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Stores the points which summarize the rows in the visible range of the
+	 * x axis in a buffer. Only the summarizing rows are
+	 * projected, so the effort depends on the number of buckets rather than
+	 * on the number of rows. This requires ascending x values. For unsorted
+	 * or small data sources {@code null} is returned and all rows have to be
+	 * projected with {@link #update} and {@link #getPoints}.
+	 * @param data Snapshot of the data source that is projected.
+	 * @param axisX X axis.
+	 * @param rendererX Renderer of the x axis.
+	 * @param axisY Y axis.
+	 * @param rendererY Renderer of the y axis.
+	 * @param colX Column containing the x values.
+	 * @param colY Column containing the y values.
+	 * @param bucketCount Minimal number of buckets for the visible range.
+	 * @param points Buffer that receives the points.
+	 * @return Summarizing points, or {@code null}.
+	 */
+	public ProjectedPoints getSummary(DataSource data, Axis axisX, AxisRenderer rendererX,
+			Axis axisY, AxisRenderer rendererY, int colX, int colY, int bucketCount,
+			ProjectedPoints points) {
+		if (rendererX == null || rendererY == null || bucketCount <= 0 ||
+				data.getRowCount() <= (bucketCount << RowPyramid.BASE_LEVEL)) {
+			return null;
+		}
+		if (pyramid == null) {
+			pyramid = new RowPyramid(source);
+		}
+		if (!pyramid.update(data, colX, colY)) {
+			return null;
+		}
+		int n = pyramid.query(data, axisX.getMin().doubleValue(),
+			axisX.getMax().doubleValue(), bucketCount);
+
+		if (values.length < n) {
+			values = new double[n];
+			positions = new double[n];
+		}
+		if (summaryX.length < n) {
+			summaryX = new double[n];
+		}
+		for (int i = 0; i < n; i++) {
+			values[i] = data.getDouble(colX, pyramid.getRow(i));
+		}
+		rendererX.getPositions(axisX, values, n, positions, null);
+		System.arraycopy(positions, 0, summaryX, 0, n);
+		for (int i = 0; i < n; i++) {
+			values[i] = data.getDouble(colY, pyramid.getRow(i));
+		}
+		rendererY.getPositions(axisY, values, n, null, positions);
+
+		points.reset(data, Arrays.asList(axisX, axisY), Arrays.asList(rendererX, rendererY), colY);
+		for (int i = 0; i < n; i++) {
+			if (!Double.isNaN(summaryX[i]) && !Double.isNaN(positions[i])) {
+				points.add(summaryX[i], positions[i], pyramid.getRow(i));
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Reduces the number of points that were returned by {@link #getPoints}.
+	 * @param points Points to be reduced.
+	 * @param downsampling Method that is used to reduce the points.
+	 * @param sampledPoints Buffer that receives the remaining points.
+	 * @return Remaining points.
+	 */
+	public ProjectedPoints downsample(ProjectedPoints points,
+			XYPlot.Downsampling downsampling, ProjectedPoints sampledPoints) {
+		if (downsampling == XYPlot.Downsampling.MIN_MAX) {
+			PointDownsampler.minMax(points, sampledPoints);
+			return sampledPoints;
+		} else if (downsampling == XYPlot.Downsampling.LTTB) {
+			PointDownsampler.largestTriangleThreeBuckets(points, sampledPoints);
+			return sampledPoints;
+		}
+		return points;
+	}
+
+	/**
+	 * Returns the projected x coordinate of a row.
+	 * @param row Row index.
+	 * @return X coordinate, or NaN if the row isn't drawn.
+	 */
+	public double getX(int row) {
+		return x[row];
+	}
+
+	/**
+	 * Returns the projected y coordinate of a row.
+	 * @param row Row index.
+	 * @return Y coordinate, or NaN if the row isn't drawn.
+	 */
+	public double getY(int row) {
+		return y[row];
+	}
+
+	/**
+	 * Adjusts the stored positions to rows that have been added.
+	 * @param events Events describing the change.
+	 */
+	public void dataAdded(DataChangeEvent... events) {
+		if (pyramid != null) {
+			pyramid.dataAdded(events);
+		}
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			discardAll();
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			discardFrom(event.getRow());
+		}
+	}
+
+	/**
+	 * Adjusts the stored positions to rows that have been updated or
+	 * shifted.
+	 * @param events Events describing the change.
+	 */
+	public void dataUpdated(DataChangeEvent... events) {
+		if (pyramid != null) {
+			pyramid.dataUpdated(events);
+		}
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			discardAll();
+			return;
+		}
+		int shift = events[0].getShift();
+		if (shift > 0) {
+			// All columns have been shifted by the same number of rows
+			removeRows(0, shift);
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			discardFrom(event.getRow());
+		}
+	}
+
+	/**
+	 * Adjusts the stored positions to rows that have been removed.
+	 * @param events Events describing the change.
+	 */
+	public void dataRemoved(DataChangeEvent... events) {
+		if (pyramid != null) {
+			pyramid.dataRemoved(events);
+		}
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			discardAll();
+			return;
+		}
+		// Only the removal of a single range of rows is handled
+		int row = events[0].getRow();
+		int rowCount = events[0].getRowCount();
+		for (DataChangeEvent event : events) {
+			if (event.getRow() != row || event.getRowCount() != rowCount) {
+				discardAll();
+				return;
+			}
+		}
+		removeRows(row, rowCount);
+	}
+
+	/**
+	 * Returns whether the current change of the data source is already
+	 * contained in the stored positions. Otherwise, the stored positions are
+	 * marked as referring to the current version, which is the case after
+	 * the event has been processed. This assumes that the listeners are
+	 * notified before the data source is modified again.
+	 * @return {@code true} if the event has to be ignored.
+	 */
+	private boolean isContained() {
+		long versionCurrent = source.getVersion();
+		if (versionCurrent <= version) {
+			return true;
+		}
+		version = versionCurrent;
+		return false;
+	}
+
+	/**
+	 * Discards all stored positions and the order of the rows.
+	 */
+	private void discardAll() {
+		start = 0;
+		end = 0;
+		sortedCount = 0;
+		sorted = true;
+	}
+
+	/**
+	 * Discards the positions of the specified row and all following rows.
+	 * @param row Index of the first row to discard.
+	 */
+	private void discardFrom(int row) {
+		end = Math.max(start, Math.min(end, row));
+		if (sorted) {
+			sortedCount = Math.max(0, Math.min(sortedCount, row));
+		} else {
+			// The position of the unsorted values is unknown
+			sortedCount = 0;
+			sorted = true;
+		}
+	}
+
+	/**
+	 * Removes the positions of a range of rows and moves the positions of
+	 * the following rows.
+	 * @param row First row to remove.
+	 * @param rowCount Number of rows to remove.
+	 */
+	private void removeRows(int row, int rowCount) {
+		int rowEnd = row + rowCount;
+		if (rowEnd < end) {
+			int from = Math.max(start, rowEnd);
+			System.arraycopy(x, from, x, from - rowCount, end - from);
+			System.arraycopy(y, from, y, from - rowCount, end - from);
+		}
+		start = getIndexAfterRemoval(start, row, rowCount);
+		end = getIndexAfterRemoval(end, row, rowCount);
+		if (sorted) {
+			// Removing rows doesn't change the order of the other rows
+			sortedCount = getIndexAfterRemoval(sortedCount, row, rowCount);
+		} else {
+			sortedCount = 0;
+			sorted = true;
+		}
+	}
+
+	private static int getIndexAfterRemoval(int index, int row, int rowCount) {
+		if (index <= row) {
+			return index;
+		}
+		return Math.max(row, index - rowCount);
+	}
+
+	/**
+	 * Returns whether the events can be used to adjust the stored positions.
+	 * @param events Events to be checked.
+	 * @return {@code true} if all events originate from the projected data
+	 *         source.
+	 */
+	private boolean isOwnEvent(DataChangeEvent[] events) {
+		if (events == null || events.length == 0) {
+			return false;
+		}
+		for (DataChangeEvent event : events) {
+			if (event.getSource() != source) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static double[] getAxisState(Axis axisX, AxisRenderer rendererX,
+			Axis axisY, AxisRenderer rendererY) {
+		return new double[] {
+			axisX.getMin().doubleValue(), axisX.getMax().doubleValue(),
+			axisY.getMin().doubleValue(), axisY.getMax().doubleValue(),
+			(rendererX != null && rendererX.isShapeDirectionSwapped()) ? 1.0 : 0.0,
+			(rendererY != null && rendererY.isShapeDirectionSwapped()) ? 1.0 : 0.0
+		};
+	}
+}
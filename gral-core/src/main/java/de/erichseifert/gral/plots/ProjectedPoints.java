@@ -0,0 +1,231 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.Row;
+import de.erichseifert.gral.plots.axes.Axis;
+import de.erichseifert.gral.plots.axes.AxisRenderer;
+import de.erichseifert.gral.plots.points.PointData;
+import de.erichseifert.gral.util.PointND;
+
+/**
+ * <p>Class that stores the view coordinates of the points of a data source
+ * in arrays of primitive values. Renderers that only need the coordinates
+ * can read them without creating objects for each point.</p>
+ * <p>{@link DataPoint} objects are only created when they are requested,
+ * e.g. by renderers that need the data values of a point. The instance is
+ * reused for each drawing of a plot, so it must not be stored.</p>
+ */
+public class ProjectedPoints {
+	/** Initial number of points that can be stored. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** X coordinates of the points. */
+	private double[] xs;
+	/** Y coordinates of the points. */
+	private double[] ys;
+	/** Row indexes of the points. */
+	private int[] rows;
+	/** Number of points. */
+	private int size;
+	/** Points that have been created. */
+	private DataPoint[] points;
+
+	/** Data source the points belong to. */
+	private DataSource data;
+	/** Axes that were used for the projection. */
+	private List<Axis> axes;
+	/** Renderers that were used for the projection. */
+	private List<? extends AxisRenderer> axisRenderers;
+	/** Column of the values that are represented by the points. */
+	private int col;
+
+	/** View of the points as a list. */
+	private final List<DataPoint> list;
+
+	/**
+	 * Initializes a new instance without points.
+	 */
+	public ProjectedPoints() {
+		xs = new double[DEFAULT_CAPACITY];
+		ys = new double[DEFAULT_CAPACITY];
+		rows = new int[DEFAULT_CAPACITY];
+		points = new DataPoint[DEFAULT_CAPACITY];
+		axes = Collections.emptyList();
+		axisRenderers = Collections.emptyList();
+		list = new PointList();
+	}
+
+	/**
+	 * Removes all points and sets the data the following points belong to.
+	 * @param data Data source the points belong to.
+	 * @param axes Axes that were used for the projection.
+	 * @param axisRenderers Renderers that were used for the projection.
+	 * @param col Column of the values that are represented by the points.
+	 */
+	void reset(DataSource data, List<Axis> axes, List<? extends AxisRenderer> axisRenderers, int col) {
+		Arrays.fill(points, 0, size, null);
+		size = 0;
+		this.data = data;
+		this.axes = axes;
+		this.axisRenderers = axisRenderers;
+		this.col = col;
+	}
+
+	/**
+	 * Adds a point.
+	 * @param x X coordinate in view units.
+	 * @param y Y coordinate in view units.
+	 * @param row Index of the row the point represents.
+	 */
+	void add(double x, double y, int row) {
+		if (size == xs.length) {
+			int capacity = xs.length + (xs.length >> 1);
+			xs = Arrays.copyOf(xs, capacity);
+			ys = Arrays.copyOf(ys, capacity);
+			rows = Arrays.copyOf(rows, capacity);
+			points = Arrays.copyOf(points, capacity);
+		}
+		xs[size] = x;
+		ys[size] = y;
+		rows[size] = row;
+		size++;
+	}
+
+	/**
+	 * Returns the number of points.
+	 * @return Number of points.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the x coordinate of a point in view units.
+	 * @param index Index of the point.
+	 * @return X coordinate.
+	 */
+	public double getX(int index) {
+		return xs[index];
+	}
+
+	/**
+	 * Returns the y coordinate of a point in view units.
+	 * @param index Index of the point.
+	 * @return Y coordinate.
+	 */
+	public double getY(int index) {
+		return ys[index];
+	}
+
+	/**
+	 * Returns the index of the row that is represented by a point.
+	 * @param index Index of the point.
+	 * @return Row index in the data source.
+	 */
+	public int getRow(int index) {
+		return rows[index];
+	}
+
+	/**
+	 * Returns the data source the points belong to.
+	 * @return Data source.
+	 */
+	public DataSource getData() {
+		return data;
+	}
+
+	/**
+	 * Returns the axes that were used for the projection.
+	 * @return Axes.
+	 */
+	public List<Axis> getAxes() {
+		return axes;
+	}
+
+	/**
+	 * Returns the renderers that were used for the projection.
+	 * @return Axis renderers.
+	 */
+	public List<? extends AxisRenderer> getAxisRenderers() {
+		return axisRenderers;
+	}
+
+	/**
+	 * Returns the column of the values that are represented by the points.
+	 * @return Column index.
+	 */
+	public int getColumn() {
+		return col;
+	}
+
+	/**
+	 * Returns a point with its data. The object is created when it is
+	 * requested for the first time.
+	 * @param index Index of the point.
+	 * @return Data point.
+	 */
+	public DataPoint get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		DataPoint point = points[index];
+		if (point == null) {
+			Row row = new Row(data, rows[index]);
+			PointData pointData = new PointData(axes, axisRenderers, row, row.getIndex(), col);
+			point = new DataPoint(pointData, new PointND<>(xs[index], ys[index]));
+			points[index] = point;
+		}
+		return point;
+	}
+
+	/**
+	 * Returns a list view of the points. Points are created when they are
+	 * accessed.
+	 * @return List of points.
+	 */
+	public List<DataPoint> asList() {
+		return list;
+	}
+
+	/**
+	 * List view of the points.
+	 */
+	private final class PointList extends AbstractList<DataPoint> implements RandomAccess {
+		@Override
+		public DataPoint get(int index) {
+			return ProjectedPoints.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
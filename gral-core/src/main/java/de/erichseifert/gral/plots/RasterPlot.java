@@ -127,6 +127,7 @@ public class RasterPlot extends XYPlot {
 		 */
 		public void setXColumn(int columnIndex) {
 			this.xColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -145,6 +146,7 @@ public class RasterPlot extends XYPlot {
 		 */
 		public void setYColumn(int columnIndex) {
 			this.yColumn = columnIndex;
+			modified();
 		}
 
 		/**
@@ -165,6 +167,7 @@ public class RasterPlot extends XYPlot {
 		@Override
 		public void setValueColumn(int columnIndex) {
 			this.valueColumn = columnIndex;
+			modified();
 		}
 
 		@Override
@@ -388,6 +391,7 @@ public class RasterPlot extends XYPlot {
 	 */
 	public void setOffset(Point2D offset) {
 		this.offset.setLocation(offset);
+		invalidateLayers();
 	}
 
 	/**
@@ -404,6 +408,7 @@ public class RasterPlot extends XYPlot {
 	 */
 	public void setDistance(Dimension2D distance) {
 		this.distance.setSize(distance);
+		invalidateLayers();
 	}
 
 	/**
@@ -420,5 +425,6 @@ public class RasterPlot extends XYPlot {
 	 */
 	public void setColors(ColorMapper colors) {
 		this.colors = colors;
+		invalidateLayers();
 	}
 }
@@ -0,0 +1,466 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.erichseifert.gral.data.DataChangeEvent;
+import de.erichseifert.gral.data.DataSource;
+
+/**
+ * <p>Class that stores a multi-resolution summary of two columns of a data
+ * source. The rows are divided into buckets of 2<sup>k</sup> rows for each
+ * level k, and the first, last, minimum, and maximum row of each bucket are
+ * stored. A summary of any range of x values can be fetched by looking up
+ * the range with a binary search and reading the buckets of a suitable
+ * level, so the effort depends on the number of requested buckets rather
+ * than on the number of rows.</p>
+ *
+ * <p>The summary can only be used if the x values are sorted in ascending
+ * order. Appended rows are added incrementally. Like
+ * {@link PointProjection}, the events of the data source are used to
+ * discard the buckets of changed rows.</p>
+ */
+final class RowPyramid {
+	/** Level of the smallest buckets. */
+	static final int BASE_LEVEL = 4;
+	/** Initial number of buckets that can be stored on a level. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Data source whose rows are summarized. */
+	private final DataSource source;
+	/** Levels with increasing bucket size, starting with the base level. */
+	private final List<Level> levels;
+	/** Number of rows that have been summarized. */
+	private int count;
+	/** Version of the data that the summary refers to. */
+	private long version;
+	/** Decides whether the x values of the summarized rows are sorted. */
+	private boolean sorted;
+	/** Column containing the x values. */
+	private int colX;
+	/** Column containing the y values. */
+	private int colY;
+	/** Rows of the last query. */
+	private int[] rows;
+
+	/**
+	 * Buckets of a single level.
+	 */
+	private static final class Level {
+		/** First row with values in each bucket, or -1. */
+		int[] first;
+		/** Last row with values in each bucket, or -1. */
+		int[] last;
+		/** Row with the minimal y value in each bucket, or -1. */
+		int[] min;
+		/** Row with the maximal y value in each bucket, or -1. */
+		int[] max;
+
+		public Level() {
+			first = new int[DEFAULT_CAPACITY];
+			last = new int[DEFAULT_CAPACITY];
+			min = new int[DEFAULT_CAPACITY];
+			max = new int[DEFAULT_CAPACITY];
+		}
+
+		public void ensureCapacity(int capacity) {
+			if (first.length >= capacity) {
+				return;
+			}
+			capacity = Math.max(capacity, first.length + (first.length >> 1));
+			first = Arrays.copyOf(first, capacity);
+			last = Arrays.copyOf(last, capacity);
+			min = Arrays.copyOf(min, capacity);
+			max = Arrays.copyOf(max, capacity);
+		}
+	}
+
+	/**
+	 * Initializes a new instance for the specified data source.
+	 * @param source Data source whose rows are summarized.
+	 */
+	public RowPyramid(DataSource source) {
+		this.source = source;
+		levels = new ArrayList<>();
+		version = -1L;
+		sorted = true;
+		colX = -1;
+		colY = -1;
+		rows = new int[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Makes sure that all rows of the data source have been summarized.
+	 * @param data Snapshot of the data source.
+	 * @param colX Column containing the x values.
+	 * @param colY Column containing the y values.
+	 * @return {@code true} if the x values are sorted and the summary can be
+	 *         used.
+	 */
+	public boolean update(DataSource data, int colX, int colY) {
+		int rowCount = data.getRowCount();
+		if (data.getVersion() != version || colX != this.colX || colY != this.colY ||
+				count > rowCount) {
+			// The changes since the last update are unknown
+			discardFrom(0);
+			version = data.getVersion();
+			this.colX = colX;
+			this.colY = colY;
+		}
+		if (count == rowCount || !sorted) {
+			count = rowCount;
+			return sorted;
+		}
+
+		// Check the order of the new x values
+		double prevX = (count > 0) ? data.getDouble(colX, count - 1) : Double.NEGATIVE_INFINITY;
+		for (int row = count; row < rowCount; row++) {
+			double x = data.getDouble(colX, row);
+			if (!(x >= prevX)) {
+				count = rowCount;
+				sorted = false;
+				levels.clear();
+				return false;
+			}
+			prevX = x;
+		}
+
+		// Buckets of the base level are computed from the rows
+		int bucketStart = count >> BASE_LEVEL;
+		int bucketEnd = ((rowCount - 1) >> BASE_LEVEL) + 1;
+		Level base = getLevel(0);
+		base.ensureCapacity(bucketEnd);
+		for (int bucket = bucketStart; bucket < bucketEnd; bucket++) {
+			int rowStart = bucket << BASE_LEVEL;
+			int rowEnd = Math.min(rowCount, rowStart + (1 << BASE_LEVEL));
+			int first = -1;
+			int last = -1;
+			int min = -1;
+			int max = -1;
+			double yMin = 0.0;
+			double yMax = 0.0;
+			for (int row = rowStart; row < rowEnd; row++) {
+				double y = data.getDouble(colY, row);
+				if (Double.isNaN(y)) {
+					continue;
+				}
+				if (first < 0) {
+					first = row;
+					min = row;
+					max = row;
+					yMin = y;
+					yMax = y;
+				} else if (y < yMin) {
+					min = row;
+					yMin = y;
+				} else if (y > yMax) {
+					max = row;
+					yMax = y;
+				}
+				last = row;
+			}
+			base.first[bucket] = first;
+			base.last[bucket] = last;
+			base.min[bucket] = min;
+			base.max[bucket] = max;
+		}
+
+		// Buckets of higher levels are merged from the level below
+		for (int index = 1; bucketEnd > 1; index++) {
+			Level lower = getLevel(index - 1);
+			Level level = getLevel(index);
+			int lowerEnd = bucketEnd;
+			bucketStart >>= 1;
+			bucketEnd = (bucketEnd + 1) >> 1;
+			level.ensureCapacity(bucketEnd);
+			for (int bucket = bucketStart; bucket < bucketEnd; bucket++) {
+				int left = bucket << 1;
+				int right = left + 1;
+				if (right >= lowerEnd || lower.first[right] < 0) {
+					level.first[bucket] = lower.first[left];
+					level.last[bucket] = lower.last[left];
+					level.min[bucket] = lower.min[left];
+					level.max[bucket] = lower.max[left];
+				} else if (lower.first[left] < 0) {
+					level.first[bucket] = lower.first[right];
+					level.last[bucket] = lower.last[right];
+					level.min[bucket] = lower.min[right];
+					level.max[bucket] = lower.max[right];
+				} else {
+					level.first[bucket] = lower.first[left];
+					level.last[bucket] = lower.last[right];
+					level.min[bucket] = getMinRow(data, lower.min[left], lower.min[right]);
+					level.max[bucket] = getMaxRow(data, lower.max[left], lower.max[right]);
+				}
+			}
+		}
+		count = rowCount;
+		return true;
+	}
+
+	/**
+	 * Determines the rows that summarize the rows whose x values are in the
+	 * specified range. For each bucket, the first, the minimum, the maximum,
+	 * and the last row are returned in ascending order. The bucket size is
+	 * chosen so that the range is covered by at least the specified number
+	 * of buckets. One row before and after the range is included to allow
+	 * lines that leave the range. {@link #update} must have been called
+	 * successfully before.
+	 * @param data Snapshot of the data source.
+	 * @param xMin Minimal x value.
+	 * @param xMax Maximal x value.
+	 * @param bucketCount Minimal number of buckets.
+	 * @return Number of rows that can be read with {@link #getRow(int)}.
+	 */
+	public int query(DataSource data, double xMin, double xMax, int bucketCount) {
+		int rowStart = Math.max(0, findFirst(data, colX, count, xMin) - 1);
+		int rowEnd = Math.min(count, findAfter(data, colX, count, xMax) + 1);
+		int rowCount = rowEnd - rowStart;
+		if (rowCount <= 0) {
+			return 0;
+		}
+
+		int index = -1;
+		while (index + 1 < levels.size() &&
+				(rowCount >> (BASE_LEVEL + index + 1)) >= bucketCount) {
+			index++;
+		}
+		int size = 0;
+		if (index < 0) {
+			// The range is small enough to use all rows
+			ensureCapacity(rowCount);
+			for (int row = rowStart; row < rowEnd; row++) {
+				rows[size++] = row;
+			}
+			return size;
+		}
+
+		Level level = levels.get(index);
+		int shift = BASE_LEVEL + index;
+		int bucketStart = rowStart >> shift;
+		int bucketEnd = ((rowEnd - 1) >> shift) + 1;
+		ensureCapacity(4*(bucketEnd - bucketStart));
+		for (int bucket = bucketStart; bucket < bucketEnd; bucket++) {
+			int first = level.first[bucket];
+			if (first < 0) {
+				continue;
+			}
+			int lower = Math.min(level.min[bucket], level.max[bucket]);
+			int upper = Math.max(level.min[bucket], level.max[bucket]);
+			int last = level.last[bucket];
+			rows[size++] = first;
+			if (lower != first) {
+				rows[size++] = lower;
+			}
+			if (upper != lower) {
+				rows[size++] = upper;
+			}
+			if (last != upper) {
+				rows[size++] = last;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns a row of the last query.
+	 * @param index Index of the row in the query result.
+	 * @return Row index in the data source.
+	 */
+	public int getRow(int index) {
+		return rows[index];
+	}
+
+	/**
+	 * Returns the number of rows that have been summarized.
+	 * @return Number of rows.
+	 */
+	public int getRowCount() {
+		return count;
+	}
+
+	/**
+	 * Discards the buckets of rows that have been added.
+	 * @param events Events describing the change.
+	 */
+	public void dataAdded(DataChangeEvent... events) {
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			discardFrom(0);
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			discardFrom(event.getRow());
+		}
+	}
+
+	/**
+	 * Discards the buckets of rows that have been updated.
+	 * @param events Events describing the change.
+	 */
+	public void dataUpdated(DataChangeEvent... events) {
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events) || events[0].getShift() > 0) {
+			// Shifted rows change all buckets
+			discardFrom(0);
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			discardFrom(event.getRow());
+		}
+	}
+
+	/**
+	 * Discards the buckets of rows that have been removed.
+	 * @param events Events describing the change.
+	 */
+	public void dataRemoved(DataChangeEvent... events) {
+		if (isContained()) {
+			return;
+		}
+		if (!isOwnEvent(events)) {
+			discardFrom(0);
+			return;
+		}
+		for (DataChangeEvent event : events) {
+			discardFrom(event.getRow());
+		}
+	}
+
+	/**
+	 * Returns whether the current change of the data source is already
+	 * contained in the summary.
+	 * @return {@code true} if the event has to be ignored.
+	 * @see PointProjection
+	 */
+	private boolean isContained() {
+		long versionCurrent = source.getVersion();
+		if (versionCurrent <= version) {
+			return true;
+		}
+		version = versionCurrent;
+		return false;
+	}
+
+	/**
+	 * Discards the summary of the specified row and all following rows.
+	 * @param row Index of the first row to discard.
+	 */
+	private void discardFrom(int row) {
+		if (!sorted) {
+			// The position of the unsorted values is unknown
+			row = 0;
+		}
+		count = Math.max(0, Math.min(count, row));
+		if (count == 0) {
+			sorted = true;
+		}
+	}
+
+	private boolean isOwnEvent(DataChangeEvent[] events) {
+		if (events == null || events.length == 0) {
+			return false;
+		}
+		for (DataChangeEvent event : events) {
+			if (event.getSource() != source) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the index of the first row whose x value is greater than or
+	 * equal to the specified value. The values of the column must be
+	 * sorted in ascending order.
+	 * @param data Snapshot of the data source.
+	 * @param col Column index.
+	 * @param rowCount Number of rows to be searched.
+	 * @param x X value.
+	 * @return Row index.
+	 */
+	static int findFirst(DataSource data, int col, int rowCount, double x) {
+		int low = 0;
+		int high = rowCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (data.getDouble(col, mid) < x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the first row whose x value is greater than the
+	 * specified value. The values of the column must be sorted in ascending
+	 * order.
+	 * @param data Snapshot of the data source.
+	 * @param col Column index.
+	 * @param rowCount Number of rows to be searched.
+	 * @param x X value.
+	 * @return Row index.
+	 */
+	static int findAfter(DataSource data, int col, int rowCount, double x) {
+		int low = 0;
+		int high = rowCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (data.getDouble(col, mid) <= x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private Level getLevel(int index) {
+		while (levels.size() <= index) {
+			levels.add(new Level());
+		}
+		return levels.get(index);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (rows.length < capacity) {
+			rows = new int[Math.max(capacity, rows.length + (rows.length >> 1))];
+		}
+	}
+
+	private int getMinRow(DataSource data, int rowA, int rowB) {
+		return (data.getDouble(colY, rowB) < data.getDouble(colY, rowA)) ? rowB : rowA;
+	}
+
+	private int getMaxRow(DataSource data, int rowA, int rowB) {
+		return (data.getDouble(colY, rowB) > data.getDouble(colY, rowA)) ? rowB : rowA;
+	}
+}
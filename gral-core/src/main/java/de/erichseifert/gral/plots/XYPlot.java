@@ -25,6 +25,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Paint;
+import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
@@ -36,18 +37,22 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import de.erichseifert.gral.data.DataChangeEvent;
 import de.erichseifert.gral.data.DataSource;
 import de.erichseifert.gral.data.DummyData;
 import de.erichseifert.gral.data.Row;
+import de.erichseifert.gral.graphics.ConcurrentDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.graphics.Insets2D;
+import de.erichseifert.gral.graphics.Modifiable;
 import de.erichseifert.gral.graphics.Orientation;
 import de.erichseifert.gral.navigation.Navigable;
 import de.erichseifert.gral.navigation.NavigationDirection;
@@ -60,6 +65,7 @@ import de.erichseifert.gral.plots.axes.LinearRenderer2D;
 import de.erichseifert.gral.plots.axes.Tick;
 import de.erichseifert.gral.plots.axes.Tick.TickType;
 import de.erichseifert.gral.plots.legends.AbstractLegend;
+import de.erichseifert.gral.plots.legends.Legend;
 import de.erichseifert.gral.plots.legends.SeriesLegend;
 import de.erichseifert.gral.plots.lines.LineRenderer;
 import de.erichseifert.gral.plots.points.DefaultPointRenderer2D;
@@ -83,8 +89,12 @@ import de.erichseifert.gral.util.PointND;
  *
  * XYPlot plot = new XYPlot(data);
  * </pre>
+ * <p>The plot can be drawn by several threads at the same time, e.g. by a
+ * tiled {@link de.erichseifert.gral.io.plots.BitmapWriter}, as long as the
+ * renderers that have been added to it can be used concurrently.</p>
  */
-public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
+public class XYPlot extends AbstractPlot
+		implements Navigable, AxisListener, ConcurrentDrawable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = 4501074701747572783L;
 
@@ -104,6 +114,21 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 	/** Mapping from data source to area renderers. */
 	private final Map<DataSource, List<AreaRenderer>> areaRenderersByDataSource;
 
+	/** Mapping from data source to downsampling method. */
+	private final Map<DataSource, Downsampling> downsamplingByDataSource;
+
+	/** Decides whether each data source is drawn into a separate layer. */
+	private boolean layered;
+
+	/** Projected positions of the data points of each data source. */
+	private transient Map<DataSource, PointProjection> projectionsByDataSource;
+	/** Images of the data sources if layers are used. */
+	private transient Map<DataSource, PlotLayer> layersByDataSource;
+	/** Image of the plot area background and the grid if layers are used. */
+	private transient PlotLayer underlay;
+	/** Image of the axes and the legend if layers are used. */
+	private transient PlotLayer overlay;
+
 	/** Cache for the {@code Navigator} implementation. */
 	private transient XYPlotNavigator navigator;
 	/** A flag that shows whether the navigator has been properly
@@ -143,6 +168,25 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 		}
 	}
 
+	/**
+	 * Methods that reduce the number of points that are drawn for a data
+	 * source. The points are reduced per pixel column of the plot area, so
+	 * the number of drawn points depends on the plot width and the visible
+	 * axis range rather than on the number of rows. This is useful for line
+	 * and area plots of large data sets.
+	 */
+	public enum Downsampling {
+		/** Value for drawing all points. */
+		NONE,
+		/** Value for keeping the first, the minimum, the maximum, and the
+		last point of each pixel column. Lines look exactly the same as lines
+		through all points. */
+		MIN_MAX,
+		/** Value for keeping one point of each pixel column that is selected
+		using the <i>Largest-Triangle-Three-Buckets</i> algorithm. */
+		LTTB
+	}
+
 	/**
 	 * Navigator implementation for two-dimensional plots.
 	 */
@@ -231,6 +275,12 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 		 * @param context Environment used for drawing
 		 */
 		public void draw(DrawingContext context) {
+			if (plot.isLayered() && PlotLayer.isSupported(context)) {
+				drawUnderlay(context);
+				drawPlot(context);
+				drawOverlay(context);
+				return;
+			}
 			drawBackground(context);
 			drawGrid(context);
 			drawBorder(context);
@@ -239,6 +289,108 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 			plot.drawLegend(context);
 		}
 
+		/**
+		 * Draws background, grid, and border of the plot area. They are drawn
+		 * into an image layer that is reused until the axes, the bounds, or
+		 * the settings of the plot area change.
+		 * @param context Environment used for drawing.
+		 */
+		private void drawUnderlay(DrawingContext context) {
+			Graphics2D graphics = context.getGraphics();
+			Rectangle2D bounds = plot.getBounds();
+			List<Object> state = Arrays.<Object>asList(
+				getLayerState(context, bounds), getBounds(),
+				getBackground(), getBorderStroke(), getBorderColor(),
+				isMajorGridX(), isMajorGridY(), getMajorGridColor(),
+				isMinorGridX(), isMinorGridY(), getMinorGridColor());
+			PlotLayer layer = plot.underlay;
+			synchronized (layer) {
+				if (!layer.isValid(state)) {
+					Graphics2D layerGraphics = layer.begin(
+						graphics.getTransform(), bounds, graphics.getRenderingHints());
+					if (layerGraphics != null) {
+						DrawingContext layerContext = new DrawingContext(layerGraphics,
+							context.getQuality(), DrawingContext.Target.BITMAP);
+						drawBackground(layerContext);
+						drawGrid(layerContext);
+						drawBorder(layerContext);
+						layer.end(layerGraphics, state);
+					}
+				}
+				layer.draw(graphics, bounds);
+			}
+		}
+
+		/**
+		 * Draws axes and legend of the plot. They are drawn into an image
+		 * layer that is reused until the axes, the bounds, the data, or the
+		 * legend change.
+		 * @param context Environment used for drawing.
+		 */
+		private void drawOverlay(DrawingContext context) {
+			Graphics2D graphics = context.getGraphics();
+			Rectangle2D bounds = plot.getBounds();
+			List<Object> legendState = new ArrayList<>();
+			Legend legend = plot.getLegend();
+			if (plot.isLegendVisible() && legend != null) {
+				legendState.add(getLegendState(legend));
+				legendState.add(legend.getBounds());
+				legendState.add(plot.getLegendLocation());
+				legendState.add(plot.getLegendDistance());
+				for (DataSource source : plot.getVisibleData()) {
+					// Legends may show the names or the values of the data
+					legendState.add(source);
+					legendState.add(source.getName());
+					legendState.add(source.getVersion());
+					legendState.add(getModificationState(plot.getPointRenderers(source)));
+					legendState.add(getModificationState(plot.getLineRenderers(source)));
+					legendState.add(getModificationState(plot.getAreaRenderers(source)));
+				}
+			}
+			List<Object> state = Arrays.<Object>asList(
+				getLayerState(context, bounds), legendState);
+			PlotLayer layer = plot.overlay;
+			synchronized (layer) {
+				if (!layer.isValid(state)) {
+					Graphics2D layerGraphics = layer.begin(
+						graphics.getTransform(), bounds, graphics.getRenderingHints());
+					if (layerGraphics != null) {
+						DrawingContext layerContext = new DrawingContext(layerGraphics,
+							context.getQuality(), DrawingContext.Target.BITMAP);
+						plot.drawAxes(layerContext);
+						plot.drawLegend(layerContext);
+						layer.end(layerGraphics, state);
+					}
+				}
+				layer.draw(graphics, bounds);
+			}
+		}
+
+		/**
+		 * Returns the properties that underlay and overlay have in common:
+		 * the geometry of the layer, the drawing settings, and the axes.
+		 * @param context Environment used for drawing.
+		 * @param bounds Bounds of the layer.
+		 * @return Layer properties.
+		 */
+		private List<Object> getLayerState(DrawingContext context, Rectangle2D bounds) {
+			Graphics2D graphics = context.getGraphics();
+			List<Object> state = new ArrayList<>();
+			state.add(PlotLayer.getGeometry(graphics.getTransform(), bounds));
+			state.add(graphics.getRenderingHints());
+			state.add(context.getQuality());
+			state.add(bounds);
+			state.add(getAxisState(plot.getAxesNames()));
+			for (String axisName : plot.getAxesNames()) {
+				Drawable axisComponent = plot.getAxisComponent(axisName);
+				state.add(axisComponent);
+				if (axisComponent != null) {
+					state.add(axisComponent.getBounds());
+				}
+			}
+			return state;
+		}
+
 		/**
 		 * Draws the grid using the specified drawing context.
 		 * @param context Environment used for drawing.
@@ -354,133 +506,370 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 
 			AffineTransform txOrig = graphics.getTransform();
 			graphics.translate(getX(), getY());
-			AffineTransform txOffset = graphics.getTransform();
-
 
 			// Paint points and lines
-			for (DataSource s : plot.getVisibleData()) {
-				// Skip empty data source
-				if (s.getColumnCount() == 0) {
-					continue;
+			if (!plot.isLayered() || !drawLayers(context)) {
+				for (DataSource source : plot.getVisibleData()) {
+					drawSeries(context, source);
+				}
+			}
+
+			// Reset transformation (offset)
+			graphics.setTransform(txOrig);
+
+			if (clipOffset != null) {
+				// Reset clipping
+				graphics.setClip(clipBoundsOld);
+			}
+		}
+
+		/**
+		 * Draws each visible data source into its own image layer and
+		 * composites the layers. Only layers whose state has changed are
+		 * drawn again. The graphics object must be translated to the
+		 * position of the plot area.
+		 * @param context Environment used for drawing.
+		 * @return {@code true} if the data sources have been drawn,
+		 *         {@code false} if layers can't be used for the context.
+		 */
+		private boolean drawLayers(DrawingContext context) {
+			if (!PlotLayer.isSupported(context)) {
+				return false;
+			}
+			Graphics2D graphics = context.getGraphics();
+			final AffineTransform txOffset = graphics.getTransform();
+			final Rectangle2D bounds = new Rectangle2D.Double(0.0, 0.0, getWidth(), getHeight());
+			final RenderingHints hints = graphics.getRenderingHints();
+			final DrawingContext.Quality quality = context.getQuality();
+			List<Object> geometry = PlotLayer.getGeometry(txOffset, bounds);
+
+			synchronized (plot.layersByDataSource) {
+				List<PlotLayer> layers = new ArrayList<>();
+				List<Callable<Void>> tasks = new ArrayList<>();
+				for (final DataSource source : plot.getVisibleData()) {
+					final PlotLayer layer = plot.getLayer(source);
+					final List<Object> state = Arrays.<Object>asList(
+						source.getVersion(), getAxisState(Arrays.asList(plot.getMapping(source))),
+						geometry, hints, quality,
+						getModificationState(plot.getPointRenderers(source)),
+						getModificationState(plot.getLineRenderers(source)),
+						getModificationState(plot.getAreaRenderers(source)),
+						plot.getDownsampling(source));
+					if (!layer.isValid(state)) {
+						tasks.add(new Callable<Void>() {
+							public Void call() {
+								Graphics2D layerGraphics = layer.begin(txOffset, bounds, hints);
+								if (layerGraphics != null) {
+									drawSeries(new DrawingContext(layerGraphics, quality,
+										DrawingContext.Target.BITMAP), source);
+									layer.end(layerGraphics, state);
+								}
+								return null;
+							}
+						});
+					}
+					layers.add(layer);
 				}
 
-				int colX = 0;
-				if (colX < 0 || colX >= s.getColumnCount() || !s.isColumnNumeric(colX)) {
-					continue;
+				try {
+					PlotLayer.invokeAll(tasks);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return true;
 				}
-				int colY = 1;
-				if (colY < 0 || colY >= s.getColumnCount() || !s.isColumnNumeric(colY)) {
-					continue;
+
+				for (PlotLayer layer : layers) {
+					layer.draw(graphics, bounds);
 				}
+			}
+			return true;
+		}
 
-				String[] axisNames = plot.getMapping(s);
-				Axis axisX = plot.getAxis(axisNames[0]);
-				Axis axisY = plot.getAxis(axisNames[1]);
-				if (!axisX.isValid() || !axisY.isValid()) {
-					continue;
+		/**
+		 * Returns the properties of the specified axes that determine the
+		 * positions of points and ticks.
+		 * @param axisNames Names of the axes.
+		 * @return Axis properties.
+		 */
+		private List<Object> getAxisState(Collection<String> axisNames) {
+			List<Object> state = new ArrayList<>();
+			for (String axisName : axisNames) {
+				Axis axis = plot.getAxis(axisName);
+				AxisRenderer axisRenderer = plot.getAxisRenderer(axisName);
+				if (axis != null) {
+					state.add(axis.getMin());
+					state.add(axis.getMax());
 				}
-				AxisRenderer axisXRenderer = plot.getAxisRenderer(axisNames[0]);
-				AxisRenderer axisYRenderer = plot.getAxisRenderer(axisNames[1]);
-
-				List<DataPoint> points = new LinkedList<>();
-				for (int i = 0; i < s.getRowCount(); i++) {
-					Row row = new Row(s, i);
-					Number valueX = (Number) row.get(colX);
-					Number valueY = (Number) row.get(colY);
-
-					PointND<Double> axisPosX = (axisXRenderer != null)
-						? axisXRenderer.getPosition(axisX, valueX, true, false)
-						: new PointND<>(0.0, 0.0);
-					PointND<Double> axisPosY = (axisYRenderer != null)
-						? axisYRenderer.getPosition(axisY, valueY, true, false)
-						: new PointND<>(0.0, 0.0);
-					if (axisPosX == null || axisPosY == null) {
-						continue;
+				if (axisRenderer != null) {
+					state.add(getModificationState(Arrays.asList(
+						axisRenderer, axisRenderer.getLabel())));
+					if (axisRenderer.getShape() != null) {
+						state.add(axisRenderer.getShape().getBounds2D());
 					}
+				}
+			}
+			return state;
+		}
+
+		/**
+		 * Returns the objects together with their modification counts. Objects
+		 * that don't implement {@link Modifiable} are only compared by
+		 * identity.
+		 * @param objects Renderers, labels, or legends.
+		 * @return Identities and modification counts.
+		 */
+		private static List<Object> getModificationState(Collection<?> objects) {
+			List<Object> state = new ArrayList<>(2*objects.size());
+			for (Object object : objects) {
+				state.add(object);
+				if (object instanceof Modifiable) {
+					state.add(((Modifiable) object).getModificationCount());
+				}
+			}
+			return state;
+		}
+
+		/**
+		 * Returns the settings of a legend that change the image of a layer.
+		 * @param legend Legend.
+		 * @return Legend settings.
+		 */
+		private static List<Object> getLegendState(Legend legend) {
+			List<Object> state = getModificationState(Collections.singletonList(legend));
+			// Sizes are compared by value as they can be changed in place
+			for (Dimension2D size : Arrays.asList(legend.getSymbolSize(), legend.getGap())) {
+				state.add((size != null) ? size.getWidth() : null);
+				state.add((size != null) ? size.getHeight() : null);
+			}
+			return state;
+		}
 
-					PointND<Double> pos = new PointND<>(
-							axisPosX.get(PointND.X), axisPosY.get(PointND.Y));
+		/**
+		 * Draws the areas, lines, points and value labels of a data source.
+		 * The graphics object must be translated to the position of the
+		 * plot area.
+		 * @param context Environment used for drawing.
+		 * @param source Data source to be drawn.
+		 */
+		private void drawSeries(DrawingContext context, DataSource source) {
+			Graphics2D graphics = context.getGraphics();
+			AffineTransform txOffset = graphics.getTransform();
 
-					PointData pointData = new PointData(
-						Arrays.asList(axisX, axisY),
-						Arrays.asList(axisXRenderer, axisYRenderer),
-						row, row.getIndex(), colY);
+			// All values of a frame are read from the same version of the
+			// data, even if it is modified concurrently
+			DataSource s = source.snapshot();
 
-					DataPoint dataPoint = new DataPoint(pointData, pos);
-					points.add(dataPoint);
+			// Skip empty data source
+			if (s.getColumnCount() == 0) {
+				return;
+			}
+
+			int colX = 0;
+			if (colX < 0 || colX >= s.getColumnCount() || !s.isColumnNumeric(colX)) {
+				return;
+			}
+			int colY = 1;
+			if (colY < 0 || colY >= s.getColumnCount() || !s.isColumnNumeric(colY)) {
+				return;
+			}
+
+			String[] axisNames = plot.getMapping(source);
+			Axis axisX = plot.getAxis(axisNames[0]);
+			Axis axisY = plot.getAxis(axisNames[1]);
+			if (!axisX.isValid() || !axisY.isValid()) {
+				return;
+			}
+			AxisRenderer axisXRenderer = plot.getAxisRenderer(axisNames[0]);
+			AxisRenderer axisYRenderer = plot.getAxisRenderer(axisNames[1]);
+
+			// Only rows that have changed since the last projection are
+			// projected again
+			ProjectedPoints points = null;
+			Downsampling downsampling = plot.getDownsampling(source);
+			PointProjection projection = plot.getProjection(source);
+			ProjectedPoints buffer;
+			ProjectedPoints sampledBuffer;
+			synchronized (projection) {
+				// Drawings that run at the same time use different buffers
+				buffer = projection.acquireBuffer();
+				sampledBuffer = projection.acquireBuffer();
+				if (downsampling != Downsampling.NONE) {
+					// Large data sources with sorted x values are summarized
+					// with one bucket per pixel column
+					points = projection.getSummary(s, axisX, axisXRenderer,
+						axisY, axisYRenderer, colX, colY, (int) Math.ceil(getWidth()),
+						buffer);
+				}
+				if (points == null) {
+					projection.update(s, axisX, axisXRenderer, axisY, axisYRenderer, colX, colY);
+					points = projection.getPoints(s, Arrays.asList(axisX, axisY),
+						Arrays.asList(axisXRenderer, axisYRenderer), colY, buffer);
 				}
+				points = projection.downsample(points, downsampling, sampledBuffer);
+			}
 
-				List<PointRenderer> pointRenderers = new ArrayList<>(plot.getPointRenderers(s));
-				Collections.reverse(pointRenderers);
-
-				List<AreaRenderer> areaRenderers = new ArrayList<>(plot.getAreaRenderers(s));
-				Collections.reverse(areaRenderers);
-				for (AreaRenderer areaRenderer : areaRenderers) {
-					Shape punchedArea = areaRenderer.getAreaShape(points);
-					for (PointRenderer pointRenderer : pointRenderers) {
-						List<Shape> punchShapes = new ArrayList<>(points.size());
-						for (DataPoint point : points) {
-							Shape punchShape = pointRenderer.getPointShape(point.data);
-							punchShapes.add(punchShape);
-						}
-						punchedArea = punch(punchedArea, points, punchShapes, areaRenderer.getGap(), areaRenderer.isGapRounded());
+			// Data points are only created for renderers that need them
+			List<PointRenderer> pointRenderers = new ArrayList<>(plot.getPointRenderers(source));
+			Collections.reverse(pointRenderers);
+
+			List<AreaRenderer> areaRenderers = new ArrayList<>(plot.getAreaRenderers(source));
+			Collections.reverse(areaRenderers);
+			for (AreaRenderer areaRenderer : areaRenderers) {
+				Shape punchedArea = areaRenderer.getAreaShape(points);
+				punchedArea = punch(punchedArea, points, pointRenderers,
+					areaRenderer.getGap(), areaRenderer.isGapRounded());
+				Drawable drawable = areaRenderer.getArea(points.asList(), punchedArea);
+				drawable.draw(context);
+			}
+
+			List<LineRenderer> lineRenderers = new ArrayList<>(plot.getLineRenderers(source));
+			Collections.reverse(lineRenderers);
+			for (LineRenderer lineRenderer : lineRenderers) {
+				Shape punchedLine;
+				double gap = lineRenderer.getGap();
+				if (!lineRenderer.isGapCircular() || !MathUtils.isCalculatable(gap) ||
+						gap == 0.0 || pointRenderers.isEmpty()) {
+					punchedLine = lineRenderer.getLineShape(points);
+					punchedLine = punch(punchedLine, points, pointRenderers,
+						gap, lineRenderer.isGapRounded());
+				} else {
+					double[] gapRadii = getGapRadii(points, pointRenderers, gap);
+					punchedLine = lineRenderer.getLineShape(points, gapRadii);
+				}
+				Drawable drawable = lineRenderer.getLine(points.asList(), punchedLine);
+				drawable.draw(context);
+			}
+			if (!plot.getPointRenderers(source).isEmpty()) {
+				// Draw graphics of renderers that draw all points at once
+				List<PointRenderer> singlePointRenderers = new ArrayList<>();
+				List<PointRenderer> valuePointRenderers = new ArrayList<>();
+				for (PointRenderer pointRenderer : plot.getPointRenderers(source)) {
+					Drawable pointsDrawable = pointRenderer.getPoints(points);
+					if (pointsDrawable != null) {
+						pointsDrawable.draw(context);
+					} else {
+						singlePointRenderers.add(pointRenderer);
+					}
+					if (pointRenderer.isValueVisible()) {
+						valuePointRenderers.add(pointRenderer);
 					}
-					Drawable drawable = areaRenderer.getArea(points, punchedArea);
-					drawable.draw(context);
 				}
-
-				List<LineRenderer> lineRenderers = new ArrayList<>(plot.getLineRenderers(s));
-				Collections.reverse(lineRenderers);
-				for (LineRenderer lineRenderer : lineRenderers) {
-					Shape punchedLine = lineRenderer.getLineShape(points);
-					for (PointRenderer pointRenderer : pointRenderers) {
-						List<Shape> punchShapes = new ArrayList<>(points.size());
-						for (DataPoint point : points) {
-							Shape punchShape = pointRenderer.getPointShape(point.data);
-							punchShapes.add(punchShape);
+				// Draw graphics of the remaining renderers point by point
+				for (int i = 0; i < points.size() && !singlePointRenderers.isEmpty(); i++) {
+					PointData pointData = points.get(i).data;
+					graphics.translate(points.getX(i), points.getY(i));
+					for (PointRenderer pointRenderer : singlePointRenderers) {
+						Shape pointShape = pointRenderer.getPointShape(pointData);
+						// Error bars may reach into the visible area
+						if (!pointRenderer.isErrorVisible() && !isVisible(graphics, pointShape)) {
+							continue;
 						}
-						punchedLine = punch(punchedLine, points, punchShapes, lineRenderer.getGap(), lineRenderer.isGapRounded());
+						Drawable pointDrawable = pointRenderer.getPoint(pointData, pointShape);
+						pointDrawable.draw(context);
 					}
-					Drawable drawable = lineRenderer.getLine(points, punchedLine);
-					drawable.draw(context);
+					graphics.setTransform(txOffset);
 				}
-				if (!plot.getPointRenderers(s).isEmpty()) {
-					// Draw graphics
-					for (DataPoint point : points) {
-						PointND<Double> pos = point.position;
-						double pointX = pos.get(PointND.X);
-						double pointY = pos.get(PointND.Y);
-						graphics.translate(pointX, pointY);
-						for (PointRenderer pointRenderer : plot.getPointRenderers(s)) {
-							Shape pointShape = pointRenderer.getPointShape(point.data);
-							Drawable pointDrawable = pointRenderer.getPoint(point.data, pointShape);
-							pointDrawable.draw(context);
-						}
-						graphics.setTransform(txOffset);
+				// Draw labels
+				for (int i = 0; i < points.size() && !valuePointRenderers.isEmpty(); i++) {
+					PointData pointData = points.get(i).data;
+					graphics.translate(points.getX(i), points.getY(i));
+					for (PointRenderer pointRenderer : valuePointRenderers) {
+						Shape pointShape = pointRenderer.getPointShape(pointData);
+						Drawable labelDrawable = pointRenderer.getValue(pointData, pointShape);
+						labelDrawable.draw(context);
 					}
-					// Draw labels
-					for (DataPoint point : points) {
-						PointND<Double> pos = point.position;
-						double pointX = pos.get(PointND.X);
-						double pointY = pos.get(PointND.Y);
-						graphics.translate(pointX, pointY);
-						for (PointRenderer pointRenderer : plot.getPointRenderers(s)) {
-							Shape pointShape = pointRenderer.getPointShape(point.data);
-							Drawable labelDrawable = pointRenderer.getValue(point.data, pointShape);
-							labelDrawable.draw(context);
-						}
-						graphics.setTransform(txOffset);
+					graphics.setTransform(txOffset);
+				}
+			}
+
+			synchronized (projection) {
+				projection.releaseBuffer(buffer);
+				projection.releaseBuffer(sampledBuffer);
+			}
+		}
+
+		/**
+		 * Returns the radius of the gap around each point. The radius
+		 * consists of the gap and the distance from the point to the
+		 * farthest corner of the bounds of its shapes, so the gap is never
+		 * smaller than specified.
+		 * @param points Projected points.
+		 * @param pointRenderers Renderers that define the shapes of the points.
+		 * @param gap Gap between shape and point shapes.
+		 * @return Radius of the gap around each point.
+		 */
+		private static double[] getGapRadii(ProjectedPoints points,
+				List<PointRenderer> pointRenderers, double gap) {
+			double[] gapRadii = new double[points.size()];
+			Shape shapePrev = null;
+			double radiusPrev = 0.0;
+			for (int i = 0; i < points.size(); i++) {
+				double radius = 0.0;
+				boolean hasShape = false;
+				for (PointRenderer pointRenderer : pointRenderers) {
+					Shape pointShape = pointRenderer.getPointShape(points.get(i).data);
+					if (pointShape == null) {
+						continue;
+					}
+					if (pointShape != shapePrev) {
+						// Most renderers use the same shape for all points
+						Rectangle2D bounds = pointShape.getBounds2D();
+						double dx = Math.max(Math.abs(bounds.getMinX()), Math.abs(bounds.getMaxX()));
+						double dy = Math.max(Math.abs(bounds.getMinY()), Math.abs(bounds.getMaxY()));
+						shapePrev = pointShape;
+						radiusPrev = Math.sqrt(dx*dx + dy*dy);
 					}
+					radius = Math.max(radius, radiusPrev);
+					hasShape = true;
 				}
+				gapRadii[i] = hasShape ? radius + gap : 0.0;
 			}
+			return gapRadii;
+		}
 
-			// Reset transformation (offset)
-			graphics.setTransform(txOrig);
+		/**
+		 * Returns whether a shape may be visible in the current clipping
+		 * area of the graphics.
+		 * @param graphics Graphics with the current transformation.
+		 * @param shape Shape.
+		 * @return {@code true} if the shape may be visible.
+		 */
+		private static boolean isVisible(Graphics2D graphics, Shape shape) {
+			if (shape == null) {
+				return true;
+			}
+			// Add a margin for outlines
+			Rectangle2D bounds = shape.getBounds2D();
+			return graphics.hitClip(
+				(int) Math.floor(bounds.getMinX()) - 1, (int) Math.floor(bounds.getMinY()) - 1,
+				(int) Math.ceil(bounds.getWidth()) + 3, (int) Math.ceil(bounds.getHeight()) + 3);
+		}
 
-			if (clipOffset != null) {
-				// Reset clipping
-				graphics.setClip(clipBoundsOld);
+		/**
+		 * Returns the shape from which the shapes of the specified points
+		 * are subtracted. The shapes of the points are only computed if there
+		 * is a gap.
+		 * @param shape Shape to be modified.
+		 * @param points Projected points.
+		 * @param pointRenderers Renderers that define the shapes of the points.
+		 * @param gap Gap between shape and point shapes.
+		 * @param roundedGaps {@code true} if the shape gaps are rounded.
+		 * @return Punched shape.
+		 */
+		private static Shape punch(Shape shape, ProjectedPoints points,
+				List<PointRenderer> pointRenderers, double gap, boolean roundedGaps) {
+			if (!MathUtils.isCalculatable(gap) || gap == 0.0) {
+				return shape;
 			}
+			List<DataPoint> dataPoints = points.asList();
+			for (PointRenderer pointRenderer : pointRenderers) {
+				List<Shape> punchShapes = new ArrayList<>(dataPoints.size());
+				for (DataPoint point : dataPoints) {
+					punchShapes.add(pointRenderer.getPointShape(point.data));
+				}
+				shape = punch(shape, dataPoints, punchShapes, gap, roundedGaps);
+			}
+			return shape;
 		}
 
 		/**
@@ -752,6 +1141,11 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 		pointRenderersByDataSource = new HashMap<>(data.length);
 		lineRenderersByDataSource = new HashMap<>(data.length);
 		areaRenderersByDataSource = new HashMap<>(data.length);
+		downsamplingByDataSource = new HashMap<>(data.length);
+		projectionsByDataSource = new HashMap<>(data.length);
+		layersByDataSource = new HashMap<>(data.length);
+		underlay = new PlotLayer();
+		overlay = new PlotLayer();
 
 		setPlotArea(new XYPlotArea2D(this));
 		setLegend(new XYLegend(this));
@@ -820,7 +1214,7 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 
 		Dimension2D size = comp.getPreferredSize();
 
-		Shape shape;
+		Line2D shape;
 		if (orientation == Orientation.HORIZONTAL) {
 			shape = new Line2D.Double(
 				0.0, 0.0,
@@ -832,6 +1226,14 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 				size.getWidth(), 0.0
 			);
 		}
+		// Keep the current shape if it hasn't changed, so that projected
+		// data points can be reused
+		Shape shapeOld = renderer.getShape();
+		if (shapeOld instanceof Line2D &&
+				((Line2D) shapeOld).getP1().equals(shape.getP1()) &&
+				((Line2D) shapeOld).getP2().equals(shape.getP2())) {
+			return;
+		}
 		renderer.setShape(shape);
 	}
 
@@ -1081,6 +1483,166 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 		setAreaRenderers(source, areaRendererDefault);
 	}
 
+	/**
+	 * Returns the method that reduces the number of points that are drawn
+	 * for the specified data source.
+	 * @param s Data source in question.
+	 * @return Downsampling method.
+	 */
+	public Downsampling getDownsampling(DataSource s) {
+		Downsampling downsampling = downsamplingByDataSource.get(s);
+		if (downsampling != null) {
+			return downsampling;
+		}
+		return Downsampling.NONE;
+	}
+
+	/**
+	 * Sets the method that reduces the number of points that are drawn for
+	 * a certain data source. Downsampling should only be used for data
+	 * sources that are displayed by line or area renderers, as some of the
+	 * points won't be drawn. For large data sources whose x values are
+	 * sorted in ascending order, a summary of the rows is maintained, so
+	 * only a number of rows that depends on the plot width is projected
+	 * when zooming or panning.
+	 * @param s Data source.
+	 * @param downsampling Downsampling method.
+	 */
+	public void setDownsampling(DataSource s, Downsampling downsampling) {
+		downsamplingByDataSource.put(s, downsampling);
+	}
+
+	@Override
+	public boolean remove(DataSource source) {
+		boolean existed = super.remove(source);
+		if (!getData().contains(source)) {
+			projectionsByDataSource.remove(source);
+			synchronized (layersByDataSource) {
+				layersByDataSource.remove(source);
+			}
+		}
+		return existed;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		projectionsByDataSource.clear();
+		invalidateLayers();
+	}
+
+	/**
+	 * Returns whether each data source is drawn into a separate image
+	 * layer.
+	 * @return {@code true} if layers are used.
+	 */
+	public boolean isLayered() {
+		return layered;
+	}
+
+	/**
+	 * Sets whether each data source is drawn into a separate image layer
+	 * when the plot is drawn to a bitmap. Layers that have to be drawn
+	 * again are drawn at the same time on a shared pool of threads, and
+	 * the layers are composited in the order of the data sources.
+	 * A layer is reused as long as the version of its data, the axes, the
+	 * size of the plot, and the renderers, their settings, and the
+	 * downsampling method of the data source don't change. Changes of
+	 * settings are detected with the modification counts of renderers that
+	 * implement {@link Modifiable}. This is useful for plots with many data
+	 * sources of which only some change at a time. Each layer needs the
+	 * memory of an image of the size of the plot area.
+	 * Background and grid of the plot area as well as the axes and the
+	 * legend are also drawn into two layers of the size of the plot. They
+	 * are reused until the range of an axis, the bounds, the data sources,
+	 * or the settings of the plot area, the axis renderers, or the legend
+	 * change.
+	 * @param layered {@code true} if layers should be used.
+	 */
+	public void setLayered(boolean layered) {
+		this.layered = layered;
+		if (!layered) {
+			invalidateLayers();
+		}
+	}
+
+	/**
+	 * Discards the images of all layers, so that they are drawn again the
+	 * next time the plot is drawn. Layers are drawn again automatically if
+	 * settings of the renderers, the axis renderers, or the legend are
+	 * changed. This only has to be called if objects that are used as
+	 * settings, e.g. shapes or formats, are modified in place, or if
+	 * settings of renderers that don't implement {@link Modifiable} are
+	 * changed.
+	 */
+	public void invalidateLayers() {
+		synchronized (layersByDataSource) {
+			layersByDataSource.clear();
+		}
+		underlay.invalidate();
+		overlay.invalidate();
+	}
+
+	/**
+	 * Returns the image layer of the specified data source.
+	 * @param source Data source.
+	 * @return Image layer.
+	 */
+	private PlotLayer getLayer(DataSource source) {
+		synchronized (layersByDataSource) {
+			PlotLayer layer = layersByDataSource.get(source);
+			if (layer == null) {
+				layer = new PlotLayer();
+				layersByDataSource.put(source, layer);
+			}
+			return layer;
+		}
+	}
+
+	/**
+	 * Returns the projected positions of the data points of the specified
+	 * data source.
+	 * @param source Data source.
+	 * @return Projected positions.
+	 */
+	private PointProjection getProjection(DataSource source) {
+		synchronized (projectionsByDataSource) {
+			PointProjection projection = projectionsByDataSource.get(source);
+			if (projection == null) {
+				projection = new PointProjection(source);
+				projectionsByDataSource.put(source, projection);
+			}
+			return projection;
+		}
+	}
+
+	@Override
+	public void dataAdded(DataSource source, DataChangeEvent... events) {
+		PointProjection projection = getProjection(source);
+		synchronized (projection) {
+			projection.dataAdded(events);
+		}
+		super.dataAdded(source, events);
+	}
+
+	@Override
+	public void dataUpdated(DataSource source, DataChangeEvent... events) {
+		PointProjection projection = getProjection(source);
+		synchronized (projection) {
+			projection.dataUpdated(events);
+		}
+		super.dataUpdated(source, events);
+	}
+
+	@Override
+	public void dataRemoved(DataSource source, DataChangeEvent... events) {
+		PointProjection projection = getProjection(source);
+		synchronized (projection) {
+			projection.dataRemoved(events);
+		}
+		super.dataRemoved(source, events);
+	}
+
 	/**
 	 * Returns a navigator instance that can control the current object.
 	 * @return A navigator instance.
@@ -1109,6 +1671,8 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 	 */
 	public void rangeChanged(Axis axis, Number min, Number max) {
 		layoutAxes();
+		underlay.invalidate();
+		overlay.invalidate();
 	}
 
 	/**
@@ -1123,6 +1687,11 @@ public class XYPlot extends AbstractPlot implements Navigable, AxisListener {
 		// Normal deserialization
 		in.defaultReadObject();
 
+		projectionsByDataSource = new HashMap<>();
+		layersByDataSource = new HashMap<>();
+		underlay = new PlotLayer();
+		overlay = new PlotLayer();
+
 		// Restore listeners
 		for (String axisName : getAxesNames()) {
 			getAxis(axisName).addAxisListener(this);
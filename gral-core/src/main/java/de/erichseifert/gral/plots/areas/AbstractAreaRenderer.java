@@ -23,8 +23,12 @@ package de.erichseifert.gral.plots.areas;
 
 import java.awt.Color;
 import java.awt.Paint;
+import java.awt.Shape;
 import java.io.Serializable;
 
+import de.erichseifert.gral.graphics.Modifiable;
+import de.erichseifert.gral.plots.ProjectedPoints;
+
 /**
  * <p>Abstract class that renders an area in two-dimensional space.</p>
  * <p>Functionality includes:</p>
@@ -33,7 +37,7 @@ import java.io.Serializable;
  *   <li>Administration of settings</li>
  * </ul>
  */
-public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable {
+public abstract class AbstractAreaRenderer implements AreaRenderer, Modifiable, Serializable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -9064749128190128428L;
 
@@ -44,6 +48,8 @@ public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable
 	private boolean gapRounded;
 	/** Paint to fill the area. */
 	private Paint color;
+	/** Number of changes to the settings of this renderer. */
+	private transient long modificationCount;
 
 	/**
 	 * Initializes a new instance with default settings.
@@ -54,6 +60,18 @@ public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable
 		color = Color.GRAY;
 	}
 
+	/**
+	 * Returns the shape used for rendering the area of a data points. By
+	 * default, the shape is created from the list view of the points, which
+	 * creates an object for each point. Subclasses should override this
+	 * method if they can use the coordinates directly.
+	 * @param points Data points.
+	 * @return Geometric shape for the area of the specified data points.
+	 */
+	public Shape getAreaShape(ProjectedPoints points) {
+		return getAreaShape(points.asList());
+	}
+
 	@Override
 	public double getGap() {
 		return gap;
@@ -62,6 +80,7 @@ public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable
 	@Override
 	public void setGap(double gap) {
 		this.gap = gap;
+		modified();
 	}
 
 	@Override
@@ -72,6 +91,7 @@ public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable
 	@Override
 	public void setGapRounded(boolean gapRounded) {
 		this.gapRounded = gapRounded;
+		modified();
 	}
 
 	@Override
@@ -82,5 +102,19 @@ public abstract class AbstractAreaRenderer implements AreaRenderer, Serializable
 	@Override
 	public void setColor(Paint color) {
 		this.color = color;
+		modified();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this renderer changes.
+	 */
+	protected void modified() {
+		modificationCount++;
 	}
 }
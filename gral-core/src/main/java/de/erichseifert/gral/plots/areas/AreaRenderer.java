@@ -27,6 +27,7 @@ import java.util.List;
 
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 
 /**
  * Interface for renderers that display areas in plots.
@@ -39,6 +40,15 @@ public interface AreaRenderer {
 	 */
 	Shape getAreaShape(List<DataPoint> points);
 
+	/**
+	 * Returns the shape used for rendering the area of a data points. The
+	 * coordinates are read from the arrays of the projected points, so no
+	 * objects have to be created for each point.
+	 * @param points Data points.
+	 * @return Geometric shape for the area of the specified data points.
+	 */
+	Shape getAreaShape(ProjectedPoints points);
+
 	/**
 	 * Returns the graphical representation to be drawn for the specified data
 	 * points.
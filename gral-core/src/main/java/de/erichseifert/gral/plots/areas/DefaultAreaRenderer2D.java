@@ -31,6 +31,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.axes.AxisRenderer;
 import de.erichseifert.gral.util.GraphicsUtils;
@@ -81,16 +82,7 @@ public class DefaultAreaRenderer2D extends AbstractAreaRenderer {
 
 		Axis axisY = points.get(0).data.axes.get(1);
 		AxisRenderer axisRendererY = points.get(0).data.axisRenderers.get(1);
-
-		double axisYMin = axisY.getMin().doubleValue();
-		double axisYMax = axisY.getMax().doubleValue();
-		double axisYOrigin = MathUtils.limit(0.0, axisYMin, axisYMax);
-
-		PointND<Double> posOrigin = null;
-		if (axisRendererY != null) {
-			posOrigin = axisRendererY.getPosition(
-					axisY, axisYOrigin, true, false);
-		}
+		PointND<Double> posOrigin = getOrigin(axisY, axisRendererY);
 
 		Path2D shape = new Path2D.Double();
 		if (posOrigin == null) {
@@ -118,4 +110,47 @@ public class DefaultAreaRenderer2D extends AbstractAreaRenderer {
 
 		return shape;
 	}
+
+	@Override
+	public Shape getAreaShape(ProjectedPoints points) {
+		if (points.size() == 0) {
+			return null;
+		}
+
+		Axis axisY = points.getAxes().get(1);
+		AxisRenderer axisRendererY = points.getAxisRenderers().get(1);
+		PointND<Double> posOrigin = getOrigin(axisY, axisRendererY);
+
+		Path2D shape = new Path2D.Double();
+		if (posOrigin == null) {
+			return shape;
+		}
+
+		double posYOrigin = posOrigin.get(PointND.Y);
+		shape.moveTo(points.getX(0), posYOrigin);
+		for (int i = 0; i < points.size(); i++) {
+			shape.lineTo(points.getX(i), points.getY(i));
+		}
+		shape.lineTo(points.getX(points.size() - 1), posYOrigin);
+		shape.closePath();
+
+		return shape;
+	}
+
+	/**
+	 * Returns the position of the origin of the y axis, or of the axis
+	 * bound that is closest to the origin.
+	 * @param axisY Y axis.
+	 * @param axisRendererY Renderer of the y axis.
+	 * @return Position in view units, or {@code null}.
+	 */
+	private static PointND<Double> getOrigin(Axis axisY, AxisRenderer axisRendererY) {
+		if (axisRendererY == null) {
+			return null;
+		}
+		double axisYMin = axisY.getMin().doubleValue();
+		double axisYMax = axisY.getMax().doubleValue();
+		double axisYOrigin = MathUtils.limit(0.0, axisYMin, axisYMax);
+		return axisRendererY.getPosition(axisY, axisYOrigin, true, false);
+	}
 }
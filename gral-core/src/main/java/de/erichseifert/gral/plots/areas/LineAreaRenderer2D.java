@@ -33,6 +33,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.axes.AxisRenderer;
 import de.erichseifert.gral.util.GraphicsUtils;
@@ -94,15 +95,7 @@ public class LineAreaRenderer2D extends AbstractAreaRenderer {
 
 		Axis axisY = points.get(0).data.axes.get(1);
 		AxisRenderer axisRendererY = points.get(0).data.axisRenderers.get(1);
-
-		double axisYMin = axisY.getMin().doubleValue();
-		double axisYMax = axisY.getMax().doubleValue();
-		double axisYOrigin = MathUtils.limit(0.0, axisYMin, axisYMax);
-		double posYOrigin = 0.0;
-		if (axisRendererY != null) {
-			posYOrigin = axisRendererY.getPosition(
-					axisY, axisYOrigin, true, false).get(PointND.Y);
-		}
+		double posYOrigin = getOriginY(axisY, axisRendererY);
 		Path2D shape = new Path2D.Double();
 		double x = 0.0;
 		double y = 0.0;
@@ -118,6 +111,43 @@ public class LineAreaRenderer2D extends AbstractAreaRenderer {
 		return stroke.createStrokedShape(shape);
 	}
 
+	@Override
+	public Shape getAreaShape(ProjectedPoints points) {
+		if (points.size() == 0) {
+			return null;
+		}
+
+		Axis axisY = points.getAxes().get(1);
+		AxisRenderer axisRendererY = points.getAxisRenderers().get(1);
+		double posYOrigin = getOriginY(axisY, axisRendererY);
+		Path2D shape = new Path2D.Double();
+		for (int i = 0; i < points.size(); i++) {
+			double x = points.getX(i);
+			shape.moveTo(x, points.getY(i));
+			shape.lineTo(x, posYOrigin);
+		}
+
+		Stroke stroke = getStroke();
+		return stroke.createStrokedShape(shape);
+	}
+
+	/**
+	 * Returns the y coordinate of the origin of the y axis, or of the axis
+	 * bound that is closest to the origin.
+	 * @param axisY Y axis.
+	 * @param axisRendererY Renderer of the y axis.
+	 * @return Y coordinate in view units.
+	 */
+	private static double getOriginY(Axis axisY, AxisRenderer axisRendererY) {
+		if (axisRendererY == null) {
+			return 0.0;
+		}
+		double axisYMin = axisY.getMin().doubleValue();
+		double axisYMax = axisY.getMax().doubleValue();
+		double axisYOrigin = MathUtils.limit(0.0, axisYMin, axisYMax);
+		return axisRendererY.getPosition(axisY, axisYOrigin, true, false).get(PointND.Y);
+	}
+
 	/**
 	 * Returns the stroke that is used to draw the lines from the
 	 * data points to the axis.
@@ -134,5 +164,6 @@ public class LineAreaRenderer2D extends AbstractAreaRenderer {
 	 */
 	public void setStroke(Stroke stroke) {
 		this.stroke = stroke;
+		modified();
 	}
 }
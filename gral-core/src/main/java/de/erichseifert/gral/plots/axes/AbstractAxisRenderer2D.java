@@ -39,6 +39,7 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Format;
 import java.text.NumberFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,6 +52,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.graphics.Label;
+import de.erichseifert.gral.graphics.Modifiable;
 import de.erichseifert.gral.plots.axes.Tick.TickType;
 import de.erichseifert.gral.util.GeometryUtils;
 import de.erichseifert.gral.util.GraphicsUtils;
@@ -69,7 +71,7 @@ import de.erichseifert.gral.util.SerializationUtils;
  *   <li>Administration of settings</li>
  * </ul>
  */
-public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializable {
+public abstract class AbstractAxisRenderer2D implements AxisRenderer, Modifiable, Serializable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = 5623525683845512624L;
 	/** Line segments approximating the shape of the axis. */
@@ -145,6 +147,8 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	private Label label;
 	/** Distance relative to font height. */
 	private double labelDistance;
+	/** Number of changes to the settings of this renderer. */
+	private transient long modificationCount;
 
 	/**
 	 * Initializes a new instance with default settings.
@@ -609,12 +613,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 			return null;
 		}
 
-		// TODO Check if this is a valid way to allow infinite values
-		if (positionOnShapePath == Double.NEGATIVE_INFINITY) {
-			positionOnShapePath = 0.0;
-		} else if (positionOnShapePath == Double.POSITIVE_INFINITY) {
-			positionOnShapePath = 1.0;
-		}
+		positionOnShapePath = getFinitePosition(positionOnShapePath);
 
 		// Determine shape segment
 		int segmentIndex;
@@ -641,6 +640,118 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 		return new PointND<>(x, y);
 	}
 
+	/**
+	 * Determines the positions of several values on the axis at once. The
+	 * positions are returned in view coordinates and values that are not on
+	 * the axis are extrapolated. Values without a position, e.g. <i>NaN</i>,
+	 * result in <i>NaN</i> coordinates.
+	 * @param axis Axis
+	 * @param values World coordinate values to convert
+	 * @param n Number of values to convert
+	 * @param outX Array that receives the x coordinates, or {@code null}
+	 *        if they aren't needed
+	 * @param outY Array that receives the y coordinates, or {@code null}
+	 *        if they aren't needed
+	 */
+	public void getPositions(Axis axis, double[] values, int n, double[] outX, double[] outY) {
+		double[] positions = (outX != null) ? outX : outY;
+		if (positions == null) {
+			return;
+		}
+		if (shapeLines == null || shapeLines.length == 0) {
+			fill(outX, n, Double.NaN);
+			fill(outY, n, Double.NaN);
+			return;
+		}
+		worldToView(axis, values, n, positions);
+
+		if (shapeLines.length == 1) {
+			// Straight axis: the position is an affine function of the value
+			Line2D segment = shapeLines[0];
+			double length = shapeSegmentLengths[0];
+			double x1 = segment.getX1();
+			double y1 = segment.getY1();
+			double scaleX = (segment.getX2() - x1)/length;
+			double scaleY = (segment.getY2() - y1)/length;
+			for (int i = 0; i < n; i++) {
+				double position = getFinitePosition(positions[i]);
+				if (outY != null) {
+					outY[i] = y1 + scaleY*position;
+				}
+				if (outX != null) {
+					outX[i] = x1 + scaleX*position;
+				}
+			}
+			return;
+		}
+
+		double shapeLength = getShapeLength();
+		for (int i = 0; i < n; i++) {
+			double position = positions[i];
+			int segmentIndex;
+			if (position <= 0.0) {
+				segmentIndex = 0;
+			} else if (position >= shapeLength) {
+				segmentIndex = shapeLines.length - 1;
+			} else {
+				segmentIndex = MathUtils.binarySearchFloor(shapeSegmentLengthsAccumulated, position);
+			}
+			if (Double.isNaN(position) || segmentIndex < 0 || segmentIndex >= shapeLines.length) {
+				set(outX, i, Double.NaN);
+				set(outY, i, Double.NaN);
+				continue;
+			}
+			Line2D segment = shapeLines[segmentIndex];
+			double relLen = (getFinitePosition(position) - shapeSegmentLengthsAccumulated[segmentIndex]) /
+				shapeSegmentLengths[segmentIndex];
+			set(outY, i, segment.getY1() + (segment.getY2() - segment.getY1())*relLen);
+			set(outX, i, segment.getX1() + (segment.getX2() - segment.getX1())*relLen);
+		}
+	}
+
+	/**
+	 * Converts several world (axis) coordinate values to view (screen)
+	 * coordinate values. Values that are not on the axis are extrapolated.
+	 * Implementations can override this method to compute constants only
+	 * once for all values.
+	 * @param axis Axis
+	 * @param values World coordinate values to convert
+	 * @param n Number of values to convert
+	 * @param viewValues Array that receives the screen coordinate values
+	 */
+	protected void worldToView(Axis axis, double[] values, int n, double[] viewValues) {
+		for (int i = 0; i < n; i++) {
+			viewValues[i] = worldToView(axis, values[i], true);
+		}
+	}
+
+	/**
+	 * Replaces infinite positions on the shape path by finite positions.
+	 * @param position Position on the shape path.
+	 * @return Finite position.
+	 */
+	private static double getFinitePosition(double position) {
+		// TODO Check if this is a valid way to allow infinite values
+		if (position == Double.NEGATIVE_INFINITY) {
+			return 0.0;
+		} else if (position == Double.POSITIVE_INFINITY) {
+			return 1.0;
+		}
+		return position;
+	}
+
+	private static void set(double[] values, int index, double value) {
+		if (values != null) {
+			values[index] = value;
+		}
+	}
+
+	private static void fill(double[] values, int n, double value) {
+		if (values != null) {
+			Arrays.fill(values, 0, n, value);
+		}
+	}
+
 	/**
 	 * Calculates important aspects of the specified shape.
 	 * @param shape Shape to be evaluated.
@@ -708,6 +819,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setIntersection(Number intersection) {
 		this.intersection = intersection;
+		modified();
 	}
 
 	@Override
@@ -719,6 +831,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	public void setShape(Shape shape) {
 		this.shape = shape;
 		evaluateShape(shape);
+		modified();
 	}
 
 	@Override
@@ -729,6 +842,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setShapeVisible(boolean shapeVisible) {
 		this.shapeVisible = shapeVisible;
+		modified();
 	}
 
 	@Override
@@ -739,6 +853,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setShapeNormalOrientationClockwise(boolean clockwise) {
 		this.shapeNormalOrientationClockwise = clockwise;
+		modified();
 	}
 
 	@Override
@@ -749,6 +864,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setShapeColor(Paint color) {
 		this.shapeColor = color;
+		modified();
 	}
 
 	@Override
@@ -759,6 +875,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setShapeStroke(Stroke stroke) {
 		this.shapeStroke = stroke;
+		modified();
 	}
 
 	@Override
@@ -769,6 +886,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setShapeDirectionSwapped(boolean directionSwapped) {
 		this.shapeDirectionSwapped = directionSwapped;
+		modified();
 	}
 
 	@Override
@@ -779,6 +897,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTicksVisible(boolean ticksVisible) {
 		this.ticksVisible = ticksVisible;
+		modified();
 	}
 
 	@Override
@@ -789,6 +908,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickSpacing(Number spacing) {
 		this.tickSpacing = spacing;
+		modified();
 	}
 
 	@Override
@@ -799,6 +919,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTicksAutoSpaced(boolean autoSpaced) {
 		this.ticksAutoSpaced = autoSpaced;
+		modified();
 	}
 
 	@Override
@@ -809,6 +930,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLength(double length) {
 		this.tickLength = length;
+		modified();
 	}
 
 	@Override
@@ -819,6 +941,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickStroke(Stroke stroke) {
 		this.tickStroke = stroke;
+		modified();
 	}
 
 	@Override
@@ -829,6 +952,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickAlignment(double alignment) {
 		this.tickAlignment = alignment;
+		modified();
 	}
 
 	@Override
@@ -839,6 +963,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickFont(Font font) {
 		this.tickFont = font;
+		modified();
 	}
 
 	@Override
@@ -849,6 +974,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickColor(Paint color) {
 		this.tickColor = color;
+		modified();
 	}
 
 	@Override
@@ -859,6 +985,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLabelsVisible(boolean tickLabelsVisible) {
 		this.tickLabelsVisible = tickLabelsVisible;
+		modified();
 	}
 
 	@Override
@@ -869,6 +996,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLabelFormat(Format format) {
 		this.tickLabelFormat = format;
+		modified();
 	}
 
 	@Override
@@ -879,6 +1007,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLabelDistance(double distance) {
 		this.tickLabelDistance = distance;
+		modified();
 	}
 
 	@Override
@@ -889,6 +1018,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLabelsOutside(boolean labelsOutside) {
 		this.tickLabelsOutside = labelsOutside;
+		modified();
 	}
 
 	@Override
@@ -899,6 +1029,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setTickLabelRotation(double angle) {
 		this.tickLabelRotation = angle;
+		modified();
 	}
 
 	@Override
@@ -909,6 +1040,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTicksVisible(boolean minorTicksVisible) {
 		this.minorTickVisible = minorTicksVisible;
+		modified();
 	}
 
 	@Override
@@ -919,6 +1051,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTicksCount(int count) {
 		this.minorTicksCount = count;
+		modified();
 	}
 
 	@Override
@@ -929,6 +1062,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTickLength(double length) {
 		this.minorTickLength = length;
+		modified();
 	}
 
 	@Override
@@ -939,6 +1073,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTickStroke(Stroke stroke) {
 		this.minorTickStroke = stroke;
+		modified();
 	}
 
 	@Override
@@ -949,6 +1084,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTickAlignment(double alignment) {
 		this.minorTickAlignment = alignment;
+		modified();
 	}
 
 	@Override
@@ -959,6 +1095,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setMinorTickColor(Paint color) {
 		this.minorTickColor = color;
+		modified();
 	}
 
 	@Override
@@ -970,6 +1107,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	public void setCustomTicks(Map<Double, String> positionsAndLabels) {
 		customTicks.clear();
 		customTicks.putAll(positionsAndLabels);
+		modified();
 	}
 
 	@Override
@@ -980,6 +1118,7 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setLabel(Label label) {
 		this.label = label;
+		modified();
 	}
 
 	@Override
@@ -990,5 +1129,19 @@ public abstract class AbstractAxisRenderer2D implements AxisRenderer, Serializab
 	@Override
 	public void setLabelDistance(double distance) {
 		this.labelDistance = distance;
+		modified();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this renderer changes.
+	 */
+	protected void modified() {
+		modificationCount++;
 	}
 }
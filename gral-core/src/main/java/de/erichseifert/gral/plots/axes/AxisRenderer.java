@@ -94,6 +94,21 @@ public interface AxisRenderer {
 	 */
 	PointND<Double> getPosition(Axis axis, Number value, boolean extrapolate, boolean forceLinear);
 
+	/**
+	 * Determines the positions of several values on the axis at once. The
+	 * positions are returned in view coordinates and values that are not on
+	 * the axis are extrapolated. Values without a position, e.g. <i>NaN</i>,
+	 * result in <i>NaN</i> coordinates.
+	 * @param axis Axis
+	 * @param values World coordinate values to convert
+	 * @param n Number of values to convert
+	 * @param outX Array that receives the x coordinates, or {@code null}
+	 *        if they aren't needed
+	 * @param outY Array that receives the y coordinates, or {@code null}
+	 *        if they aren't needed
+	 */
+	void getPositions(Axis axis, double[] values, int n, double[] outX, double[] outY);
+
 	/**
 	 * Returns the normal vector at the position of the specified value.
 	 * The vector is normalized.
@@ -64,6 +64,16 @@ public class LinearRenderer2D extends AbstractAxisRenderer2D {
 		return (val - min)/(max - min)*getShapeLength();
 	}
 
+	@Override
+	protected void worldToView(Axis axis, double[] values, int n, double[] viewValues) {
+		double min = axis.getMin().doubleValue();
+		double max = axis.getMax().doubleValue();
+		double scale = getShapeLength()/(max - min);
+		for (int i = 0; i < n; i++) {
+			viewValues[i] = (values[i] - min)*scale;
+		}
+	}
+
 	/**
 	 * Converts a view (screen) coordinate value to a world (axis) coordinate
 	 * value.
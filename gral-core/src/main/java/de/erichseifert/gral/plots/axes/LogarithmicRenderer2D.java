@@ -69,6 +69,19 @@ public class LogarithmicRenderer2D extends AbstractAxisRenderer2D {
 			(maxLog - minLog);
 	}
 
+	@Override
+	protected void worldToView(Axis axis, double[] values, int n, double[] viewValues) {
+		checkAxisBounds(axis);
+		double min = axis.getMin().doubleValue();
+		double max = axis.getMax().doubleValue();
+		double minLog = (min > 0.0) ? Math.log10(min) : 0.0;
+		double maxLog = (max > 0.0) ? Math.log10(max) : 1.0;
+		double scale = getShapeLength()/(maxLog - minLog);
+		for (int i = 0; i < n; i++) {
+			viewValues[i] = (Math.log10(values[i]) - minLog)*scale;
+		}
+	}
+
 	/**
 	 * Converts a view (screen) coordinate value to a world (axis) coordinate
 	 * value.
@@ -44,6 +44,7 @@ import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.graphics.Insets2D;
 import de.erichseifert.gral.graphics.Label;
 import de.erichseifert.gral.graphics.Location;
+import de.erichseifert.gral.graphics.Modifiable;
 import de.erichseifert.gral.graphics.Orientation;
 import de.erichseifert.gral.graphics.layout.EdgeLayout;
 import de.erichseifert.gral.graphics.layout.Layout;
@@ -63,7 +64,7 @@ import de.erichseifert.gral.util.SerializationUtils;
  * derived classes.</p>
  */
 public abstract class AbstractLegend extends DrawableContainer
-		implements Legend {
+		implements Legend, Modifiable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -1561976879958765700L;
 
@@ -92,6 +93,8 @@ public abstract class AbstractLegend extends DrawableContainer
 	private Dimension2D gap;
 	/** Symbol size relative to the font height. */
 	private Dimension2D symbolSize;
+	/** Number of changes to the settings of this legend. */
+	private transient long modificationCount;
 
 	/**
 	 * An abstract base class for drawable symbols.
@@ -235,6 +238,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	 */
 	public void add(DataSource source) {
 		sources.add(source);
+		modified();
 	}
 
 	/**
@@ -253,6 +257,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	 */
 	public void remove(DataSource source) {
 		sources.remove(source);
+		modified();
 	}
 
 	/**
@@ -347,6 +352,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setBaseFont(Font baseFont) {
 		this.baseFont = baseFont;
+		modified();
 	}
 
 	@Override
@@ -357,6 +363,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setBackground(Paint background) {
 		this.background = background;
+		modified();
 	}
 
 	@Override
@@ -367,6 +374,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setBorderStroke(Stroke borderStroke) {
 		this.borderStroke = borderStroke;
+		modified();
 	}
 
 	@Override
@@ -378,6 +386,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	public void setFont(Font font) {
 		this.font = font;
 		setDrawableFonts(font);
+		modified();
 	}
 
 	@Override
@@ -388,6 +397,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setBorderColor(Paint borderColor) {
 		this.borderColor = borderColor;
+		modified();
 	}
 
 	@Override
@@ -399,6 +409,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	public void setOrientation(Orientation orientation) {
 		this.orientation = orientation;
 		refreshLayout();
+		modified();
 	}
 
 	@Override
@@ -409,6 +420,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setAlignmentX(double alignmentX) {
 		this.alignmentX = alignmentX;
+		modified();
 	}
 
 	@Override
@@ -419,6 +431,7 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setAlignmentY(double alignmentY) {
 		this.alignmentY = alignmentY;
+		modified();
 	}
 
 	@Override
@@ -433,6 +446,7 @@ public abstract class AbstractLegend extends DrawableContainer
 			double fontSize = getFont().getSize2D();
 			this.gap.setSize(this.gap.getWidth()*fontSize, this.gap.getHeight()*fontSize);
 		}
+		modified();
 	}
 
 	@Override
@@ -443,5 +457,19 @@ public abstract class AbstractLegend extends DrawableContainer
 	@Override
 	public void setSymbolSize(Dimension2D symbolSize) {
 		this.symbolSize = symbolSize;
+		modified();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this legend changes.
+	 */
+	protected void modified() {
+		modificationCount++;
 	}
 }
@@ -185,6 +185,7 @@ public abstract class ValueLegend extends AbstractLegend
 	public void setLabelColumn(int labelColumn) {
 		this.labelColumn = labelColumn;
 		refresh();
+		modified();
 	}
 
 	/**
@@ -202,6 +203,7 @@ public abstract class ValueLegend extends AbstractLegend
 	public void setLabelFormat(Format labelFormat) {
 		this.labelFormat = labelFormat;
 		refresh();
+		modified();
 	}
 
 	/**
@@ -26,11 +26,18 @@ import java.awt.Color;
 import java.awt.Paint;
 import java.awt.Shape;
 import java.awt.Stroke;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
+import de.erichseifert.gral.graphics.Modifiable;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.util.SerializationUtils;
 
 
@@ -42,9 +49,14 @@ import de.erichseifert.gral.util.SerializationUtils;
  *   <li>Administration of settings</li>
  * </ul>
  */
-public abstract class AbstractLineRenderer2D implements LineRenderer, Serializable {
+public abstract class AbstractLineRenderer2D implements LineRenderer, Modifiable, Serializable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -4172505541305453796L;
+	/** Maximal distance between curves and the lines that approximate them
+	when gaps are cut. */
+	private static final double FLATNESS = 0.25;
+	/** Maximal distance between a point and the path that passes it. */
+	private static final double POINT_EPSILON = 1e-6;
 
 	/** Stroke to draw the line. */
 	private transient Stroke stroke;
@@ -53,8 +65,13 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 	/** Decides whether the shape of the gap between points and the line is
 	 * rounded. */
 	private boolean gapRounded;
+	/** Decides whether the line is cut with circles around the points
+	 * instead of the outlines of the point shapes. */
+	private boolean gapCircular;
 	/** Paint to fill the line. */
 	private Paint color;
+	/** Number of changes to the settings of this renderer. */
+	private transient long modificationCount;
 
 	/**
 	 * Initializes a new {@code AbstractLineRenderer2D} instance with
@@ -64,9 +81,208 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 		stroke = new BasicStroke(1.5f);
 		gap = 0.0;
 		gapRounded = false;
+		gapCircular = false;
 		color = Color.BLACK;
 	}
 
+	/**
+	 * Returns the geometric shape for this line. By default, the shape is
+	 * created from the list view of the points, which creates an object for
+	 * each point. Subclasses should override this method if they can use
+	 * the coordinates directly.
+	 * @param points Points used for creating the line.
+	 * @return Geometric shape for this line.
+	 */
+	public Shape getLineShape(ProjectedPoints points) {
+		return getLineShape(points.asList());
+	}
+
+	/**
+	 * Returns the geometric shape for this line with circular gaps around
+	 * the points. Each segment of the line is only cut by the circles of
+	 * the previous and the next point on the line.
+	 * @param points Points used for creating the line.
+	 * @param gapRadii Radius of the gap around each point.
+	 * @return Geometric shape for this line.
+	 */
+	public Shape getLineShape(ProjectedPoints points, double[] gapRadii) {
+		Shape path = getLinePath(points);
+		if (path == null) {
+			// Circles are subtracted from the stroked line
+			Shape line = getLineShape(points);
+			if (line == null) {
+				return null;
+			}
+			Area punched = new Area(line);
+			for (int i = 0; i < points.size(); i++) {
+				double r = gapRadii[i];
+				if (r > 0.0) {
+					punched.subtract(new Area(new Ellipse2D.Double(
+						points.getX(i) - r, points.getY(i) - r, 2.0*r, 2.0*r)));
+				}
+			}
+			return punched;
+		}
+		// Line caps extend the pieces beyond the points where they are cut
+		double capLength = 0.0;
+		Stroke stroke = getStroke();
+		if (stroke instanceof BasicStroke &&
+				((BasicStroke) stroke).getEndCap() != BasicStroke.CAP_BUTT) {
+			capLength = ((BasicStroke) stroke).getLineWidth()/2.0;
+		}
+		return stroke(punch(path, points, gapRadii, capLength));
+	}
+
+	/**
+	 * Returns the path of this line before it is stroked. The path must
+	 * pass all points in their order. Subclasses should override this
+	 * method to allow cutting gaps into the path. By default, {@code null}
+	 * is returned and gaps are subtracted from the stroked line.
+	 * @param points Points used for creating the line.
+	 * @return Path of this line, or {@code null}.
+	 */
+	protected Shape getLinePath(ProjectedPoints points) {
+		return null;
+	}
+
+	/**
+	 * Cuts circular gaps around the points into a path. The path is walked
+	 * segment by segment and each segment is clipped against the circles of
+	 * the last point that was passed and the next point.
+	 * @param path Path that passes all points in their order.
+	 * @param points Points on the path.
+	 * @param gapRadii Radius of the gap around each point.
+	 * @param capLength Length that is added to non-empty gaps.
+	 * @return Path with gaps.
+	 */
+	private static Path2D punch(Shape path, ProjectedPoints points,
+			double[] gapRadii, double capLength) {
+		Path2D punched = new Path2D.Double();
+		PathIterator i = new FlatteningPathIterator(path.getPathIterator(null), FLATNESS);
+		double[] coords = new double[6];
+		double[] cut = new double[4];
+		double x0 = 0.0;
+		double y0 = 0.0;
+		double moveX = 0.0;
+		double moveY = 0.0;
+		boolean connected = false;
+		int next = 0;
+		while (!i.isDone()) {
+			int type = i.currentSegment(coords);
+			if (type == PathIterator.SEG_MOVETO) {
+				x0 = coords[0];
+				y0 = coords[1];
+				moveX = x0;
+				moveY = y0;
+				connected = false;
+				next = getNextPoint(points, next, x0, y0);
+			} else {
+				double x1 = (type == PathIterator.SEG_CLOSE) ? moveX : coords[0];
+				double y1 = (type == PathIterator.SEG_CLOSE) ? moveY : coords[1];
+				double dx = x1 - x0;
+				double dy = y1 - y0;
+				if (dx != 0.0 || dy != 0.0) {
+					// Parameter ranges inside the circles of the neighbors
+					getInterval(points, gapRadii, capLength, next - 1, x0, y0, dx, dy, cut, 0);
+					getInterval(points, gapRadii, capLength, next, x0, y0, dx, dy, cut, 2);
+					if (cut[0] > cut[2]) {
+						swap(cut, 0, 2);
+						swap(cut, 1, 3);
+					}
+					// Remaining pieces: [0, start1], [end1, start2], [end2, 1]
+					double t = 0.0;
+					boolean complete = false;
+					for (int c = 0; c <= 4; c += 2) {
+						double tEnd = (c < 4) ? cut[c] : 1.0;
+						if (tEnd > t) {
+							if (!connected || t > 0.0) {
+								punched.moveTo(x0 + t*dx, y0 + t*dy);
+							}
+							punched.lineTo(x0 + tEnd*dx, y0 + tEnd*dy);
+							complete = tEnd >= 1.0;
+						}
+						if (c < 4) {
+							t = Math.max(t, cut[c + 1]);
+						}
+					}
+					connected = complete;
+				}
+				x0 = x1;
+				y0 = y1;
+				next = getNextPoint(points, next, x0, y0);
+			}
+			i.next();
+		}
+		return punched;
+	}
+
+	/**
+	 * Returns the index of the next point on the path after the specified
+	 * position on the path has been reached.
+	 * @param points Points on the path.
+	 * @param next Index of the next point before the position was reached.
+	 * @param x X coordinate of the position.
+	 * @param y Y coordinate of the position.
+	 * @return Index of the next point.
+	 */
+	private static int getNextPoint(ProjectedPoints points, int next, double x, double y) {
+		while (next < points.size() &&
+				Math.abs(points.getX(next) - x) <= POINT_EPSILON &&
+				Math.abs(points.getY(next) - y) <= POINT_EPSILON) {
+			next++;
+		}
+		return next;
+	}
+
+	/**
+	 * Determines the range of the parameter t for which the point
+	 * (x0 + t*dx, y0 + t*dy) lies inside the gap of a point. The range is
+	 * limited to [0, 1] and stored as two values in {@code cut}. Empty
+	 * ranges are stored as [1, 1].
+	 * @param points Points on the path.
+	 * @param gapRadii Radius of the gap around each point.
+	 * @param capLength Length that is added to non-empty gaps.
+	 * @param index Index of the point, or an invalid index.
+	 * @param x0 X coordinate of the segment start.
+	 * @param y0 Y coordinate of the segment start.
+	 * @param dx Horizontal extent of the segment.
+	 * @param dy Vertical extent of the segment.
+	 * @param cut Array that receives the range.
+	 * @param offset Index of the first value in {@code cut}.
+	 */
+	private static void getInterval(ProjectedPoints points, double[] gapRadii,
+			double capLength, int index, double x0, double y0, double dx, double dy,
+			double[] cut, int offset) {
+		cut[offset] = 1.0;
+		cut[offset + 1] = 1.0;
+		if (index < 0 || index >= points.size() || !(gapRadii[index] > 0.0)) {
+			return;
+		}
+		double r = gapRadii[index] + capLength;
+		double fx = x0 - points.getX(index);
+		double fy = y0 - points.getY(index);
+		double a = dx*dx + dy*dy;
+		double b = 2.0*(fx*dx + fy*dy);
+		double c = fx*fx + fy*fy - r*r;
+		double discriminant = b*b - 4.0*a*c;
+		if (discriminant <= 0.0) {
+			return;
+		}
+		double root = Math.sqrt(discriminant);
+		double t1 = Math.max(0.0, (-b - root)/(2.0*a));
+		double t2 = Math.min(1.0, (-b + root)/(2.0*a));
+		if (t1 < t2) {
+			cut[offset] = t1;
+			cut[offset + 1] = t2;
+		}
+	}
+
+	private static void swap(double[] values, int i, int j) {
+		double tmp = values[i];
+		values[i] = values[j];
+		values[j] = tmp;
+	}
+
 	/**
 	 * Returns the stroked shape of the specified line.
 	 * @param line Shape of the line.
@@ -119,6 +335,7 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 	@Override
 	public void setStroke(Stroke stroke) {
 		this.stroke = stroke;
+		modified();
 	}
 
 	@Override
@@ -129,6 +346,7 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 	@Override
 	public void setGap(double gap) {
 		this.gap = gap;
+		modified();
 	}
 
 	@Override
@@ -139,6 +357,18 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 	@Override
 	public void setGapRounded(boolean gapRounded) {
 		this.gapRounded = gapRounded;
+		modified();
+	}
+
+	@Override
+	public boolean isGapCircular() {
+		return gapCircular;
+	}
+
+	@Override
+	public void setGapCircular(boolean gapCircular) {
+		this.gapCircular = gapCircular;
+		modified();
 	}
 
 	@Override
@@ -149,5 +379,19 @@ public abstract class AbstractLineRenderer2D implements LineRenderer, Serializab
 	@Override
 	public void setColor(Paint color) {
 		this.color = color;
+		modified();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this renderer changes.
+	 */
+	protected void modified() {
+		modificationCount++;
 	}
 }
@@ -31,6 +31,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.util.GraphicsUtils;
 
 
@@ -94,4 +95,24 @@ public class DefaultLineRenderer2D extends AbstractLineRenderer2D {
 		}
 		return stroke(shape);
 	}
+
+	@Override
+	public Shape getLineShape(ProjectedPoints points) {
+		return stroke(getLinePath(points));
+	}
+
+	@Override
+	protected Shape getLinePath(ProjectedPoints points) {
+		// Construct shape
+		Path2D shape = new Path2D.Double(
+			Path2D.WIND_NON_ZERO, INITIAL_LINE_CAPACITY);
+		for (int i = 0; i < points.size(); i++) {
+			if (i == 0) {
+				shape.moveTo(points.getX(i), points.getY(i));
+			} else {
+				shape.lineTo(points.getX(i), points.getY(i));
+			}
+		}
+		return shape;
+	}
 }
@@ -31,6 +31,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.util.GraphicsUtils;
 import de.erichseifert.gral.graphics.Orientation;
 
@@ -87,6 +88,20 @@ public class DiscreteLineRenderer2D extends AbstractLineRenderer2D {
 	 * @return Geometric shape for this line.
 	 */
 	public Shape getLineShape(List<DataPoint> points) {
+		return stroke(createPath(points));
+	}
+
+	@Override
+	protected Shape getLinePath(ProjectedPoints points) {
+		return createPath(points.asList());
+	}
+
+	/**
+	 * Returns the path of this line before it is stroked.
+	 * @param points Points used for creating the line.
+	 * @return Path of this line.
+	 */
+	private Path2D createPath(List<DataPoint> points) {
 		Orientation dir = getAscentDirection();
 		double ascendingPoint = getAscendingPoint().doubleValue();
 
@@ -113,7 +128,7 @@ public class DiscreteLineRenderer2D extends AbstractLineRenderer2D {
 			}
 		}
 
-		return stroke(shape);
+		return shape;
 	}
 
 	/**
@@ -130,6 +145,7 @@ public class DiscreteLineRenderer2D extends AbstractLineRenderer2D {
 	 */
 	public void setAscentDirection(Orientation ascentDirection) {
 		this.ascentDirection = ascentDirection;
+		modified();
 	}
 
 	/**
@@ -146,5 +162,6 @@ public class DiscreteLineRenderer2D extends AbstractLineRenderer2D {
 	 */
 	public void setAscendingPoint(Number ascendingPoint) {
 		this.ascendingPoint = ascendingPoint;
+		modified();
 	}
 }
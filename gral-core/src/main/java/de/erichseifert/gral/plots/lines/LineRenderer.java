@@ -28,6 +28,7 @@ import java.util.List;
 
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 
 
 /**
@@ -47,6 +48,26 @@ public interface LineRenderer {
 	 */
 	Shape getLineShape(List<DataPoint> points);
 
+	/**
+	 * Returns the geometric shape for this line. The coordinates are read
+	 * from the arrays of the projected points, so no objects have to be
+	 * created for each point.
+	 * @param points Points used for creating the line.
+	 * @return Geometric shape for this line.
+	 */
+	Shape getLineShape(ProjectedPoints points);
+
+	/**
+	 * Returns the geometric shape for this line with circular gaps around
+	 * the points. The line is cut where it enters the circle around the
+	 * previous or the next point on the line, so the effort grows linearly
+	 * with the number of points.
+	 * @param points Points used for creating the line.
+	 * @param gapRadii Radius of the gap around each point.
+	 * @return Geometric shape for this line.
+	 */
+	Shape getLineShape(ProjectedPoints points, double[] gapRadii);
+
 	/**
 	 * Returns a graphical representation for the line defined by
 	 * {@code points}.
@@ -94,6 +115,27 @@ public interface LineRenderer {
 	 */
 	void setGapRounded(boolean gapRounded);
 
+	/**
+	 * Returns whether the line is cut with circles around the points instead
+	 * of the outlines of the point shapes. By default, gaps follow the point
+	 * shapes and are computed with constructive area geometry, which is slow
+	 * for lines with many points. Circular gaps are cut in linear time, but
+	 * they ignore {@link #isGapRounded()}.
+	 * @return {@code true} if the gaps are circles around the points.
+	 */
+	boolean isGapCircular();
+
+	/**
+	 * Sets whether the line is cut with circles around the points instead
+	 * of the outlines of the point shapes. By default, gaps follow the point
+	 * shapes and are computed with constructive area geometry, which is slow
+	 * for lines with many points. Circular gaps are cut in linear time, but
+	 * they ignore {@link #isGapRounded()}.
+	 * @param gapCircular {@code true} if the gaps should be circles around
+	 *        the points.
+	 */
+	void setGapCircular(boolean gapCircular);
+
 	/**
 	 * Returns the paint to be used to paint the line shape.
 	 * @return Paint for line drawing.
@@ -31,6 +31,7 @@ import de.erichseifert.gral.graphics.AbstractDrawable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.DataPoint;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.util.GraphicsUtils;
 
 
@@ -86,6 +87,20 @@ public class SmoothLineRenderer2D extends AbstractLineRenderer2D {
 	 * @return Geometric shape for this line.
 	 */
 	public Shape getLineShape(List<DataPoint> points) {
+		return stroke(createPath(points));
+	}
+
+	@Override
+	protected Shape getLinePath(ProjectedPoints points) {
+		return createPath(points.asList());
+	}
+
+	/**
+	 * Returns the path of this line before it is stroked.
+	 * @param points Points used for creating the line.
+	 * @return Path of this line.
+	 */
+	private Path2D createPath(List<DataPoint> points) {
 		double smoothness = getSmoothness().doubleValue();
 
 		// Construct shape
@@ -108,7 +123,7 @@ public class SmoothLineRenderer2D extends AbstractLineRenderer2D {
 		}
 		addCurve(shape, p0, p1, p2, p3, ctrl1, ctrl2, smoothness);
 
-		return stroke(shape);
+		return shape;
 	}
 
 	/**
@@ -214,6 +229,7 @@ public class SmoothLineRenderer2D extends AbstractLineRenderer2D {
 	 */
 	public void setSmoothness(Number smoothness) {
 		this.smoothness = smoothness;
+		modified();
 	}
 
 }
@@ -35,6 +35,9 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Format;
 
+import de.erichseifert.gral.graphics.Drawable;
+import de.erichseifert.gral.graphics.Modifiable;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.colors.ColorMapper;
 import de.erichseifert.gral.plots.colors.SingleColor;
 import de.erichseifert.gral.graphics.Location;
@@ -45,7 +48,7 @@ import de.erichseifert.gral.util.SerializationUtils;
  * Abstract class implementing functions for the administration of settings.
  */
 public abstract class AbstractPointRenderer
-		implements PointRenderer, Serializable {
+		implements PointRenderer, Modifiable, Serializable {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -408976260196287753L;
 
@@ -87,6 +90,8 @@ public abstract class AbstractPointRenderer
 	private Shape errorShape;
 	/** Stroke to the shapes of the error indicators. */
 	private transient Stroke errorStroke;
+	/** Number of changes to the settings of this renderer. */
+	private transient long modificationCount;
 
 	/**
 	 * Creates a new AbstractPointRenderer object with default shape and
@@ -154,6 +159,7 @@ public abstract class AbstractPointRenderer
 	public void setShape(Shape shape) {
 		// TODO Store clone of shape to prevent external modification
 		this.shape = shape;
+		modified();
 	}
 
 	@Override
@@ -164,6 +170,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setColor(ColorMapper color) {
 		this.color = color;
+		modified();
 	}
 
 	@Override
@@ -179,6 +186,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueVisible(boolean valueVisible) {
 		this.valueVisible = valueVisible;
+		modified();
 	}
 
 	@Override
@@ -189,6 +197,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueColumn(int columnIndex) {
 		this.valueColumn = columnIndex;
+		modified();
 	}
 
 	@Override
@@ -199,6 +208,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueFormat(Format format) {
 		this.valueFormat = format;
+		modified();
 	}
 
 	@Override
@@ -209,6 +219,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueLocation(Location location) {
 		this.valueLocation = location;
+		modified();
 	}
 
 	@Override
@@ -219,6 +230,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueAlignmentX(double alignmentX) {
 		this.valueAlignmentX = alignmentX;
+		modified();
 	}
 
 	@Override
@@ -229,6 +241,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueAlignmentY(double alignmentY) {
 		this.valueAlignmentY = alignmentY;
+		modified();
 	}
 
 	@Override
@@ -239,6 +252,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueRotation(double angle) {
 		this.valueRotation = angle;
+		modified();
 	}
 
 	@Override
@@ -249,6 +263,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueDistance(double distance) {
 		this.valueDistance = distance;
+		modified();
 	}
 
 	@Override
@@ -259,6 +274,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueColor(ColorMapper color) {
 		this.valueColor = color;
+		modified();
 	}
 
 	@Override
@@ -274,6 +290,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setValueFont(Font font) {
 		this.valueFont = font;
+		modified();
 	}
 
 	@Override
@@ -284,6 +301,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setErrorVisible(boolean errorVisible) {
 		this.errorVisible = errorVisible;
+		modified();
 	}
 
 	@Override
@@ -294,6 +312,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setErrorColumnTop(int columnIndex) {
 		this.errorColumnTop = columnIndex;
+		modified();
 	}
 
 	@Override
@@ -304,6 +323,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setErrorColumnBottom(int columnIndex) {
 		this.errorColumnBottom = columnIndex;
+		modified();
 	}
 
 	@Override
@@ -314,6 +334,7 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setErrorColor(ColorMapper color) {
 		this.errorColor = color;
+		modified();
 	}
 
 	@Override
@@ -330,6 +351,18 @@ public abstract class AbstractPointRenderer
 	public void setErrorShape(Shape shape) {
 		// TODO Store clone of shape to prevent external modification
 		this.errorShape = shape;
+		modified();
+	}
+
+	/**
+	 * Returns {@code null} by default, i.e. points are drawn one by one.
+	 * Subclasses may override this method to draw all points at once.
+	 * @param points Points to be drawn.
+	 * @return {@code null}.
+	 */
+	@Override
+	public Drawable getPoints(ProjectedPoints points) {
+		return null;
 	}
 
 	@Override
@@ -340,5 +373,19 @@ public abstract class AbstractPointRenderer
 	@Override
 	public void setErrorStroke(Stroke stroke) {
 		this.errorStroke = stroke;
+		modified();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Increments the modification count. This method has to be called
+	 * whenever a setting of this renderer changes.
+	 */
+	protected void modified() {
+		modificationCount++;
 	}
 }
@@ -22,14 +22,20 @@
 package de.erichseifert.gral.plots.points;
 
 import java.awt.BasicStroke;
+import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.text.Format;
 import java.text.NumberFormat;
 
@@ -40,9 +46,11 @@ import de.erichseifert.gral.graphics.DrawableContainer;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.graphics.layout.OuterEdgeLayout;
 import de.erichseifert.gral.graphics.Label;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.axes.AxisRenderer;
 import de.erichseifert.gral.plots.colors.ColorMapper;
+import de.erichseifert.gral.plots.colors.SingleColor;
 import de.erichseifert.gral.util.GraphicsUtils;
 import de.erichseifert.gral.graphics.Location;
 import de.erichseifert.gral.util.MathUtils;
@@ -55,6 +63,11 @@ public class DefaultPointRenderer2D extends AbstractPointRenderer {
 	/** Version id for serialization. */
 	private static final long serialVersionUID = -895832597380598383L;
 
+	/** Decides whether the points are drawn by the methods of this class. */
+	private transient Boolean defaultPoint;
+	/** Cached image of the point shape. */
+	private transient volatile Sprite sprite;
+
 	@Override
 	public Drawable getPoint(final PointData data, final Shape shape) {
 		return new AbstractDrawable() {
@@ -86,6 +99,212 @@ public class DefaultPointRenderer2D extends AbstractPointRenderer {
 		};
 	}
 
+	/**
+	 * Returns a graphical representation of all specified points if all
+	 * points look the same, i.e. if they have the same shape and color and
+	 * no error bars. For bitmap targets the point shape is rasterized once
+	 * and the image is copied to the position of each point, which places
+	 * the points at whole pixels. For vector targets the shapes of opaque
+	 * points are merged and filled at once. Subclasses that override
+	 * {@link #getPointShape(PointData)} or
+	 * {@link #getPoint(PointData, Shape)} draw their points one by one.
+	 * @param points Points to be drawn.
+	 * @return Component that can be used to draw all points, or
+	 *         {@code null}.
+	 */
+	@Override
+	public Drawable getPoints(final ProjectedPoints points) {
+		final Shape shape = getShape();
+		ColorMapper colors = getColor();
+		if (shape == null || isErrorVisible() || !(colors instanceof SingleColor) ||
+				!isDefaultPoint()) {
+			return null;
+		}
+		final Paint paint = ((SingleColor) colors).getColor();
+		return new AbstractDrawable() {
+			/** Version id for serialization. */
+			private static final long serialVersionUID1 = -7493167437211946245L;
+
+			public void draw(DrawingContext context) {
+				Graphics2D graphics = context.getGraphics();
+				if (context.getTarget() == DrawingContext.Target.BITMAP) {
+					Sprite sprite = getSprite(graphics, shape, paint);
+					if (sprite != null) {
+						sprite.draw(graphics, points);
+						return;
+					}
+				}
+				if (paint instanceof Color && ((Color) paint).getAlpha() == 255 &&
+						shape.getPathIterator(null).getWindingRule() == PathIterator.WIND_NON_ZERO) {
+					// Overlapping opaque shapes look the same when filled at once
+					Path2D merged = new Path2D.Double(PathIterator.WIND_NON_ZERO);
+					AffineTransform tx = new AffineTransform();
+					for (int i = 0; i < points.size(); i++) {
+						tx.setToTranslation(points.getX(i), points.getY(i));
+						merged.append(shape.getPathIterator(tx), false);
+					}
+					GraphicsUtils.fillPaintedShape(graphics, merged, paint, null);
+					return;
+				}
+				AffineTransform txOrig = graphics.getTransform();
+				for (int i = 0; i < points.size(); i++) {
+					graphics.translate(points.getX(i), points.getY(i));
+					GraphicsUtils.fillPaintedShape(graphics, shape, paint, null);
+					graphics.setTransform(txOrig);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns whether the points are drawn by the methods of this class.
+	 * @return {@code true} if neither the shape nor the drawing of points
+	 *         is changed by a subclass.
+	 */
+	private boolean isDefaultPoint() {
+		Boolean defaultPoint = this.defaultPoint;
+		if (defaultPoint == null) {
+			try {
+				Class<?> shapeClass = getClass().getMethod(
+					"getPointShape", PointData.class).getDeclaringClass(); //$NON-NLS-1$
+				Class<?> pointClass = getClass().getMethod(
+					"getPoint", PointData.class, Shape.class).getDeclaringClass(); //$NON-NLS-1$
+				defaultPoint = shapeClass == DefaultPointRenderer2D.class &&
+					pointClass == DefaultPointRenderer2D.class;
+			} catch (NoSuchMethodException e) {
+				defaultPoint = false;
+			}
+			this.defaultPoint = defaultPoint;
+		}
+		return defaultPoint;
+	}
+
+	/**
+	 * Returns an image of the specified shape for the transformation and
+	 * the rendering hints of the graphics object. The last image is cached
+	 * and used again as long as the settings don't change.
+	 * @param graphics Graphics the points will be drawn to.
+	 * @param shape Shape of the points.
+	 * @param paint Paint used to fill the shape.
+	 * @return Image of the shape, or {@code null} if the transformation of
+	 *         the graphics object contains a rotation.
+	 */
+	private Sprite getSprite(Graphics2D graphics, Shape shape, Paint paint) {
+		AffineTransform tx = graphics.getTransform();
+		if ((tx.getType() & ~(AffineTransform.TYPE_TRANSLATION |
+				AffineTransform.TYPE_MASK_SCALE)) != 0 ||
+				tx.getScaleX() <= 0.0 || tx.getScaleY() <= 0.0) {
+			return null;
+		}
+		RenderingHints hints = graphics.getRenderingHints();
+		Sprite sprite = this.sprite;
+		if (sprite == null || !sprite.isCreatedFor(shape, paint, tx, hints)) {
+			sprite = new Sprite(shape, paint, tx, hints);
+			this.sprite = sprite;
+		}
+		return sprite;
+	}
+
+	/**
+	 * Class that stores a rasterized point shape in device coordinates.
+	 */
+	private static final class Sprite {
+		/** Shape that has been rasterized. */
+		private final Shape shape;
+		/** Paint that has been used to fill the shape. */
+		private final Paint paint;
+		/** Horizontal scaling factor of the transformation. */
+		private final double scaleX;
+		/** Vertical scaling factor of the transformation. */
+		private final double scaleY;
+		/** Rendering hints that have been used. */
+		private final RenderingHints hints;
+		/** Image of the shape. */
+		private final BufferedImage image;
+		/** Horizontal offset of the image from the point position. */
+		private final int offsetX;
+		/** Vertical offset of the image from the point position. */
+		private final int offsetY;
+
+		/**
+		 * Rasterizes the specified shape.
+		 * @param shape Shape to be rasterized.
+		 * @param paint Paint used to fill the shape.
+		 * @param tx Transformation from view to device coordinates.
+		 * @param hints Rendering hints.
+		 */
+		public Sprite(Shape shape, Paint paint, AffineTransform tx, RenderingHints hints) {
+			this.shape = shape;
+			this.paint = paint;
+			this.hints = hints;
+			scaleX = tx.getScaleX();
+			scaleY = tx.getScaleY();
+
+			AffineTransform scale = AffineTransform.getScaleInstance(scaleX, scaleY);
+			Rectangle2D bounds = scale.createTransformedShape(shape).getBounds2D();
+			// One pixel of space for anti-aliased edges
+			offsetX = (int) Math.floor(bounds.getMinX()) - 1;
+			offsetY = (int) Math.floor(bounds.getMinY()) - 1;
+			int width = (int) Math.ceil(bounds.getMaxX()) + 1 - offsetX;
+			int height = (int) Math.ceil(bounds.getMaxY()) + 1 - offsetY;
+
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+			Graphics2D imageGraphics = image.createGraphics();
+			imageGraphics.setRenderingHints(hints);
+			imageGraphics.translate(-offsetX, -offsetY);
+			imageGraphics.scale(scaleX, scaleY);
+			GraphicsUtils.fillPaintedShape(imageGraphics, shape, paint, null);
+			imageGraphics.dispose();
+		}
+
+		/**
+		 * Returns whether the image has been created with the specified
+		 * settings.
+		 * @param shape Shape of the points.
+		 * @param paint Paint used to fill the shape.
+		 * @param tx Transformation from view to device coordinates.
+		 * @param hints Rendering hints.
+		 * @return {@code true} if the image can be used.
+		 */
+		public boolean isCreatedFor(Shape shape, Paint paint,
+				AffineTransform tx, RenderingHints hints) {
+			return this.shape == shape && this.paint.equals(paint) &&
+				scaleX == tx.getScaleX() && scaleY == tx.getScaleY() &&
+				this.hints.equals(hints);
+		}
+
+		/**
+		 * Copies the image to the position of each point. Points outside
+		 * the clipping area are skipped.
+		 * @param graphics Graphics to be drawn to.
+		 * @param points Points in view coordinates.
+		 */
+		public void draw(Graphics2D graphics, ProjectedPoints points) {
+			AffineTransform txOrig = graphics.getTransform();
+			double translateX = txOrig.getTranslateX();
+			double translateY = txOrig.getTranslateY();
+			graphics.setTransform(new AffineTransform());
+			Rectangle clip = graphics.getClipBounds();
+			int width = image.getWidth();
+			int height = image.getHeight();
+			for (int i = 0; i < points.size(); i++) {
+				double deviceX = points.getX(i)*scaleX + translateX;
+				double deviceY = points.getY(i)*scaleY + translateY;
+				if (!MathUtils.isCalculatable(deviceX) || !MathUtils.isCalculatable(deviceY)) {
+					continue;
+				}
+				int x = (int) Math.round(deviceX) + offsetX;
+				int y = (int) Math.round(deviceY) + offsetY;
+				if (clip != null && (x >= clip.x + clip.width || y >= clip.y + clip.height ||
+						x + width <= clip.x || y + height <= clip.y)) {
+					continue;
+				}
+				graphics.drawImage(image, x, y, null);
+			}
+			graphics.setTransform(txOrig);
+		}
+	}
+
 	/**
 	 * Draws the specified value label for the specified shape.
 	 * @param context Environment used for drawing.
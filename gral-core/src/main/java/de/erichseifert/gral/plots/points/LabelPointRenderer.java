@@ -75,6 +75,7 @@ public class LabelPointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setColumn(int column) {
 		this.column = column;
+		modified();
 	}
 
 	/**
@@ -93,6 +94,7 @@ public class LabelPointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setFormat(Format format) {
 		this.format = format;
+		modified();
 	}
 
 	/**
@@ -109,6 +111,7 @@ public class LabelPointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setFont(Font font) {
 		this.font = font;
+		modified();
 	}
 
 	/**
@@ -127,6 +130,7 @@ public class LabelPointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setAlignmentX(double alignmentX) {
 		this.alignmentX = alignmentX;
+		modified();
 	}
 
 	/**
@@ -145,6 +149,7 @@ public class LabelPointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setAlignmentY(double alignmentY) {
 		this.alignmentY = alignmentY;
+		modified();
 	}
 
 	@Override
@@ -28,6 +28,7 @@ import java.awt.Stroke;
 import java.text.Format;
 
 import de.erichseifert.gral.graphics.Drawable;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.colors.ColorMapper;
 import de.erichseifert.gral.graphics.Location;
 
@@ -314,6 +315,19 @@ public interface PointRenderer {
 	 */
 	Drawable getPoint(PointData data, Shape shape);
 
+	/**
+	 * Returns a graphical representation of all specified points. This
+	 * allows renderers to draw large numbers of points without creating
+	 * objects for each point. If the points have to be drawn one by one
+	 * with {@link #getPoint(PointData, Shape)}, {@code null} is returned.
+	 * The returned component must be drawn immediately since the points are
+	 * reused.
+	 * @param points Points to be drawn.
+	 * @return Component that can be used to draw all points, or
+	 *         {@code null}.
+	 */
+	Drawable getPoints(ProjectedPoints points);
+
 	/**
 	 * Returns a graphical representation of the value label to be drawn for
 	 * the specified data value.
@@ -61,6 +61,7 @@ public class SizeablePointRenderer extends DefaultPointRenderer2D {
 	 */
 	public void setColumn(int column) {
 		this.column = column;
+		modified();
 	}
 
 	@Override
@@ -389,6 +389,37 @@ public abstract class MathUtils {
 		return values.get(i) + (values.get(i + 1) - values.get(i))*(c + d*xFrac);
 	}
 
+	/**
+	 * Utility method used to calculate arbitrary quantiles from a sorted
+	 * array of values. The same method as in
+	 * {@link #quantile(List, double)} is used.
+	 * @param values Sorted data values.
+	 * @param q Quantile in range [0, 1]
+	 * @return Quantile value
+	 */
+	public static double quantile(double[] values, double q) {
+		// R type 7 parameters
+		double a = 1.0, b = -1.0, c = 0.0, d = 1.0;
+		// Number of samples
+		int n = values.length;
+
+		double x = a + (n + b) * q - 1.0;
+		double xInt = (int) x;
+		double xFrac = x - xInt;
+
+		if (xInt < 0) {
+			return values[0];
+		} else if (xInt >= n) {
+			return values[n - 1];
+		}
+
+		int i = (int) xInt;
+		if (xFrac == 0) {
+			return values[i];
+		}
+		return values[i] + (values[i + 1] - values[i])*(c + d*xFrac);
+	}
+
 	/**
 	 * Returns whether a specified {@code java.lang.Number} object can be
 	 * used for calculations. {@code null} values, {@code NaN} values
@@ -23,6 +23,8 @@ package de.erichseifert.gral.data;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import java.util.Arrays;
@@ -124,4 +126,42 @@ public class AbstractDataSourceTest {
 		DataSource rowStatistics = source.getRowStatistics(Statistics.N);
 		assertThat(rowStatistics.getRowCount(), is(rowCount));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testGetDoubleReturnsNaNForNonNumericValues() {
+		source = new StubAbstractDataSource(2, 3);
+		assertEquals(Double.NaN, source.getDouble(0, 0), 0.0);
+		assertThat(source.isNumericDense(0), is(false));
+	}
+
+	@Test
+	public void testCopyColumnUsesGetDouble() {
+		DataTable table = new DataTable(Integer.class, Double.class);
+		table.add(1, 2.0);
+		table.add(3, null);
+		table.add(5, 6.0);
+		double[] values = new double[2];
+
+		table.copyColumn(1, values, 1, 2);
+
+		assertEquals(Double.NaN, values[0], 0.0);
+		assertEquals(6.0, values[1], 0.0);
+		assertEquals(3.0, table.getDouble(0, 1), 0.0);
+	}
+
+	@Test
+	public void testSnapshotIsReusedUntilVersionChanges() {
+		StubAbstractDataSource stub = new StubAbstractDataSource(2, 3);
+		DataSource snapshot = stub.snapshot();
+		assertEquals(stub.getVersion(), snapshot.getVersion());
+		assertEquals(3, snapshot.getRowCount());
+		assertEquals(2, snapshot.getColumnCount());
+		assertSame(snapshot, stub.snapshot());
+		assertSame(snapshot, snapshot.snapshot());
+
+		stub.notifyDataUpdated(new DataChangeEvent(stub, 0, 0, null, null));
+		DataSource changed = stub.snapshot();
+		assertNotSame(snapshot, changed);
+		assertEquals(stub.getVersion(), changed.getVersion());
+	}
+}
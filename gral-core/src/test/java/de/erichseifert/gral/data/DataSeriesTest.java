@@ -102,6 +102,19 @@ public class DataSeriesTest {
 		assertNull(series.get(series.getColumnCount(), series.getRowCount()));
 	}
 
+	@Test
+	public void testGetDouble() {
+		DataSeries series = new DataSeries(table, 2, 1);
+
+		for (int row = 0; row < series.getRowCount(); row++) {
+			assertEquals(((Number) table.get(2, row)).doubleValue(), series.getDouble(0, row), 0.0);
+			assertEquals(((Number) table.get(1, row)).doubleValue(), series.getDouble(1, row), 0.0);
+		}
+
+		// Invalid index
+		assertEquals(Double.NaN, series.getDouble(2, 0), 0.0);
+	}
+
 	@Test
 	public void testGetColumnCount() {
 		DataSeries series = new DataSeries(table, 2, 1);
@@ -115,4 +128,20 @@ public class DataSeriesTest {
 		assertEquals(series.getName(), series.toString());
 	}
 
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataTable data = new DataTable(Integer.class, Integer.class);
+		data.add(1, 2);
+		DataSeries series = new DataSeries("foo", data, 1, 0);
+		DataSource snapshot = series.snapshot();
+		assertEquals(data.getVersion(), series.getVersion());
+
+		data.add(3, 4);
+		assertEquals(1, snapshot.getRowCount());
+		assertEquals(2, snapshot.get(0, 0));
+		assertEquals("foo", snapshot.getName());
+		assertEquals(2, series.getRowCount());
+	}
 }
@@ -26,10 +26,13 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
@@ -371,6 +374,113 @@ public class DataTableTest {
 		assertEquals(cols * rows, listener.removed.length);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAddAllSendsSingleRangeEvent() {
+		MockDataListener listener = new MockDataListener();
+		table.addDataListener(listener);
+		int sizeBefore = table.getRowCount();
+
+		int firstRow = table.addAll(Arrays.asList(
+			Arrays.asList(12, 34), Arrays.asList(56, 78), Arrays.asList(90, 12)));
+
+		assertEquals(sizeBefore, firstRow);
+		assertEquals(sizeBefore + 3, table.getRowCount());
+		assertEquals(56, table.get(0, firstRow + 1));
+		assertEquals(2, listener.added.length);
+		assertEquals(1, listener.added[1].getCol());
+		assertEquals(firstRow, listener.added[1].getRow());
+		assertEquals(3, listener.added[1].getRowCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAddAllWithWrongTypeAddsNothing() {
+		int sizeBefore = table.getRowCount();
+		try {
+			table.addAll(Arrays.asList(
+				Arrays.<Comparable<?>>asList(1, 2), Arrays.<Comparable<?>>asList(1.0, 2)));
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		assertEquals(sizeBefore, table.getRowCount());
+	}
+
+	@Test
+	public void testUpdateDefersAddEvents() {
+		MockDataListener listener = new MockDataListener();
+		table.addDataListener(listener);
+		int sizeBefore = table.getRowCount();
+
+		table.beginUpdate();
+		table.add(12, 34);
+		table.beginUpdate();
+		table.add(56, 78);
+		table.endUpdate();
+		assertNull(listener.added);
+		table.endUpdate();
+
+		assertNotNull(listener.added);
+		assertEquals(2, listener.added.length);
+		assertEquals(sizeBefore, listener.added[0].getRow());
+		assertEquals(2, listener.added[0].getRowCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testEndUpdateWithoutBeginUpdateFails() {
+		table.endUpdate();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSlidingWindowAcrossChunks() {
+		DataTable table = new DataTable(Integer.class, Integer.class);
+		for (int i = 0; i < 3000; i++) {
+			table.add(i, -i);
+		}
+		for (int i = 3000; i < 5000; i++) {
+			table.add(i, -i);
+			table.remove(0);
+		}
+		assertEquals(3000, table.getRowCount());
+		assertEquals(2000, table.get(0, 0));
+		assertEquals(-4999, table.get(1, 2999));
+
+		table.remove(1500);
+		table.removeLast();
+		table.add(42, 42);
+		assertEquals(2999, table.getRowCount());
+		assertEquals(3501, table.get(0, 1500));
+		assertEquals(4998, table.get(0, 2997));
+		assertEquals(42, table.get(0, 2998));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testReadWhileAppending() throws InterruptedException {
+		final DataTable table = new DataTable(Integer.class, Integer.class);
+		final int rowCount = 20000;
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < rowCount; i++) {
+					table.add(i, 2*i);
+				}
+			}
+		};
+		writer.start();
+		int rowsRead = 0;
+		while (rowsRead < rowCount) {
+			rowsRead = table.getRowCount();
+			if (rowsRead > 0) {
+				int row = rowsRead - 1;
+				assertEquals(row, table.get(0, row));
+				assertEquals(2*row, table.get(1, row));
+			}
+		}
+		writer.join();
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		DataSource original = table;
@@ -405,4 +515,25 @@ public class DataTableTest {
 		table.setName("name");
 		assertEquals("name", table.getName());
 	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataSource snapshot = table.snapshot();
+		long version = table.getVersion();
+		assertEquals(version, snapshot.getVersion());
+
+		table.add(9, 12);
+		table.remove(0);
+		table.set(1, 0, 42);
+		assertTrue(table.getVersion() > version);
+
+		// The snapshot isn't affected by the changes
+		assertEquals(version, snapshot.getVersion());
+		assertEquals(8, snapshot.getRowCount());
+		assertEquals(1, snapshot.get(0, 0));
+		assertEquals(3, snapshot.get(1, 1));
+		assertEquals(11, snapshot.get(1, 7));
+		assertSame(snapshot, snapshot.snapshot());
+	}
 }
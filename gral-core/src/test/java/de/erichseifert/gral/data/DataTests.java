@@ -34,6 +34,8 @@ import de.erichseifert.gral.data.statistics.StatisticsTests;
 	// Tests for classes
 	AbstractDataSourceTest.class,
 	DataTableTest.class,
+	DoubleColumnTableTest.class,
+	RingBufferDataTableTest.class,
 	DataSeriesTest.class,
 	RowSubsetTest.class,
 	EnumeratedDataTest.class,
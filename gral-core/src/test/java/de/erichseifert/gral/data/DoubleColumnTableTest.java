@@ -0,0 +1,355 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.comparators.Ascending;
+import de.erichseifert.gral.data.comparators.Descending;
+import de.erichseifert.gral.data.statistics.Statistics;
+
+public class DoubleColumnTableTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private static class MockDataListener implements DataListener {
+		private DataChangeEvent[] added;
+		private DataChangeEvent[] updated;
+		private DataChangeEvent[] removed;
+
+		public void dataAdded(DataSource source, DataChangeEvent... events) {
+			added = events;
+		}
+
+		public void dataUpdated(DataSource source, DataChangeEvent... events) {
+			updated = events;
+		}
+
+		public void dataRemoved(DataSource source, DataChangeEvent... events) {
+			removed = events;
+		}
+	}
+
+	private DoubleColumnTable table;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		table = new DoubleColumnTable(Integer.class, Double.class);
+		table.add(1, 1.0); // 0
+		table.add(2, 3.0); // 1
+		table.add(3, 2.0); // 2
+		table.add(4, 6.0); // 3
+		table.add(5, 4.0); // 4
+		table.add(6, 8.0); // 5
+		table.add(7, 9.0); // 6
+		table.add(8, 11.0); // 7
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCreate() {
+		DoubleColumnTable table1 = new DoubleColumnTable(Integer.class, Double.class, Long.class, Float.class);
+		assertEquals(4, table1.getColumnCount());
+		assertEquals(0, table1.getRowCount());
+		assertArrayEquals(new Class<?>[] {Integer.class, Double.class, Long.class, Float.class},
+			table1.getColumnTypes());
+
+		DoubleColumnTable table2 = new DoubleColumnTable(3, Double.class);
+		assertEquals(3, table2.getColumnCount());
+
+		DoubleColumnTable table3 = new DoubleColumnTable(table);
+		assertEquals(table.getRowCount(), table3.getRowCount());
+		for (int row = 0; row < table.getRowCount(); row++) {
+			assertEquals(table.getRecord(row), table3.getRecord(row));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	@SuppressWarnings("unchecked")
+	public void testCreateWithNonNumericColumnFails() {
+		new DoubleColumnTable(Double.class, String.class);
+	}
+
+	@Test
+	public void testAdd() {
+		int sizeBefore = table.getRowCount();
+		for (int i = 0; i < 100; i++) {
+			table.add(i, (double) -i);
+		}
+		int rowIndex = table.add(2, -3.0);
+		assertEquals(sizeBefore + 101, table.getRowCount());
+		assertEquals(table.getRowCount() - 1, rowIndex);
+		assertEquals(2, table.get(0, rowIndex));
+		assertEquals(-3.0, table.get(1, rowIndex));
+
+		// Wrong number of columns
+		try {
+			table.add(1);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		// Wrong type of columns
+		try {
+			table.add(1.0, 1.0);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testNullValues() {
+		int row = table.add(null, 2.0);
+		assertNull(table.get(0, row));
+		assertEquals(2.0, table.get(1, row));
+		assertEquals(Double.NaN, table.getDouble(0, row), DELTA);
+
+		table.set(0, row, 5);
+		assertEquals(5, table.get(0, row));
+	}
+
+	@Test
+	public void testGetIntInt() {
+		assertEquals(4, table.get(0, 3));
+		assertEquals(6.0, table.get(1, 3));
+		assertEquals(11.0, table.get(1, 7));
+		assertNull(table.get(0, table.getRowCount()));
+	}
+
+	@Test
+	public void testGetDouble() {
+		assertEquals(4.0, table.getDouble(0, 3), DELTA);
+		assertEquals(6.0, table.getDouble(1, 3), DELTA);
+	}
+
+	@Test
+	public void testSet() {
+		int sizeBefore = table.getRowCount();
+
+		table.set(1, 2, -1.0);
+		assertEquals(sizeBefore, table.getRowCount());
+		assertEquals(-1.0, table.get(1, 2));
+
+		// Integral values can be stored in integral columns
+		table.set(0, 2, 9.0);
+		assertEquals(9, table.get(0, 2));
+
+		// Non-integral values would be truncated
+		try {
+			table.set(0, 2, 2.5);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			table.set(0, 2, Double.NaN);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		assertEquals(9, table.get(0, 2));
+
+		// Values out of the range of the column type would be wrapped
+		try {
+			table.set(0, 2, (long) Integer.MAX_VALUE + 1L);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			table.set(0, 2, 1e10);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		table.set(0, 2, (long) Integer.MIN_VALUE);
+		assertEquals(Integer.MIN_VALUE, table.get(0, 2));
+
+		DoubleColumnTable shorts = new DoubleColumnTable(Short.class, Long.class);
+		shorts.add((short) 1, 1L);
+		try {
+			shorts.set(0, 0, 70000);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		shorts.set(1, 0, Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, shorts.get(1, 0));
+		try {
+			shorts.set(1, 0, 1e19);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+
+		// Illegal column index
+		try {
+			table.set(2, 0, 1);
+			fail("Expected IndexOutOfBoundsException exception.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+	@Test
+	public void testRemove() {
+		int sizeBefore = table.getRowCount();
+		table.remove(0);
+		assertEquals(sizeBefore - 1, table.getRowCount());
+		assertEquals(2, table.get(0, 0));
+		assertEquals(11.0, table.get(1, sizeBefore - 2));
+
+		table.removeLast();
+		assertEquals(sizeBefore - 2, table.getRowCount());
+		assertEquals(7, table.get(0, table.getRowCount() - 1));
+
+		// Invalid (negative) index
+		try {
+			table.remove(-1);
+			fail("Expected IndexOutOfBoundsException exception.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+		// Invalid (positive) index
+		try {
+			table.remove(table.getRowCount());
+			fail("Expected IndexOutOfBoundsException exception.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSort() {
+		DoubleColumnTable table = new DoubleColumnTable(Integer.class, Integer.class, Integer.class);
+		int[] original = {
+				9,	1,	3,
+				4,	4,	2,
+				4,	2,	1,
+				8,	1,	9,
+				8,	1,	7,
+				6,	2,	4,
+				4,	6,	5,
+				3,	3,	5
+		};
+		int i = 0;
+		while (i < original.length) {
+			table.add(original[i++], original[i++], original[i++]);
+		}
+
+		table.sort(new Ascending(1), new Descending(0), new Ascending(2));
+
+		int[] expected = {
+				9,	1,	3,
+				8,	1,	7,
+				8,	1,	9,
+				6,	2,	4,
+				4,	2,	1,
+				3,	3,	5,
+				4,	4,	2,
+				4,	6,	5
+		};
+		i = 0;
+		while (i < expected.length) {
+			assertEquals(expected[i], table.get(i%3, i/3));
+			i++;
+		}
+	}
+
+	@Test
+	public void testClear() {
+		table.clear();
+		assertEquals(0, table.getRowCount());
+	}
+
+	@Test
+	public void testEvents() {
+		MockDataListener listener = new MockDataListener();
+		table.addDataListener(listener);
+
+		int row = table.add(56, 78.0);
+		assertNotNull(listener.added);
+		assertEquals(2, listener.added.length);
+		assertEquals(row, listener.added[1].getRow());
+		assertEquals(78.0, listener.added[1].getNew());
+
+		table.set(1, row, 42.0);
+		assertNotNull(listener.updated);
+		assertEquals(78.0, listener.updated[0].getOld());
+		assertEquals(42.0, listener.updated[0].getNew());
+
+		table.remove(row);
+		assertNotNull(listener.removed);
+		assertEquals(2, listener.removed.length);
+		assertEquals(56, listener.removed[0].getOld());
+	}
+
+	@Test
+	public void testStatistics() {
+		assertEquals(16.0, table.getStatistics().get(Statistics.N), DELTA);
+		assertEquals(4.5, table.getColumn(0).getStatistics(Statistics.MEAN), DELTA);
+		assertEquals(11.0, table.getColumn(1).getStatistics(Statistics.MAX), DELTA);
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		DataSource original = table;
+		DataSource deserialized = TestUtils.serializeAndDeserialize(original);
+
+		assertArrayEquals(original.getColumnTypes(), deserialized.getColumnTypes());
+		assertEquals(original.getRowCount(), deserialized.getRowCount());
+		for (int row = 0; row < original.getRowCount(); row++) {
+			assertEquals(original.getRecord(row), deserialized.getRecord(row));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataSource snapshot = table.snapshot();
+		long version = table.getVersion();
+		assertEquals(version, snapshot.getVersion());
+
+		// Appended rows don't affect the snapshot
+		table.add(9, 12.0);
+		assertEquals(8, snapshot.getRowCount());
+
+		// Changed values are copied before they are overwritten
+		table.set(1, 0, 42.0);
+		table.remove(1);
+		table.set(0, 7, null);
+		assertTrue(table.getVersion() > version);
+		assertEquals(version, snapshot.getVersion());
+		assertEquals(1.0, snapshot.getDouble(1, 0), DELTA);
+		assertEquals(3.0, snapshot.getDouble(1, 1), DELTA);
+		assertEquals(8, snapshot.get(0, 7));
+		assertEquals(42.0, table.getDouble(1, 0), DELTA);
+		assertNull(table.get(0, 7));
+
+		double[] values = new double[3];
+		snapshot.copyColumn(1, values, 0, values.length);
+		assertArrayEquals(new double[] {1.0, 3.0, 2.0}, values, DELTA);
+	}
+}
@@ -65,6 +65,18 @@ public class EnumeratedDataTest {
 		assertEquals( 3.0, ((Number) withParams.get(0, 2)).doubleValue(), DELTA);
 	}
 
+	@Test
+	public void testGetDouble() {
+		EnumeratedData data = new EnumeratedData(table, -1, 2.0);
+		assertEquals(3.0, data.getDouble(0, 2), DELTA);
+		assertEquals(2.0, data.getDouble(1, 1), DELTA);
+
+		double[] enumeration = new double[2];
+		data.copyColumn(0, enumeration, 1, 2);
+		assertEquals(1.0, enumeration[0], DELTA);
+		assertEquals(3.0, enumeration[1], DELTA);
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		DataSource original = new EnumeratedData(table);
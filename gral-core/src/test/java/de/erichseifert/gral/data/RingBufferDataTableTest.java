@@ -0,0 +1,327 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.comparators.Ascending;
+
+public class RingBufferDataTableTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private static class MockDataListener implements DataListener {
+		private DataChangeEvent[] added;
+		private DataChangeEvent[] updated;
+		private DataChangeEvent[] removed;
+		private int notifications;
+
+		public void dataAdded(DataSource source, DataChangeEvent... events) {
+			added = events;
+			notifications++;
+		}
+
+		public void dataUpdated(DataSource source, DataChangeEvent... events) {
+			updated = events;
+			notifications++;
+		}
+
+		public void dataRemoved(DataSource source, DataChangeEvent... events) {
+			removed = events;
+			notifications++;
+		}
+	}
+
+	private RingBufferDataTable table;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		table = new RingBufferDataTable(4, Integer.class, Double.class);
+		table.add(1, 1.0);
+		table.add(2, 3.0);
+		table.add(3, 2.0);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCreate() {
+		assertEquals(4, table.getCapacity());
+		assertEquals(2, table.getColumnCount());
+		assertEquals(3, table.getRowCount());
+
+		RingBufferDataTable table2 = new RingBufferDataTable(10, 3, Double.class);
+		assertEquals(3, table2.getColumnCount());
+		assertEquals(0, table2.getRowCount());
+
+		try {
+			new RingBufferDataTable(0, Double.class);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new RingBufferDataTable(2, Double.class, String.class);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testAddEvictsOldestRows() {
+		assertEquals(3, table.add(4, 6.0));
+		assertEquals(3, table.add(5, 4.0));
+		assertEquals(3, table.add(6, 8.0));
+		assertEquals(4, table.getRowCount());
+		assertEquals(3, table.get(0, 0));
+		assertEquals(2.0, table.get(1, 0));
+		assertEquals(6, table.get(0, 3));
+		assertEquals(8.0, table.getDouble(1, 3), DELTA);
+		assertNull(table.get(0, 4));
+
+		// Wrong type of columns
+		try {
+			table.add(1.0, 1.0);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAddAll() {
+		List<List<Comparable<?>>> rows = Arrays.asList(
+			Arrays.<Comparable<?>>asList(4, 4.0),
+			Arrays.<Comparable<?>>asList(5, 5.0),
+			Arrays.<Comparable<?>>asList(6, 6.0));
+		MockDataListener listener = new MockDataListener();
+		table.addDataListener(listener);
+
+		assertEquals(1, table.addAll(rows));
+		assertEquals(4, table.getRowCount());
+		assertEquals(3, table.get(0, 0));
+		assertEquals(6, table.get(0, 3));
+		assertEquals(1, listener.notifications);
+		assertEquals(2, listener.updated.length);
+		assertEquals(2, listener.updated[0].getShift());
+
+		// More rows than the capacity
+		table.addAll(Arrays.asList(rows.get(0), rows.get(1), rows.get(2),
+			rows.get(0), rows.get(1)));
+		assertEquals(4, table.getRowCount());
+		assertEquals(5, table.get(0, 0));
+		assertEquals(5, table.get(0, 3));
+	}
+
+	@Test
+	public void testNullValues() {
+		int row = table.add(null, 2.0);
+		assertNull(table.get(0, row));
+		assertEquals(Double.NaN, table.getDouble(0, row), DELTA);
+		table.add(7, null);
+		table.add(8, 1.0);
+		assertEquals(8, table.get(0, 3));
+		assertNull(table.get(1, 2));
+		assertNull(table.get(0, 1));
+	}
+
+	@Test
+	public void testCopyColumn() {
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		table.add(6, 8.0);
+		double[] values = new double[4];
+		table.copyColumn(1, values, 0, 4);
+		assertArrayEquals(new double[] {2.0, 6.0, 4.0, 8.0}, values, DELTA);
+		table.copyColumn(0, values, 1, 3);
+		assertArrayEquals(new double[] {4.0, 5.0, 6.0, 8.0}, values, DELTA);
+	}
+
+	@Test
+	public void testSet() {
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		assertEquals(4.0, table.set(1, 3, 7.0));
+		assertEquals(7.0, table.get(1, 3));
+
+		// Values that would be truncated or wrapped are rejected
+		table.set(0, 3, 9.0);
+		assertEquals(9, table.get(0, 3));
+		try {
+			table.set(0, 3, 2.5);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			table.set(0, 3, (long) Integer.MAX_VALUE + 1L);
+			fail("Expected IllegalArgumentException exception.");
+		} catch (IllegalArgumentException e) {
+		}
+		assertEquals(9, table.get(0, 3));
+	}
+
+	@Test
+	public void testRemove() {
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		table.remove(0);
+		assertEquals(3, table.getRowCount());
+		assertEquals(3, table.get(0, 0));
+		table.remove(1);
+		assertEquals(2, table.getRowCount());
+		assertEquals(3, table.get(0, 0));
+		assertEquals(5, table.get(0, 1));
+		table.removeLast();
+		assertEquals(1, table.getRowCount());
+		table.add(6, 1.0);
+		assertEquals(6, table.get(0, 1));
+
+		// Invalid index
+		try {
+			table.remove(table.getRowCount());
+			fail("Expected IndexOutOfBoundsException exception.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+
+		table.clear();
+		assertEquals(0, table.getRowCount());
+	}
+
+	@Test
+	public void testSort() {
+		table.add(4, 6.0);
+		table.add(5, 0.0);
+		table.sort(new Ascending(1));
+		assertEquals(5, table.get(0, 0));
+		assertEquals(3, table.get(0, 1));
+		assertEquals(4, table.get(0, 3));
+	}
+
+	@Test
+	public void testEvents() {
+		MockDataListener listener = new MockDataListener();
+		table.addDataListener(listener);
+
+		// Table isn't full yet
+		int row = table.add(4, 6.0);
+		assertEquals(2, listener.added.length);
+		assertEquals(row, listener.added[1].getRow());
+		assertEquals(6.0, listener.added[1].getNew());
+		assertNull(listener.updated);
+
+		// Oldest row is evicted
+		table.add(5, 4.0);
+		assertEquals(2, listener.notifications);
+		assertEquals(2, listener.updated.length);
+		assertEquals(0, listener.updated[0].getRow());
+		assertEquals(4, listener.updated[0].getRowCount());
+		assertEquals(1, listener.updated[0].getShift());
+
+		table.remove(0);
+		assertEquals(2, listener.removed.length);
+		assertEquals(2, listener.removed[0].getOld());
+	}
+
+	@Test
+	public void testShiftIsForwardedByDataSeries() {
+		DataSeries series = new DataSeries(table, 1);
+		MockDataListener listener = new MockDataListener();
+		series.addDataListener(listener);
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		assertEquals(1, listener.updated.length);
+		assertEquals(1, listener.updated[0].getShift());
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		DataSource original = table;
+		DataSource deserialized = TestUtils.serializeAndDeserialize(original);
+
+		assertArrayEquals(original.getColumnTypes(), deserialized.getColumnTypes());
+		assertEquals(original.getRowCount(), deserialized.getRowCount());
+		for (int row = 0; row < original.getRowCount(); row++) {
+			assertEquals(original.getRecord(row), deserialized.getRecord(row));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataSource snapshot = table.snapshot();
+		long version = table.getVersion();
+
+		table.add(4, 6.0);
+		table.add(5, 4.0);
+		assertEquals(version, snapshot.getVersion());
+		assertEquals(3, snapshot.getRowCount());
+		assertEquals(1, snapshot.get(0, 0));
+		assertEquals(2.0, snapshot.getDouble(1, 2), DELTA);
+		assertEquals(2, table.get(0, 0));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshotOfLargeTable() {
+		// Spans several chunks of the column arrays
+		int capacity = 3000;
+		RingBufferDataTable large = new RingBufferDataTable(capacity, Long.class, Double.class);
+		for (int row = 0; row < capacity + 500; row++) {
+			large.add((long) row, (row % 100 == 0) ? null : row/2.0);
+		}
+		DataSource snapshot = large.snapshot();
+		for (int row = 0; row < 1500; row++) {
+			large.add((long) (capacity + 500 + row), -1.0);
+		}
+		large.set(1, 10, 7.0);
+		large.remove(capacity/2);
+		large.removeLast();
+
+		assertEquals(capacity, snapshot.getRowCount());
+		double[] values = new double[capacity];
+		snapshot.copyColumn(1, values, 0, capacity);
+		for (int row = 0; row < capacity; row++) {
+			long value = 500 + row;
+			assertEquals(value, snapshot.get(0, row));
+			double expected = (value % 100 == 0) ? Double.NaN : value/2.0;
+			assertEquals(expected, snapshot.getDouble(1, row), DELTA);
+			assertEquals(expected, values[row], DELTA);
+		}
+
+		assertEquals(capacity - 2, large.getRowCount());
+		assertEquals(2000L, large.get(0, 0));
+		assertEquals(7.0, large.getDouble(1, 10), DELTA);
+		assertEquals(null, large.get(1, 100));
+		assertEquals(-1.0, large.getDouble(1, capacity - 3), DELTA);
+	}
+}
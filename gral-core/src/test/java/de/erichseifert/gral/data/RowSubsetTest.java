@@ -130,6 +130,26 @@ public class RowSubsetTest {
 		assertTrue(data.getRowCount() < sizeBefore);
 	}
 
+	@Test
+	public void testSnapshot() {
+		long version = data.getVersion();
+		DataSource snapshot = data.snapshot();
+		assertEquals(version, snapshot.getVersion());
+		assertEquals(data.getRowCount(), snapshot.getRowCount());
+		for (int row = 0; row < data.getRowCount(); row++) {
+			assertEquals(data.get(1, row), snapshot.get(1, row));
+		}
+
+		// The snapshot keeps the rows that were accepted when it was taken
+		table.remove(1);
+		assertTrue(data.getVersion() > version);
+		assertEquals(4, snapshot.getRowCount());
+		assertEquals(3, snapshot.get(1, 0));
+		assertEquals(11, snapshot.get(1, 3));
+		assertEquals(11.0, snapshot.getDouble(1, 3), DELTA);
+		assertEquals(null, snapshot.get(1, 4));
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		DataSource original = data;
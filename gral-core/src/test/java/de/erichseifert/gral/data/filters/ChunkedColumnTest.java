@@ -0,0 +1,113 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ChunkedColumnTest {
+	private static final double DELTA = 0.0;
+
+	private static void assertValues(List<Double> expected, ChunkedColumn column) {
+		assertEquals(expected.size(), column.size());
+		double[] values = new double[column.size()];
+		column.copyTo(0, values, 0, values.length);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), column.get(i), DELTA);
+			assertEquals(expected.get(i), values[i], DELTA);
+		}
+	}
+
+	@Test
+	public void testCreate() {
+		double[] values = new double[2500];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i;
+		}
+		ChunkedColumn column = new ChunkedColumn(values);
+		assertEquals(values.length, column.size());
+		double[] copy = new double[values.length];
+		column.copyTo(0, copy, 0, copy.length);
+		assertArrayEquals(values, copy, DELTA);
+		assertEquals(0, new ChunkedColumn().size());
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		ChunkedColumn column = new ChunkedColumn();
+		List<Double> expected = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			column.add(i);
+			expected.add((double) i);
+			if (i > 0 && i % 3 == 0) {
+				// Sliding window
+				column.remove(0, 2);
+				expected.subList(0, 2).clear();
+			}
+		}
+		assertValues(expected, column);
+
+		column.remove(10, 5);
+		expected.subList(10, 15).clear();
+		assertValues(expected, column);
+
+		column.insert(20, 3);
+		for (int i = 0; i < 3; i++) {
+			column.set(20 + i, -i);
+			expected.add(20 + i, (double) -i);
+		}
+		assertValues(expected, column);
+
+		column.remove(0, column.size());
+		assertEquals(0, column.size());
+		column.add(1.0);
+		assertEquals(1.0, column.get(0), DELTA);
+	}
+
+	@Test
+	public void testSnapshot() {
+		ChunkedColumn column = new ChunkedColumn();
+		List<Double> expected = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			column.add(i);
+			expected.add((double) i);
+		}
+		ChunkedColumn snapshot = column.snapshot();
+
+		column.set(5, -1.0);
+		column.set(2000, new double[] {-2.0, -3.0}, 0, 2);
+		column.remove(0, 1500);
+		column.add(-4.0);
+		column.remove(100, 1);
+		column.insert(0, 1);
+		assertValues(expected, snapshot);
+
+		assertEquals(-2.0, column.get(500), DELTA);
+		assertEquals(-3.0, column.get(501), DELTA);
+		assertEquals(-4.0, column.get(column.size() - 1), DELTA);
+	}
+}
@@ -27,13 +27,20 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.DataSource;
 import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.data.RingBufferDataTable;
 import de.erichseifert.gral.data.statistics.Statistics;
+import de.erichseifert.gral.util.MathUtils;
 
 public class ConvolutionTest {
 	private static final double DELTA = TestUtils.DELTA;
@@ -165,6 +172,262 @@ public class ConvolutionTest {
 		assertEquals( 3.0, ((Number) filter.get(1, 7)).doubleValue(), DELTA);
 	}
 
+	private static class CountingConvolution extends Convolution {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 4629734251016843915L;
+
+		private int count;
+
+		public CountingConvolution(DataSource original, Kernel kernel, Mode mode, int... cols) {
+			super(original, kernel, mode, cols);
+		}
+
+		@Override
+		protected void filterColumn(int col, int first, double[] dst) {
+			count += dst.length;
+			super.filterColumn(col, first, dst);
+		}
+	}
+
+	private static void assertFiltered(DataSource original, Kernel kernel,
+			Filter2D.Mode mode, Filter2D filter) {
+		Filter2D expected = new Convolution(original, kernel, mode, 0);
+		assertEquals(expected.getRowCount(), filter.getRowCount());
+		for (int row = 0; row < expected.getRowCount(); row++) {
+			assertEquals(String.format("Wrong data in mode %s at row=%d.", mode, row),
+				expected.getDouble(0, row), filter.getDouble(0, row), DELTA);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testIncremental() {
+		Kernel asymmetric = new Kernel(1, new double[] {0.5, 0.25, 0.125, 0.125});
+		Filter2D.Mode[] modes = {
+			Filter2D.Mode.OMIT, Filter2D.Mode.ZERO, Filter2D.Mode.REPEAT,
+			Filter2D.Mode.MIRROR, Filter2D.Mode.CIRCULAR
+		};
+		for (Filter2D.Mode mode : modes) {
+			DataTable data = new DataTable(Double.class);
+			for (int row = 0; row < 20; row++) {
+				data.add(Math.sin(row));
+			}
+			CountingConvolution filter = new CountingConvolution(data, asymmetric, mode, 0);
+
+			filter.count = 0;
+			data.add(2.0);
+			assertFiltered(data, asymmetric, mode, filter);
+			if (mode != Filter2D.Mode.CIRCULAR) {
+				// Only the rows near the appended row are filtered again
+				assertTrue(filter.count <= 2*asymmetric.size() + 1);
+			}
+
+			data.set(0, 10, 3.0);
+			assertFiltered(data, asymmetric, mode, filter);
+			data.set(0, 0, -1.0);
+			assertFiltered(data, asymmetric, mode, filter);
+			data.remove(5);
+			assertFiltered(data, asymmetric, mode, filter);
+			data.remove(0);
+			assertFiltered(data, asymmetric, mode, filter);
+			data.removeLast();
+			assertFiltered(data, asymmetric, mode, filter);
+		}
+	}
+
+	@Test
+	public void testIncrementalEviction() {
+		RingBufferDataTable data = new RingBufferDataTable(20, 1, Double.class);
+		for (int row = 0; row < 20; row++) {
+			data.add(Math.sin(row));
+		}
+		CountingConvolution filter = new CountingConvolution(data, kernel, Filter2D.Mode.REPEAT, 0);
+		for (int row = 20; row < 30; row++) {
+			filter.count = 0;
+			data.add(Math.sin(row));
+			assertFiltered(data, kernel, Filter2D.Mode.REPEAT, filter);
+			assertTrue(filter.count <= 2*kernel.size() + 2);
+		}
+	}
+
+	@Test
+	public void testCopyColumn() {
+		Convolution filter = new Convolution(table, kernel, Filter2D.Mode.REPEAT, 0);
+		assertTrue(filter.isNumericDense(0));
+
+		double[] values = new double[5];
+		filter.copyColumn(0, values, 2, values.length);
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(filter.getDouble(0, 2 + i), values[i], 0.0);
+			assertEquals(filter.getDouble(0, 2 + i), ((Number) filter.get(0, 2 + i)).doubleValue(), 0.0);
+		}
+		// Unfiltered columns are copied from the original data source
+		filter.copyColumn(1, values, 0, values.length);
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(1.0, values[i], 0.0);
+		}
+
+		try {
+			filter.copyColumn(0, values, 4, values.length);
+			fail("Expected IndexOutOfBoundsException.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+		try {
+			filter.getDouble(0, table.getRowCount());
+			fail("Expected IndexOutOfBoundsException.");
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataTable data = new DataTable(Double.class, String.class);
+		for (int row = 0; row < 10; row++) {
+			data.add((double) row, String.valueOf(row));
+		}
+		Convolution filter = new Convolution(data, kernel, Filter2D.Mode.REPEAT, 0);
+		long version = filter.getVersion();
+		DataSource snapshot = filter.snapshot();
+		assertEquals(version, snapshot.getVersion());
+		assertEquals(filter.getColumnCount(), snapshot.getColumnCount());
+		assertEquals(filter.getRowCount(), snapshot.getRowCount());
+		assertTrue(snapshot.isNumericDense(0));
+		double[] expected = new double[filter.getRowCount()];
+		filter.copyColumn(0, expected, 0, expected.length);
+		for (int row = 0; row < filter.getRowCount(); row++) {
+			assertEquals(expected[row], snapshot.getDouble(0, row), 0.0);
+			assertEquals(filter.get(1, row), snapshot.get(1, row));
+		}
+
+		// The snapshot is not affected by changes of the filtered data
+		data.set(0, 4, 100.0);
+		data.add(10.0, "10");
+		assertTrue(filter.getVersion() > version);
+		assertTrue(filter.getDouble(0, 4) != expected[4]);
+		assertEquals(expected.length, snapshot.getRowCount());
+		double[] values = new double[expected.length];
+		snapshot.copyColumn(0, values, 0, values.length);
+		assertArrayEquals(expected, values, 0.0);
+		assertEquals(Double.NaN, snapshot.getDouble(0, expected.length), 0.0);
+	}
+
+	@Test
+	public void testSnapshotEviction() {
+		// Spans several chunks of the filtered columns
+		RingBufferDataTable data = new RingBufferDataTable(3000, 1, Double.class);
+		for (int row = 0; row < 3000; row++) {
+			data.add(Math.sin(row));
+		}
+		Convolution filter = new Convolution(data, kernel, Filter2D.Mode.REPEAT, 0);
+		DataSource snapshot = filter.snapshot();
+		double[] expected = new double[filter.getRowCount()];
+		filter.copyColumn(0, expected, 0, expected.length);
+
+		for (int row = 3000; row < 4500; row++) {
+			data.add(Math.cos(row));
+		}
+		assertFiltered(data, kernel, Filter2D.Mode.REPEAT, filter);
+		double[] values = new double[expected.length];
+		snapshot.copyColumn(0, values, 0, values.length);
+		assertArrayEquals(expected, values, 0.0);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallel() throws InterruptedException {
+		// Enough rows to split the columns into several blocks
+		Class[] types = new Class[8];
+		Arrays.fill(types, Double.class);
+		DataTable data = new DataTable(types);
+		Double[] row = new Double[types.length];
+		for (int rowIndex = 0; rowIndex < 40000; rowIndex++) {
+			for (int col = 0; col < row.length; col++) {
+				row[col] = Math.sin(rowIndex/(col + 1.0));
+			}
+			data.add(row);
+		}
+		Kernel asymmetric = new Kernel(1, new double[] {0.5, 0.25, 0.125, 0.125});
+		Convolution filter = new Convolution(data, asymmetric, Filter2D.Mode.REPEAT);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Convolution parallel = new Convolution(data, asymmetric, Filter2D.Mode.REPEAT);
+			parallel.setExecutor(executor);
+			parallel.filter();
+			assertEqualValues(filter, parallel);
+
+			row[0] = Double.NaN;
+			data.add(row);
+			assertEqualValues(new Convolution(data, asymmetric, Filter2D.Mode.REPEAT), parallel);
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	static void assertEqualValues(DataSource expected, DataSource actual) {
+		assertEquals(expected.getColumnCount(), actual.getColumnCount());
+		assertEquals(expected.getRowCount(), actual.getRowCount());
+		for (int col = 0; col < expected.getColumnCount(); col++) {
+			for (int row = 0; row < expected.getRowCount(); row++) {
+				assertEquals(String.format("Wrong data at col=%d, row=%d.", col, row),
+					expected.getDouble(col, row), actual.getDouble(col, row), DELTA);
+			}
+		}
+	}
+
+	private static double convolveDirectly(double[] values, Kernel kernel,
+			Filter2D.Mode mode, int row) {
+		double sum = 0.0;
+		for (int k = kernel.getMinIndex(); k <= kernel.getMaxIndex(); k++) {
+			int r = row + k;
+			double v;
+			if (r >= 0 && r < values.length) {
+				v = values[r];
+			} else if (mode == Filter2D.Mode.OMIT) {
+				v = Double.NaN;
+			} else if (mode == Filter2D.Mode.ZERO) {
+				v = 0.0;
+			} else {
+				v = values[Math.max(0, Math.min(r, values.length - 1))];
+			}
+			if (!MathUtils.isCalculatable(v)) {
+				return v;
+			}
+			sum += kernel.get(k)*v;
+		}
+		return sum;
+	}
+
+	@Test
+	public void testLargeKernels() {
+		double[] values = new double[3000];
+		DataTable data = new DataTable(Double.class);
+		for (int row = 0; row < values.length; row++) {
+			values[row] = Math.sin(row/50.0) + ((row % 7 == 0) ? 0.5 : 0.0);
+			if (row == 1500) {
+				values[row] = Double.POSITIVE_INFINITY;
+			}
+			data.add(values[row]);
+		}
+		Kernel[] kernels = {
+			Kernel.getBinomial(200).normalize(),
+			Kernel.getUniform(300, 20, 1.0/300.0)
+		};
+		Filter2D.Mode[] modes = {Filter2D.Mode.OMIT, Filter2D.Mode.ZERO, Filter2D.Mode.REPEAT};
+		for (Kernel largeKernel : kernels) {
+			for (Filter2D.Mode mode : modes) {
+				Convolution filter = new Convolution(data, largeKernel, mode, 0);
+				for (int row = 0; row < values.length; row++) {
+					assertEquals(String.format("Wrong data in mode %s at row=%d.", mode, row),
+						convolveDirectly(values, largeKernel, mode, row),
+						filter.getDouble(0, row), 1e-9);
+				}
+			}
+		}
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		Convolution original = new Convolution(table, kernel, Filter2D.Mode.ZERO, 0, 1);
@@ -0,0 +1,106 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
+
+public class Filter2DTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private static DataTable table;
+
+	/** Filter that adds its rows without calculating columns separately. */
+	private static class RowFilter extends Filter2D {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 2837485028756105614L;
+
+		public RowFilter(DataSource original, int... cols) {
+			super(original, Mode.OMIT, cols);
+			filter();
+		}
+
+		@Override
+		protected void filter() {
+			clear();
+			for (int row = 0; row < getOriginal().getRowCount(); row++) {
+				Double[] filteredRow = new Double[getColumnCountFiltered()];
+				for (int col = 0; col < filteredRow.length; col++) {
+					double value = getOriginal().getDouble(getIndexOriginal(col), row);
+					filteredRow[col] = 2.0*value;
+				}
+				add(filteredRow);
+			}
+		}
+	}
+
+	/** Filter that uses filterColumns() without implementing filterColumn. */
+	private static class IncompleteFilter extends RowFilter {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = -5028137716529480121L;
+
+		public IncompleteFilter(DataSource original) {
+			super(original);
+		}
+
+		@Override
+		protected void filter() {
+			clear();
+			filterColumns();
+		}
+	}
+
+	@BeforeClass
+	@SuppressWarnings("unchecked")
+	public static void setUpBeforeClass() {
+		table = new DataTable(Double.class, Double.class);
+		table.add(1.0, 2.0); // 0
+		table.add(3.0, 4.0); // 1
+	}
+
+	@Test
+	public void testRowFilter() {
+		RowFilter filter = new RowFilter(table, 1);
+		assertEquals(2, filter.getRowCount());
+		assertEquals(1.0, filter.getDouble(0, 0), DELTA);
+		assertEquals(4.0, filter.getDouble(1, 0), DELTA);
+		assertEquals(8.0, filter.getDouble(1, 1), DELTA);
+	}
+
+	@Test
+	public void testMissingFilterColumn() {
+		try {
+			new IncompleteFilter(table);
+			fail("Expected UnsupportedOperationException.");
+		} catch (UnsupportedOperationException e) {
+			assertTrue(e.getMessage().contains("filterColumn")); //$NON-NLS-1$
+		}
+	}
+}
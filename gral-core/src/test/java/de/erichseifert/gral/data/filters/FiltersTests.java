@@ -32,7 +32,11 @@ import org.junit.runners.Suite;
 	ConvolutionTest.class,
 	MedianTest.class,
 	ResizeTest.class,
-	AccumulationTest.class
+	AccumulationTest.class,
+	RunningMedianTest.class,
+	FourierTransformTest.class,
+	Filter2DTest.class,
+	ChunkedColumnTest.class
 })
 public class FiltersTests {
 }
@@ -0,0 +1,83 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FourierTransformTest {
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void testTransform() {
+		int size = 16;
+		Random random = new Random(7L);
+		double[] re = new double[size];
+		double[] im = new double[size];
+		for (int i = 0; i < size; i++) {
+			re[i] = random.nextGaussian();
+			im[i] = random.nextGaussian();
+		}
+		double[] reTransformed = re.clone();
+		double[] imTransformed = im.clone();
+		new FourierTransform(size).transform(reTransformed, imTransformed, false);
+
+		for (int k = 0; k < size; k++) {
+			double sumRe = 0.0;
+			double sumIm = 0.0;
+			for (int n = 0; n < size; n++) {
+				double angle = -2.0*Math.PI*k*n/size;
+				sumRe += re[n]*Math.cos(angle) - im[n]*Math.sin(angle);
+				sumIm += re[n]*Math.sin(angle) + im[n]*Math.cos(angle);
+			}
+			assertEquals(sumRe, reTransformed[k], DELTA);
+			assertEquals(sumIm, imTransformed[k], DELTA);
+		}
+	}
+
+	@Test
+	public void testInverse() {
+		int size = 1024;
+		Random random = new Random(3L);
+		double[] re = new double[size];
+		double[] im = new double[size];
+		for (int i = 0; i < size; i++) {
+			re[i] = random.nextGaussian();
+		}
+		double[] reTransformed = re.clone();
+		FourierTransform fft = new FourierTransform(size);
+		fft.transform(reTransformed, im, false);
+		fft.transform(reTransformed, im, true);
+		for (int i = 0; i < size; i++) {
+			assertEquals(re[i], reTransformed[i], DELTA);
+			assertEquals(0.0, im[i], DELTA);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new FourierTransform(12);
+	}
+}
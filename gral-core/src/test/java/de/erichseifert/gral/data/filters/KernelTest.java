@@ -66,6 +66,15 @@ public class KernelTest {
 		kernel = Kernel.getBinomial(1.0);
 		assertEquals(5, kernel.size());
 		assertEquals(2, kernel.getOffset());
+
+		// Kernel whose smallest values underflow
+		kernel = Kernel.getBinomial(2001);
+		double sum = 0.0;
+		for (int i = kernel.getMinIndex(); i <= kernel.getMaxIndex(); i++) {
+			sum += kernel.get(i);
+		}
+		assertEquals(1.0, sum, 1e-12);
+		assertEquals(0.0178, kernel.get(0), 1e-4);
 	}
 
 	@Test
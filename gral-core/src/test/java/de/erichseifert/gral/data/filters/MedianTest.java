@@ -25,6 +25,9 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -88,6 +91,80 @@ public class MedianTest {
 		assertEquals(0, filter.getOffset());
 	}
 
+	@Test
+	public void testValues() {
+		Median filter = new Median(table, 3, 1, Filter2D.Mode.REPEAT, 0, 1);
+		// Windows of three values return the middle value
+		double[] expected0 = {1.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 8.0};
+		double[] expected1 = {3.0, 5.0, 5.0, 6.0, 8.0, 8.0, 1.0, 1.0};
+		for (int row = 0; row < table.getRowCount(); row++) {
+			assertEquals(expected0[row], filter.getDouble(0, row), DELTA);
+			assertEquals(expected1[row], filter.getDouble(1, row), DELTA);
+		}
+	}
+
+	@Test
+	public void testIncremental() {
+		int[][] windows = {{3, 1}, {4, 0}, {5, 2}, {2, 4}};
+		Filter2D.Mode[] modes = {
+			Filter2D.Mode.OMIT, Filter2D.Mode.ZERO, Filter2D.Mode.REPEAT, Filter2D.Mode.MIRROR
+		};
+		for (int[] window : windows) {
+			for (Filter2D.Mode mode : modes) {
+				DataTable data = new DataTable(Double.class);
+				for (int row = 0; row < 20; row++) {
+					data.add((double) ((row*7) % 11));
+				}
+				Median filter = new Median(data, window[0], window[1], mode, 0);
+
+				data.add(4.0);
+				assertMedian(data, window, mode, filter);
+				data.set(0, 8, 12.0);
+				assertMedian(data, window, mode, filter);
+				data.set(0, 0, -3.0);
+				assertMedian(data, window, mode, filter);
+				data.remove(7);
+				assertMedian(data, window, mode, filter);
+				data.removeLast();
+				assertMedian(data, window, mode, filter);
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallel() throws InterruptedException {
+		DataTable data = new DataTable(Double.class, Double.class, Double.class, Double.class);
+		for (int row = 0; row < 1000; row++) {
+			data.add((double) ((row*7) % 11), (double) ((row*5) % 13),
+				(double) row, Math.sin(row));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Median parallel = new Median(data, 5, 2, Filter2D.Mode.REPEAT);
+			parallel.setExecutor(executor);
+			parallel.filter();
+			ConvolutionTest.assertEqualValues(
+				new Median(data, 5, 2, Filter2D.Mode.REPEAT), parallel);
+
+			data.add(4.0, 12.0, -1.0, 0.5);
+			ConvolutionTest.assertEqualValues(
+				new Median(data, 5, 2, Filter2D.Mode.REPEAT), parallel);
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private static void assertMedian(DataTable data, int[] window, Filter2D.Mode mode,
+			Filter2D filter) {
+		Filter2D expected = new Median(data, window[0], window[1], mode, 0);
+		assertEquals(expected.getRowCount(), filter.getRowCount());
+		for (int row = 0; row < expected.getRowCount(); row++) {
+			assertEquals(expected.getDouble(0, row), filter.getDouble(0, row), DELTA);
+		}
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		Filter2D original = new Median(table, 3, 1, Filter2D.Mode.REPEAT, 0);
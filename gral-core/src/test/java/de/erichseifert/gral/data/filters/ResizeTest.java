@@ -23,8 +23,12 @@ package de.erichseifert.gral.data.filters;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -149,6 +153,89 @@ public class ResizeTest {
 			});
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testIncremental() {
+		DataTable data = new DataTable(Double.class, Double.class, Double.class);
+		data.add(0.0, 0.0, 0.0); // 0
+		data.add(1.0, 1.0, 1.0); // 1
+		Resize filter = new Resize(data, 1, 0);
+
+		data.add(3.0, 0.0, 0.0);
+		data.set(1, 0, 6.0);
+		data.remove(1);
+		assertEquals(2, filter.getRowCount());
+		assertEquals(6.0/3.0, ((Number) filter.get(0, 0)).doubleValue(), DELTA);
+		assertEquals(3.0/3.0, ((Number) filter.get(0, 1)).doubleValue(), DELTA);
+	}
+
+	@Test
+	public void testPrimitiveAccess() {
+		Resize unchanged = new Resize(dataDiagonal, 0, 0);
+		Resize resized = new Resize(dataDiagonal, 2, 2);
+		double[] values = new double[2];
+		for (Resize filter : new Resize[] {unchanged, resized}) {
+			for (int col = 0; col < filter.getColumnCount(); col++) {
+				filter.copyColumn(col, values, 0, values.length);
+				for (int row = 0; row < values.length; row++) {
+					double value = ((Number) filter.get(col, row)).doubleValue();
+					assertEquals(value, filter.getDouble(col, row), 0.0);
+					assertEquals(value, values[row], 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		DataTable data = new DataTable(Double.class, Double.class, Double.class);
+		data.add(1.0, 0.0, 0.0); // 0
+		data.add(0.0, 1.0, 0.0); // 1
+		data.add(0.0, 0.0, 1.0); // 2
+		Resize unchanged = new Resize(data, 0, 0);
+		Resize resized = new Resize(data, 2, 2);
+		DataSource snapshotUnchanged = unchanged.snapshot();
+		DataSource snapshotResized = resized.snapshot();
+		assertEquals(3, snapshotUnchanged.getColumnCount());
+		assertEquals(3, snapshotUnchanged.getRowCount());
+		assertEquals(2, snapshotResized.getColumnCount());
+		assertEquals(2, snapshotResized.getRowCount());
+		double[] expected = new double[2];
+		resized.copyColumn(0, expected, 0, expected.length);
+
+		data.set(0, 0, 4.0);
+		assertEquals(1.0, snapshotUnchanged.getDouble(0, 0), 0.0);
+		assertEquals(4.0, unchanged.getDouble(0, 0), 0.0);
+		for (int row = 0; row < expected.length; row++) {
+			assertEquals(expected[row], snapshotResized.getDouble(0, row), 0.0);
+		}
+		assertTrue(resized.getDouble(0, 0) != expected[0]);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallel() throws InterruptedException {
+		DataTable data = new DataTable(Double.class, Double.class, Double.class,
+			Double.class, Double.class);
+		for (int row = 0; row < 100; row++) {
+			data.add(Math.sin(row), Math.cos(row), (double) row, 1.0, (double) (row % 3));
+		}
+		int[][] sizes = {{2, 0}, {0, 30}, {3, 70}};
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int[] size : sizes) {
+				Resize parallel = new Resize(data, size[0], size[1]);
+				parallel.setExecutor(executor);
+				parallel.filter();
+				ConvolutionTest.assertEqualValues(new Resize(data, size[0], size[1]), parallel);
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		Filter2D original = new Resize(dataDiagonal, 2, 2);
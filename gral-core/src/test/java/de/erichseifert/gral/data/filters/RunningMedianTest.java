@@ -0,0 +1,96 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+
+public class RunningMedianTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private static double median(double[] values, int from, int to) {
+		double[] window = Arrays.copyOfRange(values, from, to);
+		Arrays.sort(window);
+		int n = window.length;
+		if ((n & 1) == 1) {
+			return window[n/2];
+		}
+		return (window[n/2 - 1] + window[n/2])/2.0;
+	}
+
+	@Test
+	public void testMedian() {
+		RunningMedian median = new RunningMedian(3);
+		median.add(5.0);
+		assertEquals(5.0, median.getMedian(), DELTA);
+		median.add(1.0);
+		assertEquals(3.0, median.getMedian(), DELTA);
+		median.add(4.0);
+		assertEquals(4.0, median.getMedian(), DELTA);
+		// 5.0 is removed
+		median.add(2.0);
+		assertEquals(3, median.size());
+		assertEquals(2.0, median.getMedian(), DELTA);
+		// 1.0 is removed
+		median.add(3.0);
+		assertEquals(3.0, median.getMedian(), DELTA);
+	}
+
+	@Test
+	public void testSlidingWindow() {
+		Random random = new Random(42L);
+		double[] values = new double[5000];
+		for (int i = 0; i < values.length; i++) {
+			// Few distinct values to test duplicates
+			values[i] = (i % 3 == 0) ? random.nextInt(5) : random.nextGaussian();
+		}
+		for (int windowSize : new int[] {1, 2, 7, 64, 1000}) {
+			RunningMedian median = new RunningMedian(windowSize);
+			for (int i = 0; i < values.length; i++) {
+				median.add(values[i]);
+				int from = Math.max(0, i + 1 - windowSize);
+				assertEquals(median(values, from, i + 1), median.getMedian(), DELTA);
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidValues() {
+		RunningMedian median = new RunningMedian(3);
+		median.add(Double.POSITIVE_INFINITY);
+		assertEquals(Double.POSITIVE_INFINITY, median.getMedian(), DELTA);
+		median.add(1.0);
+		assertEquals(Double.NaN, median.getMedian(), DELTA);
+		median.add(2.0);
+		median.add(3.0);
+		// The infinite value has been removed
+		assertEquals(2.0, median.getMedian(), DELTA);
+		median.add(Double.NaN);
+		assertEquals(Double.NaN, median.getMedian(), DELTA);
+	}
+}
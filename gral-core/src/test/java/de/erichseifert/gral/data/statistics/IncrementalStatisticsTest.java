@@ -0,0 +1,175 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.data.RingBufferDataTable;
+
+public class IncrementalStatisticsTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private DataTable table;
+	private IncrementalStatistics stats;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		table = new DataTable(Integer.class, Double.class);
+		table.add(1, 1.0);
+		table.add(2, 3.0);
+		table.add(3, 2.0);
+		table.add(4, 6.0);
+		stats = new IncrementalStatistics(table);
+		table.addDataListener(stats);
+	}
+
+	private void assertMatchesStatistics(int col) {
+		assertMatchesStatistics(table, stats, col);
+	}
+
+	private static void assertMatchesStatistics(DataSource data,
+			IncrementalStatistics stats, int col) {
+		String[] keys = {Statistics.N, Statistics.SUM, Statistics.MIN,
+			Statistics.MAX, Statistics.MEAN, Statistics.VARIANCE,
+			Statistics.SKEWNESS, Statistics.KURTOSIS};
+		for (String key : keys) {
+			// Removed values leave rounding errors in the accumulated values
+			double expected = data.getColumn(col).getStatistics(key);
+			assertEquals(key, expected, stats.get(col, key),
+				Math.max(DELTA, Math.abs(expected)*1e-12));
+		}
+	}
+
+	@Test
+	public void testInitial() {
+		assertEquals(4.0, stats.get(1, Statistics.N), DELTA);
+		assertEquals(1.0, stats.get(1, Statistics.MIN), DELTA);
+		assertEquals(6.0, stats.get(1, Statistics.MAX), DELTA);
+		assertEquals(3.0, stats.get(1, Statistics.MEAN), DELTA);
+		assertMatchesStatistics(0);
+		assertMatchesStatistics(1);
+	}
+
+	@Test
+	public void testAdd() {
+		stats.get(1, Statistics.MAX);
+		table.add(5, 10.0);
+		table.add(6, -2.0);
+		assertEquals(10.0, stats.get(1, Statistics.MAX), DELTA);
+		assertEquals(-2.0, stats.get(1, Statistics.MIN), DELTA);
+		assertMatchesStatistics(0);
+		assertMatchesStatistics(1);
+	}
+
+	@Test
+	public void testUpdate() {
+		stats.get(1, Statistics.MAX);
+		// Non-extreme value
+		table.set(1, 2, 4.0);
+		assertMatchesStatistics(1);
+		// Extreme value
+		table.set(1, 3, 0.0);
+		assertEquals(4.0, stats.get(1, Statistics.MAX), DELTA);
+		assertEquals(0.0, stats.get(1, Statistics.MIN), DELTA);
+		assertMatchesStatistics(1);
+	}
+
+	@Test
+	public void testRemove() {
+		stats.get(1, Statistics.MAX);
+		// Non-extreme value
+		table.remove(1);
+		assertMatchesStatistics(0);
+		assertMatchesStatistics(1);
+		// Extreme value
+		table.removeLast();
+		assertEquals(2.0, stats.get(1, Statistics.MAX), DELTA);
+		assertMatchesStatistics(1);
+		table.clear();
+		assertEquals(0.0, stats.get(1, Statistics.N), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testShift() {
+		RingBufferDataTable ring = new RingBufferDataTable(5, Integer.class, Double.class);
+		IncrementalStatistics ringStats = new IncrementalStatistics(ring);
+		ring.addDataListener(ringStats);
+		for (int row = 0; row < 20; row++) {
+			ring.add(row, Math.sin(row));
+			assertMatchesStatistics(ring, ringStats, 0);
+			assertMatchesStatistics(ring, ringStats, 1);
+		}
+
+		// Several rows are evicted at once
+		ring.addAll(Arrays.asList(
+			Arrays.<Comparable<?>>asList(20, 2.0),
+			Arrays.<Comparable<?>>asList(21, -2.0),
+			Arrays.<Comparable<?>>asList(22, 0.5)));
+		assertMatchesStatistics(ring, ringStats, 0);
+		assertMatchesStatistics(ring, ringStats, 1);
+
+		// Evictions without a query in between
+		ring.add(23, 0.25);
+		ring.add(24, 0.75);
+		assertMatchesStatistics(ring, ringStats, 0);
+		assertMatchesStatistics(ring, ringStats, 1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testShiftExtrema() {
+		RingBufferDataTable ring = new RingBufferDataTable(8, Integer.class, Double.class);
+		IncrementalStatistics ringStats = new IncrementalStatistics(ring);
+		ring.addDataListener(ringStats);
+		// Decreasing values evict the maximum with each added row
+		for (int row = 0; row < 30; row++) {
+			ring.add(row, 100.0 - row);
+			assertMatchesStatistics(ring, ringStats, 0);
+			assertMatchesStatistics(ring, ringStats, 1);
+		}
+
+		// Changes in the middle of the window
+		ring.set(1, 3, 200.0);
+		assertMatchesStatistics(ring, ringStats, 1);
+		ring.set(1, 3, 75.0);
+		assertMatchesStatistics(ring, ringStats, 1);
+		ring.remove(2);
+		assertMatchesStatistics(ring, ringStats, 0);
+		assertMatchesStatistics(ring, ringStats, 1);
+
+		for (int row = 30; row < 50; row++) {
+			ring.add(row, (row % 2 == 0) ? row : -100.0 - row);
+			assertMatchesStatistics(ring, ringStats, 0);
+			assertMatchesStatistics(ring, ringStats, 1);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.data.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SlidingExtremaTest {
+	private static final double DELTA = 1e-15;
+
+	@Test
+	public void testEmpty() {
+		SlidingExtrema extrema = new SlidingExtrema();
+		assertEquals(Double.NaN, extrema.getMin(), DELTA);
+		assertEquals(Double.NaN, extrema.getMax(), DELTA);
+		extrema.add(0L, 1.0);
+		extrema.removeBefore(1L);
+		assertEquals(Double.NaN, extrema.getMin(), DELTA);
+		assertEquals(Double.NaN, extrema.getMax(), DELTA);
+	}
+
+	@Test
+	public void testNotCalculatable() {
+		SlidingExtrema extrema = new SlidingExtrema();
+		extrema.add(0L, Double.NaN);
+		extrema.add(1L, 2.0);
+		extrema.add(2L, Double.POSITIVE_INFINITY);
+		assertEquals(2.0, extrema.getMin(), DELTA);
+		assertEquals(2.0, extrema.getMax(), DELTA);
+	}
+
+	@Test
+	public void testSlidingWindow() {
+		int window = 50;
+		double[] values = new double[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.sin(0.37*i)*(i % 7) + ((i / 100) % 2 == 0 ? i : -i);
+		}
+		SlidingExtrema extrema = new SlidingExtrema();
+		for (int i = 0; i < values.length; i++) {
+			extrema.add(i, values[i]);
+			extrema.removeBefore(i - window + 1);
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int j = Math.max(0, i - window + 1); j <= i; j++) {
+				min = Math.min(min, values[j]);
+				max = Math.max(max, values[j]);
+			}
+			assertEquals(min, extrema.getMin(), DELTA);
+			assertEquals(max, extrema.getMax(), DELTA);
+		}
+	}
+
+	@Test
+	public void testEqualValues() {
+		SlidingExtrema extrema = new SlidingExtrema();
+		extrema.add(0L, 1.0);
+		extrema.add(1L, 1.0);
+		extrema.removeBefore(1L);
+		assertEquals(1.0, extrema.getMin(), DELTA);
+		assertEquals(1.0, extrema.getMax(), DELTA);
+	}
+}
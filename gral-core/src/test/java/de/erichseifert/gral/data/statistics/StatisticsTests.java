@@ -28,6 +28,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	HistogramTest.class,
 	StatisticsTest.class,
+	IncrementalStatisticsTest.class,
+	SlidingExtremaTest.class,
 	AbstractHistogram2DTest.class
 })
 public class StatisticsTests {
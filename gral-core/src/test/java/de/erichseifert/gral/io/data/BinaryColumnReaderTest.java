@@ -0,0 +1,157 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.io.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
+
+public class BinaryColumnReaderTest {
+	private static final double DELTA = TestUtils.DELTA;
+	private static final String MIME_TYPE = "application/x-gral-columns";
+
+	private DataTable data;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		data = new DataTable(Integer.class, Double.class, Long.class, Byte.class);
+		data.add(0, 10.0, 1L << 40, (byte) -1);
+		data.add(1, null, 21L, (byte) 2);
+		data.add(2, 12.5, null, (byte) 3);
+	}
+
+	private byte[] write(DataSource source) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		DataWriterFactory.getInstance().get(MIME_TYPE).write(source, output);
+		return output.toByteArray();
+	}
+
+	private void assertData(DataSource read) {
+		assertArrayEquals(data.getColumnTypes(), read.getColumnTypes());
+		assertEquals(data.getRowCount(), read.getRowCount());
+		for (int row = 0; row < data.getRowCount(); row++) {
+			for (int col = 0; col < data.getColumnCount(); col++) {
+				assertEquals(data.get(col, row), read.get(col, row));
+				assertEquals(data.getDouble(col, row), read.getDouble(col, row), DELTA);
+			}
+		}
+	}
+
+	@Test
+	public void testReadStream() throws IOException {
+		DataReader reader = DataReaderFactory.getInstance().get(MIME_TYPE);
+		DataSource read = reader.read(new ByteArrayInputStream(write(data)));
+		assertData(read);
+		assertNull(read.get(1, 1));
+		assertNull(read.get(2, 2));
+
+		double[] values = new double[3];
+		read.copyColumn(1, values, 0, values.length);
+		assertArrayEquals(new double[] {10.0, Double.NaN, 12.5}, values, DELTA);
+	}
+
+	@Test
+	public void testReadMappedFile() throws IOException {
+		File file = File.createTempFile("gral", ".gcol");
+		file.deleteOnExit();
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			output.write(write(data));
+		}
+
+		DataReader reader = DataReaderFactory.getInstance().get(MIME_TYPE);
+		DataSource read;
+		try (FileInputStream input = new FileInputStream(file)) {
+			read = reader.read(input);
+		}
+		// Mapped data stays readable after the file has been closed
+		assertData(read);
+
+		// Rows out of range have no value like in other data sources
+		assertNull(read.get(0, -1));
+		assertNull(read.get(0, data.getRowCount()));
+		assertEquals(Double.NaN, read.getDouble(1, data.getRowCount()), 0.0);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testEmpty() throws IOException {
+		DataTable empty = new DataTable(Double.class, Short.class);
+		DataReader reader = DataReaderFactory.getInstance().get(MIME_TYPE);
+		DataSource read = reader.read(new ByteArrayInputStream(write(empty)));
+		assertArrayEquals(empty.getColumnTypes(), read.getColumnTypes());
+		assertEquals(0, read.getRowCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testInvalidData() throws IOException {
+		DataReader reader = DataReaderFactory.getInstance().get(MIME_TYPE);
+		try {
+			reader.read(new ByteArrayInputStream("0,1,2\r\n".getBytes()));
+			fail("Expected IOException.");
+		} catch (IOException e) {
+		}
+
+		byte[] bytes = write(data);
+		byte[] truncated = new byte[bytes.length - 8];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		try {
+			reader.read(new ByteArrayInputStream(truncated));
+			fail("Expected IOException.");
+		} catch (IOException e) {
+		}
+
+		try {
+			reader.read(new ByteArrayInputStream(bytes), Double.class, Double.class);
+			fail("Expected IOException.");
+		} catch (IOException e) {
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testUnsupportedType() throws IOException {
+		DataTable strings = new DataTable(String.class);
+		strings.add("foo");
+		try {
+			write(strings);
+			fail("Expected IllegalArgumentException.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -265,4 +265,121 @@ public class CSVReaderTest {
 		assertEquals(-21.0, data.get(2, 1));
 		assertEquals(-22.0, data.get(2, 2));
 	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testLargeInput() throws IOException {
+		// Spans several chunks and batches, with line breaks and quotes
+		// split between chunks
+		int rowCount = 20000;
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < rowCount; i++) {
+			content.append(i).append(",\"").append(i).append(".25\",")
+				.append(-1L - i*1000000007L).append("\r\n");
+		}
+		DataReader reader = DataReaderFactory.getInstance().get("text/csv");
+		DataSource data = reader.read(
+			new ByteArrayInputStream(content.toString().getBytes()),
+			Integer.class, Double.class, Long.class);
+		assertEquals(rowCount, data.getRowCount());
+		for (int i = 0; i < rowCount; i++) {
+			assertEquals(i, data.get(0, i));
+			assertEquals(i + 0.25, data.get(1, i));
+			assertEquals(-1L - i*1000000007L, data.get(2, i));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testDoubleValues() throws IOException {
+		String[] values = {
+			"0.1", "-0.0", "+3", "5.", ".5", "123456789012345", "0.30000000000000004",
+			"1e10", "1.7976931348623157E308", "NaN", "-Infinity", "9007199254740993"
+		};
+		StringBuilder content = new StringBuilder();
+		for (String value : values) {
+			content.append(value).append("\n");
+		}
+		DataReader reader = DataReaderFactory.getInstance().get("text/csv");
+		DataSource data = reader.read(
+			new ByteArrayInputStream(content.toString().getBytes()), Double.class);
+		assertEquals(values.length, data.getRowCount());
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(Double.valueOf(values[i]), data.get(0, i));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testEmptyLines() throws IOException {
+		InputStream input = new ByteArrayInputStream((
+			"\"foo\r\nbar\"\r\n" +
+			"\r\n" +
+			"baz\r\n" +
+			"\r\n"
+		).getBytes());
+		DataReader reader = DataReaderFactory.getInstance().get("text/csv");
+		DataSource data = reader.read(input, String.class);
+
+		// The last line break doesn't start a new row
+		assertEquals(3, data.getRowCount());
+		assertEquals("foo\r\nbar", data.get(0, 0));
+		assertEquals("", data.get(0, 1));
+		assertEquals("baz", data.get(0, 2));
+	}
+
+	private static String createLargeInput(int rowCount) {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < rowCount; i++) {
+			content.append(i).append(",\"a\r\n\"\"").append(i % 97).append("\"\"\",")
+				.append(i*0.125).append((i % 3 == 0) ? "\n" : "\r\n");
+		}
+		return content.toString();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallel() throws IOException {
+		// Large enough to be split into several chunks
+		byte[] content = createLargeInput(300000).getBytes();
+		DataReader reader = DataReaderFactory.getInstance().get("text/csv");
+		DataSource expected = reader.read(new ByteArrayInputStream(content),
+			Integer.class, String.class, Double.class);
+
+		reader.setSetting(CSVReader.PARALLELISM, 4);
+		DataSource data = reader.read(new ByteArrayInputStream(content),
+			Integer.class, String.class, Double.class);
+
+		assertEquals(expected.getRowCount(), data.getRowCount());
+		for (int row = 0; row < expected.getRowCount(); row++) {
+			for (int col = 0; col < expected.getColumnCount(); col++) {
+				assertEquals(expected.get(col, row), data.get(col, row));
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testParallelError() throws IOException {
+		String content = createLargeInput(300000) + "1,foo,bar\r\n";
+		DataReader reader = DataReaderFactory.getInstance().get("text/csv");
+		String expected = null;
+		try {
+			reader.read(new ByteArrayInputStream(content.getBytes()),
+				Integer.class, String.class, Double.class);
+			fail("Expected IOException");
+		} catch (IOException e) {
+			expected = e.getMessage();
+		}
+
+		// The error refers to the same line as in sequential mode
+		reader.setSetting(CSVReader.PARALLELISM, 4);
+		try {
+			reader.read(new ByteArrayInputStream(content.getBytes()),
+				Integer.class, String.class, Double.class);
+			fail("Expected IOException");
+		} catch (IOException e) {
+			assertEquals(expected, e.getMessage());
+		}
+	}
 }
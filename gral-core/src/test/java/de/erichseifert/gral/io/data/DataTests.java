@@ -30,6 +30,7 @@ import org.junit.runners.Suite;
 	DataWriterFactoryTest.class,
 	CSVReaderTest.class,
 	CSVWriterTest.class,
+	BinaryColumnReaderTest.class,
 	ImageReaderTest.class,
 	ImageWriterTest.class
 })
@@ -21,15 +21,23 @@
  */
 package de.erichseifert.gral.io.plots;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import javax.imageio.ImageIO;
 
 import org.junit.Test;
 
+import de.erichseifert.gral.data.DataTable;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawableContainer;
+import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.plots.lines.DefaultLineRenderer2D;
 
 public class DrawableWriterTest {
 	private static final String[] FORMATS = new String[] {
@@ -57,4 +65,34 @@ public class DrawableWriterTest {
 		}
 	}
 
+	@Test
+	public void testWriteTiled() throws IOException {
+		DataTable data = new DataTable(Double.class, Double.class);
+		for (int i = 0; i < 1000; i++) {
+			data.add(i/100.0, Math.sin(i/50.0));
+		}
+		XYPlot plot = new XYPlot(data);
+		plot.setLineRenderers(data, new DefaultLineRenderer2D());
+
+		BitmapWriter writer = (BitmapWriter) DrawableWriterFactory.getInstance().get("image/png");
+		ByteArrayOutputStream dest = new ByteArrayOutputStream();
+		writer.write(plot, dest, 320, 240);
+		BufferedImage expected = ImageIO.read(new ByteArrayInputStream(dest.toByteArray()));
+
+		writer.setTileSize(50);
+		writer.setThreadCount(4);
+		dest = new ByteArrayOutputStream();
+		writer.write(plot, dest, 320, 240);
+		BufferedImage tiled = ImageIO.read(new ByteArrayInputStream(dest.toByteArray()));
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.getRGB(x, y), tiled.getRGB(x, y));
+			}
+		}
+
+		// Drawables that can't be drawn concurrently are drawn at once
+		dest = new ByteArrayOutputStream();
+		writer.write(new DrawableContainer(), dest, 320, 240);
+		assertTrue(dest.size() > 0);
+	}
 }
@@ -22,7 +22,9 @@
 package de.erichseifert.gral.plots;
 
 import java.awt.BasicStroke;
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Shape;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
@@ -35,6 +37,7 @@ import de.erichseifert.gral.data.DataSource;
 import de.erichseifert.gral.data.DummyData;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.plots.BarPlot.BarRenderer;
+import de.erichseifert.gral.plots.points.PointData;
 import de.erichseifert.gral.plots.points.PointRenderer;
 import org.junit.Before;
 import org.junit.Test;
@@ -81,6 +84,53 @@ public class BarPlotTest {
 		assertTrue(plot.isDrawn);
 	}
 
+	private static class CountingBarRenderer extends BarRenderer {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 4811361870937291465L;
+
+		private int count;
+
+		public CountingBarRenderer(BarPlot plot) {
+			super(plot);
+		}
+
+		@Override
+		public Shape getPointShape(PointData data) {
+			count++;
+			return super.getPointShape(data);
+		}
+	}
+
+	@Test
+	public void testLayers() {
+		DataSource data = plot.getData().get(0);
+		CountingBarRenderer pointRenderer = new CountingBarRenderer(plot);
+		plot.setPointRenderers(data, pointRenderer);
+		plot.getAxis(BarPlot.AXIS_X).setRange(-1.0, 3.0);
+		plot.getAxis(BarPlot.AXIS_Y).setRange(-1.0, 2.0);
+		plot.setBounds(0.0, 0.0, 320.0, 240.0);
+		plot.setLayered(true);
+		BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_ARGB);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		int count = pointRenderer.count;
+		assertTrue(count > 0);
+
+		// Unchanged layers are reused
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertEquals(count, pointRenderer.count);
+
+		// Changed settings of the renderer invalidate the layer
+		pointRenderer.setBorderColor(Color.RED);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(pointRenderer.count > count);
+		count = pointRenderer.count;
+
+		// Changed settings of the plot invalidate the layer
+		plot.setBarWidth(0.5);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(pointRenderer.count > count);
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		BarPlot original = plot;
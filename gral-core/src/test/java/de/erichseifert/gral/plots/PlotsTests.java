@@ -45,6 +45,9 @@ import de.erichseifert.gral.plots.points.PointsTests;
 	PlotAreaTest.class,
 	PlotTest.class,
 	XYPlotTest.class,
+	PointProjectionTest.class,
+	PointDownsamplerTest.class,
+	RowPyramidTest.class,
 	PiePlotTest.class,
 	BarPlotTest.class,
 	BoxPlotTest.class,
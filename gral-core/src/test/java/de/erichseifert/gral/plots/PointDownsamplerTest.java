@@ -0,0 +1,90 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PointDownsamplerTest {
+	private static final double DELTA = 1e-15;
+
+	private static ProjectedPoints createPoints(double[] xs, double[] ys) {
+		ProjectedPoints points = new ProjectedPoints();
+		for (int i = 0; i < xs.length; i++) {
+			points.add(xs[i], ys[i], i);
+		}
+		return points;
+	}
+
+	private static void assertRows(ProjectedPoints points, int... rows) {
+		assertEquals(rows.length, points.size());
+		for (int i = 0; i < rows.length; i++) {
+			assertEquals(rows[i], points.getRow(i));
+		}
+	}
+
+	@Test
+	public void testMinMax() {
+		ProjectedPoints points = createPoints(
+			new double[] {0.1, 0.2, 0.3, 0.4, 0.5, 1.2, 2.5, 2.6},
+			new double[] {5.0, 9.0, 1.0, 4.0, 3.0, 2.0, 7.0, 8.0});
+		ProjectedPoints sampled = new ProjectedPoints();
+		PointDownsampler.minMax(points, sampled);
+		// First, maximum, minimum, and last point of the first column
+		assertRows(sampled, 0, 1, 2, 4, 5, 6, 7);
+		assertEquals(9.0, sampled.getY(1), DELTA);
+		assertEquals(1.0, sampled.getY(2), DELTA);
+	}
+
+	@Test
+	public void testMinMaxKeepsSinglePoints() {
+		ProjectedPoints points = createPoints(
+			new double[] {0.0, 1.0, 2.0},
+			new double[] {1.0, 2.0, 3.0});
+		ProjectedPoints sampled = new ProjectedPoints();
+		PointDownsampler.minMax(points, sampled);
+		assertRows(sampled, 0, 1, 2);
+	}
+
+	@Test
+	public void testLargestTriangleThreeBuckets() {
+		ProjectedPoints points = createPoints(
+			new double[] {0.0, 1.1, 1.2, 1.3, 2.1, 2.2, 3.0},
+			new double[] {0.0, 0.1, 5.0, 0.2, 0.3, 0.1, 0.0});
+		ProjectedPoints sampled = new ProjectedPoints();
+		PointDownsampler.largestTriangleThreeBuckets(points, sampled);
+		// The peak is kept
+		assertRows(sampled, 0, 2, 4, 6);
+		assertEquals(5.0, sampled.getY(1), DELTA);
+	}
+
+	@Test
+	public void testLargestTriangleThreeBucketsFewPoints() {
+		ProjectedPoints points = createPoints(
+			new double[] {0.1, 0.2},
+			new double[] {1.0, 2.0});
+		ProjectedPoints sampled = new ProjectedPoints();
+		PointDownsampler.largestTriangleThreeBuckets(points, sampled);
+		assertRows(sampled, 0, 1);
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.TestUtils;
+import de.erichseifert.gral.data.DataChangeEvent;
+import de.erichseifert.gral.data.DataListener;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.data.RingBufferDataTable;
+import de.erichseifert.gral.plots.areas.AreaRenderer;
+import de.erichseifert.gral.plots.areas.DefaultAreaRenderer2D;
+import de.erichseifert.gral.plots.areas.LineAreaRenderer2D;
+import de.erichseifert.gral.plots.axes.Axis;
+import de.erichseifert.gral.plots.axes.AxisRenderer;
+import de.erichseifert.gral.plots.axes.LinearRenderer2D;
+import de.erichseifert.gral.plots.lines.DefaultLineRenderer2D;
+import de.erichseifert.gral.util.PointND;
+
+public class PointProjectionTest {
+	private static final double DELTA = TestUtils.DELTA;
+
+	private static class CountingRenderer extends LinearRenderer2D {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 2166591587815154389L;
+
+		private int positions;
+
+		@Override
+		public PointND<Double> getPosition(Axis axis, Number value,
+				boolean extrapolate, boolean forceLinear) {
+			positions++;
+			return super.getPosition(axis, value, extrapolate, forceLinear);
+		}
+
+		@Override
+		public void getPositions(Axis axis, double[] values, int n,
+				double[] outX, double[] outY) {
+			positions += n;
+			super.getPositions(axis, values, n, outX, outY);
+		}
+	}
+
+	private static class ProjectionListener implements DataListener {
+		private final PointProjection projection;
+
+		public ProjectionListener(PointProjection projection) {
+			this.projection = projection;
+		}
+
+		public void dataAdded(DataSource source, DataChangeEvent... events) {
+			projection.dataAdded(events);
+		}
+
+		public void dataUpdated(DataSource source, DataChangeEvent... events) {
+			projection.dataUpdated(events);
+		}
+
+		public void dataRemoved(DataSource source, DataChangeEvent... events) {
+			projection.dataRemoved(events);
+		}
+	}
+
+	private Axis axisX;
+	private Axis axisY;
+	private CountingRenderer rendererX;
+	private CountingRenderer rendererY;
+
+	@Before
+	public void setUp() {
+		axisX = new Axis(0.0, 10.0);
+		axisY = new Axis(0.0, 10.0);
+		rendererX = new CountingRenderer();
+		rendererX.setShape(new Line2D.Double(0.0, 0.0, 100.0, 0.0));
+		rendererY = new CountingRenderer();
+		rendererY.setShape(new Line2D.Double(0.0, 100.0, 0.0, 0.0));
+	}
+
+	private int update(PointProjection projection, DataSource data) {
+		return projection.update(data.snapshot(), axisX, rendererX, axisY, rendererY, 0, 1);
+	}
+
+	private ProjectedPoints getPoints(PointProjection projection, DataSource data) {
+		List<AxisRenderer> renderers = Arrays.<AxisRenderer>asList(rendererX, rendererY);
+		return projection.getPoints(data, Arrays.asList(axisX, axisY), renderers, 1,
+			new ProjectedPoints());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testShiftOnlyProjectsNewRows() {
+		RingBufferDataTable data = new RingBufferDataTable(4, Double.class, Double.class);
+		for (int i = 0; i < 4; i++) {
+			data.add((double) i, (double) i);
+		}
+		PointProjection projection = new PointProjection(data);
+		data.addDataListener(new ProjectionListener(projection));
+
+		assertEquals(4, update(projection, data));
+		assertEquals(4, rendererX.positions);
+		assertEquals(10.0, projection.getX(1), DELTA);
+
+		data.add(4.0, 4.0);
+		data.add(5.0, 5.0);
+		assertEquals(4, update(projection, data));
+		assertEquals(6, rendererX.positions);
+		assertEquals(20.0, projection.getX(0), DELTA);
+		assertEquals(50.0, projection.getX(3), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRemoveAndUpdate() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		for (int i = 0; i < 4; i++) {
+			data.add((double) i, (double) i);
+		}
+		PointProjection projection = new PointProjection(data);
+		data.addDataListener(new ProjectionListener(projection));
+		update(projection, data);
+
+		// Sliding window with add and remove
+		data.add(4.0, 4.0);
+		data.remove(0);
+		assertEquals(4, update(projection, data));
+		assertEquals(5, rendererX.positions);
+		assertEquals(10.0, projection.getX(0), DELTA);
+
+		// Changed values are projected again
+		data.set(1, 3, 8.0);
+		update(projection, data);
+		assertEquals(6, rendererX.positions);
+		assertEquals(20.0, projection.getY(3), DELTA);
+
+		// Missing values aren't projected
+		data.set(1, 3, null);
+		update(projection, data);
+		assertEquals(Double.NaN, projection.getY(3), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAxisChangeDiscardsPositions() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(1.0, 1.0);
+		data.add(2.0, 2.0);
+		PointProjection projection = new PointProjection(data);
+		update(projection, data);
+		update(projection, data);
+		assertEquals(2, rendererX.positions);
+
+		axisX.setRange(0.0, 20.0);
+		update(projection, data);
+		assertEquals(4, rendererX.positions);
+		assertEquals(5.0, projection.getX(0), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testUnnotifiedChangeProjectsAll() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(1.0, 1.0);
+		data.add(2.0, 2.0);
+		PointProjection projection = new PointProjection(data);
+		update(projection, data);
+
+		// Without events, a newer version can't be updated incrementally
+		data.set(0, 0, 3.0);
+		update(projection, data);
+		assertEquals(4, rendererX.positions);
+		assertEquals(30.0, projection.getX(0), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSortedRowsOutsideAxisAreSkipped() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		for (int i = 0; i < 100; i++) {
+			data.add((double) i, 1.0);
+		}
+		PointProjection projection = new PointProjection(data);
+		data.addDataListener(new ProjectionListener(projection));
+
+		// Visible rows and one neighbor on each side
+		assertEquals(12, update(projection, data));
+		assertEquals(12, rendererX.positions);
+		ProjectedPoints points = getPoints(projection, data);
+		assertEquals(12, points.size());
+		assertEquals(0, points.getRow(0));
+		assertEquals(110.0, points.getX(11), DELTA);
+
+		// Panning only projects the rows in the new range
+		axisX.setRange(5.0, 15.0);
+		update(projection, data);
+		assertEquals(12 + 13, rendererX.positions);
+		points = getPoints(projection, data);
+		assertEquals(4, points.getRow(0));
+		assertEquals(13, points.size());
+
+		// Appended rows outside the range aren't projected
+		data.add(100.0, 1.0);
+		update(projection, data);
+		assertEquals(12 + 13, rendererX.positions);
+
+		// Unsorted values are all visible
+		data.set(0, 50, -1.0);
+		assertEquals(101, update(projection, data));
+		assertEquals(101, getPoints(projection, data).size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPointsSkipMissingValues() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(1.0, 1.0);
+		data.add(2.0, null);
+		data.add(3.0, 3.0);
+		PointProjection projection = new PointProjection(data);
+		update(projection, data);
+
+		ProjectedPoints points = getPoints(projection, data);
+		assertEquals(2, points.size());
+		assertEquals(10.0, points.getX(0), DELTA);
+		assertEquals(30.0, points.getX(1), DELTA);
+		assertEquals(70.0, points.getY(1), DELTA);
+		assertEquals(2, points.getRow(1));
+
+		// Data points are created on demand and reused
+		DataPoint point = points.get(1);
+		assertSame(point, points.asList().get(1));
+		assertEquals(2, point.data.index);
+		assertEquals(3.0, point.data.row.get(1));
+		assertEquals(30.0, point.position.get(PointND.X), DELTA);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBulkShapesMatchListShapes() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(1.0, 2.0);
+		data.add(2.0, 5.0);
+		data.add(4.0, 3.0);
+		PointProjection projection = new PointProjection(data);
+		update(projection, data);
+		ProjectedPoints points = getPoints(projection, data);
+
+		DefaultLineRenderer2D lineRenderer = new DefaultLineRenderer2D();
+		assertShapeEquals(lineRenderer.getLineShape(points.asList()),
+			lineRenderer.getLineShape(points));
+
+		List<AreaRenderer> areaRenderers = Arrays.<AreaRenderer>asList(
+			new DefaultAreaRenderer2D(), new LineAreaRenderer2D());
+		for (AreaRenderer areaRenderer : areaRenderers) {
+			assertShapeEquals(areaRenderer.getAreaShape(points.asList()),
+				areaRenderer.getAreaShape(points));
+		}
+	}
+
+	@Test
+	public void testAnalyticGaps() {
+		ProjectedPoints points = new ProjectedPoints();
+		points.add(0.0, 0.0, 0);
+		points.add(10.0, 0.0, 1);
+		points.add(20.0, 0.0, 2);
+		double[] gapRadii = {2.0, 2.0, 0.0};
+
+		DefaultLineRenderer2D lineRenderer = new DefaultLineRenderer2D();
+		Shape line = lineRenderer.getLineShape(points, gapRadii);
+		assertFalse(line.contains(0.0, 0.0));
+		assertFalse(line.contains(1.9, 0.0));
+		assertTrue(line.contains(2.1, 0.0));
+		assertTrue(line.contains(5.0, 0.0));
+		assertTrue(line.contains(7.9, 0.0));
+		assertFalse(line.contains(8.1, 0.0));
+		assertFalse(line.contains(11.9, 0.0));
+		assertTrue(line.contains(12.1, 0.0));
+		// Points without gap aren't cut
+		assertTrue(line.contains(19.9, 0.0));
+
+		// The result matches the subtraction of the gaps from the line
+		lineRenderer.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+		Area expected = new Area(lineRenderer.getLineShape(points));
+		for (int i = 0; i < 2; i++) {
+			expected.subtract(new Area(new Ellipse2D.Double(
+				points.getX(i) - 2.0, points.getY(i) - 2.0, 4.0, 4.0)));
+		}
+		Rectangle2D bounds = lineRenderer.getLineShape(points, gapRadii).getBounds2D();
+		assertEquals(expected.getBounds2D().getMinX(), bounds.getMinX(), 0.1);
+		assertEquals(expected.getBounds2D().getMaxX(), bounds.getMaxX(), 0.1);
+	}
+
+	@Test
+	public void testBuffers() {
+		PointProjection projection = new PointProjection(new DataTable(Double.class, Double.class));
+		ProjectedPoints buffer1 = projection.acquireBuffer();
+		ProjectedPoints buffer2 = projection.acquireBuffer();
+		assertNotSame(buffer1, buffer2);
+
+		projection.releaseBuffer(buffer1);
+		assertSame(buffer1, projection.acquireBuffer());
+	}
+
+	private static void assertShapeEquals(Shape expected, Shape actual) {
+		assertTrue(new Area(expected).equals(new Area(actual)));
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * GRAL: GRAphing Library for Java(R)
+ *
+ * (C) Copyright 2009-2018 Erich Seifert <dev[at]erichseifert.de>,
+ * Michael Seifert <mseifert[at]error-reports.org>
+ *
+ * This file is part of GRAL.
+ *
+ * GRAL is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * GRAL is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with GRAL.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.erichseifert.gral.plots;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.erichseifert.gral.data.DataChangeEvent;
+import de.erichseifert.gral.data.DataListener;
+import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
+
+public class RowPyramidTest {
+	private DataTable data;
+
+	private static class PyramidListener implements DataListener {
+		private final RowPyramid pyramid;
+
+		public PyramidListener(RowPyramid pyramid) {
+			this.pyramid = pyramid;
+		}
+
+		public void dataAdded(DataSource source, DataChangeEvent... events) {
+			pyramid.dataAdded(events);
+		}
+
+		public void dataUpdated(DataSource source, DataChangeEvent... events) {
+			pyramid.dataUpdated(events);
+		}
+
+		public void dataRemoved(DataSource source, DataChangeEvent... events) {
+			pyramid.dataRemoved(events);
+		}
+	}
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		data = new DataTable(Double.class, Double.class);
+		for (int i = 0; i < 1000; i++) {
+			data.add((double) i, Math.sin(i/10.0));
+		}
+		data.set(1, 123, 5.0);
+		data.set(1, 789, -5.0);
+	}
+
+	private static List<Integer> query(RowPyramid pyramid, DataSource data,
+			double xMin, double xMax, int bucketCount) {
+		int n = pyramid.query(data, xMin, xMax, bucketCount);
+		List<Integer> rows = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			rows.add(pyramid.getRow(i));
+		}
+		return rows;
+	}
+
+	@Test
+	public void testQueryKeepsExtremes() {
+		RowPyramid pyramid = new RowPyramid(data);
+		assertTrue(pyramid.update(data.snapshot(), 0, 1));
+		List<Integer> rows = query(pyramid, data, 0.0, 999.0, 10);
+
+		assertTrue(rows.size() < 100);
+		assertTrue(rows.contains(0));
+		assertTrue(rows.contains(123));
+		assertTrue(rows.contains(789));
+		assertTrue(rows.contains(999));
+		for (int i = 1; i < rows.size(); i++) {
+			assertTrue(rows.get(i - 1) < rows.get(i));
+		}
+	}
+
+	@Test
+	public void testQueryRange() {
+		RowPyramid pyramid = new RowPyramid(data);
+		pyramid.update(data.snapshot(), 0, 1);
+
+		// Small ranges return all rows and one row on each side
+		List<Integer> rows = query(pyramid, data, 100.0, 110.0, 10);
+		assertEquals(13, rows.size());
+		assertEquals(99, (int) rows.get(0));
+		assertEquals(111, (int) rows.get(12));
+
+		rows = query(pyramid, data, 500.0, 999.0, 5);
+		assertTrue(rows.contains(789));
+		assertFalse(rows.contains(123));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAppend() {
+		RowPyramid pyramid = new RowPyramid(data);
+		data.addDataListener(new PyramidListener(pyramid));
+		pyramid.update(data.snapshot(), 0, 1);
+		for (int i = 1000; i < 1100; i++) {
+			data.add((double) i, 0.0);
+		}
+		data.add(1100.0, 10.0);
+		assertTrue(pyramid.update(data.snapshot(), 0, 1));
+		assertEquals(1101, pyramid.getRowCount());
+
+		RowPyramid rebuilt = new RowPyramid(data);
+		rebuilt.update(data.snapshot(), 0, 1);
+		List<Integer> rows = query(pyramid, data, 0.0, 1100.0, 8);
+		assertEquals(query(rebuilt, data, 0.0, 1100.0, 8), rows);
+		assertTrue(rows.contains(1100));
+	}
+
+	@Test
+	public void testUnsorted() {
+		RowPyramid pyramid = new RowPyramid(data);
+		data.addDataListener(new PyramidListener(pyramid));
+		assertTrue(pyramid.update(data.snapshot(), 0, 1));
+
+		data.set(0, 500, -1.0);
+		assertFalse(pyramid.update(data.snapshot(), 0, 1));
+
+		data.set(0, 500, 500.0);
+		assertTrue(pyramid.update(data.snapshot(), 0, 1));
+	}
+}
@@ -24,6 +24,7 @@ package de.erichseifert.gral.plots;
 import static de.erichseifert.gral.TestUtils.assertNotEmpty;
 import static de.erichseifert.gral.TestUtils.createTestImage;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
@@ -34,6 +35,7 @@ import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.Arrays;
@@ -44,7 +46,9 @@ import org.junit.Test;
 
 import de.erichseifert.gral.TestUtils;
 import de.erichseifert.gral.data.DataSource;
+import de.erichseifert.gral.data.DataTable;
 import de.erichseifert.gral.data.DummyData;
+import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
 import de.erichseifert.gral.graphics.Location;
 import de.erichseifert.gral.plots.XYPlot.XYPlotArea2D;
@@ -52,11 +56,14 @@ import de.erichseifert.gral.plots.areas.AreaRenderer;
 import de.erichseifert.gral.plots.areas.DefaultAreaRenderer2D;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.axes.AxisRenderer;
+import de.erichseifert.gral.plots.axes.LinearRenderer2D;
+import de.erichseifert.gral.plots.axes.Tick;
 import de.erichseifert.gral.plots.lines.DefaultLineRenderer2D;
 import de.erichseifert.gral.plots.lines.LineRenderer;
 import de.erichseifert.gral.plots.points.DefaultPointRenderer2D;
 import de.erichseifert.gral.plots.points.PointData;
 import de.erichseifert.gral.plots.points.PointRenderer;
+import de.erichseifert.gral.util.GraphicsUtils;
 import de.erichseifert.gral.util.PointND;
 
 public class XYPlotTest {
@@ -164,6 +171,29 @@ public class XYPlotTest {
 		assertEquals(renderers.size(), 1);
 	}
 
+	@Test
+	public void testDownsampling() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		for (int i = 0; i < 10000; i++) {
+			data.add((double) i, Math.sin(i/100.0));
+		}
+		MockXYPlot plot = new MockXYPlot(data);
+		assertEquals(XYPlot.Downsampling.NONE, plot.getDownsampling(data));
+		plot.setPointRenderers(data, (PointRenderer) null);
+		plot.setLineRenderers(data, new DefaultLineRenderer2D());
+
+		for (XYPlot.Downsampling downsampling : XYPlot.Downsampling.values()) {
+			plot.setDownsampling(data, downsampling);
+			assertEquals(downsampling, plot.getDownsampling(data));
+
+			BufferedImage image = createTestImage();
+			plot.setBounds(0.0, 0.0, image.getWidth(), image.getHeight());
+			DrawingContext context = new DrawingContext((Graphics2D) image.getGraphics());
+			plot.draw(context);
+			assertNotEmpty(image);
+		}
+	}
+
 	@Test
 	public void testSetLineRenderers() {
 		DataSource data = new DummyData(2, 1, 1.0);
@@ -257,6 +287,234 @@ public class XYPlotTest {
 		assertTrue(plot.getPointRenderers(data).isEmpty());
 	}
 
+	@Test
+	public void testPointsDrawnAtOnce() {
+		ProjectedPoints points = new ProjectedPoints();
+		points.add(10.0, 10.0, 0);
+		points.add(30.0, 20.0, 1);
+		points.add(31.0, 21.0, 2);
+		points.add(-100.0, 10.0, 3);
+		DefaultPointRenderer2D pointRenderer = new DefaultPointRenderer2D();
+		pointRenderer.setColor(Color.BLACK);
+
+		BufferedImage expected = createTestImage();
+		Graphics2D graphics = (Graphics2D) expected.getGraphics();
+		for (int i = 0; i < points.size(); i++) {
+			graphics.translate(points.getX(i), points.getY(i));
+			GraphicsUtils.fillPaintedShape(graphics, pointRenderer.getShape(), Color.BLACK, null);
+			graphics.translate(-points.getX(i), -points.getY(i));
+		}
+
+		for (DrawingContext.Target target : DrawingContext.Target.values()) {
+			BufferedImage image = createTestImage();
+			DrawingContext context = new DrawingContext((Graphics2D) image.getGraphics(),
+				DrawingContext.Quality.NORMAL, target);
+			pointRenderer.getPoints(points).draw(context);
+			TestUtils.assertEquals(expected, image);
+		}
+	}
+
+	private static class CountingPointRenderer extends DefaultPointRenderer2D {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = -1707432394307765541L;
+
+		private int count;
+
+		@Override
+		public Drawable getPoints(ProjectedPoints points) {
+			count++;
+			return super.getPoints(points);
+		}
+	}
+
+	@Test
+	public void testLayers() {
+		DataTable data1 = new DataTable(Double.class, Double.class);
+		data1.add(0.0, 0.0);
+		data1.add(1.0, 1.0);
+		DataTable data2 = new DataTable(Double.class, Double.class);
+		data2.add(0.0, 1.0);
+		data2.add(1.0, 0.0);
+		CountingPointRenderer pointRenderer1 = new CountingPointRenderer();
+		CountingPointRenderer pointRenderer2 = new CountingPointRenderer();
+		XYPlot plot = new XYPlot(data1, data2);
+		plot.setPointRenderers(data1, pointRenderer1);
+		plot.setPointRenderers(data2, pointRenderer2);
+		plot.setLineRenderers(data2, new DefaultLineRenderer2D());
+		plot.setBounds(0.0, 0.0, 200.0, 150.0);
+
+		BufferedImage expected = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+		plot.draw(new DrawingContext((Graphics2D) expected.getGraphics()));
+
+		plot.setLayered(true);
+		BufferedImage layered = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(2, pointRenderer1.count);
+		assertEquals(2, pointRenderer2.count);
+		// Composited layers differ only by rounding
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				int rgb1 = expected.getRGB(x, y);
+				int rgb2 = layered.getRGB(x, y);
+				for (int shift = 0; shift < 32; shift += 8) {
+					assertEquals((rgb1 >>> shift) & 0xff, (rgb2 >>> shift) & 0xff, 2.0);
+				}
+			}
+		}
+
+		// Unchanged layers are reused
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(2, pointRenderer1.count);
+		assertEquals(2, pointRenderer2.count);
+		data2.add(0.5, 0.5);
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(2, pointRenderer1.count);
+		assertEquals(3, pointRenderer2.count);
+		plot.invalidateLayers();
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(3, pointRenderer1.count);
+		assertEquals(4, pointRenderer2.count);
+
+		// Changed renderer settings invalidate the layer of the data source
+		pointRenderer1.setColor(Color.RED);
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(4, pointRenderer1.count);
+		assertEquals(4, pointRenderer2.count);
+		assertTrue(containsColor(layered, Color.RED));
+		plot.getLineRenderers(data2).get(0).setStroke(new BasicStroke(3f));
+		plot.draw(new DrawingContext((Graphics2D) layered.getGraphics()));
+		assertEquals(4, pointRenderer1.count);
+		assertEquals(5, pointRenderer2.count);
+	}
+
+	private static boolean containsColor(BufferedImage image, Color color) {
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				if (image.getRGB(x, y) == color.getRGB()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static class CountingAxisRenderer extends LinearRenderer2D {
+		/** Version id for serialization. */
+		private static final long serialVersionUID = 2493364725398016217L;
+
+		private int count;
+
+		@Override
+		public List<Tick> getTicks(Axis axis) {
+			count++;
+			return super.getTicks(axis);
+		}
+	}
+
+	@Test
+	public void testAxisLayers() {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(0.0, 0.0);
+		data.add(1.0, 1.0);
+		XYPlot plot = new XYPlot(data);
+		CountingAxisRenderer axisRenderer = new CountingAxisRenderer();
+		plot.setAxisRenderer(XYPlot.AXIS_X, axisRenderer);
+		plot.setBounds(0.0, 0.0, 200.0, 150.0);
+		plot.setLayered(true);
+
+		BufferedImage image = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		int count = axisRenderer.count;
+		assertTrue(count > 0);
+
+		// Grid and axes are reused
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertEquals(count, axisRenderer.count);
+
+		// Changed axis ranges invalidate the layers
+		plot.getAxis(XYPlot.AXIS_X).setRange(-1.0, 2.0);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+		count = axisRenderer.count;
+
+		// Changed grid settings invalidate the layers
+		((XYPlotArea2D) plot.getPlotArea()).setMinorGridX(true);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+		count = axisRenderer.count;
+
+		// Changed axis renderer settings invalidate the layers
+		axisRenderer.setTickColor(Color.RED);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+		count = axisRenderer.count;
+
+		// Changed legend settings invalidate the overlay
+		plot.setLegendVisible(true);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		count = axisRenderer.count;
+		plot.getLegend().setBackground(Color.YELLOW);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+		count = axisRenderer.count;
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertEquals(count, axisRenderer.count);
+
+		// Changed data or names of visible data sources invalidate the legend
+		data.add(2.0, 0.5);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+		count = axisRenderer.count;
+		data.setName("renamed");
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		assertTrue(axisRenderer.count > count);
+	}
+
+	private static BufferedImage drawLineGaps(boolean gapRounded, boolean gapCircular) {
+		DataTable data = new DataTable(Double.class, Double.class);
+		data.add(0.0, 0.0);
+		data.add(1.0, 1.0);
+		data.add(2.0, 0.0);
+		XYPlot plot = new XYPlot(data);
+		PointRenderer pointRenderer = new DefaultPointRenderer2D();
+		pointRenderer.setShape(new Rectangle2D.Double(-8.0, -8.0, 16.0, 16.0));
+		plot.setPointRenderers(data, pointRenderer);
+		LineRenderer lineRenderer = new DefaultLineRenderer2D();
+		lineRenderer.setStroke(new BasicStroke(4f));
+		lineRenderer.setGap(6.0);
+		lineRenderer.setGapRounded(gapRounded);
+		lineRenderer.setGapCircular(gapCircular);
+		plot.setLineRenderers(data, lineRenderer);
+		plot.setBounds(0.0, 0.0, 200.0, 150.0);
+		BufferedImage image = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+		plot.draw(new DrawingContext((Graphics2D) image.getGraphics()));
+		return image;
+	}
+
+	private static boolean equalImages(BufferedImage image1, BufferedImage image2) {
+		for (int y = 0; y < image1.getHeight(); y++) {
+			for (int x = 0; x < image1.getWidth(); x++) {
+				if (image1.getRGB(x, y) != image2.getRGB(x, y)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Test
+	public void testLineGaps() {
+		// By default, gaps follow the point shapes and can be rounded
+		BufferedImage exact = drawLineGaps(false, false);
+		BufferedImage rounded = drawLineGaps(true, false);
+		assertFalse(equalImages(exact, rounded));
+
+		// Circular gaps are only used if they are requested
+		BufferedImage circular = drawLineGaps(false, true);
+		assertFalse(equalImages(exact, circular));
+		assertTrue(equalImages(circular, drawLineGaps(true, true)));
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		MockXYPlot original = plots.get(0);
@@ -27,6 +27,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
@@ -36,6 +37,7 @@ import org.junit.Test;
 import de.erichseifert.gral.TestUtils;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
+import de.erichseifert.gral.util.PointND;
 
 public class LinearRenderer2DTest {
 	private static final double DELTA = 1e-15;
@@ -111,6 +113,37 @@ public class LinearRenderer2DTest {
 		}
 	}
 
+	@Test
+	public void testGetPositions() {
+		double[] values = {-10.0, -5.0, 0.0, 3.0, 5.0, 10.0, Double.NaN};
+		assertPositions(values);
+
+		// Shape with several segments
+		Path2D shape = new Path2D.Double();
+		shape.moveTo(0.0, 0.0);
+		shape.lineTo(3.0, 0.0);
+		shape.lineTo(3.0, 4.0);
+		renderer.setShape(shape);
+		assertPositions(values);
+	}
+
+	private void assertPositions(double[] values) {
+		int n = values.length;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		renderer.getPositions(axis, values, n, x, y);
+		for (int i = 0; i < n; i++) {
+			PointND<Double> pos = renderer.getPosition(axis, values[i], true, false);
+			if (pos == null) {
+				assertEquals(Double.NaN, x[i], DELTA);
+				assertEquals(Double.NaN, y[i], DELTA);
+			} else {
+				assertEquals(pos.get(PointND.X), x[i], 1e-14);
+				assertEquals(pos.get(PointND.Y), y[i], 1e-14);
+			}
+		}
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		AxisRenderer original = renderer;
@@ -37,6 +37,7 @@ import org.junit.Test;
 import de.erichseifert.gral.TestUtils;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
+import de.erichseifert.gral.util.PointND;
 
 public class LogarithmicRenderer2DTest {
 	private static final double DELTA = 1e-14;
@@ -121,6 +122,19 @@ public class LogarithmicRenderer2DTest {
 		assertEquals(36, ticks.size());  // 18 major ticks, 18 minor ticks
 	}
 
+	@Test
+	public void testGetPositions() {
+		Axis axis = new Axis(0.1, 100.0);
+		double[] values = {0.01, 0.1, 1.0, 5.0, 100.0, 1000.0};
+		int n = values.length;
+		double[] y = new double[n];
+		renderer.getPositions(axis, values, n, null, y);
+		for (int i = 0; i < n; i++) {
+			double expected = renderer.getPosition(axis, values[i], true, false).get(PointND.Y);
+			assertEquals(expected, y[i], DELTA);
+		}
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		AxisRenderer original = renderer;
@@ -88,6 +88,7 @@ public class AbstractLineRendererTest {
 		assertTrue(r.getStroke() instanceof BasicStroke);
 		assertEquals(0.0, r.getGap(), DELTA);
 		assertEquals(false, r.isGapRounded());
+		assertEquals(false, r.isGapCircular());
 		assertEquals(Color.BLACK, r.getColor());
 	}
 
@@ -138,6 +139,7 @@ public class AbstractLineRendererTest {
 		assertEquals(original.getStroke(), deserialized.getStroke());
 		assertEquals(original.getGap(), deserialized.getGap(), DELTA);
 		assertEquals(original.isGapRounded(), deserialized.isGapRounded());
+		assertEquals(original.isGapCircular(), deserialized.isGapCircular());
 		assertEquals(original.getColor(), deserialized.getColor());
     }
 }
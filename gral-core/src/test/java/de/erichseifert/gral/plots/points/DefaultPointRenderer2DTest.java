@@ -26,6 +26,7 @@ import static de.erichseifert.gral.TestUtils.assertNotEmpty;
 import static de.erichseifert.gral.TestUtils.assertNotEquals;
 import static de.erichseifert.gral.TestUtils.createTestImage;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
@@ -46,9 +47,11 @@ import de.erichseifert.gral.data.DataTable;
 import de.erichseifert.gral.data.Row;
 import de.erichseifert.gral.graphics.Drawable;
 import de.erichseifert.gral.graphics.DrawingContext;
+import de.erichseifert.gral.plots.ProjectedPoints;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.axes.AxisRenderer;
 import de.erichseifert.gral.plots.axes.LinearRenderer2D;
+import de.erichseifert.gral.plots.colors.RainbowColors;
 import de.erichseifert.gral.graphics.Location;
 
 public class DefaultPointRenderer2DTest {
@@ -241,6 +244,21 @@ public class DefaultPointRenderer2DTest {
 		assertEmpty(image);
 	}
 
+	@Test
+	public void testPoints() {
+		ProjectedPoints points = new ProjectedPoints();
+		assertNotNull(r.getPoints(points));
+
+		// Points that differ from each other are drawn one by one
+		r.setErrorVisible(true);
+		assertNull(r.getPoints(points));
+		r.setErrorVisible(false);
+		r.setColor(new RainbowColors());
+		assertNull(r.getPoints(points));
+		assertNull(new SizeablePointRenderer().getPoints(points));
+		assertNull(new LabelPointRenderer().getPoints(points));
+	}
+
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
 		PointRenderer original = r;